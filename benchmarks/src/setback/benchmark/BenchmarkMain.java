@@ -0,0 +1,50 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class runs the benchmarks with the settings their results are
+ * tracked under: the allocation profiler is always on, so every result
+ * has gc.alloc.rate.norm, the bytes allocated for each operation, and
+ * the results are written as JSON.  Any of JMH's own options can be
+ * given as well, such as a regular expression of benchmarks to run:
+ * <pre>
+ *   java -jar target/benchmarks.jar RuleBenchmark -rff rules.json
+ * </pre>
+ * Each benchmark forks with a fixed heap and collector, and deals from
+ * a fixed seed, so results from different runs can be compared.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class BenchmarkMain {
+
+	/**
+	 * Where the results are written, unless another file is given.
+	 */
+	public static final String DEFAULT_RESULTS = "target/jmh-results.json";
+
+	private BenchmarkMain() {
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		final CommandLineOptions commandLine = new CommandLineOptions(args);
+		final Options options = new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(commandLine.getResult().orElse(DEFAULT_RESULTS))
+				.build();
+		new Runner(options).run();
+	}
+}
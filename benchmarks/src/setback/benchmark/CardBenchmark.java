@@ -0,0 +1,84 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import setback.common.PlayerNumber;
+import setback.game.common.Card;
+import setback.game.common.Hand;
+import setback.game.version.delta.DeltaCardDealerController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for making cards: reading them back from the text the
+ * clients see, and dealing them.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class CardBenchmark {
+
+	/**
+	 * Card.DECK_SIZE, which annotations cannot use, as it is worked out
+	 * from the enums.
+	 */
+	private static final int DECK_SIZE = 52;
+
+	private final String[] names = new String[DECK_SIZE];
+	private final Hand[] hands = new Hand[PlayerNumber.values().length];
+	private DeltaCardDealerController dealer;
+
+	@Setup
+	public void setUp() {
+		if (Card.DECK_SIZE != DECK_SIZE) {
+			throw new IllegalStateException("The deck has " + Card.DECK_SIZE + " cards!");
+		}
+		for (int ordinal = 0; ordinal < names.length; ordinal++) {
+			names[ordinal] = Card.fromOrdinal(ordinal).toString();
+		}
+		for (PlayerNumber player : PlayerNumber.values()) {
+			hands[player.ordinal()] = new Hand(player);
+		}
+		dealer = new DeltaCardDealerController(RecordedGame.SEED);
+	}
+
+	/**
+	 * Reads every card in the deck, so each operation is one card.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(DECK_SIZE)
+	public void fromString(Blackhole blackhole) {
+		for (String name : names) {
+			blackhole.consume(Card.fromString(name));
+		}
+	}
+
+	/**
+	 * Deals four hands.  The dealer goes on from where the last deal left
+	 * it, as it does between rounds.
+	 */
+	@Benchmark
+	public Hand[] dealHands() {
+		dealer.dealHands(hands[0], hands[1], hands[2], hands[3]);
+		return hands;
+	}
+}
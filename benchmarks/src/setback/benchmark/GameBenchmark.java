@@ -0,0 +1,62 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import setback.application.move.MoveReplayer;
+import setback.common.SetbackException;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for playing whole games through the PlayerControllers,
+ * from the seat requests to the last card, by making the moves of a
+ * recorded game on a new game dealt from the same seed.  This is the
+ * work a table does for its moves, without the network.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class GameBenchmark {
+
+	/**
+	 * The most rounds to play.  A game that a team wins sooner stops there.
+	 */
+	@Param({"1", "100"})
+	public int rounds;
+
+	private long seed;
+	private int[] moves;
+
+	@Setup
+	public void setUp() throws SetbackException {
+		final RecordedGame recorded = RecordedGame.play(RecordedGame.SEED, rounds);
+		seed = recorded.getSeed();
+		moves = recorded.getMoves();
+	}
+
+	@Benchmark
+	public SetbackMultiplayerGame playGame() throws SetbackException {
+		final SetbackMultiplayerGame game = RecordedGame.newGame(seed);
+		new MoveReplayer(game).replay(moves, moves.length);
+		return game;
+	}
+}
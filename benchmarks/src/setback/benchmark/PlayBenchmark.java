@@ -0,0 +1,146 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import setback.application.command.Command;
+import setback.application.move.MoveReplayer;
+import setback.application.move.Moves;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Card;
+import setback.game.common.CardPlayerDescriptor;
+import setback.game.common.CardSuit;
+import setback.game.common.Hand;
+import setback.game.common.TrickResult;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for playing cards on a game, which checks each card
+ * against the hand and the suit led before it takes it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class PlayBenchmark {
+
+	/**
+	 * The trick of the first round to play.  The first trick must be led
+	 * with trump, which playCard checks differently.
+	 */
+	@Param({"0", "4"})
+	public int trick;
+
+	private RecordedGame recorded;
+	private CardPlayerDescriptor[] cards;
+	private SetbackMultiplayerGame game;
+
+	@Setup(Level.Trial)
+	public void record() throws SetbackException {
+		recorded = RecordedGame.play(RecordedGame.SEED, 1);
+		cards = recorded.getTrickCards(0, trick);
+	}
+
+	/**
+	 * Sets a new game up just before the trick, as playing it uses up
+	 * the cards.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() throws SetbackException {
+		game = recorded.replay(RecordedGame.trickStart(0, trick));
+	}
+
+	/**
+	 * Plays the four cards of the trick, and finds who won it.
+	 */
+	@Benchmark
+	public TrickResult playTrick() throws SetbackException {
+		for (CardPlayerDescriptor card : cards) {
+			game.playCard(card.getCard(), card.getPlayer());
+		}
+		return game.playTrick(cards[0], cards[1], cards[2], cards[3]);
+	}
+
+	/**
+	 * Plays a card that does not follow suit, which is refused without
+	 * changing the game, so the same game is used throughout.
+	 */
+	@Benchmark
+	public SetbackException validateCardRefused(Refusal refusal) {
+		try {
+			refusal.game.playCard(refusal.card, refusal.player);
+		}
+		catch (SetbackException e) {
+			return e;
+		}
+		throw new IllegalStateException(refusal.card + " was played!");
+	}
+
+	/**
+	 * This class is a game where the player to move holds trump after
+	 * trump was led, along with a card that is not trump.
+	 */
+	@State(Scope.Thread)
+	public static class Refusal {
+
+		SetbackMultiplayerGame game;
+		PlayerNumber player;
+		Card card;
+
+		@Setup(Level.Trial)
+		public void setUp() throws SetbackException {
+			final RecordedGame recorded = RecordedGame.play(RecordedGame.SEED, 1);
+			final int[] moves = recorded.getMoves();
+			game = RecordedGame.newGame(recorded.getSeed());
+			final MoveReplayer replayer = new MoveReplayer(game);
+			for (int index = 0; index < moves.length; index++) {
+				if (Moves.getCommand(moves[index]) == Command.PLAY_CARD && findRefusal()) {
+					return;
+				}
+				replayer.replay(moves[index]);
+			}
+			throw new IllegalStateException("Nobody could refuse to follow trump!");
+		}
+
+		private boolean findRefusal() {
+			final List<CardPlayerDescriptor> played = game.getTrickCards();
+			final CardSuit trump = game.getTrump();
+			if (played.isEmpty() || played.get(0).getCard().getSuit() != trump) {
+				return false;
+			}
+			player = game.getCurrentPlayer();
+			final Hand hand = game.getPlayerHand(player);
+			if (hand.getNumberOfSuit(trump) == 0) {
+				return false;
+			}
+			for (Card held : hand.getCards()) {
+				if (held.getSuit() != trump) {
+					card = held;
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import setback.application.command.CommandFrame;
+import setback.application.command.CommandParser;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading the commands clients send over the text
+ * protocol, both into a CommandMessageJson and straight into a frame.
+ * Each operation is one command, from a mix shaped like a round: four
+ * bets, trump, a discard and the cards of a trick.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class ProtocolBenchmark {
+
+	private static final int COMMANDS = 10;
+
+	private final CommandParser parser = new CommandParser();
+	private final CommandFrame frame = new CommandFrame();
+	private final String[] commands = new String[COMMANDS];
+
+	@Setup
+	public void setUp() {
+		commands[0] = "PLACE_BET " + Bet.PASS.name();
+		commands[1] = "PLACE_BET " + Bet.TWO.name();
+		commands[2] = "PLACE_BET " + Bet.THREE.name();
+		commands[3] = "PLACE_BET " + Bet.TAKE.name();
+		commands[4] = "SELECT_TRUMP " + CardSuit.HEARTS.name();
+		commands[5] = "DISCARD_CARDS " + Card.fromOrdinal(0) + " " + Card.fromOrdinal(14) + " " + Card.fromOrdinal(51);
+		commands[6] = "PLAY_CARD " + Card.fromOrdinal(26);
+		commands[7] = "PLAY_CARD " + Card.fromOrdinal(30);
+		commands[8] = "PLAY_CARD " + Card.fromOrdinal(38);
+		commands[9] = "GET_TEAM_ONE_SCORE";
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COMMANDS)
+	public void parseString(Blackhole blackhole) throws SetbackException {
+		for (String command : commands) {
+			blackhole.consume(parser.parseString(command));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COMMANDS)
+	public void parseFrame(Blackhole blackhole) throws SetbackException {
+		for (String command : commands) {
+			blackhole.consume(parser.parseFrame(command, frame).getArgumentOne());
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
+import setback.application.command.TextCommandReply;
+import setback.application.move.MoveListener;
+import setback.application.move.MoveLog;
+import setback.application.move.MoveReplayer;
+import setback.application.move.Moves;
+import setback.application.record.GameRecord;
+import setback.application.server.PlayerController;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.SetbackGameFactory;
+import setback.game.common.Bet;
+import setback.game.common.BetResult;
+import setback.game.common.Card;
+import setback.game.common.CardPlayerDescriptor;
+import setback.game.common.CardSuit;
+import setback.game.common.RoundResultStatus;
+import setback.game.common.Trick;
+import setback.game.version.SetbackMultiplayerGame;
+import setback.game.version.gamma.GammaBetController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is a game played by four bots that each make the first
+ * legal move they find, so that every benchmark works on the same
+ * moves, cards and bets for a seed, run after run.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+final class RecordedGame implements MoveListener {
+
+	/**
+	 * The seed every benchmark deals from, unless it is given another.
+	 */
+	static final long SEED = 1234;
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final Bet[] BETS = Bet.values();
+	private static final int MAX_MOVES = GameRecord.SEATS + 200 * GameRecord.ROUND_MOVES;
+
+	private final long seed;
+	private final MoveLog moves = new MoveLog();
+	private boolean ended;
+
+	private RecordedGame(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Plays a game.
+	 * @param seed The seed to deal from.
+	 * @param rounds The most rounds to play.
+	 * @return The game, which ends early if a team wins.
+	 * @throws SetbackException If the bots get stuck.
+	 */
+	static RecordedGame play(long seed, int rounds) throws SetbackException {
+		final RecordedGame recorded = new RecordedGame(seed);
+		final SetbackMultiplayerGame game = newGame(seed);
+		final PlayerController[] controllers = new PlayerController[PLAYERS.length];
+		final CommandFrame frame = new CommandFrame();
+		final TextCommandReply reply = new TextCommandReply();
+		for (PlayerNumber player : PLAYERS) {
+			controllers[player.ordinal()] = new PlayerController(game);
+			controllers[player.ordinal()].setMoveListener(recorded);
+			controllers[player.ordinal()].processFrame(frame.set(
+					Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + player.ordinal()], 0, 0, 0), reply);
+		}
+		final int count = Math.min(MAX_MOVES, GameRecord.SEATS + rounds * GameRecord.ROUND_MOVES);
+		while (!recorded.ended && recorded.moves.size() < count) {
+			final int before = recorded.moves.size();
+			for (PlayerController controller : controllers) {
+				if (tryMove(game, controller, frame, reply, recorded)) {
+					break;
+				}
+			}
+			if (recorded.moves.size() == before) {
+				throw new SetbackException("Nobody could move after " + before + " moves!");
+			}
+		}
+		return recorded;
+	}
+
+	/**
+	 * @param seed The seed to deal from.
+	 * @return A new game that nobody has sat down at.
+	 */
+	static SetbackMultiplayerGame newGame(long seed) {
+		return SetbackGameFactory.getInstance().makeSetbackMultiplayerGame(seed);
+	}
+
+	/**
+	 * @param count The number of moves to make.
+	 * @return A new game with the first moves of this one made.
+	 * @throws SetbackException If the game does not accept the moves.
+	 */
+	SetbackMultiplayerGame replay(int count) throws SetbackException {
+		final SetbackMultiplayerGame game = newGame(seed);
+		new MoveReplayer(game).replay(getMoves(), count);
+		return game;
+	}
+
+	long getSeed() {
+		return seed;
+	}
+
+	int[] getMoves() {
+		return moves.toArray();
+	}
+
+	int getRoundCount() {
+		return (moves.size() - GameRecord.SEATS) / GameRecord.ROUND_MOVES;
+	}
+
+	/**
+	 * @param round A round.
+	 * @return The number of moves made before the round began.
+	 */
+	static int roundStart(int round) {
+		return GameRecord.SEATS + round * GameRecord.ROUND_MOVES;
+	}
+
+	/**
+	 * @param round A round.
+	 * @param trick A trick of the round.
+	 * @return The number of moves made before the first card of the trick.
+	 */
+	static int trickStart(int round, int trick) {
+		return roundStart(round) + GameRecord.SEATS + 1 + GameRecord.SEATS + trick * GameRecord.SEATS;
+	}
+
+	/**
+	 * @param round A round.
+	 * @return The suit the winner of the bet made trump.
+	 */
+	CardSuit getTrump(int round) {
+		final int move = moves.get(roundStart(round) + GameRecord.SEATS);
+		return CardSuit.values()[Moves.getArgumentOne(move)];
+	}
+
+	/**
+	 * @param round A round.
+	 * @return The winning bet of the round.
+	 * @throws SetbackException If the bets were not legal.
+	 */
+	BetResult getWinningBet(int round) throws SetbackException {
+		final GammaBetController bets = new GammaBetController();
+		for (int bet = 0; bet < GameRecord.SEATS; bet++) {
+			bets.placeBet(getBettor(round, bet), getBet(round, bet));
+		}
+		return bets.determineWinner();
+	}
+
+	PlayerNumber getBettor(int round, int bet) {
+		return Moves.getPlayer(moves.get(roundStart(round) + bet));
+	}
+
+	Bet getBet(int round, int bet) {
+		return BETS[Moves.getArgumentOne(moves.get(roundStart(round) + bet))];
+	}
+
+	/**
+	 * @param round A round.
+	 * @param trick A trick of the round.
+	 * @return The cards played in the trick, in the order they were played.
+	 */
+	CardPlayerDescriptor[] getTrickCards(int round, int trick) {
+		final CardPlayerDescriptor[] cards = new CardPlayerDescriptor[GameRecord.SEATS];
+		final int start = trickStart(round, trick);
+		for (int card = 0; card < cards.length; card++) {
+			final int move = moves.get(start + card);
+			cards[card] = new CardPlayerDescriptor(Card.fromOrdinal(Moves.getArgumentOne(move)), Moves.getPlayer(move));
+		}
+		return cards;
+	}
+
+	/**
+	 * @param round A round.
+	 * @return Every trick of the round.
+	 */
+	List<Trick> getTricks(int round) {
+		final List<Trick> tricks = new ArrayList<Trick>(GameRecord.TRICKS);
+		for (int trick = 0; trick < GameRecord.TRICKS; trick++) {
+			final CardPlayerDescriptor[] cards = getTrickCards(round, trick);
+			tricks.add(new Trick(cards[0], cards[1], cards[2], cards[3]));
+		}
+		return tricks;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#moveMade(int)
+	 */
+	@Override
+	public void moveMade(int move) {
+		moves.append(move);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#gameEnded(setback.game.common.RoundResultStatus)
+	 */
+	@Override
+	public void gameEnded(RoundResultStatus status) {
+		ended = true;
+	}
+
+	/**
+	 * Helper function that makes the first legal move of a player, if
+	 * the player can move.
+	 */
+	private static boolean tryMove(SetbackMultiplayerGame game, PlayerController controller,
+			CommandFrame frame, TextCommandReply reply, RecordedGame recorded) {
+		final int before = recorded.moves.size();
+		final List<Card> cards = new ArrayList<Card>(game.getPlayerHand(controller.getMyNumber()).getCards());
+		for (Bet bet : BETS) {
+			controller.processFrame(frame.set(Command.PLACE_BET, bet.ordinal(), 0, 0), reply);
+			if (recorded.moves.size() > before) {
+				return true;
+			}
+		}
+		for (CardSuit suit : CardSuit.values()) {
+			controller.processFrame(frame.set(Command.SELECT_TRUMP, suit.ordinal(), 0, 0), reply);
+			if (recorded.moves.size() > before) {
+				return true;
+			}
+		}
+		if (cards.size() >= 3) {
+			controller.processFrame(frame.set(Command.DISCARD_CARDS, cards.get(0).getOrdinal(),
+					cards.get(1).getOrdinal(), cards.get(2).getOrdinal()), reply);
+			if (recorded.moves.size() > before) {
+				return true;
+			}
+		}
+		for (Card card : cards) {
+			controller.processFrame(frame.set(Command.PLAY_CARD, card.getOrdinal(), 0, 0), reply);
+			if (recorded.moves.size() > before) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import setback.application.record.GameRecord;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.BetResult;
+import setback.game.common.CardSuit;
+import setback.game.common.Round;
+import setback.game.common.RoundResult;
+import setback.game.common.Trick;
+import setback.game.common.TrickResult;
+import setback.game.version.gamma.GammaBetController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the rules that score a game, on the bets and tricks of
+ * the first round of a recorded game.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class RuleBenchmark {
+
+	private final PlayerNumber[] bettors = new PlayerNumber[GameRecord.SEATS];
+	private final Bet[] bets = new Bet[GameRecord.SEATS];
+	private final GammaBetController betController = new GammaBetController();
+	private List<Trick> tricks;
+	private List<TrickResult> trickResults;
+	private CardSuit trump;
+	private BetResult winningBet;
+
+	@Setup
+	public void setUp() throws SetbackException {
+		final RecordedGame recorded = RecordedGame.play(RecordedGame.SEED, 1);
+		for (int bet = 0; bet < GameRecord.SEATS; bet++) {
+			bettors[bet] = recorded.getBettor(0, bet);
+			bets[bet] = recorded.getBet(0, bet);
+		}
+		tricks = recorded.getTricks(0);
+		trump = recorded.getTrump(0);
+		winningBet = recorded.getWinningBet(0);
+		trickResults = new ArrayList<TrickResult>(tricks.size());
+		for (Trick trick : tricks) {
+			trickResults.add(trick.determineTrickResults(trump));
+		}
+	}
+
+	/**
+	 * Finds who won each trick of the round, so each operation is one trick.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(GameRecord.TRICKS)
+	public void determineTrickResults(Blackhole blackhole) {
+		for (Trick trick : tricks) {
+			blackhole.consume(trick.determineTrickResults(trump));
+		}
+	}
+
+	/**
+	 * Scores the round from the results of its tricks.
+	 */
+	@Benchmark
+	public RoundResult determineRoundResults() {
+		return new Round(trickResults).determineRoundResults(winningBet);
+	}
+
+	/**
+	 * Places the four bets of the round, checking each, and finds the winner.
+	 */
+	@Benchmark
+	public BetResult placeBets() throws SetbackException {
+		for (int bet = 0; bet < GameRecord.SEATS; bet++) {
+			betController.placeBet(bettors[bet], bets[bet]);
+		}
+		return betController.determineWinner();
+	}
+}
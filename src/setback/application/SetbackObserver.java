@@ -4,6 +4,7 @@
  */
 package setback.application;
 
+import setback.application.event.GameEvent;
 
 /**
  * The bare bones Observer interface for Setback.
@@ -18,7 +19,8 @@ public interface SetbackObserver {
 	/**
 	 * This method is called whenever the observed object
 	 * is changed.
-	 * @param message The message from the Observable.
+	 * @param event The event from the Observable, which is
+	 * shared with every other observer and must not be modified.
 	 */
-	void update(String message);
+	void update(GameEvent event);
 }
@@ -0,0 +1,198 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import setback.application.event.GameEventType;
+import setback.application.event.PlayerEvent;
+import setback.application.move.MoveReplayer;
+import setback.application.move.Moves;
+import setback.application.record.GameRecord;
+import setback.application.record.GameRecordReader;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.BetResult;
+import setback.game.common.Card;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * This class keeps what happened in archived games as two column
+ * tables, one with a row for every round and one with a row for every
+ * trick, for answering questions such as how often a bet of four in
+ * hearts is made:
+ * <pre>
+ *   final Query&lt;RoundColumn&gt; fours = store.rounds().query()
+ *       .where(RoundColumn.BID, 4).where(RoundColumn.TRUMP, CardSuit.HEARTS.ordinal());
+ *   final double made = (double) fours.sum(RoundColumn.MADE) / fours.count();
+ * </pre>
+ * Games are added from their GameRecords, which are replayed to find
+ * out who won each bet and trick and what each team scored.  Rows that
+ * have been added are only seen by queries once the store is flushed.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class AnalyticsStore implements Closeable {
+
+	public static final String ROUNDS = "rounds";
+	public static final String TRICKS = "tricks";
+
+	private static final int ROUND_COLUMNS = RoundColumn.values().length;
+	private static final int TRICK_COLUMNS = TrickColumn.values().length;
+
+	private final ColumnTable<RoundColumn> rounds;
+	private final ColumnTable<TrickColumn> tricks;
+	private final ColumnTable<RoundColumn>.Appender roundAppender;
+	private final ColumnTable<TrickColumn>.Appender trickAppender;
+	private final int[] roundRow = new int[ROUND_COLUMNS];
+	private final int[] trickRow = new int[TRICK_COLUMNS];
+	private int games;
+
+	/**
+	 * Constructor for an AnalyticsStore, which opens the tables already
+	 * in the directory.
+	 * @param directory The directory of the store, which is created if needed.
+	 * @throws IOException If the tables cannot be opened.
+	 */
+	public AnalyticsStore(File directory) throws IOException {
+		rounds = new ColumnTable<RoundColumn>(new File(directory, ROUNDS), RoundColumn.class);
+		tricks = new ColumnTable<TrickColumn>(new File(directory, TRICKS), TrickColumn.class);
+		roundAppender = rounds.appender();
+		trickAppender = tricks.appender();
+		games = Math.max(0, Math.max(rounds.getMax(RoundColumn.GAME), tricks.getMax(TrickColumn.GAME)) + 1);
+	}
+
+	/**
+	 * @return The table with a row for every round.
+	 */
+	public ColumnTable<RoundColumn> rounds() {
+		return rounds;
+	}
+
+	/**
+	 * @return The table with a row for every trick.
+	 */
+	public ColumnTable<TrickColumn> tricks() {
+		return tricks;
+	}
+
+	/**
+	 * @return The number of games added.
+	 */
+	public int getGames() {
+		return games;
+	}
+
+	/**
+	 * Adds the rounds and tricks of a game.
+	 * @param record The game.
+	 * @throws SetbackException If the game does not accept the moves of the record.
+	 * @throws IOException If the rows cannot be written.
+	 */
+	public synchronized void add(GameRecord record) throws SetbackException, IOException {
+		final int[] moves = record.getMoves();
+		final SetbackMultiplayerGame game = record.newGame();
+		final MoveReplayer replayer = new MoveReplayer(game);
+		final PlayerNumber[] winners = new PlayerNumber[GameRecord.TRICKS];
+		final int[] trick = new int[1];
+		game.addObserver(event -> {
+			if (event.getType() == GameEventType.TRICK_WON) {
+				winners[trick[0]++] = ((PlayerEvent) event).getPlayer();
+			}
+		});
+
+		int index = 0;
+		for (; index < GameRecord.SEATS; index++) {
+			replayer.replay(moves[index]);
+		}
+		for (int round = 0; round < record.getRoundCount(); round++) {
+			final int start = index;
+			final PlayerNumber dealer = game.getDealer();
+			final int teamOneBefore = game.getTeamOneScore();
+			final int teamTwoBefore = game.getTeamTwoScore();
+			trick[0] = 0;
+			// The bets and the trump
+			for (int move = 0; move <= GameRecord.SEATS; move++) {
+				replayer.replay(moves[index++]);
+			}
+			final BetResult bet = game.getWinningBet();
+			final int trump = Moves.getArgumentOne(moves[index - 1]);
+			for (int move = GameRecord.SEATS + 1; move < GameRecord.ROUND_MOVES; move++) {
+				replayer.replay(moves[index++]);
+			}
+			final boolean teamOne = bet.getBettor() == PlayerNumber.PLAYER_ONE
+					|| bet.getBettor() == PlayerNumber.PLAYER_THREE;
+			final int teamOnePoints = game.getTeamOneScore() - teamOneBefore;
+			final int teamTwoPoints = game.getTeamTwoScore() - teamTwoBefore;
+			final int bidderPoints = teamOne ? teamOnePoints : teamTwoPoints;
+
+			roundRow[RoundColumn.GAME.ordinal()] = games;
+			roundRow[RoundColumn.ROUND.ordinal()] = round;
+			roundRow[RoundColumn.DEALER.ordinal()] = dealer.ordinal();
+			roundRow[RoundColumn.BIDDER.ordinal()] = bet.getBettor().ordinal();
+			roundRow[RoundColumn.BID.ordinal()] = bet.getBet().getValue();
+			roundRow[RoundColumn.TRUMP.ordinal()] = trump;
+			roundRow[RoundColumn.BIDDER_POINTS.ordinal()] = bidderPoints;
+			roundRow[RoundColumn.OTHER_POINTS.ordinal()] = teamOne ? teamTwoPoints : teamOnePoints;
+			roundRow[RoundColumn.MADE.ordinal()] = bidderPoints >= bet.getBet().getValue() ? 1 : 0;
+			roundAppender.append(roundRow);
+
+			final int firstPlay = start + GameRecord.SEATS + 1 + GameRecord.SEATS;
+			for (int number = 0; number < GameRecord.TRICKS; number++) {
+				final int lead = firstPlay + number * GameRecord.SEATS;
+				final PlayerNumber leader = Moves.getPlayer(moves[lead]);
+				final int won = (winners[number].ordinal() - leader.ordinal() + GameRecord.SEATS) % GameRecord.SEATS;
+				trickRow[TrickColumn.GAME.ordinal()] = games;
+				trickRow[TrickColumn.ROUND.ordinal()] = round;
+				trickRow[TrickColumn.TRICK.ordinal()] = number;
+				trickRow[TrickColumn.LEADER.ordinal()] = leader.ordinal();
+				trickRow[TrickColumn.WINNER.ordinal()] = winners[number].ordinal();
+				trickRow[TrickColumn.TRUMP.ordinal()] = trump;
+				trickRow[TrickColumn.LED_SUIT.ordinal()] =
+						Card.fromOrdinal(Moves.getArgumentOne(moves[lead])).getSuit().ordinal();
+				trickRow[TrickColumn.WINNING_CARD.ordinal()] = Moves.getArgumentOne(moves[lead + won]);
+				trickAppender.append(trickRow);
+			}
+		}
+		games++;
+	}
+
+	/**
+	 * Adds every game left in a stream of records.
+	 * @param reader The stream.
+	 * @return The number of games added.
+	 * @throws SetbackException If a record is not valid, or the game does
+	 * not accept its moves.
+	 * @throws IOException If the stream fails, or the rows cannot be written.
+	 */
+	public int addAll(GameRecordReader reader) throws SetbackException, IOException {
+		int added = 0;
+		GameRecord record;
+		while ((record = reader.read()) != null) {
+			add(record);
+			added++;
+		}
+		return added;
+	}
+
+	/**
+	 * Finishes the partitions being written, so queries see every game added.
+	 * @throws IOException If a partition cannot be finished.
+	 */
+	public synchronized void flush() throws IOException {
+		roundAppender.flush();
+		trickAppender.flush();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+	}
+}
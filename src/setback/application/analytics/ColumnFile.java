@@ -0,0 +1,148 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * This class reads a column that a ColumnWriter wrote, by mapping its
+ * file into memory.  Blocks are only decompressed when a query asks
+ * for them, and reads never move the buffer, so any number of threads
+ * can read the same column at once.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class ColumnFile {
+
+	/**
+	 * The first four bytes of a column: "SBCF".
+	 */
+	static final int MAGIC = 0x53424346;
+	static final int BLOCK_ROWS = 64 * 1024;
+
+	private static final int BLOCK_ENTRY = 3 * Integer.BYTES + Long.BYTES;
+	private static final int TRAILER = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+	private final MappedByteBuffer buffer;
+	private final long rows;
+	private final int blocks;
+	private final int footer;
+
+	/**
+	 * Constructor for a ColumnFile, which maps the whole file.
+	 * @param file The file of the column.
+	 * @throws IOException If the file cannot be mapped, or is not a column.
+	 */
+	ColumnFile(File file) throws IOException {
+		try (RandomAccessFile access = new RandomAccessFile(file, "r");
+				FileChannel channel = access.getChannel()) {
+			// The mapping outlives the channel
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.capacity() < Integer.BYTES + TRAILER || buffer.getInt(0) != MAGIC) {
+			throw new IOException(file + " is not a column!");
+		}
+		final int trailer = buffer.capacity() - TRAILER;
+		rows = buffer.getLong(trailer);
+		blocks = buffer.getInt(trailer + Long.BYTES);
+		footer = (int) buffer.getLong(trailer + Long.BYTES + Integer.BYTES);
+		if (footer + (long) blocks * BLOCK_ENTRY != trailer) {
+			throw new IOException(file + " has a broken footer!");
+		}
+	}
+
+	/**
+	 * @return The number of rows in the column.
+	 */
+	long getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return The number of blocks in the column.
+	 */
+	int getBlocks() {
+		return blocks;
+	}
+
+	/**
+	 * @param block The block.
+	 * @return The smallest value in the block.
+	 */
+	int getMin(int block) {
+		return buffer.getInt(footer + block * BLOCK_ENTRY);
+	}
+
+	/**
+	 * @param block The block.
+	 * @return The largest value in the block.
+	 */
+	int getMax(int block) {
+		return buffer.getInt(footer + block * BLOCK_ENTRY + Integer.BYTES);
+	}
+
+	/**
+	 * @param block The block.
+	 * @return The number of rows in the block.
+	 */
+	int getRows(int block) {
+		return block < blocks - 1 ? BLOCK_ROWS : (int) (rows - (long) block * BLOCK_ROWS);
+	}
+
+	/**
+	 * Decompresses a block.
+	 * @param block The block.
+	 * @param values Where to put its values, which must hold BLOCK_ROWS.
+	 * @return The number of rows in the block.
+	 */
+	int decode(int block, int[] values) {
+		final int entry = footer + block * BLOCK_ENTRY;
+		final int min = buffer.getInt(entry);
+		final int width = buffer.getInt(entry + 2 * Integer.BYTES);
+		final int start = (int) buffer.getLong(entry + 3 * Integer.BYTES);
+		final int count = getRows(block);
+		if (width == 0) {
+			Arrays.fill(values, 0, count, min);
+			return count;
+		}
+		final long mask = width == Integer.SIZE ? 0xFFFFFFFFL : (1L << width) - 1;
+		// Each word is read once, as the values in it are taken from the lowest bits up
+		int position = start;
+		long word = buffer.getLong(position);
+		int used = 0;
+		for (int index = 0; index < count; index++) {
+			long value = word >>> used;
+			used += width;
+			if (used >= Long.SIZE) {
+				used -= Long.SIZE;
+				if (used > 0 || index + 1 < count) {
+					position += Long.BYTES;
+					word = buffer.getLong(position);
+					if (used > 0) {
+						value |= word << (width - used);
+					}
+				}
+			}
+			values[index] = (int) ((value & mask) + min);
+		}
+		return count;
+	}
+
+	/**
+	 * @param min The smallest value.
+	 * @param max The largest value.
+	 * @return How many bits it takes to hold any value between them,
+	 * as an offset from the smallest.
+	 */
+	static int width(int min, int max) {
+		final long range = (long) max - min;
+		return Long.SIZE - Long.numberOfLeadingZeros(range);
+	}
+}
@@ -0,0 +1,238 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This class is a table of int columns kept on disk, one file for each
+ * column, so a query only reads the columns it uses.  The columns are
+ * the constants of an enum.
+ * <p>
+ * Rows are added through an Appender, which writes them into
+ * partitions of at most PARTITION_ROWS rows, each a directory of its
+ * own.  A partition is written under a temporary name and renamed
+ * when it is whole, so a table never sees part of one, and queries
+ * only see the rows of partitions that are finished.
+ * @param <C> The enum of the columns.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ColumnTable<C extends Enum<C>> {
+
+	/**
+	 * The most rows in a partition, which keeps every column file small
+	 * enough to map at once.
+	 */
+	public static final int PARTITION_ROWS = 64 * ColumnFile.BLOCK_ROWS;
+
+	private static final String COLUMN_SUFFIX = ".column";
+	private static final String PARTIAL_SUFFIX = ".partial";
+
+	private final File directory;
+	private final C[] columns;
+	private final List<Partition> partitions = new CopyOnWriteArrayList<Partition>();
+	private int nextPartition;
+
+	/**
+	 * Constructor for a ColumnTable, which maps the partitions already in
+	 * the directory, and throws away any that were not finished.
+	 * @param directory The directory of the table, which is created if needed.
+	 * @param columnType The enum of the columns.
+	 * @throws IOException If the directory cannot be read.
+	 */
+	public ColumnTable(File directory, Class<C> columnType) throws IOException {
+		this.directory = directory;
+		columns = columnType.getEnumConstants();
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+		final File[] found = directory.listFiles();
+		Arrays.sort(found);
+		for (File partition : found) {
+			if (partition.getName().endsWith(PARTIAL_SUFFIX)) {
+				delete(partition);
+			}
+			else if (partition.isDirectory()) {
+				partitions.add(new Partition(partition));
+				nextPartition = Math.max(nextPartition, Integer.parseInt(partition.getName(), 16) + 1);
+			}
+		}
+	}
+
+	/**
+	 * @return A new query over every row of the table.
+	 */
+	public Query<C> query() {
+		return new Query<C>(this);
+	}
+
+	/**
+	 * @return An appender that adds rows to the table.  Only one should
+	 * be used at a time.
+	 */
+	public Appender appender() {
+		return new Appender();
+	}
+
+	/**
+	 * @return The number of rows in the finished partitions.
+	 */
+	public long getRows() {
+		long rows = 0;
+		for (Partition partition : partitions) {
+			rows += partition.rows;
+		}
+		return rows;
+	}
+
+	/**
+	 * @return The number of finished partitions.
+	 */
+	public int getPartitions() {
+		return partitions.size();
+	}
+
+	/**
+	 * @param column The column.
+	 * @return The largest value of the column, or Integer.MIN_VALUE if the
+	 * table is empty.
+	 */
+	public int getMax(C column) {
+		int max = Integer.MIN_VALUE;
+		for (Partition partition : partitions) {
+			final ColumnFile file = partition.files[column.ordinal()];
+			for (int block = 0; block < file.getBlocks(); block++) {
+				max = Math.max(max, file.getMax(block));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Helper function for queries, which see the partitions that were
+	 * finished when they started.
+	 */
+	List<Partition> getPartitionList() {
+		return new ArrayList<Partition>(partitions);
+	}
+
+	private static void delete(File partition) {
+		final File[] files = partition.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		partition.delete();
+	}
+
+	/**
+	 * This class is one finished partition, with every column mapped.
+	 */
+	class Partition {
+		final ColumnFile[] files;
+		final long rows;
+
+		private Partition(File partition) throws IOException {
+			files = new ColumnFile[columns.length];
+			for (C column : columns) {
+				files[column.ordinal()] = new ColumnFile(new File(partition, column.name() + COLUMN_SUFFIX));
+				if (files[column.ordinal()].getRows() != files[0].getRows()) {
+					throw new IOException(partition + " has columns of different lengths!");
+				}
+			}
+			rows = files.length == 0 ? 0 : files[0].getRows();
+		}
+
+		int getBlocks() {
+			return files.length == 0 ? 0 : files[0].getBlocks();
+		}
+	}
+
+	/**
+	 * This class adds rows to the end of the table.
+	 */
+	public class Appender implements Closeable {
+
+		private File partial;
+		private ColumnWriter[] writers;
+		private int rows;
+
+		private Appender() {
+		}
+
+		/**
+		 * Adds a row.
+		 * @param values The value of each column, in the order of the enum.
+		 * @throws IOException If the row cannot be written.
+		 */
+		public void append(int... values) throws IOException {
+			if (values.length != columns.length) {
+				throw new IllegalArgumentException("A row has " + columns.length + " columns, not " + values.length);
+			}
+			if (writers == null) {
+				start();
+			}
+			for (int column = 0; column < values.length; column++) {
+				writers[column].append(values[column]);
+			}
+			if (++rows == PARTITION_ROWS) {
+				finish();
+			}
+		}
+
+		/**
+		 * Finishes the partition being written, so queries see its rows.
+		 * @throws IOException If the partition cannot be finished.
+		 */
+		public void flush() throws IOException {
+			if (writers != null) {
+				finish();
+			}
+		}
+
+		/* (non-Javadoc)
+		 * @see java.io.Closeable#close()
+		 */
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+		private void start() throws IOException {
+			synchronized (ColumnTable.this) {
+				partial = new File(directory, String.format("%08x", nextPartition++) + PARTIAL_SUFFIX);
+			}
+			if (!partial.mkdir()) {
+				throw new IOException("Could not create " + partial);
+			}
+			writers = new ColumnWriter[columns.length];
+			for (C column : columns) {
+				writers[column.ordinal()] = new ColumnWriter(new File(partial, column.name() + COLUMN_SUFFIX));
+			}
+		}
+
+		private void finish() throws IOException {
+			for (ColumnWriter writer : writers) {
+				writer.close();
+			}
+			writers = null;
+			rows = 0;
+			final String name = partial.getName();
+			final File finished = new File(directory, name.substring(0, name.length() - PARTIAL_SUFFIX.length()));
+			if (!partial.renameTo(finished)) {
+				throw new IOException("Could not finish " + partial);
+			}
+			partitions.add(new Partition(finished));
+		}
+	}
+}
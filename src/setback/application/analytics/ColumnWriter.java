@@ -0,0 +1,114 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * This class writes one column of a partition to its own file, in
+ * blocks of ColumnFile.BLOCK_ROWS values.  Each block is compressed on
+ * its own, by subtracting the smallest value in it and packing what is
+ * left into as few bits as the largest needs, so a column that hardly
+ * changes takes hardly any room.  The smallest and largest value of
+ * every block are kept in the footer, for queries to skip blocks by.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class ColumnWriter implements Closeable {
+
+	private final DataOutputStream out;
+	private final ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+	private final DataOutputStream footer = new DataOutputStream(footerBytes);
+	private final int[] values = new int[ColumnFile.BLOCK_ROWS];
+	private int count;
+	private int blocks;
+	private long rows;
+	private long offset;
+
+	/**
+	 * Constructor for a ColumnWriter.
+	 * @param file The file of the column, which is replaced.
+	 * @throws IOException If the file cannot be created.
+	 */
+	ColumnWriter(File file) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+		out.writeInt(ColumnFile.MAGIC);
+		offset = Integer.BYTES;
+	}
+
+	/**
+	 * Adds the value of the next row.
+	 * @param value The value.
+	 * @throws IOException If a full block cannot be written.
+	 */
+	void append(int value) throws IOException {
+		values[count++] = value;
+		if (count == values.length) {
+			writeBlock();
+		}
+	}
+
+	/**
+	 * Helper function that compresses and writes the values collected,
+	 * as words of bits filled from the lowest up.
+	 */
+	private void writeBlock() throws IOException {
+		int min = values[0];
+		int max = values[0];
+		for (int index = 1; index < count; index++) {
+			min = Math.min(min, values[index]);
+			max = Math.max(max, values[index]);
+		}
+		final int width = ColumnFile.width(min, max);
+		footer.writeInt(min);
+		footer.writeInt(max);
+		footer.writeInt(width);
+		footer.writeLong(offset);
+
+		long word = 0;
+		int bits = 0;
+		for (int index = 0; index < count && width > 0; index++) {
+			final long value = (values[index] - (long) min) & 0xFFFFFFFFL;
+			word |= value << bits;
+			bits += width;
+			if (bits >= Long.SIZE) {
+				out.writeLong(word);
+				offset += Long.BYTES;
+				bits -= Long.SIZE;
+				// What did not fit in the word starts the next one
+				word = bits == 0 ? 0 : value >>> (width - bits);
+			}
+		}
+		if (bits > 0) {
+			out.writeLong(word);
+			offset += Long.BYTES;
+		}
+		rows += count;
+		blocks++;
+		count = 0;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (count > 0) {
+			writeBlock();
+		}
+		// The footer is found from the end of the file
+		footerBytes.writeTo(out);
+		out.writeLong(rows);
+		out.writeInt(blocks);
+		out.writeLong(offset);
+		out.close();
+	}
+}
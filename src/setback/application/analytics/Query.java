@@ -0,0 +1,252 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * This class counts and adds up the rows of a ColumnTable that pass
+ * its filters.  Every filter keeps the rows whose value in a column is
+ * within a range, and a row must pass them all.
+ * <p>
+ * A query scans the blocks of every partition in parallel.  Before a
+ * block is read, the smallest and largest values kept for it are
+ * checked against each filter: a block that no row of can pass is
+ * skipped, and a filter that every row of a block passes is not
+ * checked for that block, so only the columns that still matter are
+ * decompressed.
+ * @param <C> The enum of the columns.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class Query<C extends Enum<C>> {
+
+	/**
+	 * The most groups countBy will count.
+	 */
+	public static final int MAX_GROUPS = 1 << 16;
+
+	private static final ThreadLocal<int[][]> SCRATCH = new ThreadLocal<int[][]>();
+
+	private final ColumnTable<C> table;
+	private final List<Filter> filters = new ArrayList<Filter>();
+
+	/**
+	 * Constructor for a Query, made by ColumnTable.query.
+	 */
+	Query(ColumnTable<C> table) {
+		this.table = table;
+	}
+
+	/**
+	 * Keeps only the rows whose value is within a range.
+	 * @param column The column.
+	 * @param min The smallest value to keep.
+	 * @param max The largest value to keep.
+	 * @return This query.
+	 */
+	public Query<C> where(C column, int min, int max) {
+		filters.add(new Filter(column.ordinal(), min, max));
+		return this;
+	}
+
+	/**
+	 * Keeps only the rows with a value.
+	 * @param column The column.
+	 * @param value The value to keep.
+	 * @return This query.
+	 */
+	public Query<C> where(C column, int value) {
+		return where(column, value, value);
+	}
+
+	/**
+	 * @return The number of rows that pass the filters.
+	 */
+	public long count() {
+		return scan(table.getPartitionList(), -1, -1, 0, 0).count;
+	}
+
+	/**
+	 * @param column The column.
+	 * @return The sum of the column over the rows that pass the filters.
+	 */
+	public long sum(C column) {
+		return scan(table.getPartitionList(), column.ordinal(), -1, 0, 0).sum;
+	}
+
+	/**
+	 * Counts the rows that pass the filters for each value of a column.
+	 * @param column The column, which should have no more than MAX_GROUPS values.
+	 * @return The number of rows for each value, leaving out values with none.
+	 */
+	public Map<Integer, Long> countBy(C column) {
+		final List<ColumnTable<C>.Partition> partitions = table.getPartitionList();
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (ColumnTable<C>.Partition partition : partitions) {
+			final ColumnFile file = partition.files[column.ordinal()];
+			for (int block = 0; block < file.getBlocks(); block++) {
+				min = Math.min(min, file.getMin(block));
+				max = Math.max(max, file.getMax(block));
+			}
+		}
+		final Map<Integer, Long> groups = new TreeMap<Integer, Long>();
+		if (min > max) {
+			return groups;
+		}
+		if ((long) max - min >= MAX_GROUPS) {
+			throw new IllegalArgumentException(column + " has too many values to count by!");
+		}
+		final long[] counts = scan(partitions, -1, column.ordinal(), min, max - min + 1).groups;
+		for (int group = 0; group < counts.length; group++) {
+			if (counts[group] != 0) {
+				groups.put(min + group, counts[group]);
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Helper function that scans every block in parallel, and merges
+	 * what was found in each.
+	 */
+	private Totals scan(List<ColumnTable<C>.Partition> partitions,
+			int sumColumn, int groupColumn, int groupMin, int groups) {
+		int blocks = 0;
+		for (ColumnTable<C>.Partition partition : partitions) {
+			blocks += partition.getBlocks();
+		}
+		final int[] partitionOf = new int[blocks];
+		final int[] blockOf = new int[blocks];
+		int index = 0;
+		for (int partition = 0; partition < partitions.size(); partition++) {
+			for (int block = 0; block < partitions.get(partition).getBlocks(); block++, index++) {
+				partitionOf[index] = partition;
+				blockOf[index] = block;
+			}
+		}
+		return IntStream.range(0, blocks).parallel()
+				.mapToObj(task -> scanBlock(partitions.get(partitionOf[task]), blockOf[task],
+						sumColumn, groupColumn, groupMin, groups))
+				.reduce(Totals::add)
+				.orElse(new Totals(groups));
+	}
+
+	/**
+	 * Helper function that scans one block of one partition.
+	 */
+	private Totals scanBlock(ColumnTable<C>.Partition partition, int block,
+			int sumColumn, int groupColumn, int groupMin, int groups) {
+		final Totals totals = new Totals(groups);
+		final ColumnFile[] files = partition.files;
+		final List<Filter> checked = new ArrayList<Filter>(filters.size());
+		for (Filter filter : filters) {
+			final int min = files[filter.column].getMin(block);
+			final int max = files[filter.column].getMax(block);
+			if (max < filter.min || min > filter.max) {
+				return totals;
+			}
+			if (min < filter.min || max > filter.max) {
+				checked.add(filter);
+			}
+		}
+
+		final int rows = files[0].getRows(block);
+		if (checked.isEmpty() && groupColumn < 0
+				&& (sumColumn < 0 || files[sumColumn].getMin(block) == files[sumColumn].getMax(block))) {
+			// Every row passes, and nothing needs to be read to total them
+			totals.count = rows;
+			totals.sum = sumColumn < 0 ? 0 : (long) rows * files[sumColumn].getMin(block);
+			return totals;
+		}
+
+		int[][] scratch = SCRATCH.get();
+		if (scratch == null || scratch.length < files.length) {
+			scratch = new int[files.length][];
+			SCRATCH.set(scratch);
+		}
+		final boolean[] decoded = new boolean[files.length];
+		final boolean[] passes = new boolean[rows];
+		Arrays.fill(passes, true);
+		for (Filter filter : checked) {
+			final int[] values = decode(files, block, filter.column, scratch, decoded);
+			for (int row = 0; row < rows; row++) {
+				passes[row] &= values[row] >= filter.min && values[row] <= filter.max;
+			}
+		}
+		final int[] sums = sumColumn < 0 ? null : decode(files, block, sumColumn, scratch, decoded);
+		final int[] keys = groupColumn < 0 ? null : decode(files, block, groupColumn, scratch, decoded);
+		for (int row = 0; row < rows; row++) {
+			if (passes[row]) {
+				totals.count++;
+				if (sums != null) {
+					totals.sum += sums[row];
+				}
+				if (keys != null) {
+					totals.groups[keys[row] - groupMin]++;
+				}
+			}
+		}
+		return totals;
+	}
+
+	private static int[] decode(ColumnFile[] files, int block, int column, int[][] scratch, boolean[] decoded) {
+		if (scratch[column] == null) {
+			scratch[column] = new int[ColumnFile.BLOCK_ROWS];
+		}
+		if (!decoded[column]) {
+			files[column].decode(block, scratch[column]);
+			decoded[column] = true;
+		}
+		return scratch[column];
+	}
+
+	/**
+	 * A range of values to keep in a column.
+	 */
+	private static class Filter {
+		final int column;
+		final int min;
+		final int max;
+
+		Filter(int column, int min, int max) {
+			this.column = column;
+			this.min = min;
+			this.max = max;
+		}
+	}
+
+	/**
+	 * What a scan found, in one block or in all of them.
+	 */
+	private static class Totals {
+		long count;
+		long sum;
+		final long[] groups;
+
+		Totals(int groups) {
+			this.groups = new long[groups];
+		}
+
+		/**
+		 * Adds what another scan found to this one, which each block's
+		 * scan can do to its own Totals.
+		 */
+		Totals add(Totals other) {
+			count += other.count;
+			sum += other.sum;
+			for (int group = 0; group < groups.length; group++) {
+				groups[group] += other.groups[group];
+			}
+			return this;
+		}
+	}
+}
@@ -0,0 +1,31 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+/**
+ * This enumeration defines the columns kept for each round played.
+ * Players are PlayerNumber ordinals and suits are CardSuit ordinals.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public enum RoundColumn {
+
+	/** The game, numbered in the order games were added. */
+	GAME,
+	/** The round within the game, from zero. */
+	ROUND,
+	DEALER,
+	/** The player who won the bet. */
+	BIDDER,
+	/** The value of the winning bet. */
+	BID,
+	TRUMP,
+	/** The points the bidder's team scored, which are negative if they were set back. */
+	BIDDER_POINTS,
+	/** The points the other team scored. */
+	OTHER_POINTS,
+	/** 1 if the bidder's team made the bet, and 0 if not. */
+	MADE
+}
@@ -0,0 +1,30 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+/**
+ * This enumeration defines the columns kept for each trick played.
+ * Players are PlayerNumber ordinals, suits are CardSuit ordinals, and
+ * cards are Card ordinals.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public enum TrickColumn {
+
+	/** The game, numbered in the order games were added. */
+	GAME,
+	/** The round within the game, from zero. */
+	ROUND,
+	/** The trick within the round, from zero. */
+	TRICK,
+	/** The player who led the trick. */
+	LEADER,
+	WINNER,
+	TRUMP,
+	/** The suit of the card that was led. */
+	LED_SUIT,
+	/** The card the trick was won with. */
+	WINNING_CARD
+}
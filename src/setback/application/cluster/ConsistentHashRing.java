@@ -0,0 +1,200 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class assigns tables to cluster nodes by consistent hashing.
+ * Each node is placed on the ring many times, so tables are spread
+ * evenly, and adding or removing a node only moves the tables
+ * that now belong to a different node.
+ * <p>
+ * Lookups never lock.  The ring is rebuilt whenever the members
+ * change, which is rare compared to lookups.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ConsistentHashRing {
+
+	public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+	private final int virtualNodes;
+	private volatile Ring ring = new Ring(new long[0], new String[0]);
+
+	/**
+	 * Constructor that uses the default number of virtual nodes.
+	 */
+	public ConsistentHashRing() {
+		this(DEFAULT_VIRTUAL_NODES);
+	}
+
+	/**
+	 * Constructor for the ConsistentHashRing.
+	 * @param virtualNodes The number of times each node is placed on the ring.
+	 */
+	public ConsistentHashRing(int virtualNodes) {
+		if (virtualNodes < 1) {
+			throw new IllegalArgumentException("Each node needs at least one point on the ring!");
+		}
+		this.virtualNodes = virtualNodes;
+	}
+
+	/**
+	 * Replaces the members of the ring.
+	 * @param nodes The ids of every node in the cluster.
+	 */
+	public synchronized void setNodes(Collection<String> nodes) {
+		final Set<String> unique = new HashSet<String>(nodes);
+		final long[] hashes = new long[unique.size() * virtualNodes];
+		final String[] owners = new String[hashes.length];
+		final Point[] points = new Point[hashes.length];
+		int index = 0;
+		for (String node : unique) {
+			for (int replica = 0; replica < virtualNodes; replica++) {
+				points[index++] = new Point(hash(node + "#" + replica), node);
+			}
+		}
+		Arrays.sort(points);
+		for (index = 0; index < points.length; index++) {
+			hashes[index] = points[index].hash;
+			owners[index] = points[index].node;
+		}
+		ring = new Ring(hashes, owners);
+	}
+
+	/**
+	 * Adds a node to the ring.
+	 * @param node The id of the node.
+	 */
+	public synchronized void addNode(String node) {
+		final Set<String> nodes = getNodes();
+		if (nodes.add(node)) {
+			setNodes(nodes);
+		}
+	}
+
+	/**
+	 * Removes a node from the ring.
+	 * @param node The id of the node.
+	 */
+	public synchronized void removeNode(String node) {
+		final Set<String> nodes = getNodes();
+		if (nodes.remove(node)) {
+			setNodes(nodes);
+		}
+	}
+
+	/**
+	 * @return The ids of the nodes on the ring.
+	 */
+	public Set<String> getNodes() {
+		return new HashSet<String>(Arrays.asList(ring.owners));
+	}
+
+	/**
+	 * Finds the node that owns a table.
+	 * @param tableId The id of the table.
+	 * @return The id of the node, or null if the ring is empty.
+	 */
+	public String nodeFor(String tableId) {
+		final Ring current = ring;
+		final int index = indexFor(current, tableId);
+		return index < 0 ? null : current.owners[index];
+	}
+
+	/**
+	 * Finds the node that should keep a copy of a table.  It is the
+	 * next node around the ring after the owner, so it is also the node
+	 * that will own the table if the owner leaves.
+	 * @param tableId The id of the table.
+	 * @return The id of the node, or null if there is only one node.
+	 */
+	public String backupFor(String tableId) {
+		final Ring current = ring;
+		final int start = indexFor(current, tableId);
+		if (start < 0) {
+			return null;
+		}
+		final String owner = current.owners[start];
+		for (int step = 1; step < current.owners.length; step++) {
+			final String next = current.owners[(start + step) % current.owners.length];
+			if (!next.equals(owner)) {
+				return next;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Helper function that finds the point on the ring that owns a key.
+	 * @param current The ring.
+	 * @param key The key.
+	 * @return The index of the point, or -1 if the ring is empty.
+	 */
+	private static int indexFor(Ring current, String key) {
+		if (current.hashes.length == 0) {
+			return -1;
+		}
+		int index = Arrays.binarySearch(current.hashes, hash(key));
+		if (index < 0) {
+			index = -index - 1;
+		}
+		return index == current.hashes.length ? 0 : index;
+	}
+
+	/**
+	 * Hashes a key onto the ring using 64 bit FNV-1a, followed by
+	 * a final mix so that similar keys land far apart.
+	 * @param key The key to hash.
+	 * @return The position on the ring.
+	 */
+	static long hash(String key) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte next : key.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= next & 0xFF;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * This class is an immutable copy of the ring.
+	 */
+	private static class Ring {
+		private final long[] hashes;
+		private final String[] owners;
+
+		Ring(long[] hashes, String[] owners) {
+			this.hashes = hashes;
+			this.owners = owners;
+		}
+	}
+
+	/**
+	 * This class is one place a node occupies on the ring.
+	 */
+	private static class Point implements Comparable<Point> {
+		private final long hash;
+		private final String node;
+
+		Point(long hash, String node) {
+			this.hash = hash;
+			this.node = node;
+		}
+
+		public int compareTo(Point other) {
+			final int result = Long.compare(hash, other.hash);
+			return result != 0 ? result : node.compareTo(other.node);
+		}
+	}
+}
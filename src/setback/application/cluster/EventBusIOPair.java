@@ -0,0 +1,126 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageConsumer;
+import setback.application.socket.IOPair;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An implementation of the IOPair interface for a client that is
+ * connected to another node of the cluster.  The bytes from the client
+ * arrive as event bus messages, and the bytes to the client are sent
+ * back the same way, so a SetbackServerThread cannot tell the difference.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class EventBusIOPair implements IOPair {
+
+	/**
+	 * The header that marks the end of a session, in either direction.
+	 */
+	public static final String CLOSE_HEADER = "close";
+
+	private static final DeliveryOptions CLOSE = new DeliveryOptions().addHeader(CLOSE_HEADER, "true");
+
+	private final EventBus eventBus;
+	private final String outAddress;
+	private final MessageConsumer<Buffer> consumer;
+	private final QueueInputStream in = new QueueInputStream();
+	private final OutputStream out;
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * Constructor for the EventBusIOPair.
+	 * @param eventBus The clustered event bus.
+	 * @param session The id of the session.
+	 */
+	public EventBusIOPair(EventBus eventBus, String session) {
+		this.eventBus = eventBus;
+		outAddress = outAddress(session);
+		consumer = eventBus.consumer(inAddress(session), message -> {
+			if (message.headers().contains(CLOSE_HEADER)) {
+				in.end();
+			}
+			else {
+				in.offer(message.body().getBytes());
+			}
+		});
+		out = new OutputStream() {
+			@Override
+			public void write(int next) {
+				write(new byte[]{(byte) next}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] buffer, int offset, int length) {
+				if (length > 0 && !closed.get()) {
+					eventBus.send(outAddress, Buffer.buffer(Arrays.copyOfRange(buffer, offset, offset + length)));
+				}
+			}
+		};
+	}
+
+	/**
+	 * Waits until the rest of the cluster knows where to send the
+	 * bytes from the client.
+	 * @param handler Called once the session can be used.
+	 */
+	public void whenReady(Handler<AsyncResult<Void>> handler) {
+		consumer.completionHandler(handler);
+	}
+
+	/**
+	 * @param session The id of the session.
+	 * @return The address that the bytes from the client are sent to.
+	 */
+	public static String inAddress(String session) {
+		return "setback.session." + session + ".in";
+	}
+
+	/**
+	 * @param session The id of the session.
+	 * @return The address that the bytes to the client are sent to.
+	 */
+	public static String outAddress(String session) {
+		return "setback.session." + session + ".out";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.socket.IOPair#out()
+	 */
+	public OutputStream out() {
+		return out;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.socket.IOPair#in()
+	 */
+	public InputStream in() {
+		return in;
+	}
+
+	/**
+	 * Ends the session, and tells the node the client is connected to.
+	 */
+	public void close() {
+		if (closed.compareAndSet(false, true)) {
+			consumer.unregister();
+			in.end();
+			eventBus.send(outAddress, Buffer.buffer(), CLOSE);
+		}
+	}
+}
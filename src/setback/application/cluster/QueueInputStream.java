@@ -0,0 +1,91 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This class is an InputStream that is fed chunks of bytes
+ * by another thread, such as the handler of event bus messages.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class QueueInputStream extends InputStream {
+
+	private static final byte[] END = new byte[0];
+
+	private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<byte[]>();
+	private byte[] current;
+	private int position;
+	private boolean ended;
+
+	/**
+	 * Adds bytes to the end of the stream.
+	 * @param chunk The bytes, which must not be changed afterwards.
+	 */
+	void offer(byte[] chunk) {
+		if (chunk.length > 0) {
+			chunks.add(chunk);
+		}
+	}
+
+	/**
+	 * Ends the stream once the bytes already offered have been read.
+	 */
+	void end() {
+		chunks.add(END);
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return -1;
+		}
+		return current[position++] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		if (!fill()) {
+			return -1;
+		}
+		final int count = Math.min(length, current.length - position);
+		System.arraycopy(current, position, buffer, offset, count);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public int available() {
+		return current == null ? 0 : current.length - position;
+	}
+
+	/**
+	 * Helper function that waits for more bytes if the current chunk is used up.
+	 * @return False if the stream has ended.
+	 * @throws IOException If the thread is interrupted while waiting.
+	 */
+	private boolean fill() throws IOException {
+		while (!ended && (current == null || position == current.length)) {
+			try {
+				current = chunks.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while reading!", e);
+			}
+			position = 0;
+			if (current == END) {
+				ended = true;
+			}
+		}
+		return !ended;
+	}
+}
@@ -0,0 +1,26 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+/**
+ * This enumeration defines how closely the backup of a table
+ * follows the node that owns it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public enum ReplicationMode {
+
+	/**
+	 * Moves are sent in the background, and a move only waits
+	 * when the backup has fallen too far behind.
+	 */
+	ASYNC,
+
+	/**
+	 * As ASYNC, but the last card of every trick also waits until
+	 * the backup has every move, so a failure never loses a trick.
+	 */
+	SYNC_PER_TRICK
+}
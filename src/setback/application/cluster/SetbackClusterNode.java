@@ -0,0 +1,796 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.MemberAttributeEvent;
+import com.hazelcast.core.MembershipEvent;
+import com.hazelcast.core.MembershipListener;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetSocket;
+import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
+import setback.application.journal.GameJournal;
+import setback.application.journal.TableJournal;
+import setback.application.matchmaking.MatchRequest;
+import setback.application.matchmaking.Matchmaker;
+import setback.application.move.MoveListener;
+import setback.application.server.SetbackTable;
+import setback.application.server.TableRecovery;
+import setback.application.server.TableRegistry;
+import setback.application.server.TableStore;
+import setback.application.server.TurnClock;
+import setback.application.timer.HashedWheelTimer;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is one server in a cluster of Setback servers.
+ * Every table is owned by exactly one node, chosen by consistent hashing
+ * over the members of the cluster, so adding nodes adds room for tables.
+ * <p>
+ * A client may connect to any node.  If the first line it sends is
+ * "TABLE id" it joins that table, otherwise it joins the default table.
+ * A client that sends nothing at first, as the SetbackClient does while
+ * it waits for its greeting, joins the default table once it has been
+ * quiet for FIRST_LINE_MILLIS.
+ * The node it connected to then relays its bytes over the clustered event
+ * bus to the node that owns the table, where an ordinary
+ * SetbackServerThread talks to it through an EventBusIOPair.
+ * <p>
+ * A client that sends "MATCH [skill [region]]" instead waits in this
+ * node's Matchmaker until three others are found, and is then seated at
+ * a new table, which is told to it as the reply to its seat.
+ * <p>
+ * The moves of every table are copied to the next node around the ring,
+ * which is also the node that takes over the table if its owner leaves.
+ * The first time a client asks that node for the table, it is rebuilt
+ * from the copy, and the players can take their seats back.
+ * <p>
+ * When a node joins, the tables that now belong to it are left where
+ * they are until a client asks it for one.  It then asks the node that
+ * owned the table before it to hand the table over.  That node closes
+ * its table and disconnects the clients, who connect again and are sent
+ * to the table's new owner, where it is rebuilt from its moves.  A table
+ * is only ever played on one node at a time.
+ * <p>
+ * If hibernation is started, tables that have gone quiet are put to
+ * sleep on this node's disk, and woken by the next client that asks for
+ * them.  Their copies on the backup are left as they are.
+ * <p>
+ * If the journal is started, every move made at the tables on this node
+ * is also appended to a GameJournal on its disk, and when the node is
+ * started again the tables that were in play are recovered from it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SetbackClusterNode {
+
+	public static final String DEFAULT_TABLE = "default";
+	public static final String TABLE_PREFIX = "TABLE ";
+	public static final String MATCH = "MATCH";
+	public static final String MATCH_TABLE_PREFIX = "match-";
+
+	/**
+	 * How many ids are tried when looking for a matched table
+	 * that this node owns, before settling for another node.
+	 */
+	private static final int MATCH_ID_ATTEMPTS = 64;
+
+	/**
+	 * The longest first line a client may send.  Nothing is relayed
+	 * until it has arrived, so everything before it is kept in memory.
+	 */
+	private static final int MAX_FIRST_LINE = 256;
+
+	/**
+	 * How long a client may stay quiet before it is taken to want the
+	 * default table, and greeted there.
+	 */
+	private static final long FIRST_LINE_MILLIS = 500;
+
+	/**
+	 * How long to wait for the node that owned a table before this one.
+	 */
+	private static final long HANDOFF_MILLIS = 5000;
+
+	private static final DeliveryOptions HANDOFF = new DeliveryOptions().setSendTimeout(HANDOFF_MILLIS);
+
+	private static final DeliveryOptions CLOSE =
+			new DeliveryOptions().addHeader(EventBusIOPair.CLOSE_HEADER, "true");
+
+	private final Vertx vertx;
+	private final HazelcastClusterManager clusterManager;
+	private final ConsistentHashRing ring = new ConsistentHashRing();
+	private final TableRegistry tables = new TableRegistry();
+	private final StandbyStore standbys = new StandbyStore();
+	private volatile ReplicationMode replicationMode = ReplicationMode.ASYNC;
+	private volatile long turnMillis = TurnClock.DEFAULT_TURN_MILLIS;
+	private final AtomicLong sessions = new AtomicLong();
+	private final AtomicLong matches = new AtomicLong();
+	private final Matchmaker<WaitingClient> matchmaker = new Matchmaker<WaitingClient>(this::seatMatched);
+	private NetServer netServer;
+	private volatile GameJournal journal;
+
+	// Guarded by adopting
+	private final Map<String, List<Handler<AsyncResult<SetbackTable>>>> adopting =
+			new HashMap<String, List<Handler<AsyncResult<SetbackTable>>>>();
+
+	/**
+	 * Constructor for a node that has already joined the cluster.
+	 * @param vertx The clustered Vertx.
+	 * @param clusterManager The cluster manager it was created with.
+	 */
+	SetbackClusterNode(Vertx vertx, HazelcastClusterManager clusterManager) {
+		this.vertx = vertx;
+		this.clusterManager = clusterManager;
+	}
+
+	/**
+	 * Starts a node and joins it to the cluster.
+	 * @param config The Hazelcast configuration, which decides how the nodes find each other.
+	 * @param clusterHost The host the event bus of this node listens on.
+	 * @param handler Called with the node once it has joined.
+	 */
+	public static void start(Config config, String clusterHost,
+			Handler<AsyncResult<SetbackClusterNode>> handler) {
+		final HazelcastClusterManager clusterManager = new HazelcastClusterManager(config);
+		final VertxOptions options = new VertxOptions()
+				.setClustered(true)
+				.setClusterHost(clusterHost)
+				.setClusterManager(clusterManager);
+		Vertx.clusteredVertx(options, result -> {
+			if (result.failed()) {
+				handler.handle(Future.failedFuture(result.cause()));
+				return;
+			}
+			final SetbackClusterNode node = new SetbackClusterNode(result.result(), clusterManager);
+			node.join(handler);
+		});
+	}
+
+	/**
+	 * Helper function that starts following the members of the cluster
+	 * and listens for sessions that are opened on this node.
+	 * @param handler Called with this node once it is ready.
+	 */
+	private void join(Handler<AsyncResult<SetbackClusterNode>> handler) {
+		clusterManager.getHazelcastInstance().getCluster().addMembershipListener(new MembershipListener() {
+			public void memberAdded(MembershipEvent event) {
+				refreshMembers();
+			}
+
+			public void memberRemoved(MembershipEvent event) {
+				refreshMembers();
+			}
+
+			public void memberAttributeChanged(MemberAttributeEvent event) {
+			}
+		});
+		refreshMembers();
+		final MessageConsumer<JsonObject> handoffs =
+				vertx.eventBus().consumer(handoffAddress(getNodeId()), this::handOff);
+		handoffs.completionHandler(listening -> {
+			if (listening.failed()) {
+				handler.handle(Future.failedFuture(listening.cause()));
+				return;
+			}
+			final MessageConsumer<JsonObject> consumer =
+					vertx.eventBus().consumer(openAddress(getNodeId()), this::openSession);
+			consumer.completionHandler(opened -> {
+				if (opened.failed()) {
+					handler.handle(Future.failedFuture(opened.cause()));
+					return;
+				}
+				standbys.register(vertx.eventBus(), getNodeId(), registered -> {
+					if (registered.succeeded()) {
+						handler.handle(Future.succeededFuture(this));
+					}
+					else {
+						handler.handle(Future.failedFuture(registered.cause()));
+					}
+				});
+			});
+		});
+	}
+
+	/**
+	 * Helper function that rebuilds the ring from the members of the cluster.
+	 */
+	private void refreshMembers() {
+		ring.setNodes(clusterManager.getNodes());
+	}
+
+	/**
+	 * @param nodeId The id of a node.
+	 * @return The address that sessions on that node are opened through.
+	 */
+	public static String openAddress(String nodeId) {
+		return "setback.node." + nodeId + ".open";
+	}
+
+	/**
+	 * @param nodeId The id of a node.
+	 * @return The address that tables are handed over from that node through.
+	 */
+	public static String handoffAddress(String nodeId) {
+		return "setback.node." + nodeId + ".handoff";
+	}
+
+	/**
+	 * Starts accepting clients.
+	 * @param host The host to listen on.
+	 * @param port The port to listen on, or 0 for any free port.
+	 * @param handler Called with the server once it is listening.
+	 */
+	public void listen(String host, int port, Handler<AsyncResult<NetServer>> handler) {
+		netServer = vertx.createNetServer(new NetServerOptions().setHost(host).setPort(port))
+				.connectHandler(this::connect);
+		netServer.listen(handler);
+	}
+
+	/**
+	 * Helper function that handles a new client.  The first line decides
+	 * which table it wants, so nothing is relayed until it has arrived,
+	 * or until the client has been quiet for FIRST_LINE_MILLIS.
+	 * @param socket The client.
+	 */
+	private void connect(NetSocket socket) {
+		final Buffer pending = Buffer.buffer();
+		final long quiet = vertx.setTimer(FIRST_LINE_MILLIS, fired -> {
+			if (pending.length() == 0) {
+				// Clients that wait to be greeted never send a first line
+				socket.pause();
+				socket.handler(null);
+				relay(socket, DEFAULT_TABLE, pending);
+			}
+		});
+		socket.closeHandler(closed -> vertx.cancelTimer(quiet));
+		socket.handler(data -> {
+			vertx.cancelTimer(quiet);
+			final int searchFrom = pending.length();
+			pending.appendBuffer(data);
+			for (int index = searchFrom; index < pending.length(); index++) {
+				if (pending.getByte(index) == '\n') {
+					socket.pause();
+					final String firstLine = pending.getString(0, index).trim();
+					if (firstLine.equals(MATCH) || firstLine.startsWith(MATCH + " ")) {
+						matchmake(socket, firstLine, pending.getBuffer(index + 1, pending.length()));
+					}
+					else if (firstLine.startsWith(TABLE_PREFIX)) {
+						relay(socket, firstLine.substring(TABLE_PREFIX.length()).trim(),
+								pending.getBuffer(index + 1, pending.length()));
+					}
+					else {
+						relay(socket, DEFAULT_TABLE, pending);
+					}
+					return;
+				}
+			}
+			if (pending.length() > MAX_FIRST_LINE) {
+				socket.handler(null);
+				socket.write("First line too long!\n");
+				socket.close();
+			}
+		});
+	}
+
+	/**
+	 * Helper function that puts a client in the matchmaking queue.  The
+	 * first line may give a skill rating and a region after "MATCH".
+	 * Nothing is relayed until the client has a table.
+	 * @param socket The client.
+	 * @param firstLine The first line the client sent.
+	 * @param remaining The bytes the client sent after the first line.
+	 */
+	private void matchmake(NetSocket socket, String firstLine, Buffer remaining) {
+		final String[] words = firstLine.split(" +");
+		int skill = Matchmaker.DEFAULT_SKILL;
+		try {
+			if (words.length > 1) {
+				skill = Integer.parseInt(words[1]);
+			}
+		} catch (NumberFormatException e) {
+			socket.write("Invalid skill!\n");
+			socket.close();
+			return;
+		}
+		final String region = words.length > 2 ? words[2] : Matchmaker.ANY_REGION;
+		final MatchRequest<WaitingClient> request =
+				matchmaker.enqueue(new WaitingClient(socket, remaining), skill, region);
+		socket.closeHandler(closed -> request.cancel());
+	}
+
+	/**
+	 * Helper function that seats four matched clients at a new table.
+	 * The id is chosen so that this node owns the table, if it can be.
+	 * @param players The clients, in seat order.
+	 */
+	private void seatMatched(List<MatchRequest<WaitingClient>> players) {
+		String tableId = null;
+		for (int attempt = 0; attempt < MATCH_ID_ATTEMPTS; attempt++) {
+			tableId = MATCH_TABLE_PREFIX + getNodeId() + "-" + matches.incrementAndGet();
+			if (getNodeId().equals(ring.nodeFor(tableId))) {
+				break;
+			}
+		}
+		final String matchedId = tableId;
+		for (int seat = 0; seat < players.size(); seat++) {
+			final WaitingClient client = players.get(seat).getPlayer();
+			final PlayerNumber player = PlayerNumber.values()[seat];
+			client.context.runOnContext(unused -> relay(client.socket, matchedId, client.remaining, player));
+		}
+	}
+
+	/**
+	 * Helper function that connects a client to the node that owns its table.
+	 * @param socket The client.
+	 * @param tableId The table the client wants.
+	 * @param remaining The bytes the client sent after choosing the table.
+	 */
+	private void relay(NetSocket socket, String tableId, Buffer remaining) {
+		relay(socket, tableId, remaining, null);
+	}
+
+	/**
+	 * Helper function that connects a client to the node that owns its table.
+	 * @param socket The client.
+	 * @param tableId The table the client wants.
+	 * @param remaining The bytes the client sent after choosing the table.
+	 * @param seat The seat the client was given by the matchmaker, or null.
+	 */
+	private void relay(NetSocket socket, String tableId, Buffer remaining, PlayerNumber seat) {
+		final EventBus eventBus = vertx.eventBus();
+		final String owner = ring.nodeFor(tableId);
+		final String session = getNodeId() + "." + sessions.incrementAndGet();
+		final String inAddress = EventBusIOPair.inAddress(session);
+		final MessageConsumer<Buffer> toClient = eventBus.consumer(EventBusIOPair.outAddress(session));
+		toClient.handler(message -> {
+			if (message.headers().contains(EventBusIOPair.CLOSE_HEADER)) {
+				toClient.unregister();
+				socket.close();
+			}
+			else {
+				socket.write(message.body());
+			}
+		});
+		toClient.completionHandler(registered -> {
+			final JsonObject open = new JsonObject().put("table", tableId).put("session", session);
+			if (seat != null) {
+				open.put("seat", seat.ordinal());
+			}
+			eventBus.send(openAddress(owner), open, (AsyncResult<Message<Object>> opened) -> {
+				if (opened.failed()) {
+					toClient.unregister();
+					socket.write("No server for table " + tableId + "\n");
+					socket.close();
+					return;
+				}
+				if (remaining.length() > 0) {
+					eventBus.send(inAddress, remaining);
+				}
+				socket.handler(data -> eventBus.send(inAddress, data));
+				socket.closeHandler(closed -> eventBus.send(inAddress, Buffer.buffer(), CLOSE));
+				socket.resume();
+			});
+		});
+	}
+
+	/**
+	 * Helper function that opens a session on a table owned by this node.
+	 * @param message The request, with the table and session ids.
+	 */
+	private void openSession(Message<JsonObject> message) {
+		final String tableId = message.body().getString("table");
+		final SetbackTable table = tables.get(tableId);
+		if (table != null) {
+			openSession(message, table);
+			return;
+		}
+		adopt(tableId, adopted -> {
+			if (adopted.succeeded()) {
+				openSession(message, adopted.result());
+			}
+			else {
+				message.fail(0, adopted.cause().getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Helper function that opens a session on a table hosted here.
+	 * @param message The request, with the table and session ids.
+	 * @param opened The table.
+	 */
+	private void openSession(Message<JsonObject> message, SetbackTable opened) {
+		final Integer seat = message.body().getInteger("seat");
+		final EventBusIOPair pair = new EventBusIOPair(vertx.eventBus(), message.body().getString("session"));
+		pair.whenReady(ready -> {
+			if (ready.succeeded() && opened.isClosed()) {
+				// The table was handed over while the session was opening
+				pair.close();
+				message.fail(0, "The table has moved!");
+			}
+			else if (ready.succeeded()) {
+				if (seat == null) {
+					opened.connect(pair);
+				}
+				else {
+					opened.connect(pair, PlayerNumber.values()[seat]);
+				}
+				message.reply(opened.getId());
+			}
+			else {
+				message.fail(0, ready.cause().getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Helper function that finds a table this node owns, but does not
+	 * have in memory.  The node that would own the table if this one were
+	 * not in the ring is asked for it first, in case this node has just
+	 * joined and taken the table over.  Clients that ask for the table
+	 * while the answer is on its way are given the same table.
+	 * @param tableId The id of the table.
+	 * @param handler Called with the table, once it is hosted here.
+	 */
+	private void adopt(String tableId, Handler<AsyncResult<SetbackTable>> handler) {
+		synchronized (adopting) {
+			final List<Handler<AsyncResult<SetbackTable>>> waiting = adopting.get(tableId);
+			if (waiting != null) {
+				waiting.add(handler);
+				return;
+			}
+			final List<Handler<AsyncResult<SetbackTable>>> first = new ArrayList<Handler<AsyncResult<SetbackTable>>>();
+			first.add(handler);
+			adopting.put(tableId, first);
+		}
+		// The next node around the ring from this one
+		final String previous = ring.backupFor(tableId);
+		if (previous == null) {
+			adopted(tableId, null);
+			return;
+		}
+		vertx.eventBus().send(handoffAddress(previous), new JsonObject().put("table", tableId), HANDOFF,
+				(AsyncResult<Message<JsonObject>> reply) ->
+						adopted(tableId, reply.succeeded() ? reply.result().body() : null));
+	}
+
+	/**
+	 * Helper function that hosts a table once the node that owned it
+	 * before has answered, and hands it to everyone waiting for it.
+	 * @param tableId The id of the table.
+	 * @param handoff The table's seed and moves, or null if the
+	 * other node did not have the table.
+	 */
+	private void adopted(String tableId, JsonObject handoff) {
+		AsyncResult<SetbackTable> result;
+		try {
+			SetbackTable table = tables.get(tableId);
+			if (table == null) {
+				table = tables.add(createTable(tableId, handoff));
+			}
+			result = Future.succeededFuture(table);
+		} catch (SetbackException e) {
+			result = Future.failedFuture(e);
+		}
+		final List<Handler<AsyncResult<SetbackTable>>> waiting;
+		synchronized (adopting) {
+			waiting = adopting.remove(tableId);
+		}
+		for (Handler<AsyncResult<SetbackTable>> handler : waiting) {
+			handler.handle(result);
+		}
+	}
+
+	/**
+	 * Helper function that hands a table over to the node that now owns
+	 * it.  The table is closed here before its moves are sent, so that no
+	 * move made here can be missing from them.
+	 * @param message The request, with the table id.
+	 */
+	private void handOff(Message<JsonObject> message) {
+		final String tableId = message.body().getString("table");
+		SetbackTable table = tables.remove(tableId);
+		if (table == null) {
+			try {
+				table = tables.wake(tableId);
+			} catch (SetbackException e) {
+				e.printStackTrace();
+			}
+		}
+		if (table == null) {
+			message.reply(new JsonObject());
+			return;
+		}
+		final JsonArray moves = new JsonArray();
+		final JsonArray tokens = new JsonArray();
+		synchronized (table.getGame()) {
+			unhost(table);
+			table.close();
+			table.closeJournal();
+			for (int move : table.getMoves().toArray()) {
+				moves.add(move);
+			}
+			for (long token : table.getSessionTokens()) {
+				tokens.add(token);
+			}
+		}
+		message.reply(new JsonObject().put("seed", table.getSeed()).put("moves", moves)
+				.put("tokens", tokens));
+	}
+
+	/**
+	 * Helper function that creates a table on this node.  If the node
+	 * that owned it before handed it over, it is rebuilt from the moves
+	 * it sent.  Otherwise, if the table is asleep on this node it is woken,
+	 * and if this node has a copy of the table, because its owner has left,
+	 * the table is rebuilt from the copy.  Either way its moves are then
+	 * copied to the next node, and journaled again, since the journal may
+	 * no longer have the moves of a table that was closed in it.  A rebuilt table is given back the session
+	 * tokens of its seats, so only the players who had them can resume them.
+	 * @param tableId The id of the table.
+	 * @param handoff The table's seed, moves and tokens from the node that owned
+	 * it before, or null if there were none.
+	 * @return The table.
+	 * @throws SetbackException If the moves could not be made again.
+	 */
+	private SetbackTable createTable(String tableId, JsonObject handoff) throws SetbackException {
+		if (handoff != null && handoff.containsKey("seed")) {
+			final JsonArray handed = handoff.getJsonArray("moves");
+			final int[] moves = new int[handed.size()];
+			for (int index = 0; index < moves.length; index++) {
+				moves[index] = handed.getInteger(index);
+			}
+			// Any copy kept here is older than what was handed over
+			standbys.remove(tableId);
+			final SetbackTable table = SetbackTable.restore(tableId, handoff.getLong("seed"), moves, moves.length);
+			table.restoreSessions(tokensOf(handoff.getJsonArray("tokens")));
+			host(table, true);
+			return table;
+		}
+		SetbackTable table = tables.wake(tableId);
+		if (table == null) {
+			final StandbyStore.Standby standby = standbys.remove(tableId);
+			if (standby == null) {
+				table = new SetbackTable(tableId, ThreadLocalRandom.current().nextLong());
+			}
+			else {
+				final int[] moves = standby.getMoves().toArray();
+				table = SetbackTable.restore(tableId, standby.getSeed(), moves, moves.length);
+				table.restoreSessions(standby.getTokens());
+			}
+		}
+		host(table, true);
+		return table;
+	}
+
+	/**
+	 * Helper function that reads the session tokens sent with a table.
+	 * @param sent The tokens, or null if none were sent.
+	 * @return The token of every seat, with 0 for the seats that have none.
+	 */
+	static long[] tokensOf(JsonArray sent) {
+		final long[] tokens = new long[PlayerNumber.values().length];
+		for (int index = 0; sent != null && index < sent.size() && index < tokens.length; index++) {
+			tokens[index] = sent.getLong(index);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Helper function that starts copying a table's moves to the next
+	 * node, journaling them, and timing its players' turns.
+	 * @param table The table.
+	 * @param backfill True if the moves the table already has may not be
+	 * in this node's journal, because they were made on another node or
+	 * the table was closed in the journal when it was put to sleep.
+	 */
+	private void host(SetbackTable table, boolean backfill) {
+		final TableReplicator replicator = new TableReplicator(vertx, ring, table,
+				replicationMode, TableReplicator.DEFAULT_MAX_LAG);
+		table.setMoveListener(replicator);
+		replicator.start();
+		final GameJournal gameJournal = journal;
+		if (gameJournal != null) {
+			final int[] moves = table.getMoves().toArray();
+			final TableJournal tableJournal = gameJournal.open(table.getId(), table.getSeed(),
+					backfill ? 0 : moves.length);
+			if (backfill) {
+				for (int move : moves) {
+					tableJournal.moveMade(move);
+				}
+				final long[] tokens = table.getSessionTokens();
+				for (PlayerNumber seat : PlayerNumber.values()) {
+					if (tokens[seat.ordinal()] != 0) {
+						tableJournal.sessionOpened(seat, tokens[seat.ordinal()]);
+					}
+				}
+			}
+			table.setJournal(tableJournal);
+		}
+		table.getTurnClock().start(HashedWheelTimer.getSharedTimer(), turnMillis);
+	}
+
+	/**
+	 * Helper function that stops timing a table's turns and copying its
+	 * moves, because the table is leaving this node or the node is closing.
+	 * @param table The table.
+	 */
+	private static void unhost(SetbackTable table) {
+		table.getTurnClock().stop();
+		final MoveListener listener = table.getMoveListener();
+		if (listener instanceof TableReplicator) {
+			((TableReplicator) listener).stop();
+		}
+	}
+
+	/**
+	 * @param replicationMode How closely the backups of tables created
+	 * from now on follow this node.
+	 */
+	public void setReplicationMode(ReplicationMode replicationMode) {
+		this.replicationMode = replicationMode;
+	}
+
+	/**
+	 * @param turnMillis How long players at tables created from now on
+	 * have to act before a move is made for them.
+	 */
+	public void setTurnMillis(long turnMillis) {
+		this.turnMillis = turnMillis;
+	}
+
+	/**
+	 * Starts putting the tables on this node to sleep once they are quiet.
+	 * @param directory The directory to keep the sleeping tables in.
+	 * @param maxResident The most tables to keep in memory.
+	 * @param quietMillis How long a table must be quiet before it is put to sleep.
+	 * @throws IOException If the directory cannot be created.
+	 */
+	public void startHibernating(File directory, int maxResident, long quietMillis) throws IOException {
+		tables.startHibernating(new TableStore(directory), maxResident, quietMillis,
+				HashedWheelTimer.getSharedTimer());
+	}
+
+	/**
+	 * Recovers the tables that were in play when this node last stopped,
+	 * from the snapshots and moves in its journal, and then starts
+	 * journaling every move made at the tables on this node.
+	 * @param directory The directory to keep the journal in.
+	 * @return The number of tables that were recovered.
+	 * @throws IOException If the journal cannot be read or created.
+	 */
+	public int startJournal(File directory) throws IOException {
+		final TableRecovery recovery = TableRecovery.recover(directory);
+		journal = new GameJournal(directory);
+		int recovered = 0;
+		for (SetbackTable table : recovery.getTables()) {
+			if (tables.add(table) == table) {
+				host(table, false);
+				recovered++;
+			}
+		}
+		return recovered;
+	}
+
+	/**
+	 * @return The journal, or null if the node is not journaling.
+	 */
+	public GameJournal getJournal() {
+		return journal;
+	}
+
+	/**
+	 * @return The copies of tables that this node is the backup for.
+	 */
+	public StandbyStore getStandbys() {
+		return standbys;
+	}
+
+	/**
+	 * @return The queue of clients waiting to be matched on this node.
+	 */
+	public Matchmaker<?> getMatchmaker() {
+		return matchmaker;
+	}
+
+	/**
+	 * @param tableId The id of a table.
+	 * @return The id of the node that owns the table.
+	 */
+	public String ownerOf(String tableId) {
+		return ring.nodeFor(tableId);
+	}
+
+	/**
+	 * @return The id of this node.
+	 */
+	public String getNodeId() {
+		return clusterManager.getNodeID();
+	}
+
+	/**
+	 * @return The tables owned by this node.
+	 */
+	public TableRegistry getTables() {
+		return tables;
+	}
+
+	/**
+	 * @return The ring that assigns tables to nodes.
+	 */
+	public ConsistentHashRing getRing() {
+		return ring;
+	}
+
+	/**
+	 * @return the vertx.
+	 */
+	public Vertx getVertx() {
+		return vertx;
+	}
+
+	/**
+	 * Leaves the cluster.
+	 * @param handler Called once the node has left.
+	 */
+	public void close(Handler<AsyncResult<Void>> handler) {
+		matchmaker.stop();
+		tables.stopHibernating();
+		// Nothing may be moved once the journal and event bus are closed
+		for (SetbackTable table : tables.getTables()) {
+			unhost(table);
+		}
+		final GameJournal gameJournal = journal;
+		if (gameJournal != null) {
+			try {
+				gameJournal.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		vertx.close(handler);
+	}
+
+	/**
+	 * This class is a client waiting in the matchmaking queue, along with
+	 * what it has sent so far and the context its socket belongs to.
+	 */
+	private static class WaitingClient {
+		private final NetSocket socket;
+		private final Buffer remaining;
+		private final Context context;
+
+		WaitingClient(NetSocket socket, Buffer remaining) {
+			this.socket = socket;
+			this.remaining = remaining;
+			context = Vertx.currentContext();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import setback.application.move.MoveLog;
+import setback.common.PlayerNumber;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class keeps the copies of the tables that this node is the
+ * backup for.  A copy is only the seed, the moves and the session
+ * tokens of the seats, so it costs
+ * almost nothing until the owner fails and the table is rebuilt here.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class StandbyStore {
+
+	private final Map<String, Standby> standbys = new ConcurrentHashMap<String, Standby>();
+
+	/**
+	 * @param nodeId The id of a node.
+	 * @return The address that moves for that node's copies are sent to.
+	 */
+	public static String address(String nodeId) {
+		return "setback.standby." + nodeId;
+	}
+
+	/**
+	 * Starts receiving moves.
+	 * @param eventBus The clustered event bus.
+	 * @param nodeId The id of this node.
+	 * @param handler Called once the rest of the cluster can send moves here.
+	 */
+	public void register(EventBus eventBus, String nodeId, Handler<AsyncResult<Void>> handler) {
+		eventBus.consumer(address(nodeId), this::receive).completionHandler(handler);
+	}
+
+	/**
+	 * Helper function that adds a batch of moves to a copy.  A batch may
+	 * overlap moves that are already here if an acknowledgement was lost.
+	 * @param message The batch.
+	 */
+	private void receive(Message<JsonObject> message) {
+		final JsonObject body = message.body();
+		final String tableId = body.getString("table");
+		final long seed = body.getLong("seed");
+		final int from = body.getInteger("from");
+		final JsonArray moves = body.getJsonArray("moves");
+		final long[] tokens = SetbackClusterNode.tokensOf(body.getJsonArray("tokens"));
+
+		Standby standby = standbys.get(tableId);
+		if (standby == null || (from == 0 && standby.seed != seed)) {
+			standby = new Standby(seed);
+			standbys.put(tableId, standby);
+		}
+		synchronized (standby) {
+			final MoveLog log = standby.moves;
+			for (int index = log.size() - from; index >= 0 && index < moves.size(); index++) {
+				log.append(moves.getInteger(index));
+			}
+			standby.tokens = tokens;
+			message.reply(new JsonObject().put("acknowledged", log.size()));
+		}
+	}
+
+	/**
+	 * @param tableId The id of a table.
+	 * @return The copy of the table, or null if there is none here.
+	 */
+	public Standby get(String tableId) {
+		return standbys.get(tableId);
+	}
+
+	/**
+	 * Stops keeping a copy, usually because the table is being rebuilt here.
+	 * @param tableId The id of a table.
+	 * @return The copy of the table, or null if there was none here.
+	 */
+	public Standby remove(String tableId) {
+		return standbys.remove(tableId);
+	}
+
+	/**
+	 * This class is the copy of a single table.
+	 */
+	public static class Standby {
+		private final long seed;
+		private final MoveLog moves = new MoveLog();
+		// Guarded by this
+		private long[] tokens;
+
+		Standby(long seed) {
+			this.seed = seed;
+			tokens = new long[PlayerNumber.values().length];
+		}
+
+		/**
+		 * @return the seed.
+		 */
+		public long getSeed() {
+			return seed;
+		}
+
+		/**
+		 * @return the moves.
+		 */
+		public MoveLog getMoves() {
+			return moves;
+		}
+
+		/**
+		 * @return the session token of every seat, with 0 for the seats that have none.
+		 */
+		public synchronized long[] getTokens() {
+			return tokens.clone();
+		}
+	}
+}
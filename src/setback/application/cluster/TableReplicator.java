@@ -0,0 +1,247 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import setback.application.command.Command;
+import setback.application.move.MoveListener;
+import setback.application.move.MoveLog;
+import setback.application.move.Moves;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+
+/**
+ * This class copies the moves of a table to its backup node.
+ * Making a move only adds it to the log; the moves are sent
+ * in batches, one batch at a time, from whichever thread
+ * received the last acknowledgement.  The player's thread only
+ * waits when the backup is more than the allowed lag behind, or
+ * at the end of a trick when replicating synchronously, and then
+ * only once it has let go of the lock on the game, in awaitSettled.
+ * <p>
+ * Every batch carries the session tokens of the seats too, and a batch
+ * is sent whenever a seat is given a new token, even with no new moves.
+ * If the backup node changes, every move is sent to the new one.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableReplicator implements MoveListener {
+
+	public static final int DEFAULT_MAX_LAG = 32;
+
+	private static final long WAIT_MILLIS = 5000;
+	private static final long RETRY_MILLIS = 100;
+	private static final int CARDS_PER_TRICK = 4;
+
+	private final Vertx vertx;
+	private final ConsistentHashRing ring;
+	private final SetbackTable table;
+	private final ReplicationMode mode;
+	private final int maxLag;
+
+	// Guarded by this
+	private int acknowledged;
+	private boolean sending;
+	private String backup;
+	private int cardsPlayed;
+	private int required;
+	private boolean stopped;
+	private boolean tokensSent;
+
+	/**
+	 * Constructor for the TableReplicator.
+	 * @param vertx The clustered Vertx.
+	 * @param ring The ring that decides which node is the backup.
+	 * @param table The table to replicate.
+	 * @param mode How closely the backup follows.
+	 * @param maxLag The most moves the backup may be behind.
+	 */
+	public TableReplicator(Vertx vertx, ConsistentHashRing ring, SetbackTable table,
+			ReplicationMode mode, int maxLag) {
+		this.vertx = vertx;
+		this.ring = ring;
+		this.table = table;
+		this.mode = mode;
+		this.maxLag = maxLag;
+		// A restored table can be in the middle of a trick
+		for (int move : table.getMoves().toArray()) {
+			if (Moves.getCommand(move) == Command.PLAY_CARD) {
+				cardsPlayed++;
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#moveMade(int)
+	 */
+	public void moveMade(int move) {
+		final int made = table.getMoves().size();
+		synchronized (this) {
+			final boolean trickEnded = Moves.getCommand(move) == Command.PLAY_CARD
+					&& ++cardsPlayed % CARDS_PER_TRICK == 0;
+			if (made - acknowledged > maxLag
+					|| (trickEnded && mode == ReplicationMode.SYNC_PER_TRICK)) {
+				required = Math.max(required, made);
+			}
+		}
+		start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#sessionOpened(setback.common.PlayerNumber, long)
+	 */
+	public void sessionOpened(PlayerNumber seat, long token) {
+		synchronized (this) {
+			tokensSent = false;
+		}
+		start();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#awaitSettled()
+	 */
+	public void awaitSettled() {
+		final int count;
+		synchronized (this) {
+			count = required;
+		}
+		awaitAcknowledged(count);
+	}
+
+	/**
+	 * Sends any moves the backup does not have yet.
+	 */
+	public void start() {
+		synchronized (this) {
+			if (sending || stopped) {
+				return;
+			}
+			sending = true;
+		}
+		sendNext();
+	}
+
+	/**
+	 * Stops copying the table, because it has moved to another node or
+	 * this node is leaving, and lets go of anyone waiting for the backup.
+	 */
+	public synchronized void stop() {
+		stopped = true;
+		notifyAll();
+	}
+
+	/**
+	 * Helper function that sends the next batch, or stops sending
+	 * once the backup has everything.
+	 */
+	private void sendNext() {
+		final MoveLog moves = table.getMoves();
+		final String target = ring.backupFor(table.getId());
+		final int from;
+		final int to;
+		synchronized (this) {
+			if (stopped) {
+				sending = false;
+				return;
+			}
+			if (target == null) {
+				// Nobody to copy to, so there is nothing to wait for
+				acknowledged = moves.size();
+				sending = false;
+				notifyAll();
+				return;
+			}
+			if (!target.equals(backup)) {
+				backup = target;
+				acknowledged = 0;
+				tokensSent = false;
+			}
+			from = acknowledged;
+			to = moves.size();
+			if (from >= to && tokensSent) {
+				sending = false;
+				return;
+			}
+			tokensSent = true;
+		}
+		final JsonArray tokens = new JsonArray();
+		for (long token : table.getSessionTokens()) {
+			tokens.add(token);
+		}
+		final JsonArray batch = new JsonArray();
+		for (int move : moves.copy(from, to)) {
+			batch.add(move);
+		}
+		final JsonObject message = new JsonObject()
+				.put("table", table.getId())
+				.put("seed", table.getSeed())
+				.put("from", from)
+				.put("moves", batch)
+				.put("tokens", tokens);
+		vertx.eventBus().send(StandbyStore.address(target), message,
+				(AsyncResult<Message<JsonObject>> reply) -> {
+					if (reply.succeeded()) {
+						acknowledge(target, reply.result().body().getInteger("acknowledged"));
+						sendNext();
+					}
+					else {
+						vertx.setTimer(RETRY_MILLIS, timer -> sendNext());
+					}
+				});
+	}
+
+	/**
+	 * Helper function that records how many moves the backup has.
+	 * @param target The backup that answered.
+	 * @param count The number of moves it has.
+	 */
+	private synchronized void acknowledge(String target, int count) {
+		if (target.equals(backup)) {
+			acknowledged = count;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Helper function that waits until the backup has the given number of
+	 * moves.  It gives up after a while, so that a broken cluster
+	 * slows the game down without stopping it.
+	 * @param count The number of moves.
+	 */
+	private synchronized void awaitAcknowledged(int count) {
+		final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		long remaining = WAIT_MILLIS;
+		while (!stopped && acknowledged < count && remaining > 0) {
+			try {
+				wait(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			remaining = deadline - System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * @return The number of moves the backup is known to have.
+	 */
+	public synchronized int getAcknowledged() {
+		return acknowledged;
+	}
+
+	/**
+	 * @return The node the moves are being copied to.
+	 */
+	public synchronized String getBackup() {
+		return backup;
+	}
+}
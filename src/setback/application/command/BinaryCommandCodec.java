@@ -0,0 +1,555 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.BetResult;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.Hand;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static setback.application.command.BinaryProtocol.*;
+
+/**
+ * This class encodes and decodes the frames of the binary protocol.
+ * Each codec owns one input and one output buffer that are reused
+ * for every frame, so a codec must only be used by one thread at a time.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class BinaryCommandCodec {
+
+	private static final int BET_COUNT = Bet.values().length;
+	private static final int SUIT_COUNT = CardSuit.values().length;
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+
+	private final ByteBuffer input;
+	private final ByteBuffer output;
+	private final CharsetEncoder encoder;
+	private int frameStart;
+
+	/**
+	 * Constructor that allocates the reusable buffers.
+	 */
+	public BinaryCommandCodec() {
+		input = ByteBuffer.allocate(MAX_FRAME_LENGTH);
+		output = ByteBuffer.allocate(MAX_LENGTH_PREFIX + MAX_FRAME_LENGTH);
+		encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	// Reading
+
+	/**
+	 * Reads the next frame from the stream into the input buffer.
+	 * @param in The stream to read from.
+	 * @return The opcode of the frame, or -1 if the stream has ended.
+	 * The rest of the frame is available from getPayload.
+	 * @throws IOException If the stream cannot be read or ends mid-frame,
+	 * or the frame is empty or too long.  The stream cannot be read past
+	 * a frame of the wrong length, so the connection should be closed.
+	 */
+	public int readFrame(InputStream in) throws IOException {
+		final int length = readLength(in);
+		if (length < 0) {
+			return -1;
+		}
+		if (length == 0 || length > MAX_FRAME_LENGTH) {
+			throw new StreamCorruptedException("Invalid frame length!");
+		}
+		final byte[] array = input.array();
+		int read = 0;
+		while (read < length) {
+			final int count = in.read(array, read, length - read);
+			if (count < 0) {
+				throw new EOFException("Connection closed mid-frame");
+			}
+			read += count;
+		}
+		input.clear();
+		input.limit(length);
+		return input.get() & 0xFF;
+	}
+
+	/**
+	 * @return The payload of the last frame read, after the opcode.
+	 */
+	public ByteBuffer getPayload() {
+		return input;
+	}
+
+	/**
+	 * Reads the next command frame from the stream.
+	 * @param in The stream to read from.
+	 * @param frame The frame to decode the command into.
+	 * @return False if the stream has ended, true otherwise.
+	 * @throws IOException If the stream cannot be read, or the frame
+	 * is not framed correctly.
+	 * @throws SetbackException If the frame is not a valid command.
+	 */
+	public boolean readCommand(InputStream in, CommandFrame frame)
+			throws IOException, SetbackException {
+		final int opcode = readFrame(in);
+		if (opcode < 0) {
+			return false;
+		}
+		decodeCommand(opcode, input, frame);
+		return true;
+	}
+
+	/**
+	 * Decodes the payload of a command frame.  Every argument is
+	 * validated, so the accessors of the frame will not fail.
+	 * @param opcode The opcode of the frame.
+	 * @param payload The arguments of the command.
+	 * @param frame The frame to decode the command into.
+	 * @throws SetbackException If the opcode or an argument is invalid.
+	 */
+	public static void decodeCommand(int opcode, ByteBuffer payload, CommandFrame frame)
+			throws SetbackException {
+		final Command command = Command.fromOpcode(opcode);
+		if (command == null) {
+			throw new SetbackException("Unknown command!");
+		}
+		final int argumentBytes = getArgumentBytes(command);
+		if (payload.remaining() < argumentBytes) {
+			throw new SetbackException("Too few arguments!");
+		}
+		if (payload.remaining() > argumentBytes) {
+			throw new SetbackException("Too many arguments!");
+		}
+		switch (command) {
+			case RESUME:
+				frame.set(command, payload.getInt(), payload.getInt(), payload.getInt());
+				break;
+			case REPLAY:
+				frame.set(command, checkIndex(payload.getInt()), checkIndex(payload.getInt()), 0);
+				break;
+			case PLACE_BET:
+				frame.set(command, checkOrdinal(payload.get(), BET_COUNT), 0, 0);
+				break;
+			case SELECT_TRUMP:
+				frame.set(command, checkOrdinal(payload.get(), SUIT_COUNT), 0, 0);
+				break;
+			case PLAY_CARD:
+				frame.set(command, checkOrdinal(payload.get(), Card.DECK_SIZE), 0, 0);
+				break;
+			case DISCARD_CARDS:
+				frame.set(command,
+						checkOrdinal(payload.get(), Card.DECK_SIZE),
+						checkOrdinal(payload.get(), Card.DECK_SIZE),
+						checkOrdinal(payload.get(), Card.DECK_SIZE));
+				break;
+			default:
+				frame.set(command, 0, 0, 0);
+				break;
+		}
+	}
+
+	/**
+	 * @param command A command.
+	 * @return The size of the arguments of the command in a frame.
+	 */
+	private static int getArgumentBytes(Command command) {
+		switch (command) {
+			case RESUME:
+				return 3 * Integer.BYTES;
+			case REPLAY:
+				return 2 * Integer.BYTES;
+			default:
+				return command.getNumberOfArguments();
+		}
+	}
+
+	/**
+	 * Reads a player ordinal from a payload.
+	 * @param payload The payload to read from.
+	 * @return The player.
+	 */
+	public static PlayerNumber readPlayer(ByteBuffer payload) {
+		return PLAYERS[payload.get()];
+	}
+
+	/**
+	 * Reads a list of card ordinals from a payload, preceded by their count.
+	 * @param payload The payload to read from.
+	 * @param cards The list to add the cards to.
+	 */
+	public static void readCards(ByteBuffer payload, List<Card> cards) {
+		final int count = payload.get();
+		for (int index = 0; index < count; index++) {
+			cards.add(Card.fromOrdinal(payload.get()));
+		}
+	}
+
+	/**
+	 * Reads UTF-8 text that fills the rest of a payload.
+	 * @param payload The payload to read from.
+	 * @return The text.
+	 */
+	public static String readText(ByteBuffer payload) {
+		final String text = new String(payload.array(), payload.arrayOffset() + payload.position(),
+				payload.remaining(), StandardCharsets.UTF_8);
+		payload.position(payload.limit());
+		return text;
+	}
+
+	// Writing
+
+	/**
+	 * Encodes a command into the output buffer.
+	 * @param command The command to encode.
+	 * @param argumentOne The first argument ordinal, if used.
+	 * @param argumentTwo The second argument ordinal, if used.
+	 * @param argumentThree The third argument ordinal, if used.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeCommand(Command command, int argumentOne,
+			int argumentTwo, int argumentThree) {
+		begin(command.getOpcode());
+		final int argumentCount = command.getNumberOfArguments();
+		if (command == Command.RESUME) {
+			output.putInt(argumentOne);
+			output.putInt(argumentTwo);
+			output.putInt(argumentThree);
+		}
+		else if (command == Command.REPLAY) {
+			output.putInt(argumentOne);
+			output.putInt(argumentTwo);
+		}
+		else if (argumentCount >= 1) {
+			output.put((byte) argumentOne);
+			if (argumentCount == 3) {
+				output.put((byte) argumentTwo);
+				output.put((byte) argumentThree);
+			}
+		}
+		return finish();
+	}
+
+	/**
+	 * Encodes an acknowledgement that a command was accepted.
+	 * @param command The accepted command.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeAck(Command command) {
+		begin(REPLY_ACK);
+		output.put((byte) command.getOpcode());
+		return finish();
+	}
+
+	/**
+	 * Encodes a notice that a command was rejected.
+	 * @param command The rejected command.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeRejected(Command command) {
+		begin(REPLY_REJECTED);
+		output.put((byte) command.getOpcode());
+		return finish();
+	}
+
+	/**
+	 * Encodes a frame that carries text.
+	 * @param opcode The opcode, such as REPLY_TEXT or REPLY_ERROR.
+	 * @param text The text, which is truncated if it does not fit.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeText(int opcode, String text) {
+		begin(opcode);
+		encoder.reset();
+		encoder.encode(CharBuffer.wrap(text), output, true);
+		return finish();
+	}
+
+	/**
+	 * Encodes a hand as its owner and card ordinals.
+	 * @param hand The hand to encode.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeHand(Hand hand) {
+		final List<Card> cards = hand.getCards();
+		begin(REPLY_HAND);
+		output.put((byte) hand.getOwner().ordinal());
+		output.put((byte) cards.size());
+		for (int index = 0; index < cards.size(); index++) {
+			output.put((byte) cards.get(index).getOrdinal());
+		}
+		return finish();
+	}
+
+	/**
+	 * Puts a frame that was encoded earlier back in the output buffer.
+	 * @param frame The frame, including its length prefix, as it
+	 * was given by toByteArray.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeFrame(byte[] frame) {
+		output.clear();
+		output.put(frame);
+		frameStart = 0;
+		return frame.length;
+	}
+
+	/**
+	 * Encodes a player.
+	 * @param player The player to encode.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodePlayer(PlayerNumber player) {
+		begin(REPLY_PLAYER);
+		output.put((byte) player.ordinal());
+		return finish();
+	}
+
+	/**
+	 * Encodes a score, which may be negative.
+	 * @param score The score to encode.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeScore(int score) {
+		begin(REPLY_SCORE);
+		writeVarInt(output, encodeZigZag(score));
+		return finish();
+	}
+
+	/**
+	 * Encodes the winning bet.
+	 * @param bet The winning bet.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeBet(BetResult bet) {
+		begin(REPLY_BET);
+		output.put((byte) bet.getBettor().ordinal());
+		output.put((byte) bet.getBet().ordinal());
+		return finish();
+	}
+
+	/**
+	 * Encodes the trump suit.
+	 * @param trump The trump suit.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeTrump(CardSuit trump) {
+		begin(REPLY_TRUMP);
+		output.put((byte) trump.ordinal());
+		return finish();
+	}
+
+	/**
+	 * Encodes the session of a seated player.
+	 * @param token The token to resume the session with.
+	 * @param sequence The sequence of the next event the player will be sent.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeSession(long token, long sequence) {
+		begin(REPLY_SESSION);
+		output.putLong(token);
+		output.putLong(sequence);
+		return finish();
+	}
+
+	/**
+	 * Encodes an archived game, as it was after some of its moves.
+	 * @param position The number of moves made.
+	 * @param count The number of moves in the game.
+	 * @param move The last move made, packed by Moves, or 0 if none has been.
+	 * @param teamOneScore The score of team one.
+	 * @param teamTwoScore The score of team two.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeReplay(int position, int count, int move, int teamOneScore, int teamTwoScore) {
+		begin(REPLY_REPLAY);
+		writeVarInt(output, position);
+		writeVarInt(output, count);
+		output.putInt(move);
+		writeVarInt(output, encodeZigZag(teamOneScore));
+		writeVarInt(output, encodeZigZag(teamTwoScore));
+		return finish();
+	}
+
+	/**
+	 * Encodes the reply to the EXIT command.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	public int encodeExit() {
+		begin(REPLY_EXIT);
+		return finish();
+	}
+
+	/**
+	 * Writes the last encoded frame to a stream.
+	 * @param out The stream to write to.
+	 * @throws IOException If the stream cannot be written.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(output.array(), frameStart, output.position() - frameStart);
+	}
+
+	/**
+	 * @return The size of the last encoded frame, including its length prefix.
+	 */
+	public int getFrameSize() {
+		return output.position() - frameStart;
+	}
+
+	/**
+	 * Copies the last encoded frame into a new array.
+	 * @return The frame, including its length prefix.
+	 */
+	public byte[] toByteArray() {
+		final byte[] frame = new byte[output.position() - frameStart];
+		System.arraycopy(output.array(), frameStart, frame, 0, frame.length);
+		return frame;
+	}
+
+	/**
+	 * Starts a frame, leaving room for the longest length prefix.
+	 * @param opcode The opcode of the frame.
+	 */
+	private void begin(int opcode) {
+		output.clear();
+		output.position(MAX_LENGTH_PREFIX);
+		output.put((byte) opcode);
+	}
+
+	/**
+	 * Finishes a frame by writing its length just in front of it.
+	 * @return The size of the frame, including its length prefix.
+	 */
+	private int finish() {
+		final int end = output.position();
+		final int length = end - MAX_LENGTH_PREFIX;
+		frameStart = MAX_LENGTH_PREFIX - varIntSize(length);
+		output.position(frameStart);
+		writeVarInt(output, length);
+		output.position(end);
+		return end - frameStart;
+	}
+
+	// Helpers
+
+	/**
+	 * Checks that an ordinal read from a frame is in range.
+	 * @param ordinal The ordinal.
+	 * @param count The number of valid ordinals.
+	 * @return The ordinal.
+	 * @throws SetbackException If the ordinal is out of range.
+	 */
+	private static int checkOrdinal(byte ordinal, int count) throws SetbackException {
+		if (ordinal < 0 || ordinal >= count) {
+			throw new SetbackException("Invalid argument!");
+		}
+		return ordinal;
+	}
+
+	private static int checkIndex(int index) throws SetbackException {
+		if (index < 0) {
+			throw new SetbackException("Invalid argument!");
+		}
+		return index;
+	}
+
+	/**
+	 * Reads the varint length prefix of a frame.
+	 * @param in The stream to read from.
+	 * @return The length, or -1 if the stream ended before the frame.
+	 * @throws IOException If the stream cannot be read, or the prefix is too long.
+	 */
+	private static int readLength(InputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 7 * MAX_LENGTH_PREFIX; shift += 7) {
+			final int next = in.read();
+			if (next < 0) {
+				if (shift == 0) {
+					return -1;
+				}
+				throw new EOFException("Connection closed mid-frame");
+			}
+			value |= (next & 0x7F) << shift;
+			if ((next & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new StreamCorruptedException("Invalid frame length!");
+	}
+
+	/**
+	 * Writes an unsigned varint.
+	 * @param buffer The buffer to write to.
+	 * @param value The non-negative value.
+	 */
+	public static void writeVarInt(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Reads an unsigned varint.
+	 * @param buffer The buffer to read from.
+	 * @return The value.
+	 */
+	public static int readVarInt(ByteBuffer buffer) {
+		int value = 0;
+		int shift = 0;
+		byte next;
+		do {
+			next = buffer.get();
+			value |= (next & 0x7F) << shift;
+			shift += 7;
+		} while ((next & 0x80) != 0);
+		return value;
+	}
+
+	/**
+	 * @param value A non-negative value.
+	 * @return The number of bytes the value takes up as a varint.
+	 */
+	public static int varIntSize(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * Maps signed values onto unsigned ones so that small
+	 * negative scores stay small on the wire.
+	 * @param value The signed value.
+	 * @return The zigzag encoded value.
+	 */
+	public static int encodeZigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Reverses encodeZigZag.
+	 * @param value The zigzag encoded value.
+	 * @return The signed value.
+	 */
+	public static int decodeZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import setback.common.PlayerNumber;
+import setback.game.common.BetResult;
+import setback.game.common.CardSuit;
+import setback.game.common.Hand;
+
+import static setback.application.command.BinaryProtocol.*;
+
+/**
+ * The CommandReply for the binary protocol.  Each reply is
+ * encoded into the output buffer of the codec, ready to be written.
+ * The frame of the player's hand is kept until the hand changes,
+ * since it is asked for far more often than it changes.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class BinaryCommandReply implements CommandReply {
+
+	private final BinaryCommandCodec codec;
+	private Hand encodedHand;
+	private int encodedVersion;
+	private byte[] handFrame;
+
+	/**
+	 * Constructor that takes in the codec to encode replies with.
+	 * @param codec The codec that owns the output buffer.
+	 */
+	public BinaryCommandReply(BinaryCommandCodec codec) {
+		this.codec = codec;
+	}
+
+	@Override
+	public void accepted(PlayerNumber player, Command command,
+			int argumentOne, int argumentTwo, int argumentThree) {
+		codec.encodeAck(command);
+	}
+
+	@Override
+	public void rejected(Command command) {
+		codec.encodeRejected(command);
+	}
+
+	@Override
+	public void error(String message) {
+		codec.encodeText(REPLY_ERROR, message);
+	}
+
+	@Override
+	public void hand(Hand hand) {
+		if (hand == encodedHand && hand.getVersion() == encodedVersion) {
+			codec.encodeFrame(handFrame);
+		}
+		else {
+			codec.encodeHand(hand);
+			encodedHand = hand;
+			encodedVersion = hand.getVersion();
+			handFrame = codec.toByteArray();
+		}
+	}
+
+	@Override
+	public void player(PlayerNumber player) {
+		codec.encodePlayer(player);
+	}
+
+	@Override
+	public void score(int score) {
+		codec.encodeScore(score);
+	}
+
+	@Override
+	public void bet(BetResult bet) {
+		codec.encodeBet(bet);
+	}
+
+	@Override
+	public void trump(CardSuit trump) {
+		codec.encodeTrump(trump);
+	}
+
+	@Override
+	public void exit() {
+		codec.encodeExit();
+	}
+
+	@Override
+	public void noCommand() {
+		codec.encodeText(REPLY_TEXT, "No command");
+	}
+
+	@Override
+	public void session(long token, long sequence) {
+		codec.encodeSession(token, sequence);
+	}
+
+	@Override
+	public void replay(int position, int count, int move, int teamOneScore, int teamTwoScore) {
+		codec.encodeReplay(position, count, move, teamOneScore, teamTwoScore);
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+/**
+ * This contains the constants of the binary protocol.
+ * A connection starts out speaking the text protocol, and
+ * switches to the binary protocol once the client sends the
+ * BINARY_PROTOCOL command and the server echoes it back.
+ * The client must wait for the echo before sending any frames.
+ * <p>
+ * Every frame is a varint length, followed by a one byte opcode
+ * and its payload.  Commands from the client use the opcode of
+ * their Command.  Cards, bets, suits and players are sent as
+ * their one byte ordinals, and scores as zigzag varints.
+ * RESUME and REPLAY are the only commands with wider arguments,
+ * which are sent as four byte integers: the two halves of the
+ * token and the sequence for RESUME, and the game number and
+ * position for REPLAY.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public abstract class BinaryProtocol {
+
+	/**
+	 * The largest frame, not counting the length prefix, that
+	 * either side will send or accept.
+	 */
+	public static final int MAX_FRAME_LENGTH = 1024;
+
+	/**
+	 * The most bytes the varint length prefix can take up.
+	 */
+	public static final int MAX_LENGTH_PREFIX = 2;
+
+	// Replies from the server
+
+	/** A free-form text reply. */
+	public static final int REPLY_TEXT = 0x80;
+	/** The command with the given opcode was accepted. */
+	public static final int REPLY_ACK = 0x81;
+	/** The command with the given opcode was rejected without an error. */
+	public static final int REPLY_REJECTED = 0x82;
+	/** The command failed, followed by the error message. */
+	public static final int REPLY_ERROR = 0x83;
+	/** A hand: the owner, the number of cards and their ordinals. */
+	public static final int REPLY_HAND = 0x84;
+	/** A player ordinal. */
+	public static final int REPLY_PLAYER = 0x85;
+	/** A zigzag varint score. */
+	public static final int REPLY_SCORE = 0x86;
+	/** The winning bet: the bettor and the bet ordinal. */
+	public static final int REPLY_BET = 0x87;
+	/** The trump suit ordinal. */
+	public static final int REPLY_TRUMP = 0x88;
+	/** The server is closing the connection. */
+	public static final int REPLY_EXIT = 0x89;
+	/** The session of a seated player: its eight byte token and the eight byte sequence of its next event. */
+	public static final int REPLY_SESSION = 0x8A;
+	/** A replayed game: varints of the position and the move count, the four byte last move, and zigzag varint scores. */
+	public static final int REPLY_REPLAY = 0x8B;
+
+	// Events from the server
+
+	/** A player number was claimed: the player. */
+	public static final int EVENT_PLAYER_SELECTED = 0x90;
+	/** The cards have been dealt for a new round. */
+	public static final int EVENT_ROUND_BEGIN = 0x91;
+	/** A bet was placed: the bettor and the bet ordinal. */
+	public static final int EVENT_BET_PLACED = 0x92;
+	/** All four bets are in and the winner is known. */
+	public static final int EVENT_BETTING_RESOLVED = 0x93;
+	/** Trump was selected: the player and the suit ordinal. */
+	public static final int EVENT_TRUMP_SELECTED = 0x94;
+	/** A player discarded their three cards: the player. */
+	public static final int EVENT_CARDS_DISCARDED = 0x95;
+	/** A new trick has started. */
+	public static final int EVENT_TRICK_STARTED = 0x96;
+	/** A card was played: the player and the card ordinal. */
+	public static final int EVENT_CARD_PLAYED = 0x97;
+	/** A trick was won: the winner. */
+	public static final int EVENT_TRICK_WON = 0x98;
+	/** The round has been scored. */
+	public static final int EVENT_ROUND_ENDED = 0x99;
+	/** Events were dropped because the client fell behind, so it must ask for its state again. */
+	public static final int EVENT_RESYNC = 0x9A;
+	/** The state of the game for a spectator who joined late: the zigzag varint team scores. */
+	public static final int EVENT_SNAPSHOT = 0x9B;
+}
@@ -28,8 +28,17 @@ public enum Command {
 	GET_WINNING_BET(0),
 	GET_TRUMP(0),
 	GET_TEAM_ONE_SCORE(0),
-	GET_TEAM_TWO_SCORE(0);
-	
+	GET_TEAM_TWO_SCORE(0),
+	BINARY_PROTOCOL(0),
+	SPECTATE(0),
+	GET_SESSION(0),
+	// The token is sent as two halves, and then the sequence
+	RESUME(3),
+	// The game in the archive, and the number of its moves to make
+	REPLAY(2);
+
+	private static final Command[] OPCODES = values();
+
 	private final int numberOfArguments;
 
 	/**
@@ -48,5 +57,27 @@ public enum Command {
 		return numberOfArguments;
 	}
 
-	
+	/**
+	 * @return the one byte opcode used for this command
+	 * in the binary protocol.
+	 */
+	public int getOpcode() {
+		return ordinal();
+	}
+
+	/**
+	 * This function returns the command with the given opcode.
+	 * @param opcode The opcode read from a binary frame.
+	 * @return The command, or null if the opcode is unknown.
+	 */
+	public static Command fromOpcode(int opcode) {
+		final Command command;
+		if (opcode < 0 || opcode >= OPCODES.length) {
+			command = null;
+		}
+		else {
+			command = OPCODES[opcode];
+		}
+		return command;
+	}
 }
@@ -0,0 +1,106 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+
+/**
+ * This class holds a single decoded command.  The arguments
+ * are kept as ordinals, so the same CommandFrame can be reused
+ * for every command read from a connection.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class CommandFrame {
+
+	private static final Bet[] BETS = Bet.values();
+	private static final CardSuit[] SUITS = CardSuit.values();
+
+	private Command command;
+	private int argumentOne;
+	private int argumentTwo;
+	private int argumentThree;
+
+	/**
+	 * Replaces the contents of the frame.
+	 * @param command The command.
+	 * @param argumentOne The first argument, or zero if unused.
+	 * @param argumentTwo The second argument, or zero if unused.
+	 * @param argumentThree The third argument, or zero if unused.
+	 * @return This frame.
+	 */
+	public CommandFrame set(Command command, int argumentOne, int argumentTwo, int argumentThree) {
+		this.command = command;
+		this.argumentOne = argumentOne;
+		this.argumentTwo = argumentTwo;
+		this.argumentThree = argumentThree;
+		return this;
+	}
+
+	/**
+	 * @return the command.
+	 */
+	public Command getCommand() {
+		return command;
+	}
+
+	/**
+	 * @return the first argument.
+	 */
+	public int getArgumentOne() {
+		return argumentOne;
+	}
+
+	/**
+	 * @return the second argument.
+	 */
+	public int getArgumentTwo() {
+		return argumentTwo;
+	}
+
+	/**
+	 * @return the third argument.
+	 */
+	public int getArgumentThree() {
+		return argumentThree;
+	}
+
+	/**
+	 * @return the first argument as a Bet.
+	 */
+	public Bet getBet() {
+		return BETS[argumentOne];
+	}
+
+	/**
+	 * @return the first argument as a CardSuit.
+	 */
+	public CardSuit getSuit() {
+		return SUITS[argumentOne];
+	}
+
+	/**
+	 * @return the first argument as a Card.
+	 */
+	public Card getCardOne() {
+		return Card.fromOrdinal(argumentOne);
+	}
+
+	/**
+	 * @return the second argument as a Card.
+	 */
+	public Card getCardTwo() {
+		return Card.fromOrdinal(argumentTwo);
+	}
+
+	/**
+	 * @return the third argument as a Card.
+	 */
+	public Card getCardThree() {
+		return Card.fromOrdinal(argumentThree);
+	}
+}
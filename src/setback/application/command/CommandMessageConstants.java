@@ -13,4 +13,6 @@ public abstract class CommandMessageConstants {
   public static final String BETTING_RESOLVED = "BETTING RESOLVED";
   public static final String TRICK_STARTED = "TRICK STARTED";
   public static final String ROUND_ENDED = "ROUND ENDED";
+  public static final String RESYNC = "RESYNC";
+  public static final String SNAPSHOT = "SNAPSHOT";
 }
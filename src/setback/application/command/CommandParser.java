@@ -4,7 +4,15 @@
  */
 package setback.application.command;
 
+import io.vertx.core.json.JsonArray;
 import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * This class parses commands sent from the client to
@@ -16,6 +24,26 @@ import setback.common.SetbackException;
  */
 public class CommandParser {
 
+	private static final Map<String, Command> COMMANDS = new HashMap<String, Command>();
+	private static final Map<String, Integer> BETS = new HashMap<String, Integer>();
+	private static final Map<String, Integer> SUITS = new HashMap<String, Integer>();
+	private static final Map<String, Integer> CARDS = new HashMap<String, Integer>();
+
+	static {
+		for (Command command : Command.values()) {
+			COMMANDS.put(command.name(), command);
+		}
+		for (Bet bet : Bet.values()) {
+			BETS.put(bet.name(), bet.ordinal());
+		}
+		for (CardSuit suit : CardSuit.values()) {
+			SUITS.put(suit.name(), suit.ordinal());
+		}
+		for (int ordinal = 0; ordinal < Card.DECK_SIZE; ordinal++) {
+			CARDS.put(Card.fromOrdinal(ordinal).toString().toUpperCase(Locale.ROOT), ordinal);
+		}
+	}
+
 	/**
 	 * Function that takes in a String and converts
 	 * it back into a CommandMessageJson.
@@ -80,4 +108,178 @@ public class CommandParser {
 
 		return message;
 	}
+
+	/**
+	 * Function that takes in a String and decodes it straight
+	 * into a CommandFrame, without building a CommandMessageJson.
+	 * @param input The String to decode.
+	 * @param frame The frame to decode the command into.
+	 * @throws SetbackException if an unknown string is entered, a Command
+	 * has the wrong number of arguments, or an argument is invalid.
+	 * @return The given frame.
+	 */
+	public CommandFrame parseFrame(String input, CommandFrame frame) throws SetbackException {
+		if (input == null) {
+			return frame.set(Command.NO_COMMAND, 0, 0, 0);
+		}
+		final String[] array = input.split(" ");
+		final Command command = COMMANDS.get(array[0]);
+		if (command == null) {
+			throw new SetbackException("Unknown command!");
+		}
+		if (command == Command.RESUME) {
+			if (array.length != 3) {
+				throw new SetbackException(array.length < 3 ? "Too few arguments!" : "Too many arguments!");
+			}
+			return parseResume(array[1], array[2], frame);
+		}
+		if (command == Command.REPLAY) {
+			if (array.length != 3) {
+				throw new SetbackException(array.length < 3 ? "Too few arguments!" : "Too many arguments!");
+			}
+			return parseReplay(array[1], array[2], frame);
+		}
+		final int argumentNumber = command.getNumberOfArguments();
+		if (array.length < argumentNumber + 1) {
+			throw new SetbackException("Too few arguments!");
+		}
+		if (array.length > argumentNumber + 1) {
+			throw new SetbackException("Too many arguments!");
+		}
+		return frame.set(command,
+				argumentNumber > 0 ? parseArgument(command, array[1]) : 0,
+				argumentNumber > 1 ? parseArgument(command, array[2]) : 0,
+				argumentNumber > 2 ? parseArgument(command, array[3]) : 0);
+	}
+
+	/**
+	 * Function that decodes the arguments of RESUME, which are a
+	 * token of sixteen hex digits and a sequence number, rather
+	 * than ordinals.  The token is split into two halves.
+	 * @param token The token.
+	 * @param sequence The sequence of the next event the client wants.
+	 * @param frame The frame to decode the command into.
+	 * @throws SetbackException If either argument is invalid.
+	 * @return The given frame.
+	 */
+	private static CommandFrame parseResume(String token, String sequence, CommandFrame frame)
+			throws SetbackException {
+		try {
+			final long value = Long.parseUnsignedLong(token, 16);
+			final int next = Integer.parseInt(sequence);
+			if (next < 0) {
+				throw new SetbackException("Invalid argument!");
+			}
+			return frame.set(Command.RESUME, (int) (value >>> 32), (int) value, next);
+		} catch (NumberFormatException e) {
+			throw new SetbackException("Invalid argument!");
+		}
+	}
+
+	/**
+	 * Function that decodes the arguments of REPLAY, which are the
+	 * place of a game in the archive and a number of its moves, rather
+	 * than ordinals.
+	 * @param game The game.
+	 * @param position The number of moves to make.
+	 * @param frame The frame to decode the command into.
+	 * @throws SetbackException If either argument is invalid.
+	 * @return The given frame.
+	 */
+	private static CommandFrame parseReplay(String game, String position, CommandFrame frame)
+			throws SetbackException {
+		try {
+			final int number = Integer.parseInt(game);
+			final int moves = Integer.parseInt(position);
+			if (number < 0 || moves < 0) {
+				throw new SetbackException("Invalid argument!");
+			}
+			return frame.set(Command.REPLAY, number, moves, 0);
+		} catch (NumberFormatException e) {
+			throw new SetbackException("Invalid argument!");
+		}
+	}
+
+	/**
+	 * @param token A session token.
+	 * @return The token as sixteen hex digits, which is how it
+	 * is written in the text protocol.
+	 */
+	public static String formatToken(long token) {
+		final String digits = Long.toHexString(token);
+		return "0000000000000000".substring(digits.length()) + digits;
+	}
+
+	/**
+	 * @param frame A RESUME frame.
+	 * @return The token it carries.
+	 */
+	public static long getToken(CommandFrame frame) {
+		return ((long) frame.getArgumentOne() << 32) | (frame.getArgumentTwo() & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Function that decodes a CommandMessageJson into a CommandFrame.
+	 * @param message The message to decode.
+	 * @param frame The frame to decode the command into.
+	 * @throws SetbackException if the message has the wrong
+	 * number of arguments, or an argument is invalid.
+	 * @return The given frame.
+	 */
+	public static CommandFrame toFrame(CommandMessageJson message, CommandFrame frame)
+			throws SetbackException {
+		final Command command = message.getCommand();
+		final int argumentNumber = command.getNumberOfArguments();
+		final JsonArray parameters = message.getParameters();
+		final int parameterCount = parameters == null ? 0 : parameters.size();
+		if (command == Command.RESUME) {
+			if (parameterCount != 2) {
+				throw new SetbackException(parameterCount < 2 ? "Too few arguments!" : "Too many arguments!");
+			}
+			return parseResume(parameters.getString(0), parameters.getString(1), frame);
+		}
+		if (command == Command.REPLAY) {
+			if (parameterCount != 2) {
+				throw new SetbackException(parameterCount < 2 ? "Too few arguments!" : "Too many arguments!");
+			}
+			return parseReplay(parameters.getString(0), parameters.getString(1), frame);
+		}
+		if (parameterCount < argumentNumber) {
+			throw new SetbackException("Too few arguments!");
+		}
+		if (parameterCount > argumentNumber) {
+			throw new SetbackException("Too many arguments!");
+		}
+		return frame.set(command,
+				argumentNumber > 0 ? parseArgument(command, parameters.getString(0)) : 0,
+				argumentNumber > 1 ? parseArgument(command, parameters.getString(1)) : 0,
+				argumentNumber > 2 ? parseArgument(command, parameters.getString(2)) : 0);
+	}
+
+	/**
+	 * Helper function that converts an argument to its ordinal.
+	 * @param command The command the argument belongs to.
+	 * @param argument The argument, such as "PASS" or "Ace-of-Spades".
+	 * @return The ordinal of the argument.
+	 * @throws SetbackException If the argument is not valid for the command.
+	 */
+	private static int parseArgument(Command command, String argument) throws SetbackException {
+		final Integer ordinal;
+		final String key = argument == null ? "" : argument.toUpperCase(Locale.ROOT);
+		switch (command) {
+		case PLACE_BET:
+			ordinal = BETS.get(key);
+			break;
+		case SELECT_TRUMP:
+			ordinal = SUITS.get(key);
+			break;
+		default:
+			ordinal = CARDS.get(key);
+			break;
+		}
+		if (ordinal == null) {
+			throw new SetbackException("Invalid argument!");
+		}
+		return ordinal;
+	}
 }
@@ -0,0 +1,97 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import setback.common.PlayerNumber;
+import setback.game.common.BetResult;
+import setback.game.common.CardSuit;
+import setback.game.common.Hand;
+
+/**
+ * This interface is how the result of a command is reported back
+ * to the client.  There is one implementation per protocol, so the
+ * command handlers do not need to know which protocol is spoken.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface CommandReply {
+
+	/**
+	 * The command was carried out.
+	 * @param player The player who sent the command.
+	 * @param command The command.
+	 * @param argumentOne The first argument ordinal, if used.
+	 * @param argumentTwo The second argument ordinal, if used.
+	 * @param argumentThree The third argument ordinal, if used.
+	 */
+	void accepted(PlayerNumber player, Command command,
+			int argumentOne, int argumentTwo, int argumentThree);
+
+	/**
+	 * The command was refused without an error, such as
+	 * a request for a player number that is taken.
+	 * @param command The command.
+	 */
+	void rejected(Command command);
+
+	/**
+	 * The command failed.
+	 * @param message The reason it failed.
+	 */
+	void error(String message);
+
+	/**
+	 * @param hand The hand that was asked for.
+	 */
+	void hand(Hand hand);
+
+	/**
+	 * @param player The player that was asked for.
+	 */
+	void player(PlayerNumber player);
+
+	/**
+	 * @param score The score that was asked for.
+	 */
+	void score(int score);
+
+	/**
+	 * @param bet The winning bet.
+	 */
+	void bet(BetResult bet);
+
+	/**
+	 * @param trump The trump suit.
+	 */
+	void trump(CardSuit trump);
+
+	/**
+	 * The connection is about to be closed.
+	 */
+	void exit();
+
+	/**
+	 * There was no command to carry out.
+	 */
+	void noCommand();
+
+	/**
+	 * Reports the session of a seated player, which lets it resume
+	 * its seat after losing its connection.
+	 * @param token The token to resume the session with.
+	 * @param sequence The sequence of the next event the player will be sent.
+	 */
+	void session(long token, long sequence);
+
+	/**
+	 * Reports an archived game, as it was after some of its moves.
+	 * @param position The number of moves made.
+	 * @param count The number of moves in the game.
+	 * @param move The last move made, packed by Moves, or 0 if none has been.
+	 * @param teamOneScore The score of team one.
+	 * @param teamTwoScore The score of team two.
+	 */
+	void replay(int position, int count, int move, int teamOneScore, int teamTwoScore);
+}
@@ -0,0 +1,161 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import setback.application.move.Moves;
+import setback.common.PlayerNumber;
+import setback.game.common.Bet;
+import setback.game.common.BetResult;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.Hand;
+
+/**
+ * The CommandReply for the text protocol.  It builds the same
+ * human readable lines the server has always sent, which makes
+ * it handy for debugging with a terminal.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TextCommandReply implements CommandReply {
+
+	private static final Bet[] BETS = Bet.values();
+	private static final CardSuit[] SUITS = CardSuit.values();
+	private static final String[] PLAYER_NAMES = {
+			"Player one", "Player two", "Player three", "Player four"};
+
+	private final StringBuilder builder = new StringBuilder();
+
+	/**
+	 * Text that is sent as it is, rather than built, or null.
+	 */
+	private String text;
+
+	/**
+	 * @return The text of the last reply.
+	 */
+	public String getText() {
+		return text != null ? text : builder.toString();
+	}
+
+	/**
+	 * Helper function that clears the last reply.
+	 */
+	private void reset() {
+		builder.setLength(0);
+		text = null;
+	}
+
+	@Override
+	public void accepted(PlayerNumber player, Command command,
+			int argumentOne, int argumentTwo, int argumentThree) {
+		reset();
+		switch (command) {
+			case REQUEST_PLAYER_ONE:
+			case REQUEST_PLAYER_TWO:
+			case REQUEST_PLAYER_THREE:
+			case REQUEST_PLAYER_FOUR:
+				builder.append(playerName(command)).append(" selected");
+				break;
+			case PLACE_BET:
+				builder.append(player).append(" BET ").append(BETS[argumentOne].name());
+				break;
+			case SELECT_TRUMP:
+				builder.append(player).append(" SELECTED ").append(SUITS[argumentOne].name());
+				break;
+			case DISCARD_CARDS:
+				builder.append(player).append(" DISCARDED ")
+						.append(Card.fromOrdinal(argumentOne)).append(' ')
+						.append(Card.fromOrdinal(argumentTwo)).append(' ')
+						.append(Card.fromOrdinal(argumentThree));
+				break;
+			case PLAY_CARD:
+				builder.append(player).append(" PLAYED ").append(Card.fromOrdinal(argumentOne));
+				break;
+			default:
+				builder.append(command);
+				break;
+		}
+	}
+
+	@Override
+	public void rejected(Command command) {
+		reset();
+		builder.append(playerName(command)).append(" rejected");
+	}
+
+	@Override
+	public void error(String message) {
+		reset();
+		builder.append(message);
+	}
+
+	@Override
+	public void hand(Hand hand) {
+		reset();
+		// The hand keeps its text until it changes
+		text = hand.toString();
+	}
+
+	@Override
+	public void player(PlayerNumber player) {
+		reset();
+		builder.append(player);
+	}
+
+	@Override
+	public void score(int score) {
+		reset();
+		builder.append(score);
+	}
+
+	@Override
+	public void bet(BetResult bet) {
+		reset();
+		builder.append(bet);
+	}
+
+	@Override
+	public void trump(CardSuit trump) {
+		reset();
+		builder.append(trump);
+	}
+
+	@Override
+	public void exit() {
+		reset();
+		builder.append("EXIT");
+	}
+
+	@Override
+	public void noCommand() {
+		reset();
+		builder.append("No command");
+	}
+
+	@Override
+	public void session(long token, long sequence) {
+		reset();
+		builder.append("SESSION ").append(CommandParser.formatToken(token)).append(' ').append(sequence);
+	}
+
+	@Override
+	public void replay(int position, int count, int move, int teamOneScore, int teamTwoScore) {
+		reset();
+		builder.append("REPLAY ").append(position).append(' ').append(count)
+				.append(' ').append(teamOneScore).append(' ').append(teamTwoScore);
+		if (position > 0) {
+			builder.append(' ').append(Moves.toString(move));
+		}
+	}
+
+	/**
+	 * @param command One of the REQUEST_PLAYER commands.
+	 * @return The name of the requested player, such as "Player one".
+	 */
+	private static String playerName(Command command) {
+		return PLAYER_NAMES[command.ordinal() - Command.REQUEST_PLAYER_ONE.ordinal()];
+	}
+}
@@ -0,0 +1,332 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.application.SetbackObserver;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class is an observer that hands events to its subscriber
+ * on another thread, so that a slow subscriber never delays the
+ * move that caused the event.  Each AsyncObserver has its own
+ * bounded queue, and what happens when it fills up is decided
+ * by its OverflowPolicy.
+ * <p>
+ * Events for one subscriber are always delivered in order and
+ * never concurrently, even though the executor may be shared by
+ * many subscribers, and even when the subscriber's own thread
+ * drains the queue itself.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class AsyncObserver implements SetbackObserver, Runnable {
+
+	/**
+	 * The most events that are delivered to one subscriber before
+	 * the executor is given back to the others.
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	private static volatile ExecutorService sharedExecutor;
+
+	private final EventSubscriber subscriber;
+	private final Executor executor;
+	private final OverflowPolicy policy;
+	private final SlowConsumerMetrics metrics;
+
+	/**
+	 * Held while an event is taken from the queue and delivered.
+	 */
+	private final Object deliveryLock = new Object();
+
+	// Guarded by this
+	private final GameEvent[] queue;
+	private int head;
+	private int size;
+	private boolean scheduled;
+	private boolean resyncPending;
+	private boolean disconnectPending;
+	private boolean closed;
+	private long overflows;
+
+	/**
+	 * Constructor that uses the shared executor and metrics.
+	 * @param subscriber The subscriber to deliver events to.
+	 * @param capacity The most events that may wait for the subscriber.
+	 * @param policy What to do when the subscriber falls further behind.
+	 */
+	public AsyncObserver(EventSubscriber subscriber, int capacity, OverflowPolicy policy) {
+		this(subscriber, getSharedExecutor(), capacity, policy, SlowConsumerMetrics.getInstance());
+	}
+
+	/**
+	 * Constructor for the AsyncObserver.
+	 * @param subscriber The subscriber to deliver events to.
+	 * @param executor The executor that delivers the events.
+	 * @param capacity The most events that may wait for the subscriber.
+	 * @param policy What to do when the subscriber falls further behind.
+	 * @param metrics The metrics to record to.
+	 */
+	public AsyncObserver(EventSubscriber subscriber, Executor executor, int capacity,
+			OverflowPolicy policy, SlowConsumerMetrics metrics) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The queue must hold at least one event!");
+		}
+		this.subscriber = subscriber;
+		this.executor = executor;
+		this.policy = policy;
+		this.metrics = metrics;
+		queue = new GameEvent[capacity];
+	}
+
+	/**
+	 * @return The executor shared by every AsyncObserver that was not
+	 * given one, which has a daemon thread per processor.
+	 */
+	public static ExecutorService getSharedExecutor() {
+		if (sharedExecutor == null) {
+			synchronized (AsyncObserver.class) {
+				if (sharedExecutor == null) {
+					sharedExecutor = Executors.newFixedThreadPool(
+							Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+								private int count;
+
+								public synchronized Thread newThread(Runnable runnable) {
+									final Thread thread = new Thread(runnable, "SetbackEventDispatcher-" + count++);
+									thread.setDaemon(true);
+									return thread;
+								}
+							});
+				}
+			}
+		}
+		return sharedExecutor;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.SetbackObserver#update(setback.application.event.GameEvent)
+	 */
+	public void update(GameEvent event) {
+		final boolean schedule;
+		synchronized (this) {
+			if (closed || resyncPending) {
+				return;
+			}
+			if (size == queue.length) {
+				overflow(event);
+			}
+			else {
+				queue[(head + size) % queue.length] = event;
+				size++;
+				metrics.recordEnqueued(size);
+			}
+			schedule = !scheduled;
+			scheduled = true;
+		}
+		if (schedule) {
+			schedule();
+		}
+	}
+
+	/**
+	 * Helper function that hands this to the executor.  Once the
+	 * executor has been shut down, nothing more can be delivered,
+	 * so this closes instead.
+	 */
+	private void schedule() {
+		try {
+			executor.execute(this);
+		} catch (RejectedExecutionException e) {
+			synchronized (this) {
+				closed = true;
+				scheduled = false;
+				clear();
+			}
+		}
+	}
+
+	/**
+	 * Helper function that applies the policy when the queue is full.
+	 * @param event The event that did not fit.
+	 */
+	private void overflow(GameEvent event) {
+		overflows++;
+		switch (policy) {
+			case COALESCE:
+				if (event.getType() == GameEventType.SNAPSHOT) {
+					// The snapshot sums up everything that is queued
+					metrics.recordCoalesced(clear());
+					queue[0] = event;
+					size = 1;
+					break;
+				}
+				// Nothing else can stand in for the events it would push out
+				metrics.recordDropped(clear() + 1);
+				resyncPending = true;
+				break;
+			case DROP_TO_RESYNC:
+				metrics.recordDropped(clear() + 1);
+				resyncPending = true;
+				break;
+			case DISCONNECT:
+			default:
+				metrics.recordDropped(clear() + 1);
+				disconnectPending = true;
+				closed = true;
+				break;
+		}
+	}
+
+	/**
+	 * Helper function that empties the queue.
+	 * @return The number of events that were dropped.
+	 */
+	private int clear() {
+		final int dropped = size;
+		for (int index = 0; index < size; index++) {
+			queue[(head + index) % queue.length] = null;
+		}
+		head = 0;
+		size = 0;
+		return dropped;
+	}
+
+	/**
+	 * Delivers the queued events to the subscriber, and then flushes
+	 * it once for the whole batch.  This is only ever running on one
+	 * thread at a time for each AsyncObserver.
+	 */
+	public void run() {
+		int delivered = 0;
+		while (delivered < BATCH_SIZE && deliverNext()) {
+			delivered++;
+		}
+		if (delivered > 0) {
+			subscriber.flush();
+		}
+		synchronized (this) {
+			// Only give up the executor once the flush is done, so that
+			// an event arriving during it cannot start a second run
+			if (size == 0 && !resyncPending && !disconnectPending) {
+				scheduled = false;
+				return;
+			}
+		}
+		// Let the other subscribers have a turn before finishing
+		schedule();
+	}
+
+	/**
+	 * Keeps the events that arrive from now on in the queue, without
+	 * delivering them, until release is called.  This is for a subscriber
+	 * that has nothing to write them to yet, and must be called before
+	 * the first event arrives.
+	 */
+	public synchronized void hold() {
+		// As far as update knows, a run is already on its way
+		scheduled = true;
+	}
+
+	/**
+	 * Starts delivering the events that arrived while this was held.
+	 */
+	public void release() {
+		schedule();
+	}
+
+	/**
+	 * Delivers the events that are already queued on the calling thread,
+	 * instead of waiting for the executor.  A connection calls this after
+	 * a move, so that the events the move caused are written along with
+	 * its reply and flushed once, rather than trickling out after it.
+	 */
+	public void drain() {
+		while (deliverNext()) {
+			// Deliver until the queue is empty
+		}
+	}
+
+	/**
+	 * Helper function that takes the next event, if any, and delivers it.
+	 * Taking and delivering happen under one lock, so the executor and a
+	 * thread that is draining can never deliver out of order.
+	 * @return False if there was nothing to deliver.
+	 */
+	private boolean deliverNext() {
+		synchronized (deliveryLock) {
+			final GameEvent event;
+			final boolean resync;
+			final boolean disconnect;
+			synchronized (this) {
+				resync = resyncPending;
+				disconnect = disconnectPending;
+				resyncPending = false;
+				disconnectPending = false;
+				if (disconnect || resync) {
+					event = null;
+				}
+				else if (size > 0) {
+					event = queue[head];
+					queue[head] = null;
+					head = (head + 1) % queue.length;
+					size--;
+				}
+				else {
+					return false;
+				}
+			}
+			if (disconnect) {
+				metrics.recordDisconnect();
+				subscriber.disconnect();
+			}
+			else if (resync) {
+				metrics.recordResync();
+				subscriber.resync();
+			}
+			else {
+				final long start = System.nanoTime();
+				subscriber.update(event);
+				metrics.recordDelivered(System.nanoTime() - start);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Stops delivering events to the subscriber.  Events that are
+	 * already queued are dropped.
+	 */
+	public synchronized void close() {
+		closed = true;
+		clear();
+	}
+
+	/**
+	 * @return The number of events waiting for the subscriber.
+	 */
+	public synchronized int getQueueDepth() {
+		return size;
+	}
+
+	/**
+	 * @return The number of times the queue for this subscriber filled up.
+	 */
+	public synchronized long getOverflows() {
+		return overflows;
+	}
+
+	/**
+	 * @return the policy.
+	 */
+	public OverflowPolicy getPolicy() {
+		return policy;
+	}
+}
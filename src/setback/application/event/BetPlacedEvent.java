@@ -0,0 +1,51 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+import setback.game.common.Bet;
+
+/**
+ * This event is sent when a player places a bet.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class BetPlacedEvent extends PlayerEvent {
+
+	private static final BetPlacedEvent[][] EVENTS =
+			new BetPlacedEvent[PlayerNumber.values().length][Bet.values().length];
+
+	static {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			for (Bet bet : Bet.values()) {
+				EVENTS[player.ordinal()][bet.ordinal()] = new BetPlacedEvent(player, bet);
+			}
+		}
+	}
+
+	private final Bet bet;
+
+	private BetPlacedEvent(PlayerNumber player, Bet bet) {
+		super(GameEventType.BET_PLACED, player.toString() + " BET " + bet.toString().toUpperCase(),
+				frame(GameEventType.BET_PLACED, player.ordinal(), bet.ordinal()), player);
+		this.bet = bet;
+	}
+
+	/**
+	 * @param player The player who placed the bet.
+	 * @param bet The bet that was placed.
+	 * @return The shared event.
+	 */
+	public static BetPlacedEvent of(PlayerNumber player, Bet bet) {
+		return EVENTS[player.ordinal()][bet.ordinal()];
+	}
+
+	/**
+	 * @return the bet.
+	 */
+	public Bet getBet() {
+		return bet;
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+import setback.game.common.Card;
+
+/**
+ * This event is sent when a player plays a card.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class CardPlayedEvent extends PlayerEvent {
+
+	private static final CardPlayedEvent[][] EVENTS =
+			new CardPlayedEvent[PlayerNumber.values().length][Card.DECK_SIZE];
+
+	static {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			for (int ordinal = 0; ordinal < Card.DECK_SIZE; ordinal++) {
+				EVENTS[player.ordinal()][ordinal] = new CardPlayedEvent(player, Card.fromOrdinal(ordinal));
+			}
+		}
+	}
+
+	private final Card card;
+
+	private CardPlayedEvent(PlayerNumber player, Card card) {
+		super(GameEventType.CARD_PLAYED, player.toString() + " PLAYED " + card.toString(),
+				frame(GameEventType.CARD_PLAYED, player.ordinal(), card.getOrdinal()), player);
+		this.card = card;
+	}
+
+	/**
+	 * @param player The player who played the card.
+	 * @param card The card that was played.
+	 * @return The shared event.
+	 */
+	public static CardPlayedEvent of(PlayerNumber player, Card card) {
+		return EVENTS[player.ordinal()][card.getOrdinal()];
+	}
+
+	/**
+	 * @return the card.
+	 */
+	public Card getCard() {
+		return card;
+	}
+}
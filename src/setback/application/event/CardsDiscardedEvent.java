@@ -0,0 +1,38 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+
+/**
+ * This event is sent when a player discards their three cards.
+ * The cards themselves are not shared with the other players.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class CardsDiscardedEvent extends PlayerEvent {
+
+	private static final CardsDiscardedEvent[] EVENTS =
+			new CardsDiscardedEvent[PlayerNumber.values().length];
+
+	static {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			EVENTS[player.ordinal()] = new CardsDiscardedEvent(player);
+		}
+	}
+
+	private CardsDiscardedEvent(PlayerNumber player) {
+		super(GameEventType.CARDS_DISCARDED, player.toString() + " DISCARDED",
+				frame(GameEventType.CARDS_DISCARDED, player.ordinal()), player);
+	}
+
+	/**
+	 * @param player The player who discarded.
+	 * @return The shared event.
+	 */
+	public static CardsDiscardedEvent of(PlayerNumber player) {
+		return EVENTS[player.ordinal()];
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class holds the most recent events of a game, numbered
+ * in the order they were published.  There is one writer, but
+ * any number of readers may each keep their own position and
+ * read without locking, so adding a reader costs nothing.
+ * A reader that falls more than the capacity behind has been
+ * overrun, and must start again from a snapshot.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class EventRingBuffer {
+
+	private final AtomicReferenceArray<GameEvent> events;
+	private final int mask;
+
+	/**
+	 * The sequence of the event currently being written.  It is
+	 * updated before the slot, so a reader that sees the new slot
+	 * also sees that it has been overrun.
+	 */
+	private volatile long claimed = -1;
+
+	/**
+	 * The sequence of the next event to be published.
+	 */
+	private volatile long published;
+
+	/**
+	 * Constructor for the EventRingBuffer.
+	 * @param capacity The number of events to keep, rounded up to a power of two.
+	 */
+	public EventRingBuffer(int capacity) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid capacity!");
+		}
+		final int size = Integer.highestOneBit(capacity - 1) << 1;
+		events = new AtomicReferenceArray<GameEvent>(Math.max(size, 1));
+		mask = events.length() - 1;
+	}
+
+	/**
+	 * Adds an event.  Only one thread may publish at a time.
+	 * @param event The event to add.
+	 * @return The sequence of the event.
+	 */
+	public long publish(GameEvent event) {
+		final long sequence = published;
+		claimed = sequence;
+		events.set((int) sequence & mask, event);
+		published = sequence + 1;
+		return sequence;
+	}
+
+	/**
+	 * Reads an event.
+	 * @param sequence The sequence of the event.
+	 * @return The event, or null if it has not been published yet
+	 * or has already been overwritten.
+	 */
+	public GameEvent get(long sequence) {
+		if (sequence < 0 || sequence >= published) {
+			return null;
+		}
+		final GameEvent event = events.get((int) sequence & mask);
+		return claimed - sequence < events.length() ? event : null;
+	}
+
+	/**
+	 * @return The sequence the next event will have.
+	 */
+	public long getPublished() {
+		return published;
+	}
+
+	/**
+	 * @return The sequence of the oldest event that can still be read.
+	 */
+	public long getOldest() {
+		return Math.max(0, published - events.length());
+	}
+
+	/**
+	 * @return The number of events that are kept.
+	 */
+	public int getCapacity() {
+		return events.length();
+	}
+}
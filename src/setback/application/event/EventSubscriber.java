@@ -0,0 +1,37 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.application.SetbackObserver;
+
+/**
+ * This interface is an observer that can be handed to an AsyncObserver,
+ * and so must know how to recover when it falls behind.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface EventSubscriber extends SetbackObserver {
+
+	/**
+	 * This method is called after events were dropped for this subscriber,
+	 * once it has caught up.  It should bring the subscriber back in sync
+	 * with the game.
+	 */
+	void resync();
+
+	/**
+	 * This method is called when the subscriber fell too far behind
+	 * and is being dropped.  No more events will be sent to it.
+	 */
+	void disconnect();
+
+	/**
+	 * This method is called after a run of events has been delivered,
+	 * so that they can be sent together.  Events delivered by a drain
+	 * are not followed by a flush, since whoever drained the queue
+	 * sends them along with what it writes next.
+	 */
+	void flush();
+}
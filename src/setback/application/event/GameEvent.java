@@ -0,0 +1,170 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+
+import java.nio.ByteBuffer;
+
+import static setback.application.command.BinaryProtocol.*;
+import static setback.application.command.CommandMessageConstants.*;
+
+/**
+ * This class is an event that a game sends to its observers.
+ * Every possible event is created once, along with its text and
+ * binary forms, and then shared by every game and every observer.
+ * Sending an event is therefore just a write of bytes that
+ * already exist.
+ * <p>
+ * The events without any details are constants of this class.
+ * The rest are subclasses with a static "of" method that
+ * looks up the shared instance.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameEvent {
+
+	public static final GameEvent ROUND_BEGIN_EVENT =
+			new GameEvent(GameEventType.ROUND_BEGIN, ROUND_BEGIN);
+	public static final GameEvent BETTING_RESOLVED_EVENT =
+			new GameEvent(GameEventType.BETTING_RESOLVED, BETTING_RESOLVED);
+	public static final GameEvent TRICK_STARTED_EVENT =
+			new GameEvent(GameEventType.TRICK_STARTED, TRICK_STARTED);
+	public static final GameEvent ROUND_ENDED_EVENT =
+			new GameEvent(GameEventType.ROUND_ENDED, ROUND_ENDED);
+	public static final GameEvent RESYNC_EVENT =
+			new GameEvent(GameEventType.RESYNC, RESYNC);
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final Bet[] BETS = Bet.values();
+	private static final CardSuit[] SUITS = CardSuit.values();
+
+	private final GameEventType type;
+	private final String text;
+	private final String line;
+	private final byte[] frame;
+
+	/**
+	 * Constructor for an event without any details.
+	 * @param type The type of event.
+	 * @param text The text form of the event.
+	 */
+	protected GameEvent(GameEventType type, String text) {
+		this(type, text, new byte[]{1, (byte) type.getOpcode()});
+	}
+
+	/**
+	 * Constructor for an event with details.
+	 * @param type The type of event.
+	 * @param text The text form of the event.
+	 * @param frame The binary frame of the event, including its length.
+	 */
+	protected GameEvent(GameEventType type, String text, byte[] frame) {
+		this.type = type;
+		this.text = text;
+		this.line = text + " ";
+		this.frame = frame;
+	}
+
+	/**
+	 * @return the type.
+	 */
+	public GameEventType getType() {
+		return type;
+	}
+
+	/**
+	 * @return The event as it is sent over the text protocol,
+	 * which separates events with a trailing space.
+	 */
+	public String getTextLine() {
+		return line;
+	}
+
+	/**
+	 * @return The binary frame of the event, including its length.
+	 * The array is shared, so it must not be modified.
+	 */
+	public byte[] getFrame() {
+		return frame;
+	}
+
+	/**
+	 * This function looks up the shared event for a binary frame.
+	 * @param opcode The opcode of the frame.
+	 * @param payload The rest of the frame.
+	 * @return The event, or null if the opcode is not an event.
+	 * Only snapshots are not shared.
+	 */
+	public static GameEvent fromFrame(int opcode, ByteBuffer payload) {
+		final GameEvent event;
+		switch (opcode) {
+			case EVENT_PLAYER_SELECTED:
+				event = PlayerSelectedEvent.of(PLAYERS[payload.get()]);
+				break;
+			case EVENT_ROUND_BEGIN:
+				event = ROUND_BEGIN_EVENT;
+				break;
+			case EVENT_BET_PLACED:
+				event = BetPlacedEvent.of(PLAYERS[payload.get()], BETS[payload.get()]);
+				break;
+			case EVENT_BETTING_RESOLVED:
+				event = BETTING_RESOLVED_EVENT;
+				break;
+			case EVENT_TRUMP_SELECTED:
+				event = TrumpSelectedEvent.of(PLAYERS[payload.get()], SUITS[payload.get()]);
+				break;
+			case EVENT_CARDS_DISCARDED:
+				event = CardsDiscardedEvent.of(PLAYERS[payload.get()]);
+				break;
+			case EVENT_TRICK_STARTED:
+				event = TRICK_STARTED_EVENT;
+				break;
+			case EVENT_CARD_PLAYED:
+				event = CardPlayedEvent.of(PLAYERS[payload.get()], Card.fromOrdinal(payload.get()));
+				break;
+			case EVENT_TRICK_WON:
+				event = TrickWonEvent.of(PLAYERS[payload.get()]);
+				break;
+			case EVENT_ROUND_ENDED:
+				event = ROUND_ENDED_EVENT;
+				break;
+			case EVENT_RESYNC:
+				event = RESYNC_EVENT;
+				break;
+			case EVENT_SNAPSHOT:
+				event = SnapshotEvent.fromPayload(payload);
+				break;
+			default:
+				event = null;
+				break;
+		}
+		return event;
+	}
+
+	/**
+	 * Helper function that builds the frame of an event.
+	 * @param type The type of event.
+	 * @param details The ordinals that follow the opcode.
+	 * @return The frame, including its length.
+	 */
+	protected static byte[] frame(GameEventType type, int... details) {
+		final byte[] frame = new byte[details.length + 2];
+		frame[0] = (byte) (details.length + 1);
+		frame[1] = (byte) type.getOpcode();
+		for (int index = 0; index < details.length; index++) {
+			frame[index + 2] = (byte) details[index];
+		}
+		return frame;
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import static setback.application.command.BinaryProtocol.*;
+
+/**
+ * This enumeration defines the kinds of events a game sends
+ * to its observers, along with their binary opcodes.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public enum GameEventType {
+
+	PLAYER_SELECTED(EVENT_PLAYER_SELECTED, true),
+	ROUND_BEGIN(EVENT_ROUND_BEGIN, true),
+	BET_PLACED(EVENT_BET_PLACED, true),
+	BETTING_RESOLVED(EVENT_BETTING_RESOLVED, true),
+	TRUMP_SELECTED(EVENT_TRUMP_SELECTED, true),
+	CARDS_DISCARDED(EVENT_CARDS_DISCARDED, true),
+	TRICK_STARTED(EVENT_TRICK_STARTED, true),
+	CARD_PLAYED(EVENT_CARD_PLAYED, true),
+	TRICK_WON(EVENT_TRICK_WON, true),
+	ROUND_ENDED(EVENT_ROUND_ENDED, true),
+	RESYNC(EVENT_RESYNC, false),
+	SNAPSHOT(EVENT_SNAPSHOT, false);
+
+	private final int opcode;
+	private final boolean shared;
+
+	/**
+	 * Constructor for the enumerable item sets up the state.
+	 * @param opcode The opcode of the event in the binary protocol.
+	 * @param shared Whether the event may be shown to spectators.
+	 */
+	GameEventType(int opcode, boolean shared) {
+		this.opcode = opcode;
+		this.shared = shared;
+	}
+
+	/**
+	 * @return True if the event reveals nothing private, and so
+	 * may be broadcast to spectators.  Events that are only
+	 * meant for a single connection are not shared either.
+	 */
+	public boolean isShared() {
+		return shared;
+	}
+
+	/**
+	 * @return the opcode.
+	 */
+	public int getOpcode() {
+		return opcode;
+	}
+}
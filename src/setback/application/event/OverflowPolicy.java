@@ -0,0 +1,34 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+/**
+ * This enumeration defines what an AsyncObserver does when
+ * its subscriber has fallen so far behind that its queue is full.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public enum OverflowPolicy {
+
+	/**
+	 * A snapshot that does not fit takes the place of every queued
+	 * event, since it sums up the game they led to.  Any other event
+	 * that does not fit is handled as by DROP_TO_RESYNC, because no
+	 * event can be left out without the subscriber losing track.
+	 */
+	COALESCE,
+
+	/**
+	 * Every queued event is dropped, and the subscriber is told to
+	 * resync once it catches up.  Events sent before then are dropped
+	 * as well, since the resync covers them.
+	 */
+	DROP_TO_RESYNC,
+
+	/**
+	 * Every queued event is dropped, and the subscriber is disconnected.
+	 */
+	DISCONNECT
+}
@@ -0,0 +1,36 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+
+/**
+ * This class is an event that was caused by a single player.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public abstract class PlayerEvent extends GameEvent {
+
+	private final PlayerNumber player;
+
+	/**
+	 * Constructor for a player's event.
+	 * @param type The type of event.
+	 * @param text The text form of the event.
+	 * @param frame The binary frame of the event, including its length.
+	 * @param player The player who caused the event.
+	 */
+	protected PlayerEvent(GameEventType type, String text, byte[] frame, PlayerNumber player) {
+		super(type, text, frame);
+		this.player = player;
+	}
+
+	/**
+	 * @return the player.
+	 */
+	public PlayerNumber getPlayer() {
+		return player;
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+
+/**
+ * This event is sent when a player number is claimed.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class PlayerSelectedEvent extends PlayerEvent {
+
+	private static final String[] TEXT = {
+			"PlayerOneSelected", "PlayerTwoSelected", "PlayerThreeSelected", "PlayerFourSelected"
+	};
+	private static final PlayerSelectedEvent[] EVENTS = new PlayerSelectedEvent[TEXT.length];
+
+	static {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			EVENTS[player.ordinal()] = new PlayerSelectedEvent(player);
+		}
+	}
+
+	private PlayerSelectedEvent(PlayerNumber player) {
+		super(GameEventType.PLAYER_SELECTED, TEXT[player.ordinal()],
+				frame(GameEventType.PLAYER_SELECTED, player.ordinal()), player);
+	}
+
+	/**
+	 * @param player The player who was selected.
+	 * @return The shared event.
+	 */
+	public static PlayerSelectedEvent of(PlayerNumber player) {
+		return EVENTS[player.ordinal()];
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class collects the metrics of every AsyncObserver, so that
+ * slow subscribers can be spotted.  All of the counters are totals
+ * since the metrics were created.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SlowConsumerMetrics {
+
+	private static final SlowConsumerMetrics INSTANCE = new SlowConsumerMetrics();
+
+	private final AtomicLong enqueued = new AtomicLong();
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong deliveryNanos = new AtomicLong();
+	private final AtomicLong slowestDeliveryNanos = new AtomicLong();
+	private final AtomicLong deepestQueue = new AtomicLong();
+	private final AtomicLong coalesced = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong resyncs = new AtomicLong();
+	private final AtomicLong disconnects = new AtomicLong();
+
+	/**
+	 * @return The metrics shared by the whole server.
+	 */
+	public static SlowConsumerMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	void recordEnqueued(int depth) {
+		enqueued.incrementAndGet();
+		raise(deepestQueue, depth);
+	}
+
+	void recordDelivered(long nanos) {
+		delivered.incrementAndGet();
+		deliveryNanos.addAndGet(nanos);
+		raise(slowestDeliveryNanos, nanos);
+	}
+
+	void recordCoalesced(int count) {
+		coalesced.addAndGet(count);
+	}
+
+	void recordDropped(int count) {
+		dropped.addAndGet(count);
+	}
+
+	void recordResync() {
+		resyncs.incrementAndGet();
+	}
+
+	void recordDisconnect() {
+		disconnects.incrementAndGet();
+	}
+
+	private static void raise(AtomicLong maximum, long value) {
+		long current = maximum.get();
+		while (value > current && !maximum.compareAndSet(current, value)) {
+			current = maximum.get();
+		}
+	}
+
+	/**
+	 * @return The number of events queued for subscribers.
+	 */
+	public long getEnqueued() {
+		return enqueued.get();
+	}
+
+	/**
+	 * @return The number of events delivered to subscribers.
+	 */
+	public long getDelivered() {
+		return delivered.get();
+	}
+
+	/**
+	 * @return The total time spent inside subscribers, in nanoseconds.
+	 */
+	public long getDeliveryNanos() {
+		return deliveryNanos.get();
+	}
+
+	/**
+	 * @return The longest time a single subscriber took
+	 * to accept a single event, in nanoseconds.
+	 */
+	public long getSlowestDeliveryNanos() {
+		return slowestDeliveryNanos.get();
+	}
+
+	/**
+	 * @return The most events that were ever waiting for one subscriber.
+	 */
+	public long getDeepestQueue() {
+		return deepestQueue.get();
+	}
+
+	/**
+	 * @return The number of events that a snapshot took the place of.
+	 */
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	/**
+	 * @return The number of events dropped on the way to a resync or disconnect.
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return The number of times a subscriber was told to resync.
+	 */
+	public long getResyncs() {
+		return resyncs.get();
+	}
+
+	/**
+	 * @return The number of subscribers that were disconnected.
+	 */
+	public long getDisconnects() {
+		return disconnects.get();
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.application.command.BinaryCommandCodec;
+
+import java.nio.ByteBuffer;
+
+import static setback.application.command.CommandMessageConstants.*;
+
+/**
+ * This event sums up a game for a spectator who joined late.
+ * It is sent first, followed by the events of the current round.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class SnapshotEvent extends GameEvent {
+
+	public static final SnapshotEvent NEW_GAME = new SnapshotEvent(0, 0);
+
+	private final int teamOneScore;
+	private final int teamTwoScore;
+
+	/**
+	 * Constructor for the SnapshotEvent.
+	 * @param teamOneScore The score of team one.
+	 * @param teamTwoScore The score of team two.
+	 */
+	public SnapshotEvent(int teamOneScore, int teamTwoScore) {
+		super(GameEventType.SNAPSHOT, SNAPSHOT + " " + teamOneScore + " " + teamTwoScore,
+				encode(teamOneScore, teamTwoScore));
+		this.teamOneScore = teamOneScore;
+		this.teamTwoScore = teamTwoScore;
+	}
+
+	/**
+	 * Helper function that builds the frame of a snapshot.
+	 * @param teamOneScore The score of team one.
+	 * @param teamTwoScore The score of team two.
+	 * @return The frame, including its length.
+	 */
+	private static byte[] encode(int teamOneScore, int teamTwoScore) {
+		final int one = BinaryCommandCodec.encodeZigZag(teamOneScore);
+		final int two = BinaryCommandCodec.encodeZigZag(teamTwoScore);
+		final int length = 1 + BinaryCommandCodec.varIntSize(one) + BinaryCommandCodec.varIntSize(two);
+		final ByteBuffer frame = ByteBuffer.allocate(length + 1);
+		frame.put((byte) length);
+		frame.put((byte) GameEventType.SNAPSHOT.getOpcode());
+		BinaryCommandCodec.writeVarInt(frame, one);
+		BinaryCommandCodec.writeVarInt(frame, two);
+		return frame.array();
+	}
+
+	/**
+	 * @param payload The rest of a snapshot frame.
+	 * @return The snapshot.
+	 */
+	static SnapshotEvent fromPayload(ByteBuffer payload) {
+		final int one = BinaryCommandCodec.decodeZigZag(BinaryCommandCodec.readVarInt(payload));
+		final int two = BinaryCommandCodec.decodeZigZag(BinaryCommandCodec.readVarInt(payload));
+		return new SnapshotEvent(one, two);
+	}
+
+	/**
+	 * @return the teamOneScore.
+	 */
+	public int getTeamOneScore() {
+		return teamOneScore;
+	}
+
+	/**
+	 * @return the teamTwoScore.
+	 */
+	public int getTeamTwoScore() {
+		return teamTwoScore;
+	}
+}
@@ -0,0 +1,15 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+/**
+ * This interface is someone watching a game through a SpectatorChannel.
+ * A spectator is told to resync when it falls so far behind that
+ * events were lost, and is then sent a snapshot and the current round.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface Spectator extends EventSubscriber {
+}
@@ -0,0 +1,311 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.application.SetbackObserver;
+import setback.common.SetbackException;
+import setback.game.SetbackGameController;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class broadcasts the public events of a game to its spectators.
+ * Each event is published once to a shared EventRingBuffer, and a single
+ * task then walks the spectators, each of which keeps its own position in
+ * the buffer.  The game pays the same for one spectator as for thousands,
+ * and adding a spectator only takes a map insert.
+ * <p>
+ * The task never writes to a spectator itself.  It hands the events to
+ * a small AsyncObserver for each spectator, which writes and flushes
+ * them on the executor, so a slow spectator only holds up itself.  When
+ * a spectator's queue is full it is left where it is in the buffer, and
+ * caught up once the queue has been delivered.
+ * <p>
+ * A spectator who joins late, or falls behind far enough to be overrun,
+ * is sent a snapshot of the scores followed by the events of the current
+ * round that are still in the buffer.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SpectatorChannel implements SetbackObserver, Runnable {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The most events that may wait to be written to one spectator.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+	private final SetbackGameController game;
+	private final EventRingBuffer events;
+	private final Executor executor;
+	private final int queueCapacity;
+	private final SlowConsumerMetrics metrics;
+	private final Map<Spectator, Viewer> viewers = new ConcurrentHashMap<Spectator, Viewer>();
+	private final AtomicInteger pending = new AtomicInteger();
+
+	/**
+	 * Where a spectator who has nothing else should start.
+	 * Replaced whenever a round ends.
+	 */
+	private volatile Checkpoint checkpoint = new Checkpoint(SnapshotEvent.NEW_GAME, 0);
+
+	/**
+	 * Constructor that uses the shared executor and metrics.
+	 * @param game The game being watched.
+	 */
+	public SpectatorChannel(SetbackGameController game) {
+		this(game, AsyncObserver.getSharedExecutor(), DEFAULT_CAPACITY, SlowConsumerMetrics.getInstance());
+	}
+
+	/**
+	 * Constructor for the SpectatorChannel.
+	 * @param game The game being watched.
+	 * @param executor The executor that delivers the events.
+	 * @param capacity The number of events to keep for spectators who are behind.
+	 * @param metrics The metrics to record to.
+	 */
+	public SpectatorChannel(SetbackGameController game, Executor executor, int capacity,
+			SlowConsumerMetrics metrics) {
+		this(game, executor, capacity, DEFAULT_QUEUE_CAPACITY, metrics);
+	}
+
+	/**
+	 * Constructor that also decides how many events may wait for each spectator.
+	 * @param game The game being watched.
+	 * @param executor The executor that delivers the events.
+	 * @param capacity The number of events to keep for spectators who are behind.
+	 * @param queueCapacity The most events that may wait to be written to one spectator.
+	 * @param metrics The metrics to record to.
+	 */
+	public SpectatorChannel(SetbackGameController game, Executor executor, int capacity,
+			int queueCapacity, SlowConsumerMetrics metrics) {
+		this.game = game;
+		this.executor = executor;
+		this.queueCapacity = queueCapacity;
+		this.metrics = metrics;
+		events = new EventRingBuffer(capacity);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.SetbackObserver#update(setback.application.event.GameEvent)
+	 */
+	public void update(GameEvent event) {
+		if (!event.getType().isShared()) {
+			return;
+		}
+		synchronized (events) {
+			final long sequence = events.publish(event);
+			if (event.getType() == GameEventType.ROUND_ENDED) {
+				checkpoint = new Checkpoint(takeSnapshot(), sequence + 1);
+			}
+		}
+		schedule();
+	}
+
+	/**
+	 * Helper function that sums up the game.  It is called
+	 * by the game, so it is safe to ask the game for its state.
+	 * @return The snapshot.
+	 */
+	private SnapshotEvent takeSnapshot() {
+		SnapshotEvent snapshot;
+		try {
+			snapshot = new SnapshotEvent(game.getTeamOneScore(), game.getTeamTwoScore());
+		} catch (SetbackException e) {
+			snapshot = checkpoint.snapshot;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Starts sending events to a spectator.  The snapshot
+	 * is sent from the broadcasting thread, like everything else.
+	 * @param spectator The spectator.
+	 */
+	public void addSpectator(Spectator spectator) {
+		viewers.put(spectator, new Viewer(spectator));
+		schedule();
+	}
+
+	/**
+	 * Stops sending events to a spectator.  Events that are
+	 * still waiting to be written to it are dropped.
+	 * @param spectator The spectator.
+	 */
+	public void removeSpectator(Spectator spectator) {
+		final Viewer viewer = viewers.remove(spectator);
+		if (viewer != null) {
+			viewer.outbound.close();
+		}
+	}
+
+	/**
+	 * @return The number of spectators.
+	 */
+	public int getSpectatorCount() {
+		return viewers.size();
+	}
+
+	/**
+	 * @return The buffer of public events.
+	 */
+	public EventRingBuffer getEvents() {
+		return events;
+	}
+
+	/**
+	 * Helper function that makes sure the broadcasting task will run.
+	 * Only one copy of the task is ever running.
+	 */
+	private void schedule() {
+		if (pending.getAndIncrement() == 0) {
+			executor.execute(this);
+		}
+	}
+
+	/**
+	 * Hands every spectator the events it has not been given yet.
+	 */
+	public void run() {
+		int seen;
+		do {
+			seen = pending.get();
+			for (Viewer viewer : viewers.values()) {
+				viewer.catchUp();
+			}
+		} while (pending.addAndGet(-seen) != 0);
+	}
+
+	/**
+	 * This class holds the snapshot that a late spectator is sent
+	 * and the sequence of the first event that follows it.
+	 */
+	private static class Checkpoint {
+		private final SnapshotEvent snapshot;
+		private final long sequence;
+
+		Checkpoint(SnapshotEvent snapshot, long sequence) {
+			this.snapshot = snapshot;
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * This class is a single spectator.  Its position in the buffer is
+	 * only used by the broadcasting task, so it needs no locking, while
+	 * its queue is written to the spectator on the executor.
+	 */
+	private class Viewer implements EventSubscriber {
+		private final Spectator spectator;
+		private final AsyncObserver outbound;
+		private long next = -1;
+
+		/**
+		 * Set when the broadcasting task finds the queue full, so
+		 * that it is run again once the queue has been delivered.
+		 */
+		private volatile boolean waiting;
+
+		Viewer(Spectator spectator) {
+			this.spectator = spectator;
+			// The queue is never filled past its capacity, so it never overflows
+			outbound = new AsyncObserver(this, executor, queueCapacity, OverflowPolicy.DISCONNECT, metrics);
+		}
+
+		/**
+		 * Queues everything the spectator has not been given yet,
+		 * for as long as there is room.
+		 */
+		void catchUp() {
+			while (next < 0 || next < events.getPublished()) {
+				if (!hasRoom()) {
+					return;
+				}
+				if (next < 0) {
+					startFromCheckpoint();
+					continue;
+				}
+				final GameEvent event = events.get(next);
+				if (event == null) {
+					// Overrun while the spectator was behind
+					metrics.recordResync();
+					outbound.update(GameEvent.RESYNC_EVENT);
+					next = -1;
+				}
+				else {
+					outbound.update(event);
+					next++;
+				}
+			}
+		}
+
+		/**
+		 * Helper function that checks whether another event fits in
+		 * the queue.  The spectator is marked as waiting first, so that
+		 * a delivery which empties the queue in the meantime still runs
+		 * the broadcasting task again.
+		 * @return True if there is room for another event.
+		 */
+		private boolean hasRoom() {
+			waiting = true;
+			if (outbound.getQueueDepth() < queueCapacity) {
+				waiting = false;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Helper function that queues the snapshot and moves to the
+		 * start of the current round, or as close as is still kept.
+		 */
+		private void startFromCheckpoint() {
+			final Checkpoint start = checkpoint;
+			outbound.update(start.snapshot);
+			next = Math.max(start.sequence, events.getOldest());
+		}
+
+		public void update(GameEvent event) {
+			try {
+				if (event == GameEvent.RESYNC_EVENT) {
+					spectator.resync();
+				}
+				else {
+					spectator.update(event);
+				}
+			} catch (RuntimeException e) {
+				metrics.recordDisconnect();
+				disconnect();
+			}
+		}
+
+		public void resync() {
+			spectator.resync();
+		}
+
+		public void disconnect() {
+			removeSpectator(spectator);
+			spectator.disconnect();
+		}
+
+		public void flush() {
+			try {
+				spectator.flush();
+			} catch (RuntimeException e) {
+				metrics.recordDisconnect();
+				disconnect();
+			}
+			if (waiting) {
+				waiting = false;
+				schedule();
+			}
+		}
+	}
+}
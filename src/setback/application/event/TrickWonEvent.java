@@ -0,0 +1,36 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+
+/**
+ * This event is sent when a trick has been won.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class TrickWonEvent extends PlayerEvent {
+
+	private static final TrickWonEvent[] EVENTS = new TrickWonEvent[PlayerNumber.values().length];
+
+	static {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			EVENTS[player.ordinal()] = new TrickWonEvent(player);
+		}
+	}
+
+	private TrickWonEvent(PlayerNumber player) {
+		super(GameEventType.TRICK_WON, player.toString() + " WON TRICK",
+				frame(GameEventType.TRICK_WON, player.ordinal()), player);
+	}
+
+	/**
+	 * @param player The player who won the trick.
+	 * @return The shared event.
+	 */
+	public static TrickWonEvent of(PlayerNumber player) {
+		return EVENTS[player.ordinal()];
+	}
+}
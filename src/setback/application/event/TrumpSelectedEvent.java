@@ -0,0 +1,51 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import setback.common.PlayerNumber;
+import setback.game.common.CardSuit;
+
+/**
+ * This event is sent when the winner of the betting selects trump.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class TrumpSelectedEvent extends PlayerEvent {
+
+	private static final TrumpSelectedEvent[][] EVENTS =
+			new TrumpSelectedEvent[PlayerNumber.values().length][CardSuit.values().length];
+
+	static {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			for (CardSuit trump : CardSuit.values()) {
+				EVENTS[player.ordinal()][trump.ordinal()] = new TrumpSelectedEvent(player, trump);
+			}
+		}
+	}
+
+	private final CardSuit trump;
+
+	private TrumpSelectedEvent(PlayerNumber player, CardSuit trump) {
+		super(GameEventType.TRUMP_SELECTED, player.toString() + " SELECTED " + trump.toString(),
+				frame(GameEventType.TRUMP_SELECTED, player.ordinal(), trump.ordinal()), player);
+		this.trump = trump;
+	}
+
+	/**
+	 * @param player The player who selected trump.
+	 * @param trump The suit that was selected.
+	 * @return The shared event.
+	 */
+	public static TrumpSelectedEvent of(PlayerNumber player, CardSuit trump) {
+		return EVENTS[player.ordinal()][trump.ordinal()];
+	}
+
+	/**
+	 * @return the trump.
+	 */
+	public CardSuit getTrump() {
+		return trump;
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import setback.game.common.BetResult;
+
+/**
+ * This event times deciding who won the bidding.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.BetResolution")
+@Label("Bet Resolution")
+@Category({"Setback", "Game"})
+@Description("The bets of a round were resolved")
+public class BetResolutionEvent extends TableEvent {
+
+	@Label("Bettor")
+	String bettor;
+
+	@Label("Bet")
+	String bet;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param result The winning bet.
+	 */
+	public void record(String table, BetResult result) {
+		if (shouldCommit()) {
+			this.table = table;
+			if (result != null) {
+				bettor = String.valueOf(result.getBettor());
+				bet = String.valueOf(result.getBet());
+			}
+			commit();
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import setback.common.PlayerNumber;
+
+/**
+ * This event times starting a round, which is mostly dealing the hands.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.Deal")
+@Label("Deal")
+@Category({"Setback", "Game"})
+@Description("A round was started and the hands were dealt")
+public class DealEvent extends TableEvent {
+
+	@Label("Dealer")
+	String dealer;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param dealer The player who dealt.
+	 */
+	public void record(String table, PlayerNumber dealer) {
+		if (shouldCommit()) {
+			this.table = table;
+			this.dealer = String.valueOf(dealer);
+			commit();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import setback.application.event.GameEventType;
+
+/**
+ * This event times telling every observer of a game about an event.
+ * It happens for every move, so no stack trace is taken.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.ObserverFanOut")
+@Label("Observer Fan-Out")
+@Category({"Setback", "Game"})
+@Description("An event of a game was sent to its observers")
+@StackTrace(false)
+public class ObserverFanOutEvent extends TableEvent {
+
+	@Label("Event Type")
+	String eventType;
+
+	@Label("Observers")
+	int observers;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param type The type of the event sent.
+	 * @param observers The number of observers it was sent to.
+	 */
+	public void record(String table, GameEventType type, int observers) {
+		if (shouldCommit()) {
+			this.table = table;
+			eventType = String.valueOf(type);
+			this.observers = observers;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import setback.game.common.RoundResult;
+
+/**
+ * This event times scoring a round and deciding if the game is over.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.RoundScoring")
+@Label("Round Scoring")
+@Category({"Setback", "Game"})
+@Description("A round was scored")
+public class RoundScoringEvent extends TableEvent {
+
+	@Label("Team One Points")
+	int teamOnePoints;
+
+	@Label("Team Two Points")
+	int teamTwoPoints;
+
+	@Label("Status")
+	String status;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param result The result of the round.
+	 */
+	public void record(String table, RoundResult result) {
+		if (shouldCommit()) {
+			this.table = table;
+			teamOnePoints = result.getTeamOneRoundScore();
+			teamTwoPoints = result.getTeamTwoRoundScore();
+			status = String.valueOf(result.getStatus());
+			commit();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This event times a server thread writing to its client.  It happens
+ * for every reply and event, so no stack trace is taken.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.SocketWrite")
+@Label("Socket Write")
+@Category({"Setback", "Server"})
+@Description("A server thread wrote to its client")
+@StackTrace(false)
+public class SocketWriteEvent extends TableEvent {
+
+	public static final String REPLY = "reply";
+	public static final String EVENT = "event";
+	public static final String FLUSH = "flush";
+
+	@Label("Kind")
+	@Description("What was written: a reply, an event, or a flush of the events buffered")
+	String kind;
+
+	@Label("Binary")
+	@Description("Whether the client speaks the binary protocol")
+	boolean binary;
+
+	@Label("Size")
+	@Description("The number of bytes or characters handed to the stream by this write")
+	int size;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param kind What was written, one of REPLY, EVENT or FLUSH.
+	 * @param binary Whether the client speaks the binary protocol.
+	 * @param size The number of bytes or characters written.
+	 */
+	public void record(String table, String kind, boolean binary, int size) {
+		if (shouldCommit()) {
+			this.table = table;
+			this.kind = kind;
+			this.binary = binary;
+			this.size = size;
+			commit();
+		}
+	}
+}
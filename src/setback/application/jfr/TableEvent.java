@@ -0,0 +1,36 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * This is the parent of every flight recorder event that Setback
+ * emits, which all say which table they happened at, so that a
+ * recording can be split up by table.
+ * <p>
+ * Events are used the same way everywhere: one is made and begun
+ * before the work, and recorded after it.  While nothing is recording
+ * the event is never filled in, and begin and record cost next to
+ * nothing.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Category("Setback")
+public abstract class TableEvent extends Event {
+
+	@Label("Table")
+	@Description("The id of the table, or null if the game is not at a table")
+	String table;
+
+	/**
+	 * Constructor for a TableEvent.
+	 */
+	TableEvent() {
+	}
+}
@@ -0,0 +1,43 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import setback.game.common.TrickResult;
+
+/**
+ * This event times deciding who won a trick.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.TrickResolution")
+@Label("Trick Resolution")
+@Category({"Setback", "Game"})
+@Description("The winner of a trick was decided")
+public class TrickResolutionEvent extends TableEvent {
+
+	@Label("Winner")
+	String winner;
+
+	@Label("Game Points")
+	int gamePoints;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param result The result of the trick.
+	 */
+	public void record(String table, TrickResult result) {
+		if (shouldCommit()) {
+			this.table = table;
+			winner = String.valueOf(result.getWinner());
+			gamePoints = result.getGamePoints();
+			commit();
+		}
+	}
+}
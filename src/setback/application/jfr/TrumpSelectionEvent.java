@@ -0,0 +1,45 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import setback.common.PlayerNumber;
+import setback.game.common.CardSuit;
+
+/**
+ * This event times the winner of the bidding choosing trump.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+@Name("setback.TrumpSelection")
+@Label("Trump Selection")
+@Category({"Setback", "Game"})
+@Description("Trump was selected for a round")
+public class TrumpSelectionEvent extends TableEvent {
+
+	@Label("Player")
+	String player;
+
+	@Label("Trump")
+	String trump;
+
+	/**
+	 * Commits the event, if it is being recorded.
+	 * @param table The id of the table.
+	 * @param player The player who selected trump.
+	 * @param trump The suit selected.
+	 */
+	public void record(String table, PlayerNumber player, CardSuit trump) {
+		if (shouldCommit()) {
+			this.table = table;
+			this.player = String.valueOf(player);
+			this.trump = String.valueOf(trump);
+			commit();
+		}
+	}
+}
@@ -0,0 +1,617 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.journal;
+
+import setback.application.event.GameEvent;
+import setback.common.PlayerNumber;
+import setback.game.common.RoundState;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class keeps a durable record of every game played on a node.
+ * Every move, and the result of every trick and round, is appended to
+ * the journal as a compact binary record, along with the session token
+ * of every seat, which is enough to audit or
+ * replay any game, or to analyze all of them.  At the start of every
+ * round the state of the game is appended too, which is a snapshot that
+ * a table can be recovered from without replaying the rounds before it.
+ * <p>
+ * The journal is a directory of segments, which are files of a fixed
+ * size that are mapped into memory, so appending a record is a copy
+ * into memory under a lock.  A sync thread forces the segments to disk
+ * every few milliseconds, so that many records share one fsync.  Once a
+ * record is written it survives the JVM crashing, and once it is
+ * committed it survives the machine crashing as well.
+ * <p>
+ * Each segment is read on its own.  Tables are numbered in the journal,
+ * and the first record of a table in each segment names the table and
+ * the index of its next move, so the rest of its records only need the
+ * number.  A record is made
+ * visible by writing its type byte last, and the zeros after the last
+ * record end the segment.
+ * <p>
+ * A table is closed in the journal when its game ends or it leaves this
+ * node, and a full segment is deleted once every table in it is closed,
+ * so the journal only grows with the tables that are still in play.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameJournal implements Closeable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	public static final long DEFAULT_COMMIT_MILLIS = 10;
+
+	/**
+	 * The first four bytes of every segment, which are "SBJ" and a version.
+	 */
+	static final int MAGIC = 0x53424A02;
+	static final byte END = 0;
+	static final byte TABLE = 1;
+	static final byte MOVE = 2;
+	static final byte EVENT = 3;
+	static final byte ROUND = 4;
+	static final byte SESSION = 5;
+	static final byte CLOSED = 6;
+
+	/**
+	 * A type, the number of the table and the packed move.
+	 */
+	static final int MOVE_SIZE = 1 + 4 + 4;
+
+	/**
+	 * A type, the number of the table, the number of moves before the
+	 * round, the dealer, both scores and the state of the card dealer.
+	 */
+	static final int ROUND_SIZE = 1 + 4 + 4 + 1 + 2 + 2 + 8;
+
+	/**
+	 * A type, the number of the table, the seat and its session token.
+	 */
+	static final int SESSION_SIZE = 1 + 4 + 1 + 8;
+
+	/**
+	 * A type and the number of the table.
+	 */
+	static final int CLOSED_SIZE = 1 + 4;
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final String SUFFIX = ".journal";
+	private static final int HEADER_SIZE = 4;
+
+	private final File directory;
+	private final int segmentSize;
+	private final long commitMillis;
+	private final Thread syncer;
+
+	// Guarded by this
+	private Segment current;
+	private final List<Segment> retired = new ArrayList<Segment>();
+	private final Map<Long, Set<TableJournal>> openTables = new HashMap<Long, Set<TableJournal>>();
+	private final List<Long> finished = new ArrayList<Long>();
+	private long removed;
+	private long appended;
+	private long committed;
+	private long records;
+	private long syncs;
+	private int nextTable;
+	private boolean closed;
+
+	/**
+	 * Constructor for a GameJournal with the default segment size and commit interval.
+	 * @param directory The directory to keep the segments in.
+	 * @throws IOException If the first segment cannot be created.
+	 */
+	public GameJournal(File directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMMIT_MILLIS);
+	}
+
+	/**
+	 * Constructor for a GameJournal.  Appending always starts a new
+	 * segment, after any that are already in the directory.
+	 * @param directory The directory to keep the segments in.
+	 * @param segmentSize The size of each segment, in bytes.
+	 * @param commitMillis How long records wait to be forced to disk together.
+	 * @throws IOException If the first segment cannot be created.
+	 */
+	public GameJournal(File directory, int segmentSize, long commitMillis) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.commitMillis = commitMillis;
+		final File[] existing = listSegments(directory);
+		final long next = existing.length == 0 ? 0 : indexOf(existing[existing.length - 1]) + 1;
+		current = new Segment(next);
+		appended = current.getPosition();
+		committed = appended;
+		syncer = new Thread(this::syncLoop, "SetbackJournalSync");
+		syncer.setDaemon(true);
+		syncer.start();
+	}
+
+	/**
+	 * Starts journaling a new table.
+	 * @param tableId The id of the table.
+	 * @param seed The seed of the table.
+	 * @return The journal of the table, which is told about its moves.
+	 */
+	public TableJournal open(String tableId, long seed) {
+		return open(tableId, seed, 0);
+	}
+
+	/**
+	 * Starts journaling a table.
+	 * @param tableId The id of the table.
+	 * @param seed The seed of the table.
+	 * @param firstMove The index of the next move made at the table,
+	 * which is not 0 if the table was rebuilt from moves made before.
+	 * @return The journal of the table, which is told about its moves.
+	 */
+	public synchronized TableJournal open(String tableId, long seed, int firstMove) {
+		return new TableJournal(this, nextTable++, tableId, seed, firstMove);
+	}
+
+	/**
+	 * Appends a move.
+	 * @param table The table the move was made at.
+	 * @param move The move, packed by Moves.
+	 * @throws IOException If a new segment was needed and could not be created.
+	 */
+	synchronized void appendMove(TableJournal table, int move) throws IOException {
+		final ByteBuffer buffer = reserve(table, MOVE_SIZE);
+		final int start = buffer.position();
+		buffer.position(start + 1);
+		buffer.putInt(table.getNumber());
+		buffer.putInt(move);
+		publish(buffer, start, MOVE);
+		table.moveAppended();
+	}
+
+	/**
+	 * Appends the state of a table at the start of a round.
+	 * @param table The table.
+	 * @param moveCount The number of moves made before the round.
+	 * @param state The state of the game at the start of the round.
+	 * @throws IOException If a new segment was needed and could not be created.
+	 */
+	synchronized void appendRound(TableJournal table, int moveCount, RoundState state) throws IOException {
+		final ByteBuffer buffer = reserve(table, ROUND_SIZE);
+		final int start = buffer.position();
+		buffer.position(start + 1);
+		buffer.putInt(table.getNumber());
+		buffer.putInt(moveCount);
+		buffer.put((byte) state.getDealer().ordinal());
+		buffer.putShort((short) state.getTeamOneScore());
+		buffer.putShort((short) state.getTeamTwoScore());
+		buffer.putLong(state.getDealState());
+		publish(buffer, start, ROUND);
+	}
+
+	/**
+	 * Appends the session token given to the player in a seat.
+	 * @param table The table.
+	 * @param seat The seat.
+	 * @param token The token.
+	 * @throws IOException If a new segment was needed and could not be created.
+	 */
+	synchronized void appendSession(TableJournal table, PlayerNumber seat, long token) throws IOException {
+		final ByteBuffer buffer = reserve(table, SESSION_SIZE);
+		final int start = buffer.position();
+		buffer.position(start + 1);
+		buffer.putInt(table.getNumber());
+		buffer.put((byte) seat.ordinal());
+		buffer.putLong(token);
+		publish(buffer, start, SESSION);
+	}
+
+	/**
+	 * Appends that a table is closed, because its game has ended or it
+	 * has left this node, and deletes the segments that only held closed
+	 * tables.  Nothing more is appended for the table.
+	 * @param table The table.
+	 * @throws IOException If a new segment was needed and could not be created.
+	 */
+	synchronized void appendClosed(TableJournal table) throws IOException {
+		if (table.isClosed()) {
+			return;
+		}
+		final ByteBuffer buffer = reserve(table, CLOSED_SIZE);
+		final int start = buffer.position();
+		buffer.position(start + 1);
+		buffer.putInt(table.getNumber());
+		publish(buffer, start, CLOSED);
+		table.setClosed();
+		for (Set<TableJournal> tables : openTables.values()) {
+			tables.remove(table);
+		}
+		removeFinished();
+	}
+
+	/**
+	 * Appends an event, as the frame it is sent to clients in.
+	 * @param table The table the event happened at.
+	 * @param event The event.
+	 * @throws IOException If a new segment was needed and could not be created.
+	 */
+	synchronized void appendEvent(TableJournal table, GameEvent event) throws IOException {
+		final byte[] frame = event.getFrame();
+		final ByteBuffer buffer = reserve(table, 1 + 4 + frame.length);
+		final int start = buffer.position();
+		buffer.position(start + 1);
+		buffer.putInt(table.getNumber());
+		buffer.put(frame);
+		publish(buffer, start, EVENT);
+	}
+
+	/**
+	 * Helper function that makes room for a record, and names the table
+	 * first if it has not been named in this segment.
+	 * @return The buffer to write the record to.
+	 */
+	private ByteBuffer reserve(TableJournal table, int size) throws IOException {
+		if (closed) {
+			throw new IOException("The journal is closed!");
+		}
+		if (table.isClosed()) {
+			throw new IOException("Table " + table.getTableId() + " is closed!");
+		}
+		final byte[] id = table.getIdBytes();
+		final int tableSize = 1 + 4 + 8 + 4 + 2 + id.length;
+		final boolean named = table.getSegment() == current.index;
+		if (current.buffer.remaining() < size + (named ? 0 : tableSize)) {
+			roll();
+		}
+		if (table.getSegment() != current.index) {
+			final ByteBuffer buffer = current.buffer;
+			final int start = buffer.position();
+			buffer.position(start + 1);
+			buffer.putInt(table.getNumber());
+			buffer.putLong(table.getSeed());
+			buffer.putInt(table.getNextMove());
+			buffer.putShort((short) id.length);
+			buffer.put(id);
+			publish(buffer, start, TABLE);
+			table.setSegment(current.index);
+			Set<TableJournal> tables = openTables.get(current.index);
+			if (tables == null) {
+				tables = new HashSet<TableJournal>();
+				openTables.put(current.index, tables);
+			}
+			tables.add(table);
+		}
+		return current.buffer;
+	}
+
+	/**
+	 * Helper function that makes a record visible by writing its type.
+	 */
+	private void publish(ByteBuffer buffer, int start, byte type) {
+		buffer.put(start, type);
+		appended = current.getPosition();
+		records++;
+	}
+
+	/**
+	 * Helper function that moves on to a new segment.  The full one is
+	 * forced and closed by the sync thread.
+	 */
+	private void roll() throws IOException {
+		final Segment next = new Segment(current.index + 1);
+		retired.add(current);
+		current = next;
+		appended = current.getPosition();
+	}
+
+	/**
+	 * Helper function that deletes the full segments that have been closed
+	 * by the sync thread and have no open tables left in them.  Must be
+	 * called while holding the lock on this journal.
+	 */
+	private void removeFinished() {
+		for (Iterator<Long> indexes = finished.iterator(); indexes.hasNext();) {
+			final long index = indexes.next();
+			final Set<TableJournal> tables = openTables.get(index);
+			if (tables == null || tables.isEmpty()) {
+				indexes.remove();
+				openTables.remove(index);
+				try {
+					Files.deleteIfExists(fileOf(directory, index).toPath());
+					removed++;
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until every record appended so far has been forced to disk.
+	 * @throws IOException If the journal was closed before then.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	public synchronized void sync() throws IOException, InterruptedException {
+		final long target = appended;
+		while (committed < target) {
+			if (closed && !syncer.isAlive()) {
+				throw new IOException("The journal was closed before it was synced!");
+			}
+			wait(commitMillis);
+		}
+	}
+
+	/**
+	 * The body of the sync thread.  Each pass forces everything that was
+	 * appended since the last one, however many records that is.
+	 */
+	private void syncLoop() {
+		while (true) {
+			final List<Segment> toForce;
+			final long target;
+			final boolean last;
+			synchronized (this) {
+				if (!closed) {
+					try {
+						wait(commitMillis);
+					} catch (InterruptedException e) {
+						closed = true;
+					}
+				}
+				last = closed;
+				target = appended;
+				if (target == committed && retired.isEmpty()) {
+					if (last) {
+						current.close();
+						notifyAll();
+						return;
+					}
+					continue;
+				}
+				toForce = new ArrayList<Segment>(retired);
+				retired.clear();
+				toForce.add(current);
+			}
+			for (Segment segment : toForce) {
+				segment.buffer.force();
+			}
+			synchronized (this) {
+				committed = Math.max(committed, target);
+				syncs++;
+				for (int index = 0; index < toForce.size() - 1; index++) {
+					toForce.get(index).close();
+					finished.add(toForce.get(index).index);
+				}
+				removeFinished();
+				notifyAll();
+				if (last) {
+					current.close();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forces every record to disk and stops appending.
+	 * @throws IOException Never; the signature is Closeable's.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		try {
+			syncer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return The number of records appended since the journal was opened.
+	 */
+	public synchronized long getRecords() {
+		return records;
+	}
+
+	/**
+	 * @return The number of times the journal has been forced to disk.
+	 */
+	public synchronized long getSyncs() {
+		return syncs;
+	}
+
+	/**
+	 * @return The number of segments deleted because every table in them was closed.
+	 */
+	public synchronized long getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * @return The position, across every segment, after the last record.
+	 */
+	public synchronized long getAppended() {
+		return appended;
+	}
+
+	/**
+	 * @return The position up to which every record is on disk.
+	 */
+	public synchronized long getCommitted() {
+		return committed;
+	}
+
+	/**
+	 * Reads every record in a journal, in the order they were appended.
+	 * The handler is told when each segment starts, a table is named to
+	 * it each time it is seen in a new segment, and every move is given
+	 * its index among the moves of its table.
+	 * @param directory The directory of the journal.
+	 * @param handler Told about every record.
+	 * @throws IOException If a segment cannot be read, or is not a segment.
+	 */
+	public static void read(File directory, JournalHandler handler) throws IOException {
+		for (File file : listSegments(directory)) {
+			readSegment(file, handler);
+		}
+	}
+
+	/**
+	 * Helper function that reads every record in one segment.
+	 */
+	private static void readSegment(File file, JournalHandler handler) throws IOException {
+		final Map<Integer, String> ids = new HashMap<Integer, String>();
+		final Map<Integer, int[]> nextMoves = new HashMap<Integer, int[]>();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+				FileChannel channel = raf.getChannel()) {
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+				throw new IOException(file + " is not a journal segment!");
+			}
+			handler.segmentStarted(file);
+			while (buffer.hasRemaining()) {
+				final byte type = buffer.get();
+				if (type == END) {
+					break;
+				}
+				final int table = buffer.getInt();
+				switch (type) {
+					case TABLE: {
+						final long seed = buffer.getLong();
+						nextMoves.put(table, new int[]{buffer.getInt()});
+						final byte[] id = new byte[buffer.getShort() & 0xFFFF];
+						buffer.get(id);
+						final String tableId = new String(id, StandardCharsets.UTF_8);
+						ids.put(table, tableId);
+						handler.tableOpened(tableId, seed);
+						break;
+					}
+					case MOVE: {
+						final String tableId = idOf(ids, table, file);
+						handler.moveMade(tableId, nextMoves.get(table)[0]++, buffer.getInt());
+						break;
+					}
+					case EVENT: {
+						final int length = buffer.get() & 0xFF;
+						final int opcode = buffer.get() & 0xFF;
+						final ByteBuffer payload = buffer.slice();
+						payload.limit(length - 1);
+						buffer.position(buffer.position() + length - 1);
+						handler.eventOccurred(idOf(ids, table, file), GameEvent.fromFrame(opcode, payload));
+						break;
+					}
+					case ROUND: {
+						final String tableId = idOf(ids, table, file);
+						final int moveCount = buffer.getInt();
+						final PlayerNumber dealer = PLAYERS[buffer.get()];
+						final int teamOneScore = buffer.getShort();
+						final int teamTwoScore = buffer.getShort();
+						handler.roundBegan(tableId, moveCount,
+								new RoundState(dealer, teamOneScore, teamTwoScore, buffer.getLong()));
+						break;
+					}
+					case SESSION: {
+						final String tableId = idOf(ids, table, file);
+						final PlayerNumber seat = PLAYERS[buffer.get()];
+						handler.sessionOpened(tableId, seat, buffer.getLong());
+						break;
+					}
+					case CLOSED:
+						handler.tableClosed(idOf(ids, table, file));
+						break;
+					default:
+						throw new IOException("Unknown record " + type + " in " + file);
+				}
+			}
+		}
+	}
+
+	private static String idOf(Map<Integer, String> ids, int table, File file) throws IOException {
+		final String id = ids.get(table);
+		if (id == null) {
+			throw new IOException("Table " + table + " was never named in " + file);
+		}
+		return id;
+	}
+
+	/**
+	 * @param directory The directory of a journal.
+	 * @return Its segments, oldest first.
+	 */
+	static File[] listSegments(File directory) {
+		final File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+		if (files == null) {
+			return new File[0];
+		}
+		Arrays.sort(files);
+		return files;
+	}
+
+	/**
+	 * @param directory The directory of a journal.
+	 * @param index The index of a segment.
+	 * @return The file of the segment.
+	 */
+	static File fileOf(File directory, long index) {
+		// The names sort in the order the segments were written
+		return new File(directory, String.format("%016x", index) + SUFFIX);
+	}
+
+	/**
+	 * @param file A segment.
+	 * @return Its index in the journal.
+	 */
+	static long indexOf(File file) {
+		final String name = file.getName();
+		return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()), 16);
+	}
+
+	/**
+	 * This class is one mapped segment file.
+	 */
+	private class Segment {
+		private final long index;
+		private final RandomAccessFile file;
+		private final MappedByteBuffer buffer;
+
+		Segment(long index) throws IOException {
+			this.index = index;
+			file = new RandomAccessFile(fileOf(directory, index), "rw");
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+			buffer.putInt(MAGIC);
+		}
+
+		long getPosition() {
+			return index * segmentSize + buffer.position();
+		}
+
+		void close() {
+			try {
+				file.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.journal;
+
+import setback.application.event.GameEvent;
+import setback.common.PlayerNumber;
+import setback.game.common.RoundState;
+
+import java.io.File;
+
+/**
+ * This interface is told about the records of a GameJournal as it is read.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface JournalHandler {
+
+	/**
+	 * This method is called the first time a table is seen in each
+	 * segment, so it may be called again for a table it already knows.
+	 * @param tableId The id of the table.
+	 * @param seed The seed of the table.
+	 */
+	void tableOpened(String tableId, long seed);
+
+	/**
+	 * @param tableId The table the move was made at.
+	 * @param index The index of the move among the moves of the table.
+	 * @param move The move, packed by Moves.
+	 */
+	void moveMade(String tableId, int index, int move);
+
+	/**
+	 * @param tableId The table the event happened at.
+	 * @param event The result of a trick or round.
+	 */
+	void eventOccurred(String tableId, GameEvent event);
+
+	/**
+	 * @param tableId The table.
+	 * @param moveCount The number of moves made before the round began.
+	 * @param state The state of the game when the round began.
+	 */
+	void roundBegan(String tableId, int moveCount, RoundState state);
+
+	/**
+	 * @param tableId The table.
+	 * @param seat The seat whose player was given a session.
+	 * @param token The session token.
+	 */
+	default void sessionOpened(String tableId, PlayerNumber seat, long token) {
+	}
+
+	/**
+	 * @param tableId The table that was closed, because its game ended
+	 * or it left the node.  It is named again if it is journaled again.
+	 */
+	default void tableClosed(String tableId) {
+	}
+
+	/**
+	 * @param segment The segment whose records are read next.
+	 */
+	default void segmentStarted(File segment) {
+	}
+}
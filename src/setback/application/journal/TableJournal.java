@@ -0,0 +1,204 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.journal;
+
+import setback.application.SetbackObserver;
+import setback.application.event.GameEvent;
+import setback.application.move.MoveListener;
+import setback.common.PlayerNumber;
+import setback.game.common.RoundState;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is the journal of one table.  It is told about every move
+ * made at the table, the session tokens of its seats, the results of
+ * tricks and rounds, and the state of the game at the start of every
+ * round, and appends them all to the GameJournal.
+ * <p>
+ * Both are called while the game is locked, so a failure to append
+ * cannot be thrown back to the player.  It is counted instead.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableJournal implements MoveListener, SetbackObserver {
+
+	private final GameJournal journal;
+	private final int number;
+	private final String tableId;
+	private final byte[] idBytes;
+	private final long seed;
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * The segment this table was last named in.  Guarded by the journal.
+	 */
+	private long segment = -1;
+
+	/**
+	 * The index of the next move.  Guarded by the journal.
+	 */
+	private int nextMove;
+
+	/**
+	 * True once the table is closed in the journal.  Guarded by the journal.
+	 */
+	private boolean closed;
+
+	/**
+	 * Constructor for a TableJournal, which is only made by the GameJournal.
+	 * @param journal The journal to append to.
+	 * @param number The number of the table in the journal.
+	 * @param tableId The id of the table.
+	 * @param seed The seed of the table.
+	 * @param firstMove The index of the next move made at the table.
+	 */
+	TableJournal(GameJournal journal, int number, String tableId, long seed, int firstMove) {
+		this.journal = journal;
+		this.number = number;
+		this.tableId = tableId;
+		idBytes = tableId.getBytes(StandardCharsets.UTF_8);
+		this.seed = seed;
+		nextMove = firstMove;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#moveMade(int)
+	 */
+	public void moveMade(int move) {
+		try {
+			journal.appendMove(this, move);
+		} catch (IOException e) {
+			failures.incrementAndGet();
+			e.printStackTrace();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.SetbackObserver#update(setback.application.event.GameEvent)
+	 */
+	public void update(GameEvent event) {
+		if (!isResult(event)) {
+			return;
+		}
+		try {
+			journal.appendEvent(this, event);
+		} catch (IOException e) {
+			failures.incrementAndGet();
+			e.printStackTrace();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#sessionOpened(setback.common.PlayerNumber, long)
+	 */
+	public void sessionOpened(PlayerNumber seat, long token) {
+		try {
+			journal.appendSession(this, seat, token);
+		} catch (IOException e) {
+			failures.incrementAndGet();
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Closes the table in the journal, because its game has ended or it
+	 * has left this node, so that it is not recovered after a crash.
+	 */
+	public void tableClosed() {
+		try {
+			journal.appendClosed(this);
+		} catch (IOException e) {
+			failures.incrementAndGet();
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Appends the state of the game at the start of a round, which the
+	 * table can be recovered from.  It is a handful of bytes, taken while
+	 * the move that started the round still holds the game.
+	 * @param moveCount The number of moves made before the round.
+	 * @param state The state of the game at the start of the round.
+	 */
+	public void roundBegan(int moveCount, RoundState state) {
+		try {
+			journal.appendRound(this, moveCount, state);
+		} catch (IOException e) {
+			failures.incrementAndGet();
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * @param event An event from the game.
+	 * @return True if the event is a result, and so is journaled.  Every
+	 * other event follows from a move that is already in the journal.
+	 */
+	public static boolean isResult(GameEvent event) {
+		switch (event.getType()) {
+			case TRICK_WON:
+			case ROUND_ENDED:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * @return The number of records that could not be appended.
+	 */
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * @return the tableId.
+	 */
+	public String getTableId() {
+		return tableId;
+	}
+
+	int getNumber() {
+		return number;
+	}
+
+	long getSeed() {
+		return seed;
+	}
+
+	byte[] getIdBytes() {
+		return idBytes;
+	}
+
+	long getSegment() {
+		return segment;
+	}
+
+	void setSegment(long segment) {
+		this.segment = segment;
+	}
+
+	int getNextMove() {
+		return nextMove;
+	}
+
+	void moveAppended() {
+		nextMove++;
+	}
+
+	boolean isClosed() {
+		return closed;
+	}
+
+	void setClosed() {
+		closed = true;
+	}
+}
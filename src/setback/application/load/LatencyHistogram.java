@@ -0,0 +1,116 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class counts latencies in the same log-linear buckets as an
+ * HdrHistogram.  Values are kept to eight significant bits, which is
+ * better than one percent, from one nanosecond up to an hour, in a
+ * fixed array of counts.  Recording is a single atomic increment,
+ * so every table of a load test can record into the same histogram.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Values are exact below this, and within 1/128 of themselves above it.
+	 */
+	private static final int SUB_BUCKET_BITS = 8;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+	/**
+	 * The largest value that is kept.  Larger values are counted as this.
+	 */
+	public static final long MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+
+	private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Counts a value.
+	 * @param value The value, such as a latency in nanoseconds.
+	 */
+	public void record(long value) {
+		final long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+		counts.incrementAndGet(indexOf(clamped));
+		count.incrementAndGet();
+		total.addAndGet(clamped);
+		max.accumulateAndGet(clamped, Math::max);
+	}
+
+	/**
+	 * @param percentile The percentile, from 0 to 100.
+	 * @return The largest value that the given percentage of values are
+	 * at or below, to the precision of the buckets.  0 if nothing was counted.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		final long recorded = count.get();
+		if (recorded == 0) {
+			return 0;
+		}
+		final long wanted = Math.max(1, (long) Math.ceil(recorded * Math.min(percentile, 100) / 100));
+		long seen = 0;
+		for (int index = 0; index < counts.length(); index++) {
+			seen += counts.get(index);
+			if (seen >= wanted) {
+				return Math.min(highestValueAt(index), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * @return The number of values counted.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return The mean of the values counted, or 0 if there are none.
+	 */
+	public double getMean() {
+		final long recorded = count.get();
+		return recorded == 0 ? 0 : (double) total.get() / recorded;
+	}
+
+	/**
+	 * @return The largest value counted.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Helper function that finds the bucket of a value.  The first
+	 * SUB_BUCKET_COUNT values have a bucket each, and each doubling
+	 * after that is split into SUB_BUCKET_HALF buckets.
+	 * @param value The value, which is not negative.
+	 * @return The index of its bucket.
+	 */
+	static int indexOf(long value) {
+		final int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+	}
+
+	/**
+	 * Helper function that finds the largest value in a bucket.
+	 * @param index The index of the bucket.
+	 * @return The largest value that is counted in it.
+	 */
+	static long highestValueAt(int index) {
+		final int shift = Math.max(0, index / SUB_BUCKET_HALF - 1);
+		final long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.load;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.NetworkConfig;
+import setback.application.cluster.SetbackClusterNode;
+import setback.application.server.SetbackVertxServer;
+import setback.application.server.TableRegistry;
+import setback.application.socket.MemoryIOPair;
+import setback.application.socket.SocketIOPair;
+import setback.common.SetbackException;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how much a server can take.  It plays many tables
+ * of headless bots against one server at once, ramping the tables up
+ * over a while, and then reports how many moves per second were made,
+ * and the latency percentiles of every command.
+ * <p>
+ * Everything runs on one machine over loopback.  Arguments are given as
+ * key=value: tables (100), rounds (3), ramp in milliseconds (5000), host
+ * (127.0.0.1) and port (8080).  With embedded=true, a server is started
+ * in this process instead of using one that is already running.
+ * <p>
+ * With transport=memory, the tables are played in this process through
+ * MemoryIOPairs instead, with no sockets and no cluster, which measures
+ * the server itself rather than the network in front of it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LoadGenerator {
+
+	public static final String LOOPBACK = "127.0.0.1";
+	public static final int DEFAULT_TABLES = 100;
+	public static final int DEFAULT_ROUNDS = 3;
+	public static final long DEFAULT_RAMP_MILLIS = 5000;
+	public static final String MEMORY_TRANSPORT = "memory";
+
+	/**
+	 * This is the executable function that runs a load test and prints its report.
+	 * @param args The settings, as key=value.
+	 * @throws Exception If the embedded server does not start, or the test is interrupted.
+	 */
+	public static void main(String[] args) throws Exception {
+		final Map<String, String> settings = new HashMap<String, String>();
+		for (String arg : args) {
+			final int equals = arg.indexOf('=');
+			if (equals < 0) {
+				System.err.println("Arguments are key=value, not " + arg);
+				System.exit(-1);
+			}
+			settings.put(arg.substring(0, equals), arg.substring(equals + 1));
+		}
+		final int tables = Integer.parseInt(settings.getOrDefault("tables", String.valueOf(DEFAULT_TABLES)));
+		final int rounds = Integer.parseInt(settings.getOrDefault("rounds", String.valueOf(DEFAULT_ROUNDS)));
+		final long ramp = Long.parseLong(settings.getOrDefault("ramp", String.valueOf(DEFAULT_RAMP_MILLIS)));
+		final String host = settings.getOrDefault("host", LOOPBACK);
+		int port = Integer.parseInt(settings.getOrDefault("port", String.valueOf(SetbackVertxServer.PORT)));
+
+		if (MEMORY_TRANSPORT.equals(settings.get("transport"))) {
+			final LoadMetrics metrics = runInMemory(tables, rounds, ramp);
+			System.out.print(metrics.report());
+			System.exit(metrics.getErrors() == 0 ? 0 : 1);
+		}
+
+		SetbackClusterNode node = null;
+		if (Boolean.parseBoolean(settings.get("embedded"))) {
+			node = startEmbedded();
+			port = listen(node);
+			System.out.println("Started a server on port " + port);
+		}
+
+		final LoadMetrics metrics = run(host, port, tables, rounds, ramp);
+		System.out.print(metrics.report());
+
+		if (node != null) {
+			final CompletableFuture<Void> closed = new CompletableFuture<Void>();
+			node.close(unused -> closed.complete(null));
+			closed.get(30, TimeUnit.SECONDS);
+		}
+		System.exit(metrics.getErrors() == 0 ? 0 : 1);
+	}
+
+	/**
+	 * Plays the tables, starting them evenly over the ramp, and waits
+	 * until they have all finished.
+	 * @param host The host of the server.
+	 * @param port The port of the server.
+	 * @param tables The number of tables to play.
+	 * @param rounds The number of rounds each table plays.
+	 * @param rampMillis How long to take to start every table.
+	 * @return What the bots saw.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	public static LoadMetrics run(String host, int port, int tables, int rounds, long rampMillis)
+			throws InterruptedException {
+		return run(tableId -> {
+			final Socket socket = new Socket(host, port);
+			socket.setSoTimeout(LoadTable.REPLY_TIMEOUT_MILLIS);
+			socket.setTcpNoDelay(true);
+			new PrintWriter(socket.getOutputStream(), true).println(SetbackClusterNode.TABLE_PREFIX + tableId);
+			return new SocketIOPair(socket);
+		}, tables, rounds, rampMillis);
+	}
+
+	/**
+	 * Plays the tables in this process, each at a table of its own that
+	 * the bots reach through memory.
+	 * @param tables The number of tables to play.
+	 * @param rounds The number of rounds each table plays.
+	 * @param rampMillis How long to take to start every table.
+	 * @return What the bots saw.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	public static LoadMetrics runInMemory(int tables, int rounds, long rampMillis)
+			throws InterruptedException {
+		final TableRegistry registry = new TableRegistry();
+		return run(tableId -> {
+			final MemoryIOPair pair;
+			try {
+				pair = registry.getOrCreate(tableId).connectLocal();
+			} catch (SetbackException e) {
+				throw new IOException(e);
+			}
+			pair.setReadTimeout(LoadTable.REPLY_TIMEOUT_MILLIS);
+			return pair;
+		}, tables, rounds, rampMillis);
+	}
+
+	/**
+	 * Helper function that plays the tables through any connector.
+	 */
+	private static LoadMetrics run(LoadTable.Connector connector, int tables, int rounds, long rampMillis)
+			throws InterruptedException {
+		final LoadMetrics metrics = new LoadMetrics();
+		final String prefix = "load-" + UUID.randomUUID() + "-";
+		// Every table blocks on its connections, so each has a thread
+		final ScheduledExecutorService executor = Executors.newScheduledThreadPool(tables);
+		metrics.start();
+		for (int table = 0; table < tables; table++) {
+			final long delay = tables == 1 ? 0 : rampMillis * table / (tables - 1);
+			executor.schedule(new LoadTable(connector, prefix + table, rounds, metrics),
+					delay, TimeUnit.MILLISECONDS);
+		}
+		executor.shutdown();
+		executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		metrics.stop();
+		return metrics;
+	}
+
+	/**
+	 * Helper function that starts a cluster of one node, which only
+	 * looks for other nodes on loopback.
+	 * @return The node.
+	 */
+	private static SetbackClusterNode startEmbedded() throws Exception {
+		final Config config = new Config();
+		config.setProperty("hazelcast.logging.type", "none");
+		config.setProperty("hazelcast.phone.home.enabled", "false");
+		config.setProperty("hazelcast.health.monitoring.level", "OFF");
+		config.getGroupConfig().setName("setback-load-" + UUID.randomUUID());
+		final NetworkConfig network = config.getNetworkConfig();
+		network.getInterfaces().setEnabled(true).addInterface(LOOPBACK);
+		final JoinConfig join = network.getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(true).addMember(LOOPBACK);
+
+		final CompletableFuture<SetbackClusterNode> started = new CompletableFuture<SetbackClusterNode>();
+		SetbackClusterNode.start(config, LOOPBACK, result -> {
+			if (result.succeeded()) {
+				started.complete(result.result());
+			}
+			else {
+				started.completeExceptionally(result.cause());
+			}
+		});
+		return started.get(60, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Helper function that has a node accept clients on any free port.
+	 * @param node The node.
+	 * @return The port.
+	 */
+	private static int listen(SetbackClusterNode node) throws Exception {
+		final CompletableFuture<Integer> listening = new CompletableFuture<Integer>();
+		node.listen(LOOPBACK, 0, result -> {
+			if (result.succeeded()) {
+				listening.complete(result.result().actualPort());
+			}
+			else {
+				listening.completeExceptionally(result.cause());
+			}
+		});
+		return listening.get(10, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,185 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.load;
+
+import setback.application.command.Command;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class gathers what the bots of a load test see: the latency of
+ * every command, by command, and how many moves were made, refused or lost.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LoadMetrics {
+
+	private final Map<Command, LatencyHistogram> latencies =
+			new EnumMap<Command, LatencyHistogram>(Command.class);
+	private final AtomicLong moves = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong errors = new AtomicLong();
+	private final AtomicLong tablesFinished = new AtomicLong();
+	private final AtomicLong tablesFailed = new AtomicLong();
+	private volatile long startNanos = System.nanoTime();
+	private volatile long endNanos;
+
+	/**
+	 * Constructor for LoadMetrics.  Every command has its histogram from
+	 * the start, so recording never has to create one.
+	 */
+	public LoadMetrics() {
+		for (Command command : Command.values()) {
+			latencies.put(command, new LatencyHistogram());
+		}
+	}
+
+	/**
+	 * @param command The command that was sent.
+	 * @param nanos How long the reply took.
+	 */
+	public void recordLatency(Command command, long nanos) {
+		latencies.get(command).record(nanos);
+	}
+
+	/**
+	 * Counts a move the server accepted.
+	 */
+	public void recordMove() {
+		moves.incrementAndGet();
+	}
+
+	/**
+	 * Counts a move the server refused, such as a card that does not
+	 * follow suit.  The bots find legal moves by trying them.
+	 */
+	public void recordRejected() {
+		rejected.incrementAndGet();
+	}
+
+	/**
+	 * Counts a connection that failed, or a reply that made no sense.
+	 */
+	public void recordError() {
+		errors.incrementAndGet();
+	}
+
+	/**
+	 * @param finished True if the table played every round it was
+	 * asked to, false if it stopped early.
+	 */
+	public void recordTable(boolean finished) {
+		(finished ? tablesFinished : tablesFailed).incrementAndGet();
+	}
+
+	/**
+	 * Starts the clock that moves per second are measured against.
+	 */
+	public void start() {
+		startNanos = System.nanoTime();
+		endNanos = 0;
+	}
+
+	/**
+	 * Stops the clock that moves per second are measured against.
+	 */
+	public void stop() {
+		endNanos = System.nanoTime();
+	}
+
+	/**
+	 * @param command A command.
+	 * @return The latencies of the command.
+	 */
+	public LatencyHistogram getLatency(Command command) {
+		return latencies.get(command);
+	}
+
+	/**
+	 * @return The number of moves the server accepted.
+	 */
+	public long getMoves() {
+		return moves.get();
+	}
+
+	/**
+	 * @return The number of moves the server refused.
+	 */
+	public long getRejected() {
+		return rejected.get();
+	}
+
+	/**
+	 * @return The number of failed connections and nonsense replies.
+	 */
+	public long getErrors() {
+		return errors.get();
+	}
+
+	/**
+	 * @return The number of tables that played all of their rounds.
+	 */
+	public long getTablesFinished() {
+		return tablesFinished.get();
+	}
+
+	/**
+	 * @return The number of tables that stopped early.
+	 */
+	public long getTablesFailed() {
+		return tablesFailed.get();
+	}
+
+	/**
+	 * @return The number of commands sent.
+	 */
+	public long getCommands() {
+		long commands = 0;
+		for (LatencyHistogram histogram : latencies.values()) {
+			commands += histogram.getCount();
+		}
+		return commands;
+	}
+
+	/**
+	 * @return The moves accepted per second, up to now or until the clock stopped.
+	 */
+	public double getMovesPerSecond() {
+		final long end = endNanos == 0 ? System.nanoTime() : endNanos;
+		final double seconds = Math.max(1, end - startNanos) / 1e9;
+		return moves.get() / seconds;
+	}
+
+	/**
+	 * @return A report of the test, with a line for every command that was sent.
+	 */
+	public String report() {
+		final StringBuilder report = new StringBuilder();
+		final long commands = getCommands();
+		report.append(String.format(Locale.ROOT,
+				"tables: %d finished, %d failed%n", getTablesFinished(), getTablesFailed()));
+		report.append(String.format(Locale.ROOT,
+				"moves: %d (%.1f/s), rejected: %d, commands: %d, errors: %d (%.3f%%)%n",
+				getMoves(), getMovesPerSecond(), getRejected(), commands, getErrors(),
+				commands == 0 ? 0.0 : 100.0 * getErrors() / commands));
+		report.append(String.format(Locale.ROOT, "%-20s %10s %10s %10s %10s %10s%n",
+				"command (us)", "count", "p50", "p99", "p999", "max"));
+		for (Map.Entry<Command, LatencyHistogram> entry : latencies.entrySet()) {
+			final LatencyHistogram histogram = entry.getValue();
+			if (histogram.getCount() > 0) {
+				report.append(String.format(Locale.ROOT, "%-20s %10d %10d %10d %10d %10d%n",
+						entry.getKey(), histogram.getCount(),
+						histogram.getValueAtPercentile(50) / 1000,
+						histogram.getValueAtPercentile(99) / 1000,
+						histogram.getValueAtPercentile(99.9) / 1000,
+						histogram.getMax() / 1000));
+			}
+		}
+		return report.toString();
+	}
+}
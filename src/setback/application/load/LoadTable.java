@@ -0,0 +1,345 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.load;
+
+import setback.application.command.Command;
+import setback.application.command.TextCommandReply;
+import setback.application.socket.IOPair;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is one synthetic table of a load test: four headless bots
+ * that connect to a table, take the four seats, and play rounds as fast
+ * as the server answers them.  They speak the text protocol exactly as
+ * the SetbackClientControllerImpl does, one command and one reply at a time.
+ * <p>
+ * The bots take turns on a single thread.  They know whose turn it is
+ * from the replies they get, and where they cannot know, such as who
+ * bets first, or which card follows suit, they try each choice in turn.
+ * Every bot passes, so the dealer always wins the bet.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LoadTable implements Runnable {
+
+	public static final int SEATS = PlayerNumber.values().length;
+
+	/**
+	 * How long a bot waits for a reply before giving up on the table.
+	 */
+	public static final int REPLY_TIMEOUT_MILLIS = 10000;
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final CardSuit[] SUITS = CardSuit.values();
+	private static final String HAND_HEADER = "HAND:";
+	private static final String WON_WITH = " WON WITH";
+
+	private final Connector connector;
+	private final String tableId;
+	private final int rounds;
+	private final LoadMetrics metrics;
+	private final Bot[] bots = new Bot[SEATS];
+	private int firstBettor;
+
+	/**
+	 * Constructor for a LoadTable.  Nothing connects until it is run.
+	 * @param connector Connects the bots to the table.
+	 * @param tableId The table to play at.
+	 * @param rounds The number of rounds to play.
+	 * @param metrics Where to record what happens.
+	 */
+	public LoadTable(Connector connector, String tableId, int rounds, LoadMetrics metrics) {
+		this.connector = connector;
+		this.tableId = tableId;
+		this.rounds = rounds;
+		this.metrics = metrics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run() {
+		boolean finished = false;
+		try {
+			for (int seat = 0; seat < SEATS; seat++) {
+				bots[seat] = new Bot(PLAYERS[seat]);
+				bots[seat].takeSeat();
+			}
+			for (int round = 0; round < rounds; round++) {
+				playRound();
+			}
+			finished = true;
+		} catch (IOException e) {
+			metrics.recordError();
+		} catch (SetbackException e) {
+			// Nobody could move, which is usually the end of the game
+		} finally {
+			for (Bot bot : bots) {
+				if (bot != null) {
+					bot.close();
+				}
+			}
+			metrics.recordTable(finished);
+		}
+	}
+
+	/**
+	 * Helper function that plays one round: four bets, trump, four
+	 * discards, and then every card in every hand.
+	 */
+	private void playRound() throws IOException, SetbackException {
+		int bettor = firstBettor;
+		for (int bet = 0; bet < SEATS; bet++) {
+			bettor = next(findMove(bettor, seat -> bots[seat].bet()));
+		}
+		// The dealer bet last, and bets first next round
+		firstBettor = next(bettor);
+
+		final Bot winner = bots[bots[0].getWinningBettor().ordinal()];
+		final CardSuit trump = winner.selectTrump();
+		int cardsLeft = 0;
+		for (Bot bot : bots) {
+			cardsLeft += bot.discard(trump);
+		}
+		for (; cardsLeft > 0; cardsLeft--) {
+			final PlayerNumber current = bots[0].getCurrentPlayer();
+			if (!bots[current.ordinal()].play()) {
+				throw new SetbackException(current + " has no card to play!");
+			}
+		}
+	}
+
+	/**
+	 * Helper function that finds which seat can make a move, starting
+	 * with the seat it is most likely to be.
+	 * @param expected The seat to try first.
+	 * @param move Tries the move for a seat.
+	 * @return The seat that made the move.
+	 * @throws SetbackException If no seat could make the move.
+	 */
+	private int findMove(int expected, SeatMove move) throws IOException, SetbackException {
+		for (int attempt = 0; attempt < SEATS; attempt++) {
+			final int seat = (expected + attempt) % SEATS;
+			if (move.tryMove(seat)) {
+				return seat;
+			}
+		}
+		throw new SetbackException("Nobody could move at " + tableId + "!");
+	}
+
+	private static int next(int seat) {
+		return (seat + 1) % SEATS;
+	}
+
+	/**
+	 * This interface connects a bot to a table, over a socket or in memory.
+	 */
+	public interface Connector {
+		/**
+		 * @param tableId The table.
+		 * @return A connection to the table, which will next send the greeting.
+		 * It should time out after REPLY_TIMEOUT_MILLIS without a reply.
+		 * @throws IOException If the bot cannot connect.
+		 */
+		IOPair connect(String tableId) throws IOException;
+	}
+
+	/**
+	 * A move that one of the seats may be able to make.
+	 */
+	private interface SeatMove {
+		boolean tryMove(int seat) throws IOException;
+	}
+
+	/**
+	 * This class is one headless client in one seat.
+	 */
+	private class Bot {
+		private final PlayerNumber player;
+		private final IOPair pair;
+		private final PrintWriter out;
+		private final BufferedReader in;
+		private final TextCommandReply expected = new TextCommandReply();
+		private final List<Card> hand = new ArrayList<Card>();
+
+		Bot(PlayerNumber player) throws IOException {
+			this.player = player;
+			pair = connector.connect(tableId);
+			out = new PrintWriter(pair.out(), true);
+			in = new BufferedReader(new InputStreamReader(pair.in()));
+			// The server greets every client with an empty reply
+			in.readLine();
+		}
+
+		void takeSeat() throws IOException, SetbackException {
+			final Command command = Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + player.ordinal()];
+			if (!move(command, command.toString(), 0, 0, 0)) {
+				throw new SetbackException(player + " is already taken at " + tableId + "!");
+			}
+		}
+
+		/**
+		 * Passes, or bets two if it is the dealer and everyone else passed.
+		 * @return True if it was this bot's turn to bet.
+		 */
+		boolean bet() throws IOException {
+			return move(Command.PLACE_BET, "PLACE_BET PASS", Bet.PASS.ordinal(), 0, 0)
+					|| move(Command.PLACE_BET, "PLACE_BET TWO", Bet.TWO.ordinal(), 0, 0);
+		}
+
+		/**
+		 * Makes the suit it holds most of trump.
+		 * @return The suit.
+		 */
+		CardSuit selectTrump() throws IOException, SetbackException {
+			showHand();
+			final int[] counts = new int[SUITS.length];
+			for (Card card : hand) {
+				counts[card.getSuit().ordinal()]++;
+			}
+			int best = 0;
+			for (int suit = 1; suit < counts.length; suit++) {
+				if (counts[suit] > counts[best]) {
+					best = suit;
+				}
+			}
+			if (!move(Command.SELECT_TRUMP, "SELECT_TRUMP " + SUITS[best].name(), best, 0, 0)) {
+				throw new SetbackException(player + " could not select trump!");
+			}
+			return SUITS[best];
+		}
+
+		/**
+		 * Discards its three lowest cards, keeping trump if it can.
+		 * @param trump The trump suit.
+		 * @return The number of cards it has left to play.
+		 */
+		int discard(CardSuit trump) throws IOException, SetbackException {
+			showHand();
+			final List<Card> cards = new ArrayList<Card>(hand);
+			cards.sort((one, two) -> {
+				final boolean oneTrump = one.getSuit() == trump;
+				final boolean twoTrump = two.getSuit() == trump;
+				if (oneTrump != twoTrump) {
+					return oneTrump ? 1 : -1;
+				}
+				return one.getType().getStandardValue() - two.getType().getStandardValue();
+			});
+			if (cards.size() < 3 || !move(Command.DISCARD_CARDS,
+					"DISCARD_CARDS " + cards.get(0) + " " + cards.get(1) + " " + cards.get(2),
+					cards.get(0).getOrdinal(), cards.get(1).getOrdinal(), cards.get(2).getOrdinal())) {
+				throw new SetbackException(player + " could not discard!");
+			}
+			return cards.size() - 3;
+		}
+
+		/**
+		 * Plays the first card in its hand that the server accepts.
+		 * @return True if a card was played.
+		 */
+		boolean play() throws IOException {
+			showHand();
+			for (Card card : hand) {
+				if (move(Command.PLAY_CARD, "PLAY_CARD " + card, card.getOrdinal(), 0, 0)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		PlayerNumber getWinningBettor() throws IOException {
+			final String reply = send(Command.GET_WINNING_BET, Command.GET_WINNING_BET.toString());
+			final int end = reply.lastIndexOf(WON_WITH);
+			if (end < 0) {
+				throw unexpected(reply);
+			}
+			return parsePlayer(reply.substring(0, end));
+		}
+
+		PlayerNumber getCurrentPlayer() throws IOException {
+			return parsePlayer(send(Command.GET_CURRENT_PLAYER, Command.GET_CURRENT_PLAYER.toString()));
+		}
+
+		/**
+		 * Helper function that asks for the hand, which is sent over several
+		 * lines ending with an empty one, like the real client reads it.
+		 */
+		private void showHand() throws IOException {
+			final long start = System.nanoTime();
+			out.println(Command.SHOW_HAND);
+			final String header = in.readLine();
+			if (header == null || !header.endsWith(HAND_HEADER)) {
+				throw unexpected(header);
+			}
+			hand.clear();
+			String line;
+			while ((line = in.readLine()) != null && line.length() != 0) {
+				hand.add(Card.fromString(line));
+			}
+			metrics.recordLatency(Command.SHOW_HAND, System.nanoTime() - start);
+		}
+
+		/**
+		 * Helper function that sends a move and checks whether it was accepted,
+		 * by comparing the reply with what the server says when it accepts one.
+		 */
+		private boolean move(Command command, String line,
+				int argumentOne, int argumentTwo, int argumentThree) throws IOException {
+			expected.accepted(player, command, argumentOne, argumentTwo, argumentThree);
+			// Events that happened since the last reply come in front of it
+			if (send(command, line).endsWith(expected.getText())) {
+				metrics.recordMove();
+				return true;
+			}
+			metrics.recordRejected();
+			return false;
+		}
+
+		private String send(Command command, String line) throws IOException {
+			final long start = System.nanoTime();
+			out.println(line);
+			final String reply = in.readLine();
+			if (reply == null) {
+				throw new IOException("The server closed the connection");
+			}
+			metrics.recordLatency(command, System.nanoTime() - start);
+			return reply;
+		}
+
+		private PlayerNumber parsePlayer(String text) throws IOException {
+			final String trimmed = text.trim();
+			final String name = trimmed.substring(trimmed.lastIndexOf(' ') + 1);
+			try {
+				return PlayerNumber.valueOf(name);
+			} catch (IllegalArgumentException e) {
+				throw unexpected(text);
+			}
+		}
+
+		private IOException unexpected(String reply) {
+			return new IOException(player + " did not expect \"" + reply + "\"");
+		}
+
+		void close() {
+			try {
+				pair.close();
+			} catch (IOException e) {
+				// The table is finished with anyway
+			}
+		}
+	}
+}
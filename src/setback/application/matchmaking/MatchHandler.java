@@ -0,0 +1,23 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.matchmaking;
+
+import java.util.List;
+
+/**
+ * This interface is told about every table the Matchmaker forms.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface MatchHandler<T> {
+
+	/**
+	 * Called once four players have been matched.  This may be called
+	 * on the thread of the player who joined last, or on the thread of
+	 * the matchmaker's timer, so it should hand any slow work off.
+	 * @param players The players, in seat order.
+	 */
+	void matched(List<MatchRequest<T>> players);
+}
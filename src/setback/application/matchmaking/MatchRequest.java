@@ -0,0 +1,111 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.matchmaking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is one player waiting in a Matchmaker.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class MatchRequest<T> {
+
+	private static final int WAITING = 0;
+	private static final int MATCHED = 1;
+	private static final int CANCELLED = 2;
+
+	private final Matchmaker<T> matchmaker;
+	private final T player;
+	private final int skill;
+	private final String region;
+	private final long enqueuedNanos;
+	private final AtomicInteger state = new AtomicInteger(WAITING);
+
+	/**
+	 * The shard the request waits in until it is matched.
+	 */
+	final Matchmaker.Shard<T> shard;
+
+	MatchRequest(Matchmaker<T> matchmaker, T player, int skill, String region,
+			Matchmaker.Shard<T> shard) {
+		this.matchmaker = matchmaker;
+		this.player = player;
+		this.skill = skill;
+		this.region = region;
+		this.shard = shard;
+		enqueuedNanos = System.nanoTime();
+	}
+
+	/**
+	 * Stops waiting for a table, unless one has already been found.
+	 * @return True if the player will not be matched because of this call.
+	 */
+	public boolean cancel() {
+		if (!state.compareAndSet(WAITING, CANCELLED)) {
+			return false;
+		}
+		matchmaker.cancelled(this);
+		return true;
+	}
+
+	/**
+	 * Takes the request for a table that is being formed.
+	 * @return False if the request was cancelled or already taken.
+	 */
+	boolean claim() {
+		return state.compareAndSet(WAITING, MATCHED);
+	}
+
+	/**
+	 * Gives back a request that was claimed for a table that could
+	 * not be filled after all.
+	 */
+	void release() {
+		state.set(WAITING);
+	}
+
+	/**
+	 * @return True if the request is still waiting for a table.
+	 */
+	public boolean isWaiting() {
+		return state.get() == WAITING;
+	}
+
+	/**
+	 * @return True if the request was cancelled.
+	 */
+	public boolean isCancelled() {
+		return state.get() == CANCELLED;
+	}
+
+	/**
+	 * @return The player, as the Matchmaker was given it.
+	 */
+	public T getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return The skill rating the player asked to be matched near.
+	 */
+	public int getSkill() {
+		return skill;
+	}
+
+	/**
+	 * @return The region the player asked to be matched in.
+	 */
+	public String getRegion() {
+		return region;
+	}
+
+	/**
+	 * @return When the player started waiting, from System.nanoTime.
+	 */
+	public long getEnqueuedNanos() {
+		return enqueuedNanos;
+	}
+}
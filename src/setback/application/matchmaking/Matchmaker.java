@@ -0,0 +1,316 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.matchmaking;
+
+import setback.application.timer.HashedWheelTimer;
+import setback.application.timer.Timeout;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class forms four player tables out of the players who ask for one.
+ * <p>
+ * Players wait in shards, one for each region and band of skill, and each
+ * shard has its own lock, so players joining different shards never wait
+ * on each other.  As soon as a shard holds four players they are given a
+ * table, on the thread of the player who joined last.
+ * <p>
+ * So that nobody waits forever in a quiet shard, a sweep runs on the
+ * timer a few times a second.  Players who have waited longer than the
+ * widening time are matched with the closest skills anywhere in their
+ * region, and players who have waited longer than the maximum wait are
+ * matched with anyone at all.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class Matchmaker<T> {
+
+	public static final int TABLE_SIZE = 4;
+
+	/**
+	 * The skill of a player who did not give one.
+	 */
+	public static final int DEFAULT_SKILL = 1500;
+
+	/**
+	 * The region of a player who did not give one.
+	 */
+	public static final String ANY_REGION = "any";
+
+	/**
+	 * The width of the band of skills that share a shard.
+	 */
+	public static final int SKILL_BAND = 100;
+
+	public static final long DEFAULT_WIDEN_MILLIS = 2000;
+	public static final long DEFAULT_MAX_WAIT_MILLIS = 10000;
+
+	/**
+	 * How often the sweep looks for players who have waited too long.
+	 */
+	public static final long SWEEP_MILLIS = 100;
+
+	private static final Comparator<MatchRequest<?>> BY_SKILL =
+			(one, two) -> Integer.compare(one.getSkill(), two.getSkill());
+	private static final Comparator<MatchRequest<?>> BY_AGE =
+			(one, two) -> Long.compare(one.getEnqueuedNanos(), two.getEnqueuedNanos());
+
+	private final MatchHandler<T> handler;
+	private final HashedWheelTimer timer;
+	private final long widenNanos;
+	private final long maxWaitNanos;
+	private final MatchmakingMetrics metrics;
+	private final ConcurrentMap<String, Shard<T>> shards = new ConcurrentHashMap<String, Shard<T>>();
+	private volatile Timeout sweep;
+	private volatile boolean stopped;
+
+	/**
+	 * Constructor that uses the shared timer and the default waits.
+	 * @param handler Told about every table that is formed.
+	 */
+	public Matchmaker(MatchHandler<T> handler) {
+		this(handler, HashedWheelTimer.getSharedTimer(), DEFAULT_WIDEN_MILLIS,
+				DEFAULT_MAX_WAIT_MILLIS, new MatchmakingMetrics());
+	}
+
+	/**
+	 * Constructor for the Matchmaker.  The sweep starts straight away.
+	 * @param handler Told about every table that is formed.
+	 * @param timer The timer the sweep runs on.
+	 * @param widenMillis How long a player waits before being matched
+	 * with anyone in their region.
+	 * @param maxWaitMillis How long a player waits before being matched
+	 * with anyone at all.
+	 * @param metrics The metrics to record to.
+	 */
+	public Matchmaker(MatchHandler<T> handler, HashedWheelTimer timer, long widenMillis,
+			long maxWaitMillis, MatchmakingMetrics metrics) {
+		this.handler = handler;
+		this.timer = timer;
+		widenNanos = TimeUnit.MILLISECONDS.toNanos(widenMillis);
+		maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		this.metrics = metrics;
+		scheduleSweep();
+	}
+
+	/**
+	 * Adds a player to the queue.  If this completes a table, the
+	 * handler is told about it before this returns.
+	 * @param player The player.
+	 * @param skill The skill rating to be matched near.
+	 * @param region The region to be matched in, such as "us-east".
+	 * @return The request, which can be used to stop waiting.
+	 */
+	public MatchRequest<T> enqueue(T player, int skill, String region) {
+		final String key = region + '#' + Math.floorDiv(skill, SKILL_BAND);
+		final Shard<T> shard = shards.computeIfAbsent(key, unused -> new Shard<T>());
+		final MatchRequest<T> request = new MatchRequest<T>(this, player, skill, region, shard);
+		metrics.recordEnqueued();
+		final List<MatchRequest<T>> table;
+		synchronized (shard) {
+			shard.waiting.add(request);
+			table = shard.takeTable();
+		}
+		if (table != null) {
+			formTable(table);
+		}
+		return request;
+	}
+
+	/**
+	 * Stops the sweep.  Players who are still waiting are never matched.
+	 */
+	public void stop() {
+		stopped = true;
+		final Timeout current = sweep;
+		if (current != null) {
+			current.cancel();
+		}
+	}
+
+	/**
+	 * @return The metrics of this matchmaker.
+	 */
+	public MatchmakingMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Called by a request when it is cancelled.  It is left in its
+	 * shard, and thrown away the next time the shard is looked at.
+	 * @param request The request.
+	 */
+	void cancelled(MatchRequest<T> request) {
+		metrics.recordCancelled();
+	}
+
+	/**
+	 * Helper function that records a new table and hands it to the handler.
+	 * @param table The four claimed requests.
+	 */
+	private void formTable(List<MatchRequest<T>> table) {
+		final long now = System.nanoTime();
+		for (MatchRequest<T> request : table) {
+			metrics.recordMatched(now - request.getEnqueuedNanos());
+		}
+		metrics.recordTableFormed();
+		handler.matched(table);
+	}
+
+	/**
+	 * Helper function that runs the sweep again after a while.
+	 */
+	private void scheduleSweep() {
+		if (!stopped) {
+			sweep = timer.newTimeout(() -> {
+				sweep();
+				scheduleSweep();
+			}, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Matches the players who have waited longer than the widening time.
+	 * They are taken out of their shards, matched by skill within each
+	 * region, then matched by age across regions if they have also waited
+	 * longer than the maximum wait.  Whoever is left goes back where they were.
+	 */
+	void sweep() {
+		final long now = System.nanoTime();
+		final Map<String, List<MatchRequest<T>>> regions = new HashMap<String, List<MatchRequest<T>>>();
+		for (Shard<T> shard : shards.values()) {
+			synchronized (shard) {
+				final Iterator<MatchRequest<T>> requests = shard.waiting.iterator();
+				while (requests.hasNext()) {
+					final MatchRequest<T> request = requests.next();
+					if (!request.isWaiting()) {
+						requests.remove();
+					}
+					else if (now - request.getEnqueuedNanos() >= widenNanos) {
+						requests.remove();
+						regions.computeIfAbsent(request.getRegion(), unused -> new ArrayList<MatchRequest<T>>())
+								.add(request);
+					}
+					else {
+						// The shard is in the order the players joined
+						break;
+					}
+				}
+			}
+		}
+		if (regions.isEmpty()) {
+			return;
+		}
+		final List<MatchRequest<T>> anywhere = new ArrayList<MatchRequest<T>>();
+		final List<MatchRequest<T>> leftOver = new ArrayList<MatchRequest<T>>();
+		for (List<MatchRequest<T>> region : regions.values()) {
+			region.sort(BY_SKILL);
+			for (MatchRequest<T> request : matchInOrder(region)) {
+				if (now - request.getEnqueuedNanos() >= maxWaitNanos) {
+					anywhere.add(request);
+				}
+				else {
+					leftOver.add(request);
+				}
+			}
+		}
+		anywhere.sort(BY_AGE);
+		leftOver.addAll(matchInOrder(anywhere));
+		putBack(leftOver);
+	}
+
+	/**
+	 * Helper function that forms tables out of runs of four players.
+	 * @param requests The requests, in the order they should be matched.
+	 * @return The requests that are still waiting.
+	 */
+	private List<MatchRequest<T>> matchInOrder(List<MatchRequest<T>> requests) {
+		final List<MatchRequest<T>> leftOver = new ArrayList<MatchRequest<T>>();
+		List<MatchRequest<T>> table = new ArrayList<MatchRequest<T>>(TABLE_SIZE);
+		for (MatchRequest<T> request : requests) {
+			if (request.claim()) {
+				table.add(request);
+				if (table.size() == TABLE_SIZE) {
+					formTable(table);
+					table = new ArrayList<MatchRequest<T>>(TABLE_SIZE);
+				}
+			}
+		}
+		for (MatchRequest<T> request : table) {
+			request.release();
+			leftOver.add(request);
+		}
+		return leftOver;
+	}
+
+	/**
+	 * Helper function that puts requests back at the front of
+	 * their shards, oldest first.
+	 * @param requests The requests.
+	 */
+	private void putBack(List<MatchRequest<T>> requests) {
+		requests.sort(Collections.reverseOrder(BY_AGE));
+		for (MatchRequest<T> request : requests) {
+			final List<MatchRequest<T>> table;
+			synchronized (request.shard) {
+				request.shard.waiting.addFirst(request);
+				table = request.shard.takeTable();
+			}
+			if (table != null) {
+				formTable(table);
+			}
+		}
+	}
+
+	/**
+	 * This class is the queue of players in one region and band of skill.
+	 * It is guarded by its own lock.
+	 */
+	static final class Shard<T> {
+		private final ArrayDeque<MatchRequest<T>> waiting = new ArrayDeque<MatchRequest<T>>();
+
+		/**
+		 * Takes the first four players who are still waiting, if there are four.
+		 * @return The claimed requests, or null if there are not enough.
+		 */
+		private List<MatchRequest<T>> takeTable() {
+			int count = 0;
+			for (MatchRequest<T> request : waiting) {
+				if (request.isWaiting() && ++count == TABLE_SIZE) {
+					break;
+				}
+			}
+			if (count < TABLE_SIZE) {
+				return null;
+			}
+			final List<MatchRequest<T>> table = new ArrayList<MatchRequest<T>>(TABLE_SIZE);
+			while (table.size() < TABLE_SIZE && !waiting.isEmpty()) {
+				final MatchRequest<T> request = waiting.poll();
+				if (request.claim()) {
+					table.add(request);
+				}
+			}
+			if (table.size() < TABLE_SIZE) {
+				// Someone cancelled while the table was being taken
+				for (int index = table.size() - 1; index >= 0; index--) {
+					table.get(index).release();
+					waiting.addFirst(table.get(index));
+				}
+				return null;
+			}
+			return table;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.matchmaking;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class collects the metrics of a Matchmaker: how many players
+ * are waiting, and how long they waited for a table.  Apart from the
+ * number of players waiting, the counters are totals since the
+ * metrics were created.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MatchmakingMetrics {
+
+	private final AtomicLong queued = new AtomicLong();
+	private final AtomicLong deepestQueue = new AtomicLong();
+	private final AtomicLong enqueued = new AtomicLong();
+	private final AtomicLong matched = new AtomicLong();
+	private final AtomicLong tablesFormed = new AtomicLong();
+	private final AtomicLong cancelled = new AtomicLong();
+	private final AtomicLong waitNanos = new AtomicLong();
+	private final AtomicLong longestWaitNanos = new AtomicLong();
+
+	void recordEnqueued() {
+		enqueued.incrementAndGet();
+		raise(deepestQueue, queued.incrementAndGet());
+	}
+
+	void recordMatched(long nanos) {
+		queued.decrementAndGet();
+		matched.incrementAndGet();
+		waitNanos.addAndGet(nanos);
+		raise(longestWaitNanos, nanos);
+	}
+
+	void recordTableFormed() {
+		tablesFormed.incrementAndGet();
+	}
+
+	void recordCancelled() {
+		queued.decrementAndGet();
+		cancelled.incrementAndGet();
+	}
+
+	private static void raise(AtomicLong maximum, long value) {
+		long current = maximum.get();
+		while (value > current && !maximum.compareAndSet(current, value)) {
+			current = maximum.get();
+		}
+	}
+
+	/**
+	 * @return The number of players waiting for a table right now.
+	 */
+	public long getQueueDepth() {
+		return queued.get();
+	}
+
+	/**
+	 * @return The most players that have been waiting at once.
+	 */
+	public long getDeepestQueue() {
+		return deepestQueue.get();
+	}
+
+	/**
+	 * @return The number of players who asked for a table.
+	 */
+	public long getEnqueued() {
+		return enqueued.get();
+	}
+
+	/**
+	 * @return The number of players who were given a seat.
+	 */
+	public long getMatched() {
+		return matched.get();
+	}
+
+	/**
+	 * @return The number of tables formed.
+	 */
+	public long getTablesFormed() {
+		return tablesFormed.get();
+	}
+
+	/**
+	 * @return The number of players who gave up before they were matched.
+	 */
+	public long getCancelled() {
+		return cancelled.get();
+	}
+
+	/**
+	 * @return The average time from asking for a table to being given
+	 * a seat, in nanoseconds, or 0 if nobody has been matched.
+	 */
+	public long getMeanTimeToMatchNanos() {
+		final long count = matched.get();
+		return count == 0 ? 0 : waitNanos.get() / count;
+	}
+
+	/**
+	 * @return The longest anyone has waited to be matched, in nanoseconds.
+	 */
+	public long getLongestTimeToMatchNanos() {
+		return longestWaitNanos.get();
+	}
+}
@@ -0,0 +1,244 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.metrics;
+
+import setback.application.command.Command;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects metrics of every command the PlayerControllers
+ * carry out: how many of each there have been, how long they took, how
+ * many are being carried out right now, and how many the game refused,
+ * by the reason it gave.
+ * <p>
+ * Each command has its own recorder, found by the ordinal of the
+ * command, and every count in it is striped, so recording never locks
+ * and threads of different tables rarely touch the same memory.
+ * Recording a command costs two reads of the clock and a few
+ * uncontended increments.
+ * <p>
+ * The metrics can be read through JMX, with an MXBean for each command,
+ * or scraped over HTTP from a MetricsEndpoint.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class CommandMetrics {
+
+	/**
+	 * The domain of the MXBeans, which are named by command.
+	 */
+	public static final String JMX_DOMAIN = "setback";
+
+	/**
+	 * The most reasons kept for each command.  Refusals for any other
+	 * reason are counted under OTHER_REASON.
+	 */
+	public static final int MAX_REASONS = 64;
+	public static final String OTHER_REASON = "Other";
+	public static final String UNKNOWN_REASON = "Unknown";
+
+	private static final Command[] COMMANDS = Command.values();
+	private static final CommandMetrics INSTANCE = new CommandMetrics();
+
+	private final Recorder[] recorders = new Recorder[COMMANDS.length];
+
+	/**
+	 * Constructor for CommandMetrics.  Every command has its recorder
+	 * from the start, so recording never has to create one.
+	 */
+	public CommandMetrics() {
+		for (Command command : COMMANDS) {
+			recorders[command.ordinal()] = new Recorder(command);
+		}
+	}
+
+	/**
+	 * @return The metrics shared by the whole server.
+	 */
+	public static CommandMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Counts a command as being carried out.
+	 * @param command The command.
+	 * @return The time it started, to give to finish.
+	 */
+	public long start(Command command) {
+		recorders[command.ordinal()].inFlight.increment();
+		return System.nanoTime();
+	}
+
+	/**
+	 * Counts a command as finished.
+	 * @param command The command.
+	 * @param start The time start gave.
+	 * @param failure The reason the game refused the command, or null if
+	 * it did not.
+	 */
+	public void finish(Command command, long start, String failure) {
+		final long nanos = System.nanoTime() - start;
+		final Recorder recorder = recorders[command.ordinal()];
+		recorder.latency.record(nanos);
+		recorder.count.increment();
+		recorder.inFlight.decrement();
+		if (failure != null) {
+			recorder.reject(failure);
+		}
+	}
+
+	/**
+	 * @param command A command.
+	 * @return What JMX shows of the command's metrics.
+	 */
+	public CommandStatsMXBean getStats(Command command) {
+		return recorders[command.ordinal()];
+	}
+
+	/**
+	 * @param command A command.
+	 * @return How long the command has taken, in nanoseconds.
+	 */
+	public StripedHistogram.Snapshot getLatency(Command command) {
+		return recorders[command.ordinal()].latency.snapshot();
+	}
+
+	/**
+	 * Registers an MXBean for every command, named by the command, such
+	 * as setback:type=Command,name=PLAY_CARD.  Commands already
+	 * registered are left as they are.
+	 * @param server The server to register them with, which is usually
+	 * the platform's.
+	 * @throws JMException If an MXBean cannot be registered.
+	 */
+	public void register(MBeanServer server) throws JMException {
+		for (Command command : COMMANDS) {
+			final ObjectName name = getObjectName(command);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(recorders[command.ordinal()], name);
+			}
+		}
+	}
+
+	/**
+	 * @param command A command.
+	 * @return The name of the command's MXBean.
+	 * @throws JMException If the name is not valid.
+	 */
+	public static ObjectName getObjectName(Command command) throws JMException {
+		return new ObjectName(JMX_DOMAIN + ":type=Command,name=" + command.name());
+	}
+
+	/**
+	 * This class records one command.
+	 */
+	private static final class Recorder implements CommandStatsMXBean {
+
+		final Command command;
+		final LongAdder count = new LongAdder();
+		final LongAdder inFlight = new LongAdder();
+		final LongAdder rejected = new LongAdder();
+		final StripedHistogram latency = new StripedHistogram();
+		final Map<String, LongAdder> reasons = new ConcurrentHashMap<String, LongAdder>();
+
+		Recorder(Command command) {
+			this.command = command;
+		}
+
+		void reject(String failure) {
+			rejected.increment();
+			LongAdder reason = reasons.get(failure);
+			if (reason == null) {
+				// A reason is only added once, so its lookup stays lock-free
+				final String key = reasons.size() < MAX_REASONS ? failure : OTHER_REASON;
+				reason = reasons.computeIfAbsent(key, unused -> new LongAdder());
+			}
+			reason.increment();
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getCommand()
+		 */
+		@Override
+		public String getCommand() {
+			return command.name();
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getCount()
+		 */
+		@Override
+		public long getCount() {
+			return count.sum();
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getRejected()
+		 */
+		@Override
+		public long getRejected() {
+			return rejected.sum();
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getInFlight()
+		 */
+		@Override
+		public long getInFlight() {
+			return inFlight.sum();
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getRejections()
+		 */
+		@Override
+		public Map<String, Long> getRejections() {
+			final Map<String, Long> counts = new TreeMap<String, Long>();
+			for (Map.Entry<String, LongAdder> reason : reasons.entrySet()) {
+				counts.put(reason.getKey(), reason.getValue().sum());
+			}
+			return counts;
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getMeanNanos()
+		 */
+		@Override
+		public double getMeanNanos() {
+			return latency.snapshot().getMean();
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getMedianNanos()
+		 */
+		@Override
+		public long getMedianNanos() {
+			return latency.snapshot().getValueAtPercentile(50);
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getNinetyNinthPercentileNanos()
+		 */
+		@Override
+		public long getNinetyNinthPercentileNanos() {
+			return latency.snapshot().getValueAtPercentile(99);
+		}
+
+		/* (non-Javadoc)
+		 * @see setback.application.metrics.CommandStatsMXBean#getMaxNanos()
+		 */
+		@Override
+		public long getMaxNanos() {
+			return latency.snapshot().getMax();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.metrics;
+
+import java.util.Map;
+
+/**
+ * This interface is what JMX shows of one command's metrics.  Every
+ * count is a total since the server started, and every time is in
+ * nanoseconds.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface CommandStatsMXBean {
+
+	/**
+	 * @return The name of the command.
+	 */
+	String getCommand();
+
+	/**
+	 * @return The number of times the command was carried out or refused.
+	 */
+	long getCount();
+
+	/**
+	 * @return The number of times the game refused the command.
+	 */
+	long getRejected();
+
+	/**
+	 * @return The number of the command being carried out right now.
+	 */
+	long getInFlight();
+
+	/**
+	 * @return The number of times the game refused the command, by the
+	 * reason it gave.
+	 */
+	Map<String, Long> getRejections();
+
+	/**
+	 * @return The mean time the command took.
+	 */
+	double getMeanNanos();
+
+	/**
+	 * @return The time half of the commands took no longer than.
+	 */
+	long getMedianNanos();
+
+	/**
+	 * @return The time 99 in 100 of the commands took no longer than.
+	 */
+	long getNinetyNinthPercentileNanos();
+
+	/**
+	 * @return The longest the command took.
+	 */
+	long getMaxNanos();
+}
@@ -0,0 +1,150 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.metrics;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import setback.application.command.Command;
+
+import java.util.Map;
+
+/**
+ * This class serves CommandMetrics over HTTP, in the text format that
+ * Prometheus scrapes, at PATH.  Latencies are given in seconds as a
+ * summary of each command, with the quantiles in QUANTILES.  Commands
+ * that have never been sent are left out.
+ * <p>
+ * The endpoint is meant to be scraped from the same machine, so the
+ * server listens on localhost.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MetricsEndpoint {
+
+	public static final String PATH = "/metrics";
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	/**
+	 * The quantiles given for the latency of each command.
+	 */
+	public static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final CommandMetrics metrics;
+	private HttpServer server;
+
+	/**
+	 * Constructor for a MetricsEndpoint.  Nothing is served until it listens.
+	 * @param metrics The metrics to serve.
+	 */
+	public MetricsEndpoint(CommandMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Starts serving the metrics.
+	 * @param vertx The Vert.x instance to serve them from.
+	 * @param host The host to listen on.
+	 * @param port The port to listen on.
+	 * @param handler Called with the server once it is listening.
+	 */
+	public void listen(Vertx vertx, String host, int port, Handler<AsyncResult<HttpServer>> handler) {
+		server = vertx.createHttpServer().requestHandler(this::handle);
+		server.listen(port, host, handler);
+	}
+
+	/**
+	 * Stops serving the metrics.
+	 */
+	public void close() {
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	/**
+	 * Helper function that answers a request, which is only found if it
+	 * is a GET of PATH.
+	 */
+	private void handle(HttpServerRequest request) {
+		if (request.method() != HttpMethod.GET || !PATH.equals(request.path())) {
+			request.response().setStatusCode(404).end();
+			return;
+		}
+		request.response().putHeader("Content-Type", CONTENT_TYPE).end(scrape());
+	}
+
+	/**
+	 * @return The metrics, in the Prometheus text format.
+	 */
+	public String scrape() {
+		final StringBuilder text = new StringBuilder(4096);
+		header(text, "setback_commands_total", "counter", "Commands carried out or refused, by command.");
+		for (Command command : Command.values()) {
+			final CommandStatsMXBean stats = metrics.getStats(command);
+			if (isSeen(stats)) {
+				sample(text, "setback_commands_total", command, null, stats.getCount());
+			}
+		}
+		header(text, "setback_command_rejections_total", "counter", "Commands the game refused, by command and reason.");
+		for (Command command : Command.values()) {
+			for (Map.Entry<String, Long> reason : metrics.getStats(command).getRejections().entrySet()) {
+				sample(text, "setback_command_rejections_total", command,
+						",reason=\"" + escape(reason.getKey()) + "\"", reason.getValue());
+			}
+		}
+		header(text, "setback_commands_in_flight", "gauge", "Commands being carried out right now, by command.");
+		for (Command command : Command.values()) {
+			final CommandStatsMXBean stats = metrics.getStats(command);
+			if (isSeen(stats)) {
+				sample(text, "setback_commands_in_flight", command, null, stats.getInFlight());
+			}
+		}
+		header(text, "setback_command_latency_seconds", "summary", "How long commands took, by command.");
+		for (Command command : Command.values()) {
+			if (!isSeen(metrics.getStats(command))) {
+				continue;
+			}
+			final StripedHistogram.Snapshot latency = metrics.getLatency(command);
+			for (double quantile : QUANTILES) {
+				sample(text, "setback_command_latency_seconds", command, ",quantile=\"" + quantile + "\"",
+						latency.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND);
+			}
+			sample(text, "setback_command_latency_seconds_sum", command, null, latency.getTotal() / NANOS_PER_SECOND);
+			sample(text, "setback_command_latency_seconds_count", command, null, latency.getCount());
+		}
+		return text.toString();
+	}
+
+	private static boolean isSeen(CommandStatsMXBean stats) {
+		return stats.getCount() != 0 || stats.getInFlight() != 0;
+	}
+
+	private static void header(StringBuilder text, String name, String type, String help) {
+		text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void sample(StringBuilder text, String name, Command command, String labels, Object value) {
+		text.append(name).append("{command=\"").append(command.name()).append('"');
+		if (labels != null) {
+			text.append(labels);
+		}
+		text.append("} ").append(value).append('\n');
+	}
+
+	/**
+	 * Helper function that escapes a label value, as the reasons are
+	 * messages from the game.
+	 */
+	static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
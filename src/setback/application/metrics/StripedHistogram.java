@@ -0,0 +1,181 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts latencies in log-linear buckets, like the
+ * LatencyHistogram of the load tests, but spreads the counts over
+ * stripes so that threads recording at once rarely touch the same
+ * memory.  A thread always records into the stripe its id picks, and
+ * the stripes are only added together when the histogram is read.
+ * <p>
+ * Recording never locks: it is one atomic increment of a bucket,
+ * along with a LongAdder for the total and a LongAccumulator for the
+ * largest value, which are striped the same way.  A stripe's counts
+ * are only made the first time a thread records into it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class StripedHistogram {
+
+	/**
+	 * Values are exact below 64, and within 1/32 of themselves above it.
+	 */
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+	/**
+	 * The largest value that is kept.  Larger values are counted as this.
+	 */
+	public static final long MAX_VALUE = TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * The most stripes a histogram has, however many processors there are.
+	 */
+	private static final int MAX_STRIPES = 16;
+
+	private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+	private static final int STRIPES = Math.min(MAX_STRIPES,
+			Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+	private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<AtomicLongArray>(STRIPES);
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Counts a value.
+	 * @param value The value, such as a latency in nanoseconds.
+	 */
+	public void record(long value) {
+		final long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+		final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+		AtomicLongArray counts = stripes.get(stripe);
+		if (counts == null) {
+			stripes.compareAndSet(stripe, null, new AtomicLongArray(BUCKETS));
+			counts = stripes.get(stripe);
+		}
+		counts.incrementAndGet(indexOf(clamped));
+		total.add(clamped);
+		max.accumulate(clamped);
+	}
+
+	/**
+	 * Adds the stripes together.  Values recorded while this runs may or
+	 * may not be included, and the total and largest value may be a
+	 * little ahead of the counts.
+	 * @return What has been counted so far.
+	 */
+	public Snapshot snapshot() {
+		final long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			final AtomicLongArray striped = stripes.get(stripe);
+			if (striped != null) {
+				for (int index = 0; index < BUCKETS; index++) {
+					final long bucket = striped.get(index);
+					counts[index] += bucket;
+					count += bucket;
+				}
+			}
+		}
+		return new Snapshot(counts, count, total.sum(), max.get());
+	}
+
+	/**
+	 * Helper function that finds the bucket of a value.  The first
+	 * SUB_BUCKET_COUNT values have a bucket each, and each doubling
+	 * after that is split into SUB_BUCKET_HALF buckets.
+	 * @param value The value, which is not negative.
+	 * @return The index of its bucket.
+	 */
+	static int indexOf(long value) {
+		final int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+	}
+
+	/**
+	 * Helper function that finds the largest value in a bucket.
+	 * @param index The index of the bucket.
+	 * @return The largest value that is counted in it.
+	 */
+	static long highestValueAt(int index) {
+		final int shift = Math.max(0, index / SUB_BUCKET_HALF - 1);
+		final long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * This class is what a StripedHistogram had counted when it was read.
+	 */
+	public static final class Snapshot {
+
+		private final long[] counts;
+		private final long count;
+		private final long total;
+		private final long max;
+
+		private Snapshot(long[] counts, long count, long total, long max) {
+			this.counts = counts;
+			this.count = count;
+			this.total = total;
+			this.max = max;
+		}
+
+		/**
+		 * @param percentile The percentile, from 0 to 100.
+		 * @return The largest value that the given percentage of values are
+		 * at or below, to the precision of the buckets.  0 if nothing was counted.
+		 */
+		public long getValueAtPercentile(double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			final long wanted = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100) / 100));
+			long seen = 0;
+			for (int index = 0; index < counts.length; index++) {
+				seen += counts[index];
+				if (seen >= wanted) {
+					return Math.min(highestValueAt(index), max);
+				}
+			}
+			return max;
+		}
+
+		/**
+		 * @return The number of values counted.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * @return The sum of the values counted.
+		 */
+		public long getTotal() {
+			return total;
+		}
+
+		/**
+		 * @return The mean of the values counted, or 0 if there are none.
+		 */
+		public double getMean() {
+			return count == 0 ? 0 : (double) total / count;
+		}
+
+		/**
+		 * @return The largest value counted.
+		 */
+		public long getMax() {
+			return max;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.move;
+
+import setback.common.PlayerNumber;
+import setback.game.common.RoundResultStatus;
+
+/**
+ * This interface is told about every move that changes a game.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public interface MoveListener {
+
+	/**
+	 * This method is called after a move has been made, on the
+	 * thread that made it, before the game moves on to the next
+	 * trick or round.
+	 * @param move The move, packed by Moves.
+	 */
+	void moveMade(int move);
+
+	/**
+	 * This method is called when a round ends the game, on the thread
+	 * that played the last card, after that card's move.  Moves that are
+	 * replayed never end a game this way.
+	 * @param status Which team won.
+	 */
+	default void gameEnded(RoundResultStatus status) {
+	}
+
+	/**
+	 * This method is called on the thread that made one or more moves,
+	 * once it has let go of the lock on the game, and before it tells
+	 * anyone about them.  A listener that has to hold the thread back
+	 * until its moves are safe somewhere waits here, so that the rest
+	 * of the table can go on using the game in the meantime.
+	 */
+	default void awaitSettled() {
+	}
+
+	/**
+	 * This method is called when the player in a seat is given a session
+	 * token, while the game is locked, so that a table rebuilt somewhere
+	 * else can let the player resume the seat, and nobody else take it.
+	 * @param seat The seat.
+	 * @param token The token.
+	 */
+	default void sessionOpened(PlayerNumber seat, long token) {
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.move;
+
+import java.util.Arrays;
+
+/**
+ * This class holds every move of a game, in the order they were made.
+ * A whole game is a few hundred ints, so they are simply kept in a
+ * growing array.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MoveLog {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] moves;
+	private int size;
+
+	/**
+	 * Constructor for an empty MoveLog.
+	 */
+	public MoveLog() {
+		moves = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Constructor for a MoveLog that starts with the given moves.
+	 * @param moves The moves.
+	 * @param count The number of moves to use.
+	 */
+	public MoveLog(int[] moves, int count) {
+		this.moves = Arrays.copyOf(moves, Math.max(count, INITIAL_CAPACITY));
+		size = count;
+	}
+
+	/**
+	 * Adds a move to the end of the log.
+	 * @param move The move.
+	 * @return The number of moves in the log.
+	 */
+	public synchronized int append(int move) {
+		if (size == moves.length) {
+			moves = Arrays.copyOf(moves, size * 2);
+		}
+		moves[size++] = move;
+		return size;
+	}
+
+	/**
+	 * @param index The position of the move.
+	 * @return The move.
+	 */
+	public synchronized int get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("No move " + index);
+		}
+		return moves[index];
+	}
+
+	/**
+	 * @return The number of moves in the log.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * @param from The position of the first move to copy.
+	 * @param to The position after the last move to copy.
+	 * @return A copy of the moves.
+	 */
+	public synchronized int[] copy(int from, int to) {
+		return Arrays.copyOfRange(moves, from, to);
+	}
+
+	/**
+	 * @return A copy of every move.
+	 */
+	public synchronized int[] toArray() {
+		return Arrays.copyOf(moves, size);
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.move;
+
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
+import setback.application.command.CommandReply;
+import setback.application.server.PlayerController;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.BetResult;
+import setback.game.common.CardSuit;
+import setback.game.common.Hand;
+import setback.game.version.SetbackMultiplayerGame;
+
+/**
+ * This class rebuilds a game by making its moves again, through
+ * one PlayerController for each seat, exactly as the players did.
+ * The game must have been created with the same seed.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MoveReplayer {
+
+	private final PlayerController[] controllers;
+	private final CommandFrame frame = new CommandFrame();
+	private final FailureReply reply = new FailureReply();
+
+	/**
+	 * Constructor for the MoveReplayer.
+	 * @param game The game to make the moves on.
+	 */
+	public MoveReplayer(SetbackMultiplayerGame game) {
+		controllers = new PlayerController[PlayerNumber.values().length];
+		for (int seat = 0; seat < controllers.length; seat++) {
+			controllers[seat] = new PlayerController(game);
+		}
+	}
+
+	/**
+	 * Seats the replayer at a game that is already under way, so that
+	 * it can make moves for any of the players.
+	 * @param listener The listener to tell about every move made.
+	 */
+	public void takeSeats(MoveListener listener) {
+		for (int seat = 0; seat < controllers.length; seat++) {
+			controllers[seat].takeSeat(PlayerNumber.values()[seat]);
+			controllers[seat].setMoveListener(listener);
+		}
+	}
+
+	/**
+	 * Makes a move.
+	 * @param move The move, packed by Moves.
+	 * @throws SetbackException If the game did not accept the move.
+	 */
+	public void replay(int move) throws SetbackException {
+		final Command command = Moves.getCommand(move);
+		if (command == null) {
+			throw new SetbackException("Invalid move!");
+		}
+		frame.set(command, Moves.getArgumentOne(move), Moves.getArgumentTwo(move),
+				Moves.getArgumentThree(move));
+		reply.failure = null;
+		controllers[Moves.getPlayer(move).ordinal()].processFrame(frame, reply);
+		if (reply.failure != null) {
+			throw new SetbackException("Could not replay " + Moves.toString(move) + ": " + reply.failure);
+		}
+	}
+
+	/**
+	 * Makes every move in order.
+	 * @param moves The moves.
+	 * @param count The number of moves to make.
+	 * @throws SetbackException If the game did not accept one of the moves.
+	 */
+	public void replay(int[] moves, int count) throws SetbackException {
+		for (int index = 0; index < count; index++) {
+			replay(moves[index]);
+		}
+	}
+
+	/**
+	 * This class remembers why a move was not accepted.
+	 */
+	private static class FailureReply implements CommandReply {
+		private String failure;
+
+		public void accepted(PlayerNumber player, Command command,
+				int argumentOne, int argumentTwo, int argumentThree) {
+		}
+
+		public void rejected(Command command) {
+			failure = command + " was rejected";
+		}
+
+		public void error(String message) {
+			failure = message;
+		}
+
+		public void hand(Hand hand) {
+		}
+
+		public void player(PlayerNumber player) {
+		}
+
+		public void score(int score) {
+		}
+
+		public void bet(BetResult bet) {
+		}
+
+		public void trump(CardSuit trump) {
+		}
+
+		public void exit() {
+		}
+
+		public void noCommand() {
+			failure = "No command";
+		}
+
+		public void session(long token, long sequence) {
+		}
+
+		public void replay(int position, int count, int move, int teamOneScore, int teamTwoScore) {
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.move;
+
+import setback.application.command.Command;
+import setback.common.PlayerNumber;
+
+/**
+ * This class packs the moves of a game into single ints.
+ * A move is a command that changed the game, along with the
+ * player who made it.  Given the seed of the game, replaying its
+ * moves in order rebuilds the game exactly, since everything
+ * else the game does follows from them.
+ * <p>
+ * From the low bits up, a move holds three six bit arguments,
+ * the five bit ordinal of the command, and the two bit player.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public abstract class Moves {
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final int ARGUMENT_BITS = 6;
+	private static final int ARGUMENT_MASK = (1 << ARGUMENT_BITS) - 1;
+	private static final int COMMAND_SHIFT = 3 * ARGUMENT_BITS;
+	private static final int COMMAND_MASK = 0x1F;
+	private static final int PLAYER_SHIFT = COMMAND_SHIFT + 5;
+
+	/**
+	 * Packs a move.
+	 * @param player The player who made the move.
+	 * @param command The command.
+	 * @param argumentOne The ordinal of the first argument.
+	 * @param argumentTwo The ordinal of the second argument.
+	 * @param argumentThree The ordinal of the third argument.
+	 * @return The move.
+	 */
+	public static int pack(PlayerNumber player, Command command,
+			int argumentOne, int argumentTwo, int argumentThree) {
+		return player.ordinal() << PLAYER_SHIFT
+				| command.ordinal() << COMMAND_SHIFT
+				| (argumentOne & ARGUMENT_MASK) << (2 * ARGUMENT_BITS)
+				| (argumentTwo & ARGUMENT_MASK) << ARGUMENT_BITS
+				| argumentThree & ARGUMENT_MASK;
+	}
+
+	/**
+	 * @param move A move.
+	 * @return The player who made it.
+	 */
+	public static PlayerNumber getPlayer(int move) {
+		return PLAYERS[move >>> PLAYER_SHIFT & 0x3];
+	}
+
+	/**
+	 * @param move A move.
+	 * @return Its command.
+	 */
+	public static Command getCommand(int move) {
+		return Command.fromOpcode(move >>> COMMAND_SHIFT & COMMAND_MASK);
+	}
+
+	/**
+	 * @param move A move.
+	 * @return The ordinal of its first argument.
+	 */
+	public static int getArgumentOne(int move) {
+		return move >>> (2 * ARGUMENT_BITS) & ARGUMENT_MASK;
+	}
+
+	/**
+	 * @param move A move.
+	 * @return The ordinal of its second argument.
+	 */
+	public static int getArgumentTwo(int move) {
+		return move >>> ARGUMENT_BITS & ARGUMENT_MASK;
+	}
+
+	/**
+	 * @param move A move.
+	 * @return The ordinal of its third argument.
+	 */
+	public static int getArgumentThree(int move) {
+		return move & ARGUMENT_MASK;
+	}
+
+	/**
+	 * @param move A move.
+	 * @return True if the move was a player taking a seat.
+	 */
+	public static boolean isSeatRequest(int move) {
+		final int command = move >>> COMMAND_SHIFT & COMMAND_MASK;
+		return command >= Command.REQUEST_PLAYER_ONE.ordinal()
+				&& command <= Command.REQUEST_PLAYER_FOUR.ordinal();
+	}
+
+	/**
+	 * @param move A move.
+	 * @return A readable form of the move, for logging.
+	 */
+	public static String toString(int move) {
+		return getPlayer(move) + " " + getCommand(move) + " " + getArgumentOne(move)
+				+ " " + getArgumentTwo(move) + " " + getArgumentThree(move);
+	}
+}
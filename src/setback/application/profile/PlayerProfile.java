@@ -0,0 +1,139 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is what is kept about one player: counts of what they have
+ * done, their rating, and their preferences.  It never changes; updates
+ * make a new PlayerProfile.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class PlayerProfile {
+
+	/**
+	 * The rating of a player who has never been rated.
+	 */
+	public static final double UNRATED = Double.NaN;
+
+	private static final PlayerStat[] STATS = PlayerStat.values();
+
+	private final String player;
+	private final long[] stats;
+	private final double rating;
+	private final Map<String, String> preferences;
+
+	/**
+	 * Constructor for a new player, with nothing counted.
+	 * @param player The player.
+	 */
+	public PlayerProfile(String player) {
+		this(player, new long[STATS.length], UNRATED, Collections.<String, String>emptyMap());
+	}
+
+	/**
+	 * Constructor for a PlayerProfile.
+	 * @param player The player.
+	 * @param stats The count of each PlayerStat, by ordinal.  Counts past
+	 * the end are zero.
+	 * @param rating The rating, or UNRATED.
+	 * @param preferences The preferences.
+	 */
+	public PlayerProfile(String player, long[] stats, double rating, Map<String, String> preferences) {
+		this.player = player;
+		this.stats = Arrays.copyOf(stats, STATS.length);
+		this.rating = rating;
+		this.preferences = Collections.unmodifiableMap(new TreeMap<String, String>(preferences));
+	}
+
+	/**
+	 * @return the player.
+	 */
+	public String getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @param stat A stat.
+	 * @return Its count.
+	 */
+	public long get(PlayerStat stat) {
+		return stats[stat.ordinal()];
+	}
+
+	/**
+	 * @return the rating, or UNRATED.
+	 */
+	public double getRating() {
+		return rating;
+	}
+
+	/**
+	 * @param key The name of a preference.
+	 * @return Its value, or null if it is not set.
+	 */
+	public String getPreference(String key) {
+		return preferences.get(key);
+	}
+
+	/**
+	 * @return Every preference, by name.
+	 */
+	public Map<String, String> getPreferences() {
+		return preferences;
+	}
+
+	/**
+	 * Helper function for the store and updates, which read the counts
+	 * without copying.
+	 */
+	long[] getStats() {
+		return stats;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PlayerProfile)) {
+			return false;
+		}
+		final PlayerProfile other = (PlayerProfile) obj;
+		return player.equals(other.player) && Arrays.equals(stats, other.stats)
+				&& Double.compare(rating, other.rating) == 0 && preferences.equals(other.preferences);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return player.hashCode() * 31 + Arrays.hashCode(stats);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder text = new StringBuilder(player);
+		for (PlayerStat stat : STATS) {
+			text.append(' ').append(stat).append('=').append(stats[stat.ordinal()]);
+		}
+		if (!Double.isNaN(rating)) {
+			text.append(" RATING=").append(Math.round(rating));
+		}
+		return text.append(' ').append(preferences).toString();
+	}
+}
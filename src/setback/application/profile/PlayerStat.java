@@ -0,0 +1,20 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+/**
+ * This enumeration defines the counts kept in every PlayerProfile.
+ * They are stored by ordinal, so new ones must only be added at the end.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public enum PlayerStat {
+
+	GAMES_PLAYED,
+	GAMES_WON,
+	BETS_PLACED,
+	CARDS_PLAYED,
+	TRICKS_WON
+}
@@ -0,0 +1,306 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class fronts a ProfileStore with a cache of the profiles used
+ * most recently, and writes changes to profiles behind.
+ * <p>
+ * Changing a profile only merges the change into the player's
+ * ProfileUpdate, which is held in memory, so a table can count every
+ * move without ever waiting on the disk.  A thread of the service's
+ * own takes the updates every flush interval, makes them to the
+ * profiles, and writes every profile that changed at once.
+ * <p>
+ * The cache only holds profiles as they were written, and the least
+ * recently used are dropped once it is full, so it can be much smaller
+ * than the store.  Reading a profile may wait for the store, but it
+ * always includes the changes that have not been written yet.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ProfileService implements Closeable {
+
+	/**
+	 * How often changes are written, in milliseconds.
+	 */
+	public static final long DEFAULT_FLUSH_MILLIS = 1000;
+
+	/**
+	 * The most profiles cached by default.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 4096;
+
+	private final ProfileStore store;
+	private final long flushMillis;
+	private final Map<String, ProfileUpdate> pending = new ConcurrentHashMap<String, ProfileUpdate>();
+	private final Thread thread;
+
+	/**
+	 * Held while updates are made and written, and while profiles are
+	 * read, so a reader never sees a profile between its update being
+	 * taken and it being written.
+	 */
+	private final Object writeLock = new Object();
+
+	// Guarded by writeLock
+	private final Map<String, PlayerProfile> cache;
+	private Map<String, PlayerProfile> unwritten = new HashMap<String, PlayerProfile>();
+	private long hits;
+	private long misses;
+
+	private volatile boolean closed;
+	private volatile long failedFlushes;
+
+	/**
+	 * Constructor that caches DEFAULT_CACHE_SIZE profiles, and writes
+	 * changes every DEFAULT_FLUSH_MILLIS.
+	 * @param directory The directory to keep the profiles in.
+	 * @throws IOException If the profiles cannot be read.
+	 */
+	public ProfileService(File directory) throws IOException {
+		this(new ProfileStore(directory), DEFAULT_CACHE_SIZE, DEFAULT_FLUSH_MILLIS);
+	}
+
+	/**
+	 * Constructor for the ProfileService, which starts its thread.
+	 * @param store The store to read the profiles from, and write them to.
+	 * @param cacheSize The most profiles to cache.
+	 * @param flushMillis How often changes are written, in milliseconds.
+	 */
+	public ProfileService(ProfileStore store, final int cacheSize, long flushMillis) {
+		this.store = store;
+		this.flushMillis = flushMillis;
+		cache = new LinkedHashMap<String, PlayerProfile>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PlayerProfile> eldest) {
+				return size() > cacheSize;
+			}
+		};
+		thread = new Thread(this::run, "SetbackProfiles");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Adds to one of a player's counts.  This never blocks on the disk.
+	 * @param player The player.
+	 * @param stat The count.
+	 * @param amount The amount to add.
+	 */
+	public void add(String player, PlayerStat stat, long amount) {
+		pending.compute(player, (key, update) -> {
+			final ProfileUpdate merged = update != null ? update : new ProfileUpdate();
+			merged.add(stat, amount);
+			return merged;
+		});
+	}
+
+	/**
+	 * Sets a player's rating.  This never blocks on the disk.
+	 * @param player The player.
+	 * @param rating The rating.
+	 */
+	public void setRating(String player, double rating) {
+		pending.compute(player, (key, update) -> {
+			final ProfileUpdate merged = update != null ? update : new ProfileUpdate();
+			merged.setRating(rating);
+			return merged;
+		});
+	}
+
+	/**
+	 * Sets one of a player's preferences.  This never blocks on the disk.
+	 * @param player The player.
+	 * @param key The name of the preference.
+	 * @param value The value, or null to remove the preference.
+	 */
+	public void setPreference(String player, String key, String value) {
+		pending.compute(player, (name, update) -> {
+			final ProfileUpdate merged = update != null ? update : new ProfileUpdate();
+			merged.setPreference(key, value);
+			return merged;
+		});
+	}
+
+	/**
+	 * @param player A player.
+	 * @return The player's profile, with every change made so far, or
+	 * null if the player has none.
+	 * @throws IOException If the profile cannot be read.
+	 */
+	public PlayerProfile getProfile(String player) throws IOException {
+		synchronized (writeLock) {
+			final PlayerProfile stored = load(player);
+			final PlayerProfile[] profile = { stored };
+			pending.computeIfPresent(player, (key, update) -> {
+				profile[0] = update.applyTo(stored != null ? stored : new PlayerProfile(player));
+				return update;
+			});
+			return profile[0];
+		}
+	}
+
+	/**
+	 * @return The number of players with changes that have not been written.
+	 */
+	public int getPending() {
+		return pending.size();
+	}
+
+	/**
+	 * @return The number of profiles cached.
+	 */
+	public int getCacheSize() {
+		synchronized (writeLock) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * @return The number of times a profile was found in the cache.
+	 */
+	public long getHits() {
+		synchronized (writeLock) {
+			return hits;
+		}
+	}
+
+	/**
+	 * @return The number of times a profile had to be read from the store.
+	 */
+	public long getMisses() {
+		synchronized (writeLock) {
+			return misses;
+		}
+	}
+
+	/**
+	 * Writes every change made so far, on the calling thread.
+	 * @throws IOException If the profiles cannot be written.
+	 */
+	public void flush() throws IOException {
+		synchronized (writeLock) {
+			write();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		thread.interrupt();
+		try {
+			thread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			flush();
+			store.sync();
+		}
+		finally {
+			store.close();
+		}
+	}
+
+	/**
+	 * @return The number of times the service's thread failed to write
+	 * the changes.  They are kept, and written again next time.
+	 */
+	public long getFailedFlushes() {
+		return failedFlushes;
+	}
+
+	/**
+	 * Writes changes every flush interval, until the service is closed.
+	 */
+	private void run() {
+		boolean failing = false;
+		while (!closed) {
+			try {
+				Thread.sleep(flushMillis);
+				flush();
+				failing = false;
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+			catch (IOException e) {
+				// The profiles are kept as unwritten, and written again next time
+				failedFlushes++;
+				if (!failing) {
+					e.printStackTrace();
+				}
+				failing = true;
+			}
+		}
+	}
+
+	/**
+	 * Helper function that makes the pending updates, and writes the
+	 * profiles that changed.
+	 */
+	private void write() throws IOException {
+		for (String player : new ArrayList<String>(pending.keySet())) {
+			final ProfileUpdate update = pending.remove(player);
+			if (update != null) {
+				final PlayerProfile profile = load(player);
+				unwritten.put(player, update.applyTo(profile != null ? profile : new PlayerProfile(player)));
+			}
+		}
+		if (unwritten.isEmpty()) {
+			return;
+		}
+		final Map<String, PlayerProfile> written = unwritten;
+		unwritten = new HashMap<String, PlayerProfile>();
+		try {
+			store.write(written.values());
+		}
+		catch (IOException e) {
+			unwritten = written;
+			throw e;
+		}
+		for (PlayerProfile profile : written.values()) {
+			cache.put(profile.getPlayer(), profile);
+		}
+	}
+
+	/**
+	 * Helper function that finds the latest profile made of a player's
+	 * updates, from those not yet written, the cache, or the store.
+	 */
+	private PlayerProfile load(String player) throws IOException {
+		final PlayerProfile waiting = unwritten.get(player);
+		if (waiting != null) {
+			return waiting;
+		}
+		final PlayerProfile cached = cache.get(player);
+		if (cached != null) {
+			hits++;
+			return cached;
+		}
+		misses++;
+		final PlayerProfile stored = store.read(player);
+		if (stored != null) {
+			cache.put(player, stored);
+		}
+		return stored;
+	}
+}
@@ -0,0 +1,300 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class keeps player profiles on disk, without holding them in
+ * memory.  Profiles are appended to a log, and only where the latest
+ * record of each player starts is kept in memory, so reading a profile
+ * is a single read at a known offset.
+ * <p>
+ * Every record starts with its length, and a record that was only
+ * partly written when the server stopped is cut off when the log is
+ * opened.  When most of the log is records that have been replaced, it
+ * is rewritten with only the latest ones, beside its final name, and
+ * then moved into place.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ProfileStore implements Closeable {
+
+	/**
+	 * The first four bytes of the log, which are "SBP" and a version.
+	 */
+	private static final int MAGIC = 0x53425001;
+	private static final String LOG = "profiles.log";
+
+	/**
+	 * The log is rewritten once it is this many times the size of the
+	 * latest records, and larger than the floor.
+	 */
+	private static final int COMPACT_RATIO = 2;
+	private static final long COMPACT_FLOOR = 1 << 20;
+
+	private final File file;
+	private RandomAccessFile access;
+	private FileChannel channel;
+	private final Map<String, Long> offsets = new HashMap<String, Long>();
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+	private final DataOutputStream out = new DataOutputStream(record);
+	private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+	private final DataOutputStream batchOut = new DataOutputStream(batch);
+	private ByteBuffer buffer = ByteBuffer.allocate(256);
+	private long end;
+	private long live;
+
+	/**
+	 * Constructor for the ProfileStore, which finds where every profile
+	 * in the log starts.
+	 * @param directory The directory to keep the log in.  It is created if needed.
+	 * @throws IOException If the log cannot be read or opened.
+	 */
+	public ProfileStore(File directory) throws IOException {
+		Files.createDirectories(directory.toPath());
+		file = new File(directory, LOG);
+		open();
+		if (channel.size() == 0) {
+			buffer.clear();
+			buffer.putInt(MAGIC).flip();
+			channel.write(buffer, 0);
+			end = Integer.BYTES;
+		}
+		else {
+			scan();
+		}
+	}
+
+	/**
+	 * Reads a profile.
+	 * @param player The player.
+	 * @return The profile, or null if the player has none.
+	 * @throws IOException If the profile cannot be read.
+	 */
+	public synchronized PlayerProfile read(String player) throws IOException {
+		final Long offset = offsets.get(player);
+		if (offset == null) {
+			return null;
+		}
+		final int length = readLength(offset);
+		return decode(readFully(offset + Integer.BYTES, length));
+	}
+
+	/**
+	 * Writes profiles, replacing any the players had.
+	 * @param profiles The profiles.
+	 * @throws IOException If the profiles cannot be written.
+	 */
+	public synchronized void write(Collection<PlayerProfile> profiles) throws IOException {
+		batch.reset();
+		// Only the last profile of a player is written
+		final Map<String, PlayerProfile> latest = new LinkedHashMap<String, PlayerProfile>();
+		for (PlayerProfile profile : profiles) {
+			latest.put(profile.getPlayer(), profile);
+		}
+		final Map<String, Long> written = new HashMap<String, Long>();
+		long replacedBytes = 0;
+		for (PlayerProfile profile : latest.values()) {
+			record.reset();
+			encode(profile);
+			final Long replaced = offsets.get(profile.getPlayer());
+			if (replaced != null) {
+				replacedBytes += Integer.BYTES + readLength(replaced);
+			}
+			written.put(profile.getPlayer(), end + batch.size());
+			batchOut.writeInt(record.size());
+			record.writeTo(batchOut);
+		}
+		final ByteBuffer appended = ByteBuffer.wrap(batch.toByteArray());
+		while (appended.hasRemaining()) {
+			channel.write(appended, end + appended.position());
+		}
+		// Nothing is counted until the batch is on the log
+		end += batch.size();
+		live += batch.size() - replacedBytes;
+		offsets.putAll(written);
+		if (end > COMPACT_FLOOR && end > COMPACT_RATIO * live) {
+			compact();
+		}
+	}
+
+	/**
+	 * Forces what has been written onto the disk.
+	 * @throws IOException If the disk fails.
+	 */
+	public synchronized void sync() throws IOException {
+		channel.force(false);
+	}
+
+	/**
+	 * @return The number of players with profiles.
+	 */
+	public synchronized int size() {
+		return offsets.size();
+	}
+
+	/**
+	 * @return The size of the log, in bytes.
+	 */
+	public synchronized long getLogSize() {
+		return end;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+		access.close();
+	}
+
+	/**
+	 * Helper function that finds where each profile starts, and cuts off
+	 * a record that was only partly written.
+	 */
+	private void scan() throws IOException {
+		if (channel.size() < Integer.BYTES || readFully(0, Integer.BYTES).getInt() != MAGIC) {
+			throw new IOException("Not a profile log: " + file);
+		}
+		final long size = channel.size();
+		long offset = Integer.BYTES;
+		while (offset + Integer.BYTES <= size) {
+			final int length = readLength(offset);
+			if (length < 0 || offset + Integer.BYTES + length > size) {
+				break;
+			}
+			final String player = readPlayer(readFully(offset + Integer.BYTES, length));
+			final Long replaced = offsets.put(player, offset);
+			if (replaced != null) {
+				live -= Integer.BYTES + readLength(replaced);
+			}
+			live += Integer.BYTES + length;
+			offset += Integer.BYTES + length;
+		}
+		end = offset;
+		if (end < size) {
+			channel.truncate(end);
+		}
+	}
+
+	/**
+	 * Helper function that rewrites the log with the latest record of
+	 * each player.
+	 */
+	private void compact() throws IOException {
+		final File temporary = new File(file.getParentFile(), LOG + ".tmp");
+		final Map<String, Long> moved = new HashMap<String, Long>();
+		try (RandomAccessFile compacted = new RandomAccessFile(temporary, "rw");
+				FileChannel target = compacted.getChannel()) {
+			target.truncate(0);
+			final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+			magic.putInt(MAGIC).flip();
+			target.write(magic, 0);
+			long position = Integer.BYTES;
+			for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+				final int length = Integer.BYTES + readLength(entry.getValue());
+				final ByteBuffer record = readFully(entry.getValue(), length);
+				while (record.hasRemaining()) {
+					target.write(record, position + record.position());
+				}
+				moved.put(entry.getKey(), position);
+				position += length;
+			}
+			target.force(false);
+			end = position;
+		}
+		close();
+		Files.move(temporary.toPath(), file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		open();
+		offsets.clear();
+		offsets.putAll(moved);
+		live = end - Integer.BYTES;
+	}
+
+	private void open() throws IOException {
+		access = new RandomAccessFile(file, "rw");
+		channel = access.getChannel();
+	}
+
+	private int readLength(long offset) throws IOException {
+		return readFully(offset, Integer.BYTES).getInt();
+	}
+
+	/**
+	 * Helper function that reads bytes of the log into the shared buffer.
+	 * @return The buffer, ready to be read.
+	 */
+	private ByteBuffer readFully(long offset, int length) throws IOException {
+		if (buffer.capacity() < length) {
+			buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+		}
+		buffer.clear().limit(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0) {
+				throw new IOException(file + " ends in the middle of a profile!");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private void encode(PlayerProfile profile) throws IOException {
+		out.writeUTF(profile.getPlayer());
+		out.writeDouble(profile.getRating());
+		final long[] stats = profile.getStats();
+		out.writeByte(stats.length);
+		for (long stat : stats) {
+			out.writeLong(stat);
+		}
+		out.writeShort(profile.getPreferences().size());
+		for (Map.Entry<String, String> preference : profile.getPreferences().entrySet()) {
+			out.writeUTF(preference.getKey());
+			out.writeUTF(preference.getValue());
+		}
+	}
+
+	private static String readPlayer(ByteBuffer record) throws IOException {
+		return input(record).readUTF();
+	}
+
+	private static PlayerProfile decode(ByteBuffer record) throws IOException {
+		final DataInputStream in = input(record);
+		final String player = in.readUTF();
+		final double rating = in.readDouble();
+		final long[] stats = new long[in.readUnsignedByte()];
+		for (int stat = 0; stat < stats.length; stat++) {
+			stats[stat] = in.readLong();
+		}
+		final int count = in.readUnsignedShort();
+		final Map<String, String> preferences = new HashMap<String, String>(count * 2);
+		for (int preference = 0; preference < count; preference++) {
+			preferences.put(in.readUTF(), in.readUTF());
+		}
+		return new PlayerProfile(player, stats, rating, preferences);
+	}
+
+	private static DataInputStream input(ByteBuffer record) {
+		return new DataInputStream(new ByteArrayInputStream(
+				record.array(), record.arrayOffset() + record.position(), record.remaining()));
+	}
+}
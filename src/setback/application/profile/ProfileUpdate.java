@@ -0,0 +1,69 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is every change made to one player's profile since it was
+ * last written.  Changes are merged as they are made: counts are added
+ * together, and only the last rating and the last value of each
+ * preference are kept, so however many moves a player makes between
+ * writes, the profile is only changed and written once.
+ * <p>
+ * An update is only changed and applied while its ProfileService holds
+ * the lock on the player's entry in its map of updates.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class ProfileUpdate {
+
+	private final long[] stats = new long[PlayerStat.values().length];
+	private double rating = Double.NaN;
+	private boolean rated;
+	private Map<String, String> preferences;
+
+	void add(PlayerStat stat, long amount) {
+		stats[stat.ordinal()] += amount;
+	}
+
+	void setRating(double rating) {
+		this.rating = rating;
+		rated = true;
+	}
+
+	void setPreference(String key, String value) {
+		if (preferences == null) {
+			preferences = new HashMap<String, String>();
+		}
+		preferences.put(key, value);
+	}
+
+	/**
+	 * @param profile A profile.
+	 * @return The profile with this update made to it.  A preference
+	 * set to null is removed.
+	 */
+	PlayerProfile applyTo(PlayerProfile profile) {
+		final long[] counts = profile.getStats().clone();
+		for (int stat = 0; stat < counts.length; stat++) {
+			counts[stat] += stats[stat];
+		}
+		Map<String, String> merged = profile.getPreferences();
+		if (preferences != null) {
+			merged = new HashMap<String, String>(merged);
+			for (Map.Entry<String, String> preference : preferences.entrySet()) {
+				if (preference.getValue() == null) {
+					merged.remove(preference.getKey());
+				}
+				else {
+					merged.put(preference.getKey(), preference.getValue());
+				}
+			}
+		}
+		return new PlayerProfile(profile.getPlayer(), counts, rated ? rating : profile.getRating(), merged);
+	}
+}
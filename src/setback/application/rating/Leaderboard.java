@@ -0,0 +1,220 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.rating;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class keeps every player's Rating in leaderboard order, in a
+ * treap where each node also knows the size of its subtree.  That makes
+ * it an order-statistic tree: adding or removing a rating, finding the
+ * rank of one, and finding the rating at a rank all take O(log n), and
+ * a page of k ratings takes O(log n + k), however many players there are.
+ * <p>
+ * Ranks start at zero for the highest rating.  The leaderboard is
+ * locked for every call, which is short.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class Leaderboard {
+
+	private final Random priorities = new Random();
+	private Node root;
+
+	/**
+	 * Adds a rating.  A player's old rating must be removed first.
+	 * @param rating The rating.
+	 */
+	public synchronized void add(Rating rating) {
+		final Node[] split = split(root, rating);
+		root = merge(merge(split[0], new Node(rating, priorities.nextInt())), split[1]);
+	}
+
+	/**
+	 * Removes a rating.
+	 * @param rating The rating, as it was added.
+	 * @return True if it was on the leaderboard.
+	 */
+	public synchronized boolean remove(Rating rating) {
+		final int before = size(root);
+		root = remove(root, rating);
+		return size(root) < before;
+	}
+
+	/**
+	 * Replaces a player's rating.
+	 * @param old The old rating, or null if the player had none.
+	 * @param rating The new rating.
+	 */
+	public synchronized void replace(Rating old, Rating rating) {
+		if (old != null) {
+			remove(old);
+		}
+		add(rating);
+	}
+
+	/**
+	 * @param rating A rating that is on the leaderboard.
+	 * @return Its rank, or -1 if it is not on the leaderboard.
+	 */
+	public synchronized int rankOf(Rating rating) {
+		int rank = 0;
+		Node node = root;
+		while (node != null) {
+			final int compared = rating.compareTo(node.rating);
+			if (compared == 0) {
+				return rank + size(node.left);
+			}
+			if (compared < 0) {
+				node = node.left;
+			}
+			else {
+				rank += size(node.left) + 1;
+				node = node.right;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param rank A rank.
+	 * @return The rating at the rank, or null if there are not that many.
+	 */
+	public synchronized Rating get(int rank) {
+		Node node = root;
+		while (node != null) {
+			final int left = size(node.left);
+			if (rank < left) {
+				node = node.left;
+			}
+			else if (rank == left) {
+				return node.rating;
+			}
+			else {
+				rank -= left + 1;
+				node = node.right;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param from The rank to start at.
+	 * @param count The most ratings to return.
+	 * @return The ratings from the rank down, in order.
+	 */
+	public synchronized List<Rating> page(int from, int count) {
+		final List<Rating> page = new ArrayList<Rating>(Math.max(0, Math.min(count, size(root) - from)));
+		collect(root, from, from + count, 0, page);
+		return page;
+	}
+
+	/**
+	 * @return The number of players on the leaderboard.
+	 */
+	public synchronized int size() {
+		return size(root);
+	}
+
+	/**
+	 * Helper function that collects the ratings with ranks from the
+	 * first to before the last, skipping whole subtrees outside them.
+	 * @param offset The rank of the first rating under the node.
+	 */
+	private static void collect(Node node, int first, int last, int offset, List<Rating> page) {
+		if (node == null || offset >= last || offset + node.size <= first) {
+			return;
+		}
+		final int rank = offset + size(node.left);
+		collect(node.left, first, last, offset, page);
+		if (rank >= first && rank < last) {
+			page.add(node.rating);
+		}
+		collect(node.right, first, last, rank + 1, page);
+	}
+
+	/**
+	 * Helper function that splits a treap into the ratings before a
+	 * rating and the rest.
+	 */
+	private static Node[] split(Node node, Rating rating) {
+		if (node == null) {
+			return new Node[2];
+		}
+		if (node.rating.compareTo(rating) < 0) {
+			final Node[] split = split(node.right, rating);
+			node.right = split[0];
+			split[0] = node.update();
+			return split;
+		}
+		final Node[] split = split(node.left, rating);
+		node.left = split[1];
+		split[1] = node.update();
+		return split;
+	}
+
+	/**
+	 * Helper function that joins two treaps, where every rating in the
+	 * first comes before every rating in the second.
+	 */
+	private static Node merge(Node first, Node second) {
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+		if (first.priority > second.priority) {
+			first.right = merge(first.right, second);
+			return first.update();
+		}
+		second.left = merge(first, second.left);
+		return second.update();
+	}
+
+	private static Node remove(Node node, Rating rating) {
+		if (node == null) {
+			return null;
+		}
+		final int compared = rating.compareTo(node.rating);
+		if (compared == 0) {
+			return merge(node.left, node.right);
+		}
+		if (compared < 0) {
+			node.left = remove(node.left, rating);
+		}
+		else {
+			node.right = remove(node.right, rating);
+		}
+		return node.update();
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * One rating in the treap.
+	 */
+	private static final class Node {
+		final Rating rating;
+		final int priority;
+		Node left;
+		Node right;
+		int size = 1;
+
+		Node(Rating rating, int priority) {
+			this.rating = rating;
+			this.priority = priority;
+		}
+
+		Node update() {
+			size = 1 + size(left) + size(right);
+			return this;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.rating;
+
+/**
+ * This class is the rating of one player at one moment.  It never
+ * changes; a new Rating replaces it after every game the player plays.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class Rating implements Comparable<Rating> {
+
+	private final String player;
+	private final double rating;
+	private final int games;
+	private final int wins;
+
+	/**
+	 * Constructor for a Rating.
+	 * @param player The player.
+	 * @param rating The Elo rating.
+	 * @param games The number of games rated.
+	 * @param wins The number of those games won.
+	 */
+	public Rating(String player, double rating, int games, int wins) {
+		this.player = player;
+		this.rating = rating;
+		this.games = games;
+		this.wins = wins;
+	}
+
+	/**
+	 * @return the player.
+	 */
+	public String getPlayer() {
+		return player;
+	}
+
+	/**
+	 * @return the rating.
+	 */
+	public double getRating() {
+		return rating;
+	}
+
+	/**
+	 * @return the number of games rated.
+	 */
+	public int getGames() {
+		return games;
+	}
+
+	/**
+	 * @return the number of games won.
+	 */
+	public int getWins() {
+		return wins;
+	}
+
+	/**
+	 * Orders ratings from the highest down, and players with the same
+	 * rating by name, which is the order of the leaderboard.
+	 * @see java.lang.Comparable#compareTo(java.lang.Object)
+	 */
+	@Override
+	public int compareTo(Rating other) {
+		final int byRating = Double.compare(other.rating, rating);
+		return byRating != 0 ? byRating : player.compareTo(other.player);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return player + " " + Math.round(rating) + " (" + wins + "/" + games + ")";
+	}
+}
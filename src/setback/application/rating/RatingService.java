@@ -0,0 +1,319 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.rating;
+
+import setback.application.matchmaking.Matchmaker;
+import setback.application.profile.ProfileService;
+import setback.common.PlayerNumber;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class keeps an Elo rating for every player, and a Leaderboard
+ * of them.  Tables report each game as it ends, which only queues it;
+ * a thread of the service's own takes the games off the queue in
+ * batches and rates them in the order they ended, so a table never
+ * waits on the ratings.
+ * <p>
+ * Setback is played by teams, so a team is rated as the average of
+ * its partners, and each partner gains or loses what the team does.
+ * New ratings are written behind, every flush interval, to a
+ * RatingStore, so a player who plays many games between writes is
+ * only written once.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class RatingService implements Closeable {
+
+	/**
+	 * The rating of a player who has not played, which is the skill
+	 * the Matchmaker gives a player it knows nothing about.
+	 */
+	public static final double INITIAL_RATING = Matchmaker.DEFAULT_SKILL;
+
+	/**
+	 * The most a team's rating can change in one game.
+	 */
+	public static final double K_FACTOR = 32;
+
+	/**
+	 * How often new ratings are written, in milliseconds.
+	 */
+	public static final long DEFAULT_FLUSH_MILLIS = 1000;
+
+	/**
+	 * The most games rated at once.
+	 */
+	private static final int BATCH_SIZE = 256;
+	private static final int SEATS = PlayerNumber.values().length;
+
+	private final RatingStore store;
+	private final long flushMillis;
+	private final Map<String, Rating> ratings = new ConcurrentHashMap<String, Rating>();
+	private final Leaderboard leaderboard = new Leaderboard();
+	private final BlockingQueue<GameResult> pending = new LinkedBlockingQueue<GameResult>();
+	private final Thread thread;
+	private volatile ProfileService profiles;
+
+	/**
+	 * Held while games are taken from the queue and rated, so games are
+	 * always rated in order, even when a caller flushes.
+	 */
+	private final Object ratingLock = new Object();
+
+	// Guarded by ratingLock
+	private final List<GameResult> batch = new ArrayList<GameResult>(BATCH_SIZE);
+	private Map<String, Rating> dirty = new HashMap<String, Rating>();
+	private long lastWrite = System.currentTimeMillis();
+
+	private volatile boolean closed;
+
+	/**
+	 * Constructor that writes new ratings every DEFAULT_FLUSH_MILLIS.
+	 * @param directory The directory to keep the ratings in.
+	 * @throws IOException If the ratings cannot be read.
+	 */
+	public RatingService(File directory) throws IOException {
+		this(new RatingStore(directory), DEFAULT_FLUSH_MILLIS);
+	}
+
+	/**
+	 * Constructor for the RatingService, which starts its thread.
+	 * @param store The store to read the ratings from, and write them to.
+	 * @param flushMillis How often new ratings are written, in milliseconds.
+	 */
+	public RatingService(RatingStore store, long flushMillis) {
+		this.store = store;
+		this.flushMillis = flushMillis;
+		for (Rating rating : store.getRatings()) {
+			ratings.put(rating.getPlayer(), rating);
+			leaderboard.add(rating);
+		}
+		thread = new Thread(this::run, "SetbackRatings");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Queues a game to be rated.  This never blocks.
+	 * @param players The player in each seat, in the order of PlayerNumber.
+	 * @param teamOneWon True if PLAYER_ONE and PLAYER_THREE won.
+	 */
+	public void gameEnded(String[] players, boolean teamOneWon) {
+		if (players.length != SEATS) {
+			throw new IllegalArgumentException("A game has " + SEATS + " players, not " + players.length);
+		}
+		if (!closed) {
+			pending.offer(new GameResult(players.clone(), teamOneWon));
+		}
+	}
+
+	/**
+	 * @param profiles The service to copy every new rating to, so it is
+	 * kept with the rest of the player's profile.
+	 */
+	public void setProfiles(ProfileService profiles) {
+		this.profiles = profiles;
+	}
+
+	/**
+	 * @param player A player.
+	 * @return The player's rating, or null if the player has not been rated.
+	 */
+	public Rating getRating(String player) {
+		return ratings.get(player);
+	}
+
+	/**
+	 * @param player A player.
+	 * @return The player's place on the leaderboard, from zero, or -1 if
+	 * the player has not been rated.
+	 */
+	public int getRank(String player) {
+		final Rating rating = ratings.get(player);
+		return rating == null ? -1 : leaderboard.rankOf(rating);
+	}
+
+	/**
+	 * @param from The place to start at, from zero.
+	 * @param count The most ratings to return.
+	 * @return A page of the leaderboard.
+	 */
+	public List<Rating> getTop(int from, int count) {
+		return leaderboard.page(from, count);
+	}
+
+	/**
+	 * @return the leaderboard.
+	 */
+	public Leaderboard getLeaderboard() {
+		return leaderboard;
+	}
+
+	/**
+	 * @return The number of games waiting to be rated.
+	 */
+	public int getPending() {
+		return pending.size();
+	}
+
+	/**
+	 * Rates every game that has been queued, and writes the new ratings,
+	 * on the calling thread.
+	 * @throws IOException If the ratings cannot be written.
+	 */
+	public void flush() throws IOException {
+		synchronized (ratingLock) {
+			while (rateBatch()) {
+				// Rate until the queue is empty
+			}
+			write();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		thread.interrupt();
+		try {
+			thread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			flush();
+		}
+		finally {
+			store.close();
+		}
+	}
+
+	/**
+	 * Rates games as they are queued, and writes the new ratings every
+	 * flush interval, until the service is closed.
+	 */
+	private void run() {
+		while (!closed) {
+			try {
+				final GameResult first = pending.poll(flushMillis, TimeUnit.MILLISECONDS);
+				synchronized (ratingLock) {
+					if (first != null) {
+						batch.add(first);
+					}
+					rateBatch();
+					if (System.currentTimeMillis() - lastWrite >= flushMillis) {
+						write();
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+			catch (IOException e) {
+				// The ratings are still dirty, and are written again next time
+			}
+		}
+	}
+
+	/**
+	 * Helper function that rates the games already taken from the queue,
+	 * along with up to a batch more.
+	 * @return False if there was nothing to rate.
+	 */
+	private boolean rateBatch() {
+		pending.drainTo(batch, BATCH_SIZE - batch.size());
+		if (batch.isEmpty()) {
+			return false;
+		}
+		for (GameResult result : batch) {
+			rate(result);
+		}
+		batch.clear();
+		return true;
+	}
+
+	/**
+	 * Helper function that rates one game.
+	 */
+	private void rate(GameResult result) {
+		final Rating[] before = new Rating[SEATS];
+		for (int seat = 0; seat < SEATS; seat++) {
+			final String player = result.players[seat];
+			final Rating rating = ratings.get(player);
+			before[seat] = rating != null ? rating : new Rating(player, INITIAL_RATING, 0, 0);
+		}
+		// Seats one and three are team one
+		final double teamOneRating = (before[0].getRating() + before[2].getRating()) / 2;
+		final double teamTwoRating = (before[1].getRating() + before[3].getRating()) / 2;
+		final double expected = 1 / (1 + Math.pow(10, (teamTwoRating - teamOneRating) / 400));
+		final double change = K_FACTOR * ((result.teamOneWon ? 1 : 0) - expected);
+		for (int seat = 0; seat < SEATS; seat++) {
+			final boolean teamOne = seat % 2 == 0;
+			final boolean won = teamOne == result.teamOneWon;
+			// A player in two seats of one game is rated once for each
+			final Rating old = ratings.get(result.players[seat]);
+			final Rating base = old != null ? old : before[seat];
+			final Rating rating = new Rating(base.getPlayer(),
+					base.getRating() + (teamOne ? change : -change),
+					base.getGames() + 1, base.getWins() + (won ? 1 : 0));
+			leaderboard.replace(old, rating);
+			ratings.put(rating.getPlayer(), rating);
+			dirty.put(rating.getPlayer(), rating);
+			final ProfileService profileService = profiles;
+			if (profileService != null) {
+				profileService.setRating(rating.getPlayer(), rating.getRating());
+			}
+		}
+	}
+
+	/**
+	 * Helper function that writes the ratings that changed since the
+	 * last write.
+	 */
+	private void write() throws IOException {
+		lastWrite = System.currentTimeMillis();
+		if (!dirty.isEmpty()) {
+			final Map<String, Rating> written = dirty;
+			dirty = new HashMap<String, Rating>();
+			try {
+				store.write(written.values());
+			}
+			catch (IOException e) {
+				// Put them back, unless they have changed since
+				for (Rating rating : written.values()) {
+					dirty.putIfAbsent(rating.getPlayer(), rating);
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * A game waiting to be rated.
+	 */
+	private static final class GameResult {
+		final String[] players;
+		final boolean teamOneWon;
+
+		GameResult(String[] players, boolean teamOneWon) {
+			this.players = players;
+			this.teamOneWon = teamOneWon;
+		}
+	}
+}
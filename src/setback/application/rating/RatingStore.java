@@ -0,0 +1,169 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.rating;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class keeps ratings on disk, in a log that each batch of new
+ * ratings is appended to.  The last rating in the log for a player is
+ * the one that counts, so when the log holds many more ratings than
+ * there are players it is rewritten with only those, beside its final
+ * name and then moved into place.
+ * <p>
+ * A rating that was only partly written when the server stopped is
+ * left off when the log is read.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class RatingStore implements Closeable {
+
+	/**
+	 * The first four bytes of the log, which are "SBR" and a version.
+	 */
+	private static final int MAGIC = 0x53425201;
+	private static final String LOG = "ratings.log";
+
+	/**
+	 * How many ratings the log may hold for each player before it is
+	 * rewritten, past a floor that keeps small logs from being rewritten.
+	 */
+	private static final int COMPACT_RATIO = 4;
+	private static final int COMPACT_FLOOR = 4096;
+
+	private final File file;
+	private final Map<String, Rating> ratings = new HashMap<String, Rating>();
+	private DataOutputStream out;
+	private long logged;
+
+	/**
+	 * Constructor for the RatingStore, which reads the ratings already
+	 * in the directory.
+	 * @param directory The directory to keep the log in.  It is created if needed.
+	 * @throws IOException If the log cannot be read or opened.
+	 */
+	public RatingStore(File directory) throws IOException {
+		Files.createDirectories(directory.toPath());
+		file = new File(directory, LOG);
+		if (!file.exists()) {
+			open(false);
+		}
+		else if (!read() || logged > ratings.size()) {
+			compact();
+		}
+		else {
+			open(true);
+		}
+	}
+
+	/**
+	 * @return The rating of every player, as of the last write.
+	 */
+	public synchronized Collection<Rating> getRatings() {
+		return new ArrayList<Rating>(ratings.values());
+	}
+
+	/**
+	 * Appends ratings to the log, and rewrites it if it has grown too long.
+	 * @param changed The new ratings.
+	 * @throws IOException If the ratings cannot be written.
+	 */
+	public synchronized void write(Collection<Rating> changed) throws IOException {
+		for (Rating rating : changed) {
+			write(out, rating);
+			ratings.put(rating.getPlayer(), rating);
+		}
+		out.flush();
+		logged += changed.size();
+		if (logged > COMPACT_FLOOR && logged > (long) COMPACT_RATIO * ratings.size()) {
+			compact();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+
+	/**
+	 * Helper function that reads the log.
+	 * @return False if the last rating was only partly written.
+	 */
+	private boolean read() throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a rating log: " + file);
+			}
+			while (in.available() > 0) {
+				final Rating rating;
+				try {
+					rating = new Rating(in.readUTF(), in.readDouble(), in.readInt(), in.readInt());
+				}
+				catch (EOFException e) {
+					return false;
+				}
+				ratings.put(rating.getPlayer(), rating);
+				logged++;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Helper function that rewrites the log with one rating for each
+	 * player, which also drops a rating that was only partly written.
+	 */
+	private void compact() throws IOException {
+		if (out != null) {
+			out.close();
+		}
+		final File temporary = new File(file.getParentFile(), LOG + ".tmp");
+		try (DataOutputStream compacted = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temporary)))) {
+			compacted.writeInt(MAGIC);
+			for (Rating rating : ratings.values()) {
+				write(compacted, rating);
+			}
+		}
+		Files.move(temporary.toPath(), file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		logged = ratings.size();
+		open(true);
+	}
+
+	private void open(boolean exists) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, exists)));
+		if (!exists) {
+			out.writeInt(MAGIC);
+			out.flush();
+		}
+	}
+
+	private static void write(DataOutputStream out, Rating rating) throws IOException {
+		out.writeUTF(rating.getPlayer());
+		out.writeDouble(rating.getRating());
+		out.writeInt(rating.getGames());
+		out.writeInt(rating.getWins());
+	}
+}
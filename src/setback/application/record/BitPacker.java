@@ -0,0 +1,76 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import java.util.Arrays;
+
+/**
+ * This class packs values of any width up to 64 bits into bytes, most
+ * significant bit first.  Bits collect in a long and are copied out a
+ * byte at a time, into an array that grows as needed and is kept for
+ * the next record.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class BitPacker {
+
+	private byte[] bytes = new byte[256];
+	private int length;
+	private long pending;
+	private int pendingBits;
+
+	/**
+	 * Starts a new record, keeping the array.
+	 */
+	void reset() {
+		length = 0;
+		pending = 0;
+		pendingBits = 0;
+	}
+
+	/**
+	 * Adds the low bits of a value.
+	 * @param value The value.
+	 * @param bits How many of its bits to add, from 1 to 32.
+	 */
+	void write(int value, int bits) {
+		pending = pending << bits | (value & (1L << bits) - 1);
+		pendingBits += bits;
+		while (pendingBits >= Byte.SIZE) {
+			pendingBits -= Byte.SIZE;
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, length * 2);
+			}
+			bytes[length++] = (byte) (pending >>> pendingBits);
+		}
+	}
+
+	/**
+	 * Adds all 64 bits of a value.
+	 * @param value The value.
+	 */
+	void writeLong(long value) {
+		write((int) (value >>> Integer.SIZE), Integer.SIZE);
+		write((int) value, Integer.SIZE);
+	}
+
+	/**
+	 * Pads the last byte with zeros.
+	 * @return The number of bytes packed.
+	 */
+	int finish() {
+		if (pendingBits > 0) {
+			write(0, Byte.SIZE - pendingBits);
+		}
+		return length;
+	}
+
+	/**
+	 * @return The packed bytes, valid up to the length returned by finish.
+	 */
+	byte[] bytes() {
+		return bytes;
+	}
+}
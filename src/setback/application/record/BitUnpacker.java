@@ -0,0 +1,71 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.common.SetbackException;
+
+/**
+ * This class reads back the values a BitPacker packed, in the same
+ * order and with the same widths.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class BitUnpacker {
+
+	private byte[] bytes;
+	private int position;
+	private int end;
+	private long pending;
+	private int pendingBits;
+
+	/**
+	 * Starts reading a record.
+	 * @param bytes Holds the record.
+	 * @param offset Where the record starts.
+	 * @param length How many bytes the record has.
+	 */
+	void reset(byte[] bytes, int offset, int length) {
+		this.bytes = bytes;
+		position = offset;
+		end = offset + length;
+		pending = 0;
+		pendingBits = 0;
+	}
+
+	/**
+	 * Reads a value.
+	 * @param bits How many bits it has, from 1 to 32.
+	 * @return The value, which is never negative unless bits is 32.
+	 * @throws SetbackException If the record has run out of bits.
+	 */
+	int read(int bits) throws SetbackException {
+		while (pendingBits < bits) {
+			if (position == end) {
+				throw new SetbackException("The record ended early!");
+			}
+			pending = pending << Byte.SIZE | bytes[position++] & 0xFF;
+			pendingBits += Byte.SIZE;
+		}
+		pendingBits -= bits;
+		return (int) (pending >>> pendingBits & (1L << bits) - 1);
+	}
+
+	/**
+	 * Reads a value of all 64 bits.
+	 * @return The value.
+	 * @throws SetbackException If the record has run out of bits.
+	 */
+	long readLong() throws SetbackException {
+		final long high = read(Integer.SIZE) & 0xFFFFFFFFL;
+		return high << Integer.SIZE | read(Integer.SIZE) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * @return True if only the padding of the last byte is left.
+	 */
+	boolean isFinished() {
+		return position == end && pendingBits < Byte.SIZE;
+	}
+}
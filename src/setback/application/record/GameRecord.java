@@ -0,0 +1,439 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.application.command.Command;
+import setback.application.move.MoveReplayer;
+import setback.application.move.Moves;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.SetbackGameFactory;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.RoundState;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is a played game, kept for archiving or exchanging with
+ * others: how the cards were dealt, either as the seed of the dealer or
+ * as the hands themselves, every move of every round, and the scores
+ * the game ended with.
+ * <p>
+ * Only whole rounds are recorded, so the moves are the four seat
+ * requests followed by rounds of four bets, the trump, four discards
+ * and nine tricks.  The moves are checked to have that shape when the
+ * record is made, which is everything GameRecordCodec needs to pack
+ * them, but only replaying them shows whether the game accepts them.
+ * <p>
+ * A record may also keep checkpoints: the RoundState of the game at
+ * the start of every so many rounds, so that a game can be brought to
+ * any move by replaying no more than that many rounds.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameRecord {
+
+	public static final int SEATS = PlayerNumber.values().length;
+	public static final int HAND_SIZE = 12;
+	public static final int DEAL_SIZE = SEATS * HAND_SIZE;
+	public static final int DISCARDS = 3;
+	public static final int TRICKS = HAND_SIZE - DISCARDS;
+	public static final int ROUND_MOVES = SEATS + 1 + SEATS + TRICKS * SEATS;
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+
+	private final Long seed;
+	private final int[][] deals;
+	private final int[] moves;
+	private final int teamOneScore;
+	private final int teamTwoScore;
+	private final int checkpointInterval;
+	private final RoundState[] checkpoints;
+
+	private GameRecord(Long seed, int[][] deals, int[] moves, int teamOneScore, int teamTwoScore,
+			int checkpointInterval, RoundState[] checkpoints) {
+		this.seed = seed;
+		this.deals = deals;
+		this.moves = moves;
+		this.teamOneScore = teamOneScore;
+		this.teamTwoScore = teamTwoScore;
+		this.checkpointInterval = checkpointInterval;
+		this.checkpoints = checkpoints;
+	}
+
+	/**
+	 * Makes a record of a game dealt from a seed.
+	 * @param seed The seed the game was created with.
+	 * @param moves The moves of the game, packed by Moves.
+	 * @param count The number of moves to use.
+	 * @param teamOneScore The score of team one at the end.
+	 * @param teamTwoScore The score of team two at the end.
+	 * @return The record.
+	 * @throws SetbackException If the moves are not whole rounds.
+	 */
+	public static GameRecord seeded(long seed, int[] moves, int count,
+			int teamOneScore, int teamTwoScore) throws SetbackException {
+		final int[] copy = Arrays.copyOf(moves, count);
+		checkMoves(copy);
+		return new GameRecord(seed, null, copy, teamOneScore, teamTwoScore, 0, null);
+	}
+
+	/**
+	 * Makes a record of a game whose hands are known, but not how they
+	 * were dealt.
+	 * @param deals The ordinals of the cards dealt in each round, as
+	 * the hands of player one to player four in turn.
+	 * @param moves The moves of the game, packed by Moves.
+	 * @param count The number of moves to use.
+	 * @param teamOneScore The score of team one at the end.
+	 * @param teamTwoScore The score of team two at the end.
+	 * @return The record.
+	 * @throws SetbackException If the moves are not whole rounds, or
+	 * there is not one deal of DEAL_SIZE cards for each round.
+	 */
+	public static GameRecord dealt(int[][] deals, int[] moves, int count,
+			int teamOneScore, int teamTwoScore) throws SetbackException {
+		final int[] copy = Arrays.copyOf(moves, count);
+		final int rounds = checkMoves(copy);
+		if (deals.length != rounds) {
+			throw new SetbackException("There are " + deals.length + " deals for " + rounds + " rounds!");
+		}
+		final int[][] dealCopy = new int[rounds][];
+		for (int round = 0; round < rounds; round++) {
+			if (deals[round].length != DEAL_SIZE) {
+				throw new SetbackException("Deal " + round + " does not have " + DEAL_SIZE + " cards!");
+			}
+			for (int card : deals[round]) {
+				checkCard(card);
+			}
+			dealCopy[round] = deals[round].clone();
+		}
+		return new GameRecord(null, dealCopy, copy, teamOneScore, teamTwoScore, 0, null);
+	}
+
+	/**
+	 * Plays the game again, from its seed or its deals.
+	 * @return The game, as it was at the end.
+	 * @throws SetbackException If the game does not accept the moves.
+	 */
+	public SetbackMultiplayerGame replay() throws SetbackException {
+		final SetbackMultiplayerGame game = newGame();
+		new MoveReplayer(game).replay(moves, moves.length);
+		return game;
+	}
+
+	/**
+	 * Plays the game again to find the hands it dealt, so that it can be
+	 * read without the dealer that dealt them.
+	 * @return A record of the same game, with the deals instead of the seed.
+	 * @throws SetbackException If the game does not accept the moves.
+	 */
+	public GameRecord withDeals() throws SetbackException {
+		if (seed == null) {
+			return this;
+		}
+		final SetbackMultiplayerGame game = newGame();
+		final MoveReplayer replayer = new MoveReplayer(game);
+		final int[][] found = new int[getRoundCount()][];
+		for (int index = 0; index < moves.length; index++) {
+			if (index >= SEATS && (index - SEATS) % ROUND_MOVES == 0) {
+				// The hands have been dealt, and nobody has bet yet
+				final int[] deal = new int[DEAL_SIZE];
+				for (int seat = 0; seat < SEATS; seat++) {
+					final List<Card> hand = game.getPlayerHand(PLAYERS[seat]).getCards();
+					for (int card = 0; card < HAND_SIZE; card++) {
+						deal[seat * HAND_SIZE + card] = hand.get(card).getOrdinal();
+					}
+				}
+				found[(index - SEATS) / ROUND_MOVES] = deal;
+			}
+			replayer.replay(moves[index]);
+		}
+		RoundState[] rounds = null;
+		if (checkpoints != null) {
+			// A recorded dealer's state is the number of rounds it has dealt
+			rounds = new RoundState[checkpoints.length];
+			for (int round = 0; round < rounds.length; round++) {
+				final RoundState state = checkpoints[round];
+				rounds[round] = state == null ? null : new RoundState(state.getDealer(),
+						state.getTeamOneScore(), state.getTeamTwoScore(), round);
+			}
+		}
+		return new GameRecord(null, found, moves, teamOneScore, teamTwoScore, checkpointInterval, rounds);
+	}
+
+	/**
+	 * Plays the game again to find the state it was in at the start of
+	 * every so many rounds.
+	 * @param interval The number of rounds between checkpoints.
+	 * @return A record of the same game, with the checkpoints.
+	 * @throws SetbackException If the game does not accept the moves.
+	 */
+	public GameRecord withCheckpoints(int interval) throws SetbackException {
+		if (interval < 1) {
+			throw new SetbackException("Checkpoints must be at least a round apart!");
+		}
+		final SetbackMultiplayerGame game = newGame();
+		final MoveReplayer replayer = new MoveReplayer(game);
+		final RoundState[] found = new RoundState[getRoundCount()];
+		for (int index = 0; index < moves.length; index++) {
+			final int round = (index - SEATS) / ROUND_MOVES;
+			if (index > SEATS && (index - SEATS) % ROUND_MOVES == 0 && round % interval == 0) {
+				found[round] = game.getRoundState();
+			}
+			replayer.replay(moves[index]);
+		}
+		return new GameRecord(seed, deals, moves, teamOneScore, teamTwoScore, interval, found);
+	}
+
+	/**
+	 * @return True if the game is dealt from a seed, and false if its
+	 * deals are recorded instead.
+	 */
+	public boolean isSeeded() {
+		return seed != null;
+	}
+
+	/**
+	 * @return The seed the game was created with.
+	 * @throws SetbackException If the deals were recorded instead.
+	 */
+	public long getSeed() throws SetbackException {
+		if (seed == null) {
+			throw new SetbackException("The game was not recorded with a seed!");
+		}
+		return seed;
+	}
+
+	/**
+	 * @param round The round, from zero.
+	 * @param player The player.
+	 * @return The cards the player was dealt that round.
+	 * @throws SetbackException If the game was recorded with a seed instead.
+	 */
+	public List<Card> getHand(int round, PlayerNumber player) throws SetbackException {
+		if (deals == null) {
+			throw new SetbackException("The game was not recorded with its deals!");
+		}
+		final List<Card> hand = new ArrayList<Card>(HAND_SIZE);
+		for (int card = 0; card < HAND_SIZE; card++) {
+			hand.add(Card.fromOrdinal(deals[round][player.ordinal() * HAND_SIZE + card]));
+		}
+		return hand;
+	}
+
+	/**
+	 * @return The number of rounds between checkpoints, or 0 if the
+	 * record has none.
+	 */
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	/**
+	 * @param round The round, from zero.
+	 * @return The state of the game at the start of the round, or null
+	 * if the record has no checkpoint there.  The first round never
+	 * needs one.
+	 */
+	public RoundState getCheckpoint(int round) {
+		return checkpoints == null ? null : checkpoints[round];
+	}
+
+	/**
+	 * @return The number of rounds played.
+	 */
+	public int getRoundCount() {
+		return (moves.length - SEATS) / ROUND_MOVES;
+	}
+
+	/**
+	 * @return A copy of the moves, packed by Moves.
+	 */
+	public int[] getMoves() {
+		return moves.clone();
+	}
+
+	/**
+	 * @return The score of team one at the end.
+	 */
+	public int getTeamOneScore() {
+		return teamOneScore;
+	}
+
+	/**
+	 * @return The score of team two at the end.
+	 */
+	public int getTeamTwoScore() {
+		return teamTwoScore;
+	}
+
+	/**
+	 * Helper function for the codec, which reads the moves without copying.
+	 */
+	int getMove(int index) {
+		return moves[index];
+	}
+
+	/**
+	 * Helper function for the codec, which reads the deals without copying.
+	 */
+	int[] getDeal(int round) {
+		return deals[round];
+	}
+
+	/**
+	 * Helper function for the codec, which has already checked the moves.
+	 */
+	static GameRecord decoded(Long seed, int[][] deals, int[] moves, int teamOneScore, int teamTwoScore,
+			int checkpointInterval, RoundState[] checkpoints) {
+		return new GameRecord(seed, deals, moves, teamOneScore, teamTwoScore, checkpointInterval, checkpoints);
+	}
+
+	/**
+	 * Helper function for the text format, which reads the checkpoints
+	 * after the moves.
+	 */
+	GameRecord withCheckpoints(int interval, RoundState[] found) throws SetbackException {
+		if (found.length != getRoundCount()) {
+			throw new SetbackException("There are checkpoints for " + found.length + " rounds, not "
+					+ getRoundCount() + "!");
+		}
+		return new GameRecord(seed, deals, moves, teamOneScore, teamTwoScore, interval, found.clone());
+	}
+
+	/**
+	 * @return A new game that deals the hands this one was dealt, for
+	 * replaying its moves one at a time.
+	 */
+	public SetbackMultiplayerGame newGame() {
+		if (seed != null) {
+			return SetbackGameFactory.getInstance().makeSetbackMultiplayerGame(seed);
+		}
+		return SetbackGameFactory.getInstance().makeSetbackMultiplayerGame(new RecordedDealer(deals));
+	}
+
+	/**
+	 * Helper function that checks the moves are whole rounds, made in
+	 * the order the game takes them.
+	 * @return The number of rounds.
+	 */
+	private static int checkMoves(int[] moves) throws SetbackException {
+		if (moves.length < SEATS || (moves.length - SEATS) % ROUND_MOVES != 0) {
+			throw new SetbackException("Only whole rounds can be recorded, not " + moves.length + " moves!");
+		}
+		boolean[] seen = new boolean[SEATS];
+		for (int index = 0; index < SEATS; index++) {
+			final PlayerNumber player = Moves.getPlayer(moves[index]);
+			if (!Moves.isSeatRequest(moves[index]) || seen[player.ordinal()]
+					|| Moves.getCommand(moves[index]).ordinal() - Command.REQUEST_PLAYER_ONE.ordinal() != player.ordinal()) {
+				throw invalid(moves, index);
+			}
+			seen[player.ordinal()] = true;
+		}
+		for (int round = SEATS; round < moves.length; round += ROUND_MOVES) {
+			int index = round;
+			for (int bet = 0; bet < SEATS; bet++, index++) {
+				checkCommand(moves, index, Command.PLACE_BET);
+				checkTurn(moves, index, bet > 0);
+				if (Moves.getArgumentOne(moves[index]) >= Bet.values().length) {
+					throw invalid(moves, index);
+				}
+			}
+			checkCommand(moves, index, Command.SELECT_TRUMP);
+			if (Moves.getArgumentOne(moves[index++]) >= CardSuit.values().length) {
+				throw invalid(moves, index - 1);
+			}
+			seen = new boolean[SEATS];
+			for (int discard = 0; discard < SEATS; discard++, index++) {
+				checkCommand(moves, index, Command.DISCARD_CARDS);
+				final PlayerNumber player = Moves.getPlayer(moves[index]);
+				if (seen[player.ordinal()]) {
+					throw invalid(moves, index);
+				}
+				seen[player.ordinal()] = true;
+				checkCard(Moves.getArgumentOne(moves[index]));
+				checkCard(Moves.getArgumentTwo(moves[index]));
+				checkCard(Moves.getArgumentThree(moves[index]));
+			}
+			for (int play = 0; play < TRICKS * SEATS; play++, index++) {
+				checkCommand(moves, index, Command.PLAY_CARD);
+				checkTurn(moves, index, play % SEATS > 0);
+				checkCard(Moves.getArgumentOne(moves[index]));
+			}
+		}
+		return (moves.length - SEATS) / ROUND_MOVES;
+	}
+
+	private static void checkCommand(int[] moves, int index, Command command) throws SetbackException {
+		if (Moves.getCommand(moves[index]) != command) {
+			throw invalid(moves, index);
+		}
+	}
+
+	/**
+	 * Helper function that checks a move was made by the player after
+	 * the one who made the move before it, where it has to be.
+	 */
+	private static void checkTurn(int[] moves, int index, boolean follows) throws SetbackException {
+		if (follows && Moves.getPlayer(moves[index]).ordinal()
+				!= (Moves.getPlayer(moves[index - 1]).ordinal() + 1) % SEATS) {
+			throw invalid(moves, index);
+		}
+	}
+
+	private static void checkCard(int ordinal) throws SetbackException {
+		if (Card.fromOrdinal(ordinal) == null) {
+			throw new SetbackException("There is no card " + ordinal + "!");
+		}
+	}
+
+	private static SetbackException invalid(int[] moves, int index) {
+		return new SetbackException("Move " + index + " (" + Moves.toString(moves[index])
+				+ ") cannot be recorded there!");
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GameRecord)) {
+			return false;
+		}
+		final GameRecord other = (GameRecord) obj;
+		return (seed == null ? other.seed == null : seed.equals(other.seed))
+				&& Arrays.deepEquals(deals, other.deals)
+				&& Arrays.equals(moves, other.moves)
+				&& teamOneScore == other.teamOneScore
+				&& teamTwoScore == other.teamTwoScore
+				&& checkpointInterval == other.checkpointInterval
+				&& Arrays.equals(checkpoints, other.checkpoints);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(moves) * 31 + (seed == null ? Arrays.deepHashCode(deals) : seed.hashCode());
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return GameRecordText.format(this);
+	}
+}
@@ -0,0 +1,279 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.application.command.Command;
+import setback.application.move.Moves;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.RoundState;
+
+/**
+ * This class packs GameRecords into as few bits as they need.  Only
+ * what the players chose is kept: everything else about a move, such
+ * as its command, follows from where it is in the round, and who made
+ * it follows from who started that part of the round.
+ * <p>
+ * Most significant bit first, a record is:
+ * <pre>
+ *   flags        8 bits: the lowest is set if deals are recorded, and
+ *                the next if there are checkpoints
+ *   seed        64 bits, only if the deals are not recorded
+ *   rounds      16 bits
+ *   scores      16 bits each for team one and team two, signed
+ *   interval     8 bits for the rounds between checkpoints, only if there are any
+ *   seats        2 bits for each seat, in the order they were taken
+ *   each round:
+ *     deal       6 bits for each card of each hand, only if deals are recorded
+ *     checkpoint 16 bits each for the scores before the round, signed, then
+ *                64 bits for the state of the dealer if there is no deal,
+ *                only in rounds after the first that the interval divides
+ *     bets       2 bits for the first bettor, then 3 bits for each bet
+ *     trump      2 bits for who selected it, 2 bits for the suit
+ *     discards   2 bits for who discarded, then 6 bits for each card, four times
+ *     tricks     2 bits for who led, then 6 bits for each card, nine times
+ * </pre>
+ * and is padded to a whole byte.  A round dealt from a seed takes 332
+ * bits, against the 180 bytes of its moves as ints.  The dealer of a
+ * checkpoint is the player before the first bettor, and the state of a
+ * recorded dealer is the number of rounds it has dealt, so neither is
+ * kept.
+ * <p>
+ * A codec keeps its buffers from one record to the next, so it should
+ * only be used by one thread.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameRecordCodec {
+
+	private static final int DEALT = 0x01;
+	private static final int CHECKPOINTS = 0x02;
+	private static final int FLAG_BITS = 8;
+	private static final int COUNT_BITS = 16;
+	private static final int PLAYER_BITS = 2;
+	private static final int BET_BITS = 3;
+	private static final int SUIT_BITS = 2;
+	private static final int CARD_BITS = 6;
+	private static final int INTERVAL_BITS = 8;
+	private static final int MAX_ROUNDS = (1 << COUNT_BITS) - 1;
+	private static final int MAX_INTERVAL = (1 << INTERVAL_BITS) - 1;
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+
+	private final BitPacker packer = new BitPacker();
+	private final BitUnpacker unpacker = new BitUnpacker();
+
+	/**
+	 * Packs a record.
+	 * @param record The record.
+	 * @return The number of bytes packed, which can be read from getBytes.
+	 * @throws SetbackException If the record has more rounds or bigger
+	 * scores than fit.
+	 */
+	public int encode(GameRecord record) throws SetbackException {
+		final int rounds = record.getRoundCount();
+		if (rounds > MAX_ROUNDS) {
+			throw new SetbackException("A record cannot hold " + rounds + " rounds!");
+		}
+		checkScore(record.getTeamOneScore());
+		checkScore(record.getTeamTwoScore());
+		final int interval = record.getCheckpointInterval();
+		if (interval > MAX_INTERVAL) {
+			throw new SetbackException("A record cannot hold checkpoints " + interval + " rounds apart!");
+		}
+
+		packer.reset();
+		packer.write((record.isSeeded() ? 0 : DEALT) | (interval > 0 ? CHECKPOINTS : 0), FLAG_BITS);
+		if (record.isSeeded()) {
+			packer.writeLong(record.getSeed());
+		}
+		packer.write(rounds, COUNT_BITS);
+		packer.write(record.getTeamOneScore(), COUNT_BITS);
+		packer.write(record.getTeamTwoScore(), COUNT_BITS);
+		if (interval > 0) {
+			packer.write(interval, INTERVAL_BITS);
+		}
+		int index = 0;
+		for (; index < GameRecord.SEATS; index++) {
+			writePlayer(record.getMove(index));
+		}
+		for (int round = 0; round < rounds; round++) {
+			if (!record.isSeeded()) {
+				for (int card : record.getDeal(round)) {
+					packer.write(card, CARD_BITS);
+				}
+			}
+			if (isCheckpoint(round, interval)) {
+				final RoundState state = record.getCheckpoint(round);
+				if (state == null) {
+					throw new SetbackException("Round " + round + " has no checkpoint!");
+				}
+				checkScore(state.getTeamOneScore());
+				checkScore(state.getTeamTwoScore());
+				packer.write(state.getTeamOneScore(), COUNT_BITS);
+				packer.write(state.getTeamTwoScore(), COUNT_BITS);
+				if (record.isSeeded()) {
+					packer.writeLong(state.getDealState());
+				}
+			}
+			writePlayer(record.getMove(index));
+			for (int bet = 0; bet < GameRecord.SEATS; bet++) {
+				packer.write(Moves.getArgumentOne(record.getMove(index++)), BET_BITS);
+			}
+			writePlayer(record.getMove(index));
+			packer.write(Moves.getArgumentOne(record.getMove(index++)), SUIT_BITS);
+			for (int discard = 0; discard < GameRecord.SEATS; discard++) {
+				final int move = record.getMove(index++);
+				writePlayer(move);
+				packer.write(Moves.getArgumentOne(move), CARD_BITS);
+				packer.write(Moves.getArgumentTwo(move), CARD_BITS);
+				packer.write(Moves.getArgumentThree(move), CARD_BITS);
+			}
+			for (int trick = 0; trick < GameRecord.TRICKS; trick++) {
+				writePlayer(record.getMove(index));
+				for (int play = 0; play < GameRecord.SEATS; play++) {
+					packer.write(Moves.getArgumentOne(record.getMove(index++)), CARD_BITS);
+				}
+			}
+		}
+		return packer.finish();
+	}
+
+	/**
+	 * @return The bytes of the last record packed, which are overwritten
+	 * by the next one.
+	 */
+	public byte[] getBytes() {
+		return packer.bytes();
+	}
+
+	/**
+	 * Unpacks a record.
+	 * @param bytes Holds the record.
+	 * @param offset Where the record starts.
+	 * @param length How many bytes the record has.
+	 * @return The record.
+	 * @throws SetbackException If the bytes are not a whole record.
+	 */
+	public GameRecord decode(byte[] bytes, int offset, int length) throws SetbackException {
+		unpacker.reset(bytes, offset, length);
+		final int flags = unpacker.read(FLAG_BITS);
+		if ((flags & ~(DEALT | CHECKPOINTS)) != 0) {
+			throw new SetbackException("Unknown record flags " + flags + "!");
+		}
+		final boolean dealt = (flags & DEALT) != 0;
+		final Long seed = dealt ? null : unpacker.readLong();
+		final int rounds = unpacker.read(COUNT_BITS);
+		final int teamOneScore = (short) unpacker.read(COUNT_BITS);
+		final int teamTwoScore = (short) unpacker.read(COUNT_BITS);
+		final int interval = (flags & CHECKPOINTS) != 0 ? unpacker.read(INTERVAL_BITS) : 0;
+		if ((flags & CHECKPOINTS) != 0 && interval == 0) {
+			throw new SetbackException("Checkpoints cannot be 0 rounds apart!");
+		}
+		final int[] moves = new int[GameRecord.SEATS + rounds * GameRecord.ROUND_MOVES];
+		final int[][] deals = dealt ? new int[rounds][] : null;
+		final RoundState[] checkpoints = interval > 0 ? new RoundState[rounds] : null;
+
+		boolean[] seen = new boolean[GameRecord.SEATS];
+		int index = 0;
+		for (; index < GameRecord.SEATS; index++) {
+			final PlayerNumber player = readPlayer();
+			if (seen[player.ordinal()]) {
+				throw new SetbackException(player + " took a seat twice!");
+			}
+			seen[player.ordinal()] = true;
+			moves[index] = Moves.pack(player,
+					Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + player.ordinal()], 0, 0, 0);
+		}
+		for (int round = 0; round < rounds; round++) {
+			if (dealt) {
+				deals[round] = new int[GameRecord.DEAL_SIZE];
+				for (int card = 0; card < GameRecord.DEAL_SIZE; card++) {
+					deals[round][card] = readCard();
+				}
+			}
+			int checkpointOne = 0;
+			int checkpointTwo = 0;
+			long dealState = round;
+			if (isCheckpoint(round, interval)) {
+				checkpointOne = (short) unpacker.read(COUNT_BITS);
+				checkpointTwo = (short) unpacker.read(COUNT_BITS);
+				if (!dealt) {
+					dealState = unpacker.readLong();
+				}
+			}
+			PlayerNumber player = readPlayer();
+			if (isCheckpoint(round, interval)) {
+				checkpoints[round] = new RoundState(PLAYERS[(player.ordinal() + PLAYERS.length - 1) % PLAYERS.length],
+						checkpointOne, checkpointTwo, dealState);
+			}
+			for (int bet = 0; bet < GameRecord.SEATS; bet++) {
+				moves[index++] = Moves.pack(player, Command.PLACE_BET, readBet(), 0, 0);
+				player = next(player);
+			}
+			player = readPlayer();
+			moves[index++] = Moves.pack(player, Command.SELECT_TRUMP, unpacker.read(SUIT_BITS), 0, 0);
+			seen = new boolean[GameRecord.SEATS];
+			for (int discard = 0; discard < GameRecord.SEATS; discard++) {
+				player = readPlayer();
+				if (seen[player.ordinal()]) {
+					throw new SetbackException(player + " discarded twice!");
+				}
+				seen[player.ordinal()] = true;
+				moves[index++] = Moves.pack(player, Command.DISCARD_CARDS, readCard(), readCard(), readCard());
+			}
+			for (int trick = 0; trick < GameRecord.TRICKS; trick++) {
+				player = readPlayer();
+				for (int play = 0; play < GameRecord.SEATS; play++) {
+					moves[index++] = Moves.pack(player, Command.PLAY_CARD, readCard(), 0, 0);
+					player = next(player);
+				}
+			}
+		}
+		if (!unpacker.isFinished()) {
+			throw new SetbackException("The record has bytes left over!");
+		}
+		return GameRecord.decoded(seed, deals, moves, teamOneScore, teamTwoScore, interval, checkpoints);
+	}
+
+	private void writePlayer(int move) {
+		packer.write(Moves.getPlayer(move).ordinal(), PLAYER_BITS);
+	}
+
+	private PlayerNumber readPlayer() throws SetbackException {
+		return PLAYERS[unpacker.read(PLAYER_BITS)];
+	}
+
+	private int readBet() throws SetbackException {
+		final int bet = unpacker.read(BET_BITS);
+		if (bet >= Bet.values().length) {
+			throw new SetbackException("There is no bet " + bet + "!");
+		}
+		return bet;
+	}
+
+	private int readCard() throws SetbackException {
+		final int card = unpacker.read(CARD_BITS);
+		if (card >= Card.DECK_SIZE) {
+			throw new SetbackException("There is no card " + card + "!");
+		}
+		return card;
+	}
+
+	private static boolean isCheckpoint(int round, int interval) {
+		return interval > 0 && round > 0 && round % interval == 0;
+	}
+
+	private static PlayerNumber next(PlayerNumber player) {
+		return PLAYERS[(player.ordinal() + 1) % PLAYERS.length];
+	}
+
+	private static void checkScore(int score) throws SetbackException {
+		if (score < Short.MIN_VALUE || score > Short.MAX_VALUE) {
+			throw new SetbackException("A record cannot hold a score of " + score + "!");
+		}
+	}
+}
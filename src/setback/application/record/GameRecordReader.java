@@ -0,0 +1,88 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.common.SetbackException;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class reads back the GameRecords a GameRecordWriter wrote, one
+ * at a time, for importing many games at once.  Only the record being
+ * read is held, in a buffer that is kept for the next one.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameRecordReader implements Closeable {
+
+	private final DataInputStream in;
+	private final GameRecordCodec codec = new GameRecordCodec();
+	private byte[] buffer = new byte[256];
+	private long records;
+
+	/**
+	 * Constructor for a GameRecordReader, which checks MAGIC right away.
+	 * @param in The stream to read from, which the reader closes.
+	 * @throws IOException If the stream fails, or does not start with MAGIC.
+	 */
+	public GameRecordReader(InputStream in) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(in, GameRecordWriter.BUFFER_SIZE));
+		if (this.in.readInt() != GameRecordWriter.MAGIC) {
+			throw new IOException("Not a stream of game records!");
+		}
+	}
+
+	/**
+	 * Reads the next record.
+	 * @return The record, or null at the end of the stream.
+	 * @throws IOException If the stream fails, or ends in the middle of a record.
+	 * @throws SetbackException If the record is not valid.
+	 */
+	public GameRecord read() throws IOException, SetbackException {
+		int length = 0;
+		int next;
+		int shift = 0;
+		do {
+			next = in.read();
+			if (next < 0) {
+				if (shift == 0) {
+					return null;
+				}
+				throw new EOFException("The stream ended in the length of record " + records);
+			}
+			if (shift > 21) {
+				throw new IOException("The length of record " + records + " is too long!");
+			}
+			length |= (next & 0x7F) << shift;
+			shift += 7;
+		} while ((next & 0x80) != 0);
+		if (length > buffer.length) {
+			buffer = new byte[Math.max(length, buffer.length * 2)];
+		}
+		in.readFully(buffer, 0, length);
+		records++;
+		return codec.decode(buffer, 0, length);
+	}
+
+	/**
+	 * @return The number of records read.
+	 */
+	public long getRecords() {
+		return records;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
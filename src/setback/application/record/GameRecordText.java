@@ -0,0 +1,271 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.application.command.Command;
+import setback.application.move.Moves;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.RoundState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class writes a GameRecord as text that people can read, such as
+ * in a bug report, and reads it back.  A game dealt from a seed reads:
+ * <pre>
+ *   SEED 42
+ *   SEATS PLAYER_ONE PLAYER_TWO PLAYER_THREE PLAYER_FOUR
+ *   ROUND 1
+ *   BET PLAYER_TWO PASS
+ *   ...
+ *   TRUMP PLAYER_ONE HEARTS
+ *   DISCARD PLAYER_ONE Two-of-Spades Three-of-Clubs Four-of-Clubs
+ *   ...
+ *   TRICK PLAYER_ONE Ace-of-Hearts Two-of-Hearts King-of-Hearts Five-of-Hearts
+ *   ...
+ *   RESULT 11 7
+ * </pre>
+ * where a trick names who led it, and the cards in the order they were
+ * played.  A game recorded with its deals starts with DEALT instead of
+ * the seed, and each round has a HAND line for each player before its
+ * bets.  A record with checkpoints says how many rounds apart they are
+ * after its SEATS, as CHECKPOINTS 2, and each round with one says, after
+ * any hands, the dealer, the scores and the state of the card dealer
+ * before the round was dealt:
+ * <pre>
+ *   CHECKPOINT PLAYER_THREE 9 4 -6601410223812541349
+ * </pre>
+ * Blank lines and lines starting with # are ignored.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public abstract class GameRecordText {
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final String SEED = "SEED";
+	private static final String DEALT = "DEALT";
+	private static final String SEATS = "SEATS";
+	private static final String ROUND = "ROUND";
+	private static final String HAND = "HAND";
+	private static final String BET = "BET";
+	private static final String TRUMP = "TRUMP";
+	private static final String DISCARD = "DISCARD";
+	private static final String TRICK = "TRICK";
+	private static final String RESULT = "RESULT";
+	private static final String CHECKPOINTS = "CHECKPOINTS";
+	private static final String CHECKPOINT = "CHECKPOINT";
+	private static final String NEWLINE = "\n";
+
+	/**
+	 * @param record A record.
+	 * @return The record as text.
+	 */
+	public static String format(GameRecord record) {
+		final StringBuilder text = new StringBuilder();
+		try {
+			if (record.isSeeded()) {
+				text.append(SEED).append(' ').append(record.getSeed()).append(NEWLINE);
+			}
+			else {
+				text.append(DEALT).append(NEWLINE);
+			}
+			text.append(SEATS);
+			int index = 0;
+			for (; index < GameRecord.SEATS; index++) {
+				text.append(' ').append(Moves.getPlayer(record.getMove(index)));
+			}
+			text.append(NEWLINE);
+			if (record.getCheckpointInterval() > 0) {
+				text.append(CHECKPOINTS).append(' ').append(record.getCheckpointInterval()).append(NEWLINE);
+			}
+			for (int round = 0; round < record.getRoundCount(); round++) {
+				text.append(ROUND).append(' ').append(round + 1).append(NEWLINE);
+				if (!record.isSeeded()) {
+					for (PlayerNumber player : PLAYERS) {
+						text.append(HAND).append(' ').append(player);
+						for (Card card : record.getHand(round, player)) {
+							text.append(' ').append(card);
+						}
+						text.append(NEWLINE);
+					}
+				}
+				final RoundState checkpoint = record.getCheckpoint(round);
+				if (checkpoint != null) {
+					text.append(CHECKPOINT).append(' ').append(checkpoint.getDealer())
+							.append(' ').append(checkpoint.getTeamOneScore())
+							.append(' ').append(checkpoint.getTeamTwoScore())
+							.append(' ').append(checkpoint.getDealState()).append(NEWLINE);
+				}
+				for (int bet = 0; bet < GameRecord.SEATS; bet++, index++) {
+					final int move = record.getMove(index);
+					text.append(BET).append(' ').append(Moves.getPlayer(move)).append(' ')
+							.append(Bet.values()[Moves.getArgumentOne(move)].name()).append(NEWLINE);
+				}
+				final int trump = record.getMove(index++);
+				text.append(TRUMP).append(' ').append(Moves.getPlayer(trump)).append(' ')
+						.append(CardSuit.values()[Moves.getArgumentOne(trump)].name()).append(NEWLINE);
+				for (int discard = 0; discard < GameRecord.SEATS; discard++, index++) {
+					final int move = record.getMove(index);
+					text.append(DISCARD).append(' ').append(Moves.getPlayer(move))
+							.append(' ').append(Card.fromOrdinal(Moves.getArgumentOne(move)))
+							.append(' ').append(Card.fromOrdinal(Moves.getArgumentTwo(move)))
+							.append(' ').append(Card.fromOrdinal(Moves.getArgumentThree(move))).append(NEWLINE);
+				}
+				for (int trick = 0; trick < GameRecord.TRICKS; trick++) {
+					text.append(TRICK).append(' ').append(Moves.getPlayer(record.getMove(index)));
+					for (int play = 0; play < GameRecord.SEATS; play++, index++) {
+						text.append(' ').append(Card.fromOrdinal(Moves.getArgumentOne(record.getMove(index))));
+					}
+					text.append(NEWLINE);
+				}
+			}
+		} catch (SetbackException e) {
+			// The record says whether it has a seed or deals before either is asked for
+			throw new IllegalStateException(e);
+		}
+		text.append(RESULT).append(' ').append(record.getTeamOneScore())
+				.append(' ').append(record.getTeamTwoScore()).append(NEWLINE);
+		return text.toString();
+	}
+
+	/**
+	 * Reads a record back from its text.
+	 * @param text The text, as format writes it.
+	 * @return The record.
+	 * @throws SetbackException If the text is not a valid record.
+	 */
+	public static GameRecord parse(String text) throws SetbackException {
+		Long seed = null;
+		boolean dealt = false;
+		int[] result = null;
+		int interval = 0;
+		final List<RoundState> checkpoints = new ArrayList<RoundState>();
+		final List<Integer> moves = new ArrayList<Integer>();
+		final List<int[]> deals = new ArrayList<int[]>();
+		int lineNumber = 0;
+		for (String line : text.split("\r?\n")) {
+			lineNumber++;
+			final String trimmed = line.trim();
+			if (trimmed.length() == 0 || trimmed.startsWith("#")) {
+				continue;
+			}
+			final String[] words = trimmed.split("\\s+");
+			try {
+				switch (words[0]) {
+					case SEED:
+						checkWords(words, 2);
+						seed = Long.parseLong(words[1]);
+						break;
+					case DEALT:
+						checkWords(words, 1);
+						dealt = true;
+						break;
+					case SEATS:
+						checkWords(words, 1 + GameRecord.SEATS);
+						for (int seat = 1; seat <= GameRecord.SEATS; seat++) {
+							final PlayerNumber player = PlayerNumber.valueOf(words[seat]);
+							moves.add(Moves.pack(player,
+									Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + player.ordinal()], 0, 0, 0));
+						}
+						break;
+					case ROUND:
+						checkWords(words, 2);
+						if (dealt) {
+							deals.add(new int[GameRecord.DEAL_SIZE]);
+						}
+						checkpoints.add(null);
+						break;
+					case CHECKPOINTS:
+						checkWords(words, 2);
+						interval = Integer.parseInt(words[1]);
+						if (interval < 1) {
+							throw new SetbackException("Checkpoints must be at least a round apart");
+						}
+						break;
+					case CHECKPOINT:
+						checkWords(words, 5);
+						if (checkpoints.isEmpty() || interval == 0) {
+							throw new SetbackException("A checkpoint is only kept in a round of a game with CHECKPOINTS");
+						}
+						checkpoints.set(checkpoints.size() - 1, new RoundState(PlayerNumber.valueOf(words[1]),
+								Integer.parseInt(words[2]), Integer.parseInt(words[3]), Long.parseLong(words[4])));
+						break;
+					case HAND:
+						checkWords(words, 2 + GameRecord.HAND_SIZE);
+						if (deals.isEmpty()) {
+							throw new SetbackException("A hand is only dealt in a round of a DEALT game");
+						}
+						final int[] deal = deals.get(deals.size() - 1);
+						final int seat = PlayerNumber.valueOf(words[1]).ordinal();
+						for (int card = 0; card < GameRecord.HAND_SIZE; card++) {
+							deal[seat * GameRecord.HAND_SIZE + card] = Card.fromString(words[2 + card]).getOrdinal();
+						}
+						break;
+					case BET:
+						checkWords(words, 3);
+						moves.add(Moves.pack(PlayerNumber.valueOf(words[1]), Command.PLACE_BET,
+								Bet.valueOf(words[2]).ordinal(), 0, 0));
+						break;
+					case TRUMP:
+						checkWords(words, 3);
+						moves.add(Moves.pack(PlayerNumber.valueOf(words[1]), Command.SELECT_TRUMP,
+								CardSuit.valueOf(words[2]).ordinal(), 0, 0));
+						break;
+					case DISCARD:
+						checkWords(words, 2 + GameRecord.DISCARDS);
+						moves.add(Moves.pack(PlayerNumber.valueOf(words[1]), Command.DISCARD_CARDS,
+								Card.fromString(words[2]).getOrdinal(), Card.fromString(words[3]).getOrdinal(),
+								Card.fromString(words[4]).getOrdinal()));
+						break;
+					case TRICK:
+						checkWords(words, 2 + GameRecord.SEATS);
+						int player = PlayerNumber.valueOf(words[1]).ordinal();
+						for (int play = 0; play < GameRecord.SEATS; play++) {
+							moves.add(Moves.pack(PLAYERS[player], Command.PLAY_CARD,
+									Card.fromString(words[2 + play]).getOrdinal(), 0, 0));
+							player = (player + 1) % GameRecord.SEATS;
+						}
+						break;
+					case RESULT:
+						checkWords(words, 3);
+						result = new int[]{Integer.parseInt(words[1]), Integer.parseInt(words[2])};
+						break;
+					default:
+						throw new SetbackException("Unknown line");
+				}
+			} catch (SetbackException | RuntimeException e) {
+				throw new SetbackException("Line " + lineNumber + " (" + trimmed + "): " + e.getMessage());
+			}
+		}
+		if (dealt == (seed != null)) {
+			throw new SetbackException("A record has either a SEED or is DEALT!");
+		}
+		if (result == null) {
+			throw new SetbackException("The record has no RESULT!");
+		}
+		final int[] packed = new int[moves.size()];
+		for (int index = 0; index < packed.length; index++) {
+			packed[index] = moves.get(index);
+		}
+		final GameRecord record = dealt
+				? GameRecord.dealt(deals.toArray(new int[deals.size()][]), packed, packed.length, result[0], result[1])
+				: GameRecord.seeded(seed, packed, packed.length, result[0], result[1]);
+		if (interval == 0) {
+			return record;
+		}
+		return record.withCheckpoints(interval, checkpoints.toArray(new RoundState[checkpoints.size()]));
+	}
+
+	private static void checkWords(String[] words, int count) throws SetbackException {
+		if (words.length != count) {
+			throw new SetbackException("Expected " + count + " words, not " + words.length);
+		}
+	}
+}
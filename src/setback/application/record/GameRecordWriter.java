@@ -0,0 +1,92 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.common.SetbackException;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class writes GameRecords one after another to a stream, for
+ * exporting many games at once.  The stream starts with MAGIC, and
+ * then each record is its length as a varint followed by the record
+ * as GameRecordCodec packs it, so a reader never has to hold more
+ * than one record.  Writes are buffered, and nothing is flushed until
+ * the buffer fills or the writer is flushed or closed.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameRecordWriter implements Closeable {
+
+	/**
+	 * The first four bytes of a stream of records: "SBGR".
+	 */
+	public static final int MAGIC = 0x53424752;
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	private final OutputStream out;
+	private final GameRecordCodec codec = new GameRecordCodec();
+	private final byte[] length = new byte[5];
+	private long records;
+
+	/**
+	 * Constructor for a GameRecordWriter, which writes MAGIC right away.
+	 * @param out The stream to write to, which the writer closes.
+	 * @throws IOException If MAGIC cannot be written.
+	 */
+	public GameRecordWriter(OutputStream out) throws IOException {
+		this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+		this.out.write(MAGIC >>> 24);
+		this.out.write(MAGIC >>> 16);
+		this.out.write(MAGIC >>> 8);
+		this.out.write(MAGIC);
+	}
+
+	/**
+	 * Writes a record.
+	 * @param record The record.
+	 * @throws IOException If the stream fails.
+	 * @throws SetbackException If the record cannot be packed.
+	 */
+	public void write(GameRecord record) throws IOException, SetbackException {
+		int size = codec.encode(record);
+		final int bytes = size;
+		int count = 0;
+		while (size >= 0x80) {
+			length[count++] = (byte) (size | 0x80);
+			size >>>= 7;
+		}
+		length[count++] = (byte) size;
+		out.write(length, 0, count);
+		out.write(codec.getBytes(), 0, bytes);
+		records++;
+	}
+
+	/**
+	 * @return The number of records written.
+	 */
+	public long getRecords() {
+		return records;
+	}
+
+	/**
+	 * Writes out everything buffered so far.
+	 * @throws IOException If the stream fails.
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import setback.game.CardDealerController;
+import setback.game.common.Card;
+import setback.game.common.Hand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This implementation of a CardDealerController deals the hands of
+ * a recorded game, one round after another, so that a game recorded
+ * with its deals can be played again without knowing how they were
+ * shuffled.  Its state is the number of rounds dealt.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class RecordedDealer implements CardDealerController {
+
+	private final int[][] deals;
+	private int round;
+
+	/**
+	 * Constructor for a RecordedDealer.
+	 * @param deals The ordinals of the cards dealt in each round, as
+	 * the hands of player one to player four in turn.
+	 */
+	RecordedDealer(int[][] deals) {
+		this.deals = deals;
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.game.CardDealerController#dealHands(setback.game.common.Hand, setback.game.common.Hand, setback.game.common.Hand, setback.game.common.Hand)
+	 */
+	@Override
+	public void dealHands(Hand playerOneHand, Hand playerTwoHand, Hand playerThreeHand, Hand playerFourHand) {
+		// Past the last recorded round, there is nothing more to play
+		final int[] deal = round < deals.length ? deals[round] : null;
+		round++;
+		playerOneHand.setCards(hand(deal, 0));
+		playerTwoHand.setCards(hand(deal, 1));
+		playerThreeHand.setCards(hand(deal, 2));
+		playerFourHand.setCards(hand(deal, 3));
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.game.CardDealerController#getState()
+	 */
+	@Override
+	public long getState() {
+		return round;
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.game.CardDealerController#setState(long)
+	 */
+	@Override
+	public void setState(long state) {
+		round = (int) state;
+	}
+
+	private static List<Card> hand(int[] deal, int seat) {
+		final List<Card> cards = new ArrayList<Card>(GameRecord.HAND_SIZE);
+		for (int card = 0; deal != null && card < GameRecord.HAND_SIZE; card++) {
+			cards.add(Card.fromOrdinal(deal[seat * GameRecord.HAND_SIZE + card]));
+		}
+		return cards;
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.replay;
+
+import setback.application.move.MoveReplayer;
+import setback.application.record.GameRecord;
+import setback.common.SetbackException;
+import setback.game.common.RoundState;
+import setback.game.version.SetbackMultiplayerGame;
+
+/**
+ * This class brings an archived game to any of its moves, for looking
+ * back over it.  Only one game is kept, at the position last asked for.
+ * Moving forward makes the moves in between on it; moving back starts a
+ * new game at the closest round before the position that has a
+ * checkpoint, and makes only the moves from there.
+ * <p>
+ * Checkpoints are taken from the record when it has them, which keeps
+ * any seek to within the record's checkpoint interval.  The start of
+ * every round the replay passes is also remembered, so a game without
+ * checkpoints only has to be played through once.
+ * <p>
+ * A replay is not safe for use by more than one thread.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameReplay {
+
+	private final GameRecord record;
+	private final int[] moves;
+	private final RoundState[] checkpoints;
+	private SetbackMultiplayerGame game;
+	private MoveReplayer replayer;
+	private int position;
+	private long replayed;
+
+	/**
+	 * Constructor for a GameReplay, which does not make any moves until
+	 * it is asked to.
+	 * @param record The game.
+	 */
+	public GameReplay(GameRecord record) {
+		this.record = record;
+		moves = record.getMoves();
+		checkpoints = new RoundState[record.getRoundCount()];
+		for (int round = 0; round < checkpoints.length; round++) {
+			checkpoints[round] = record.getCheckpoint(round);
+		}
+	}
+
+	/**
+	 * Brings the game to a position.
+	 * @param target The number of moves to have made, from 0 to getMoveCount.
+	 * @return The game after that many moves.  It belongs to the replay,
+	 * and may be replaced by the next seek.
+	 * @throws SetbackException If the position is not in the game, or the
+	 * game does not accept the moves of the record.
+	 */
+	public SetbackMultiplayerGame seek(int target) throws SetbackException {
+		if (target < 0 || target > moves.length) {
+			throw new SetbackException("The game has no move " + target + "!");
+		}
+		int start = 0;
+		RoundState state = null;
+		for (int round = roundOf(target); round > 0 && state == null; round--) {
+			state = checkpoints[round];
+			start = roundStart(round);
+		}
+		if (state == null) {
+			start = 0;
+		}
+		if (game == null || position > target || position < start) {
+			game = record.newGame();
+			replayer = new MoveReplayer(game);
+			position = 0;
+			if (state != null) {
+				// The seats are taken before the first round is dealt
+				advance(GameRecord.SEATS);
+				game.restoreRound(state);
+				position = start;
+			}
+		}
+		advance(target);
+		return game;
+	}
+
+	/**
+	 * Makes the next move.
+	 * @return The game after it.
+	 * @throws SetbackException If there are no moves left, or the game
+	 * does not accept the move.
+	 */
+	public SetbackMultiplayerGame step() throws SetbackException {
+		return seek(position + 1);
+	}
+
+	/**
+	 * @return The game at the current position, or null before the first seek.
+	 */
+	public SetbackMultiplayerGame getGame() {
+		return game;
+	}
+
+	/**
+	 * @return The score of team one at the current position, which is 0
+	 * until the game has started.
+	 * @throws SetbackException If the game cannot give its score.
+	 */
+	public int getTeamOneScore() throws SetbackException {
+		return position < GameRecord.SEATS ? 0 : game.getTeamOneScore();
+	}
+
+	/**
+	 * @return The score of team two at the current position, which is 0
+	 * until the game has started.
+	 * @throws SetbackException If the game cannot give its score.
+	 */
+	public int getTeamTwoScore() throws SetbackException {
+		return position < GameRecord.SEATS ? 0 : game.getTeamTwoScore();
+	}
+
+	/**
+	 * @return The number of moves made on the current game.
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return The number of moves in the game.
+	 */
+	public int getMoveCount() {
+		return moves.length;
+	}
+
+	/**
+	 * @param index The index of a move.
+	 * @return The move, packed by Moves.
+	 */
+	public int getMove(int index) {
+		return moves[index];
+	}
+
+	/**
+	 * @return The record being replayed.
+	 */
+	public GameRecord getRecord() {
+		return record;
+	}
+
+	/**
+	 * @return The number of moves made since the replay was created,
+	 * which shows how much work seeking has taken.
+	 */
+	public long getMovesReplayed() {
+		return replayed;
+	}
+
+	/**
+	 * Helper function that makes moves up to a position, remembering
+	 * the start of every round it passes.
+	 */
+	private void advance(int target) throws SetbackException {
+		while (position < target) {
+			if (position > GameRecord.SEATS && (position - GameRecord.SEATS) % GameRecord.ROUND_MOVES == 0) {
+				final int round = roundOf(position);
+				if (checkpoints[round] == null) {
+					checkpoints[round] = game.getRoundState();
+				}
+			}
+			replayer.replay(moves[position++]);
+			replayed++;
+		}
+	}
+
+	/**
+	 * Helper function that finds the round a position is in, where a
+	 * position at the start of a round is in that round, and the end of
+	 * the game is in the last.
+	 */
+	private int roundOf(int target) {
+		if (target <= GameRecord.SEATS || checkpoints.length == 0) {
+			return 0;
+		}
+		return Math.min((target - GameRecord.SEATS) / GameRecord.ROUND_MOVES, checkpoints.length - 1);
+	}
+
+	private static int roundStart(int round) {
+		return GameRecord.SEATS + round * GameRecord.ROUND_MOVES;
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.replay;
+
+import setback.application.record.GameRecord;
+import setback.application.record.GameRecordCodec;
+import setback.application.record.GameRecordWriter;
+import setback.common.SetbackException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * This class opens the games in a file that a GameRecordWriter wrote,
+ * by their place in the file, for replaying.  The file is never read
+ * as a whole: it is only scanned as far as the last game asked for,
+ * reading just the length of each record to find where the next one
+ * starts, and then only the record asked for is read and unpacked.
+ * Games appended to the file after it was opened are found too.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ReplayArchive implements Closeable {
+
+	/**
+	 * The most bytes of a record's length.
+	 */
+	private static final int LENGTH_BYTES = 5;
+
+	private final File file;
+	private final RandomAccessFile access;
+	private final FileChannel channel;
+	private final GameRecordCodec codec = new GameRecordCodec();
+	private final ByteBuffer length = ByteBuffer.allocate(LENGTH_BYTES);
+	private ByteBuffer record = ByteBuffer.allocate(256);
+
+	// The offset of every game found so far, and of the end of the last
+	private long[] offsets = new long[64];
+	private int games;
+
+	/**
+	 * Constructor for a ReplayArchive, which checks the file starts with
+	 * GameRecordWriter.MAGIC.
+	 * @param file The file of records.
+	 * @throws IOException If the file cannot be opened, or is not records.
+	 */
+	public ReplayArchive(File file) throws IOException {
+		this.file = file;
+		access = new RandomAccessFile(file, "r");
+		channel = access.getChannel();
+		final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+		if (channel.read(magic, 0) != Integer.BYTES || magic.getInt(0) != GameRecordWriter.MAGIC) {
+			channel.close();
+			access.close();
+			throw new IOException(file + " is not a stream of game records!");
+		}
+		offsets[0] = Integer.BYTES;
+	}
+
+	/**
+	 * Opens a game for replaying.
+	 * @param game The place of the game in the file, from zero.
+	 * @return A replay of the game, which has not made any moves yet.
+	 * @throws IOException If the file cannot be read.
+	 * @throws SetbackException If the file has no such game, or its record
+	 * is not valid.
+	 */
+	public GameReplay open(int game) throws IOException, SetbackException {
+		return new GameReplay(read(game));
+	}
+
+	/**
+	 * Reads the record of a game.
+	 * @param game The place of the game in the file, from zero.
+	 * @return The record.
+	 * @throws IOException If the file cannot be read.
+	 * @throws SetbackException If the file has no such game, or its record
+	 * is not valid.
+	 */
+	public synchronized GameRecord read(int game) throws IOException, SetbackException {
+		if (game < 0 || !scanTo(game + 1)) {
+			throw new SetbackException(file.getName() + " has no game " + game + "!");
+		}
+		final long start = offsets[game];
+		final int header = readLength(start);
+		final int size = (int) (offsets[game + 1] - start) - header;
+		if (record.capacity() < size) {
+			record = ByteBuffer.allocate(Math.max(size, record.capacity() * 2));
+		}
+		record.clear().limit(size);
+		readFully(record, start + header);
+		return codec.decode(record.array(), 0, size);
+	}
+
+	/**
+	 * @return The number of games found so far, which is every game in
+	 * the file once a game past the end has been asked for.
+	 */
+	public synchronized int getGamesFound() {
+		return games;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+		access.close();
+	}
+
+	/**
+	 * Helper function that finds where games start, until there are as
+	 * many as asked for or the file ends.
+	 * @return False if the file ended first.
+	 */
+	private boolean scanTo(int count) throws IOException {
+		while (games < count) {
+			final long start = offsets[games];
+			if (start >= channel.size()) {
+				return false;
+			}
+			final int header = readLength(start);
+			final long end = start + header + length.getInt(0);
+			if (header < 0 || end > channel.size()) {
+				// The writer has not finished this record
+				return false;
+			}
+			if (games + 1 == offsets.length) {
+				offsets = Arrays.copyOf(offsets, offsets.length * 2);
+			}
+			offsets[++games] = end;
+		}
+		return true;
+	}
+
+	/**
+	 * Helper function that reads the varint length of a record into the
+	 * first int of the length buffer.
+	 * @return The number of bytes the length took, or -1 if the file
+	 * ends before it does.
+	 */
+	private int readLength(long offset) throws IOException {
+		length.clear();
+		final int read = channel.read(length, offset);
+		int value = 0;
+		for (int index = 0; index < Math.max(read, 0); index++) {
+			final int next = length.get(index);
+			value |= (next & 0x7F) << (7 * index);
+			if ((next & 0x80) == 0) {
+				length.putInt(0, value);
+				return index + 1;
+			}
+		}
+		if (read == LENGTH_BYTES) {
+			throw new IOException(file.getName() + " has a record that is too long!");
+		}
+		return -1;
+	}
+
+	private void readFully(ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0) {
+				throw new EOFException(file.getName() + " ends in the middle of a record!");
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import setback.application.command.CommandReply;
+import setback.common.SetbackException;
+
+/**
+ * This interface is a single entry in the PlayerController's
+ * dispatch table.  The arguments have already been decoded
+ * to ordinals, so handling a command does not parse anything.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+interface CommandHandler {
+
+	/**
+	 * Carries out a command and reports the result.
+	 * @param argumentOne The first argument ordinal, if used.
+	 * @param argumentTwo The second argument ordinal, if used.
+	 * @param argumentThree The third argument ordinal, if used.
+	 * @param reply Where to report the result.
+	 * @throws SetbackException If the command is not legal.
+	 */
+	void handle(int argumentOne, int argumentTwo, int argumentThree, CommandReply reply)
+			throws SetbackException;
+}
@@ -5,7 +5,14 @@
 package setback.application.server;
 
 import setback.application.command.Command;
+import setback.application.command.CommandFrame;
 import setback.application.command.CommandMessageJson;
+import setback.application.command.CommandParser;
+import setback.application.command.CommandReply;
+import setback.application.command.TextCommandReply;
+import setback.application.metrics.CommandMetrics;
+import setback.application.move.MoveListener;
+import setback.application.move.Moves;
 import setback.common.PlayerNumber;
 import setback.common.SetbackException;
 import setback.game.common.*;
@@ -17,15 +24,33 @@ import java.util.List;
  * This class is the controller that a player interacts with.
  * Each player has a PlayerController, and each PlayerController
  * shares the same SetbackMultiplayerGame.
+ * <p>
+ * Commands are dispatched through a table indexed by the ordinal
+ * of the Command, and every handler takes its arguments as ordinals.
+ * Once the table is built, carrying out a command through
+ * processFrame does not allocate anything in the controller.
+ * <p>
+ * If the controller is given CommandMetrics, every command it
+ * carries out is timed and counted there.
  * @author Michael
  * @version Dec 27, 2013
  */
 public class PlayerController {
 
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final Bet[] BETS = Bet.values();
+	private static final CardSuit[] SUITS = CardSuit.values();
+
 	protected final SetbackMultiplayerGame game;
 	protected PlayerNumber myNumber;
 	protected Hand myHand;
 
+	private final CommandHandler[] handlers;
+	private final CommandFrame textFrame;
+	private final TextCommandReply textReply;
+	private MoveListener moveListener;
+	private CommandMetrics metrics;
+
 	/**
 	 * Constructor for a PlayerController.  It takes in
 	 * the shared SetbackMultiplayerGame that is being
@@ -36,6 +61,43 @@ public class PlayerController {
 	public PlayerController(SetbackMultiplayerGame game) {
 		this.game = game;
 		myNumber = null;
+		handlers = new CommandHandler[Command.values().length];
+		textFrame = new CommandFrame();
+		textReply = new TextCommandReply();
+		registerHandlers();
+	}
+
+	/**
+	 * Fills in the dispatch table.  Any command without a
+	 * handler is answered with "No command".
+	 */
+	private void registerHandlers() {
+		for (int index = 0; index < handlers.length; index++) {
+			handlers[index] = (one, two, three, reply) -> reply.noCommand();
+		}
+		handlers[Command.REQUEST_PLAYER_ONE.ordinal()] =
+				(one, two, three, reply) -> requestPlayer(Command.REQUEST_PLAYER_ONE, reply);
+		handlers[Command.REQUEST_PLAYER_TWO.ordinal()] =
+				(one, two, three, reply) -> requestPlayer(Command.REQUEST_PLAYER_TWO, reply);
+		handlers[Command.REQUEST_PLAYER_THREE.ordinal()] =
+				(one, two, three, reply) -> requestPlayer(Command.REQUEST_PLAYER_THREE, reply);
+		handlers[Command.REQUEST_PLAYER_FOUR.ordinal()] =
+				(one, two, three, reply) -> requestPlayer(Command.REQUEST_PLAYER_FOUR, reply);
+		handlers[Command.PLACE_BET.ordinal()] = this::placeBet;
+		handlers[Command.SELECT_TRUMP.ordinal()] = this::selectTrump;
+		handlers[Command.DISCARD_CARDS.ordinal()] = this::discardCards;
+		handlers[Command.PLAY_CARD.ordinal()] = this::playCard;
+		handlers[Command.SHOW_HAND.ordinal()] = this::showHand;
+		handlers[Command.GET_CURRENT_PLAYER.ordinal()] = this::getCurrentPlayer;
+		handlers[Command.GET_WINNING_BET.ordinal()] = this::getWinningBet;
+		handlers[Command.GET_TRUMP.ordinal()] = this::getTrump;
+		handlers[Command.GET_TEAM_ONE_SCORE.ordinal()] =
+				(one, two, three, reply) -> reply.score(game.getTeamOneScore());
+		handlers[Command.GET_TEAM_TWO_SCORE.ordinal()] =
+				(one, two, three, reply) -> reply.score(game.getTeamTwoScore());
+		handlers[Command.EXIT.ordinal()] = (one, two, three, reply) -> reply.exit();
+		handlers[Command.BINARY_PROTOCOL.ordinal()] = (one, two, three, reply) ->
+				reply.accepted(myNumber, Command.BINARY_PROTOCOL, 0, 0, 0);
 	}
 
 	/**
@@ -49,191 +111,208 @@ public class PlayerController {
 	 * This string might be removed.
 	 */
 	public String processInput(CommandMessageJson commandMessageJson) {
-		String returnString;
-
 		if (commandMessageJson == null) {
-			returnString = "No command";
+			textReply.noCommand();
 		}
 		else {
 			try {
-				// Request players
-				if (commandMessageJson.getCommand().equals(Command.REQUEST_PLAYER_ONE)) {
-					if (myNumber == null) {
-						if (game.requestPlayerNumber(PlayerNumber.PLAYER_ONE)) {
-							myNumber = PlayerNumber.PLAYER_ONE;
-							returnString = "Player one selected";
-							if (game.checkPlayersReady()) {
-								game.startGame();
-								game.startRound();
-							}
-						}
-						else {
-							returnString = "Player one rejected";
-						}
-					}
-					else {
-						returnString = "Player one rejected";
-					}
-				}
-				else if (commandMessageJson.getCommand().equals(Command.REQUEST_PLAYER_TWO)) {
-					if (myNumber == null) {
-						if (game.requestPlayerNumber(PlayerNumber.PLAYER_TWO)) {
-							myNumber = PlayerNumber.PLAYER_TWO;
-							returnString = "Player two selected";
-							if (game.checkPlayersReady()) {
-								game.startGame();
-								game.startRound();
-							}
-						}
-						else {
-							returnString = "Player two rejected";
-						}
-					}
-					else {
-						returnString = "Player two rejected";
-					}
-				}
-				else if (commandMessageJson.getCommand().equals(Command.REQUEST_PLAYER_THREE)) {
-					if (myNumber == null) {
-						if (game.requestPlayerNumber(PlayerNumber.PLAYER_THREE)) {
-							myNumber = PlayerNumber.PLAYER_THREE;
-							returnString = "Player three selected";
-							if (game.checkPlayersReady()) {
-								game.startGame();
-								game.startRound();
-							}
-						}
-						else {
-							returnString = "Player three rejected";
-						}
-					}
-					else {
-						returnString = "Player three rejected";
-					}
-				}
-				else if (commandMessageJson.getCommand().equals(Command.REQUEST_PLAYER_FOUR)) {
-					if (myNumber == null) {
-						if (game.requestPlayerNumber(PlayerNumber.PLAYER_FOUR)) {
-							myNumber = PlayerNumber.PLAYER_FOUR;
-							returnString = "Player four selected";
-							if (game.checkPlayersReady()) {
-								game.startGame();
-								game.startRound();
-							}
-						}
-						else {
-							returnString = "Player four rejected";
-						}
-					}
-					else {
-						returnString = "Player four rejected";
-					}
-				}
-				// Place bets
-				else if (commandMessageJson.getCommand().equals(Command.PLACE_BET)) {
-					final String betString = commandMessageJson.getParameters().getString(0);
-					game.placeBet(myNumber, Bet.valueOf(betString));
-					returnString = myNumber.toString() + " BET " + betString;
-					if (game.checkAllBetsPlaced()) {
-						game.resolveBets();
-					}
-				}
-				// Select trump
-				else if (commandMessageJson.getCommand().equals(Command.SELECT_TRUMP)) {
-					final String suitString = commandMessageJson.getParameters().getString(0);
-					game.selectTrump(myNumber, CardSuit.valueOf(suitString));
-					returnString = myNumber.toString() + " SELECTED " + suitString;
-				}
-				// Discard cards
-				else if (commandMessageJson.getCommand().equals(Command.DISCARD_CARDS)) {
-					final Card cardOne = Card.fromString(commandMessageJson.getParameters().getString(0));
-					final Card cardTwo = Card.fromString(commandMessageJson.getParameters().getString(1));
-					final Card cardThree = Card.fromString(commandMessageJson.getParameters().getString(2));
-					game.discardCards(myNumber, cardOne, cardTwo, cardThree);
-					// Discard the cards from my hand
-					final List<Card> myCards = myHand.getCards();
-					myCards.remove(cardOne);
-					myCards.remove(cardTwo);
-					myCards.remove(cardThree);
-					myHand.setCards(myCards);
-					returnString = myNumber.toString() + " DISCARDED "
-							+ cardOne.toString() + " " + cardTwo.toString()
-							+ " " + cardThree.toString();
-					if (game.checkAllDiscarded()) {
-						game.startTrick();
-					}
-				}
-				// Play cards
-				else if (commandMessageJson.getCommand().equals(Command.PLAY_CARD)) {
-					final Card card = Card.fromString(commandMessageJson.getParameters().getString(0));
-					game.playCard(card, myNumber);
-					// Discard the card from my hand
-					final List<Card> myCards = myHand.getCards(); 
-					myCards.remove(card);
-					returnString = myNumber.toString() + " PLAYED " + card.toString();
-					// Check if all four cards have been played
-					if (game.checkFourCardsPlayed()) {
-						final List<CardPlayerDescriptor> trickCards = game.getTrickCards();
-						game.playTrick(trickCards.get(0), trickCards.get(1),
-								trickCards.get(2), trickCards.get(3));
-						// Check if there are more cards to play
-						if (myHand.getCards().size() > 0) {
-							game.startTrick();
-						}
-						else {
-							final RoundResult result = game.playRound(game.getTrickResults());
-							if (result.getStatus().equals(RoundResultStatus.OK)) {
-								game.startRound();
-							}
-						}
-					}
-				}
-				// Show hands
-				else if (commandMessageJson.getCommand().equals(Command.SHOW_HAND)) {
-					if (myHand == null) {
-						returnString = "You do not have a hand yet!";
-					}
-					else {
-						returnString = myHand.toString();
-					}
-				}
-				// Get current player
-				else if (commandMessageJson.getCommand().equals(Command.GET_CURRENT_PLAYER)) {
-					if (myHand == null) {
-						returnString = "There is no current player yet!";
-					}
-					else {
-						returnString = game.getCurrentPlayer().toString();
-					}
-				}
-				// Get winning bet
-				else if (commandMessageJson.getCommand().equals(Command.GET_WINNING_BET)) {
-					returnString = game.getWinningBet().toString();
-				}
-				// Get trump
-				else if (commandMessageJson.getCommand().equals(Command.GET_TRUMP)) {
-					returnString = game.getTrump().toString();
-				}
-				// Get Team one score
-				else if (commandMessageJson.getCommand().equals(Command.GET_TEAM_ONE_SCORE)) {
-					returnString = Integer.toString(game.getTeamOneScore());
-				}
-				else if (commandMessageJson.getCommand().equals(Command.GET_TEAM_TWO_SCORE)) {
-					returnString = Integer.toString(game.getTeamTwoScore());
-				}
-				// Exit
-				else if (commandMessageJson.getCommand().equals(Command.EXIT)) {
-					returnString = "EXIT";
+				processFrame(CommandParser.toFrame(commandMessageJson, textFrame), textReply);
+			} catch (SetbackException e) {
+				textReply.error(e.getMessage());
+			}
+		}
+		return textReply.getText();
+	}
+
+	/**
+	 * This function takes in a decoded command, executes it on
+	 * the game, and reports the result to the given reply.
+	 * @param frame The decoded command to execute.
+	 * @param reply Where to report the result, in whichever
+	 * protocol the client speaks.
+	 */
+	public void processFrame(CommandFrame frame, CommandReply reply) {
+		final Command command = frame.getCommand();
+		final CommandMetrics commandMetrics = metrics;
+		final long start = commandMetrics == null ? 0 : commandMetrics.start(command);
+		String failure = null;
+		try {
+			handlers[command.ordinal()].handle(frame.getArgumentOne(),
+					frame.getArgumentTwo(), frame.getArgumentThree(), reply);
+		} catch (SetbackException e) {
+			failure = e.getMessage() != null ? e.getMessage() : CommandMetrics.UNKNOWN_REASON;
+			reply.error(e.getMessage());
+		} finally {
+			if (commandMetrics != null) {
+				commandMetrics.finish(command, start, failure);
+			}
+		}
+	}
+
+	/**
+	 * This function requests a player number for this controller,
+	 * and starts the game once all four players have joined.
+	 * @param command The REQUEST_PLAYER command that was sent.
+	 * @param reply Where to report the result.
+	 * @throws SetbackException If the game cannot be started.
+	 */
+	private void requestPlayer(Command command, CommandReply reply) throws SetbackException {
+		final PlayerNumber requestedNumber =
+				PLAYERS[command.ordinal() - Command.REQUEST_PLAYER_ONE.ordinal()];
+		if (myNumber == null && game.requestPlayerNumber(requestedNumber)) {
+			myNumber = requestedNumber;
+			reply.accepted(myNumber, command, 0, 0, 0);
+			recordMove(command, 0, 0, 0);
+			if (game.checkPlayersReady()) {
+				game.startGame();
+				game.startRound();
+			}
+		}
+		else {
+			reply.rejected(command);
+		}
+	}
+
+	/**
+	 * This function places a bet, and resolves betting
+	 * once all four bets have been placed.
+	 * @param bet The ordinal of the bet to place.
+	 * @throws SetbackException If the bet is illegal.
+	 */
+	private void placeBet(int bet, int unused, int unusedToo, CommandReply reply)
+			throws SetbackException {
+		game.placeBet(myNumber, BETS[bet]);
+		reply.accepted(myNumber, Command.PLACE_BET, bet, 0, 0);
+		recordMove(Command.PLACE_BET, bet, 0, 0);
+		if (game.checkAllBetsPlaced()) {
+			game.resolveBets();
+		}
+	}
+
+	/**
+	 * This function selects trump.
+	 * @param suit The ordinal of the suit to make trump.
+	 * @throws SetbackException If this player cannot select trump.
+	 */
+	private void selectTrump(int suit, int unused, int unusedToo, CommandReply reply)
+			throws SetbackException {
+		game.selectTrump(myNumber, SUITS[suit]);
+		reply.accepted(myNumber, Command.SELECT_TRUMP, suit, 0, 0);
+		recordMove(Command.SELECT_TRUMP, suit, 0, 0);
+	}
+
+	/**
+	 * This function discards three cards, and starts the first
+	 * trick once all four players have discarded.  The game removes
+	 * the cards from the hand, which is shared with this controller.
+	 * @param cardOne The ordinal of the first card to discard.
+	 * @param cardTwo The ordinal of the second card to discard.
+	 * @param cardThree The ordinal of the third card to discard.
+	 * @throws SetbackException If the cards cannot be discarded.
+	 */
+	private void discardCards(int cardOne, int cardTwo, int cardThree, CommandReply reply)
+			throws SetbackException {
+		game.discardCards(myNumber, Card.fromOrdinal(cardOne),
+				Card.fromOrdinal(cardTwo), Card.fromOrdinal(cardThree));
+		reply.accepted(myNumber, Command.DISCARD_CARDS, cardOne, cardTwo, cardThree);
+		recordMove(Command.DISCARD_CARDS, cardOne, cardTwo, cardThree);
+		if (game.checkAllDiscarded()) {
+			game.startTrick();
+		}
+	}
+
+	/**
+	 * This function plays a card, and finishes the trick and
+	 * the round when they are complete.
+	 * @param card The ordinal of the card to play.
+	 * @throws SetbackException If the card cannot be played.
+	 */
+	private void playCard(int card, int unused, int unusedToo, CommandReply reply)
+			throws SetbackException {
+		game.playCard(Card.fromOrdinal(card), myNumber);
+		reply.accepted(myNumber, Command.PLAY_CARD, card, 0, 0);
+		recordMove(Command.PLAY_CARD, card, 0, 0);
+		// Check if all four cards have been played
+		if (game.checkFourCardsPlayed()) {
+			final List<CardPlayerDescriptor> trickCards = game.getTrickCards();
+			game.playTrick(trickCards.get(0), trickCards.get(1),
+					trickCards.get(2), trickCards.get(3));
+			// Check if there are more cards to play
+			if (game.getPlayerHand(myNumber).getCards().size() > 0) {
+				game.startTrick();
+			}
+			else {
+				final RoundResult result = game.playRound(game.getTrickResults());
+				if (result.getStatus().equals(RoundResultStatus.OK)) {
+					game.startRound();
 				}
-				else {
-					returnString = "No command";
+				else if (moveListener != null) {
+					moveListener.gameEnded(result.getStatus());
 				}
-			} catch (SetbackException e) {
-				returnString = e.getMessage();
 			}
 		}
+	}
+
+	/**
+	 * Helper function that tells the listener about a move
+	 * that changed the game.
+	 * @param command The command that was carried out.
+	 * @param argumentOne The ordinal of the first argument.
+	 * @param argumentTwo The ordinal of the second argument.
+	 * @param argumentThree The ordinal of the third argument.
+	 */
+	private void recordMove(Command command, int argumentOne, int argumentTwo, int argumentThree) {
+		if (moveListener != null) {
+			moveListener.moveMade(Moves.pack(myNumber, command, argumentOne, argumentTwo, argumentThree));
+		}
+	}
+
+	/**
+	 * This function shows this player's hand.
+	 */
+	private void showHand(int unused, int unusedToo, int unusedThree, CommandReply reply) {
+		if (myHand == null) {
+			reply.error("You do not have a hand yet!");
+		}
+		else {
+			reply.hand(myHand);
+		}
+	}
 
-		return returnString;
+	/**
+	 * This function shows whose turn it is.
+	 */
+	private void getCurrentPlayer(int unused, int unusedToo, int unusedThree, CommandReply reply) {
+		if (myHand == null) {
+			reply.error("There is no current player yet!");
+		}
+		else {
+			reply.player(game.getCurrentPlayer());
+		}
+	}
+
+	/**
+	 * This function shows the winning bet.
+	 */
+	private void getWinningBet(int unused, int unusedToo, int unusedThree, CommandReply reply) {
+		if (game.getWinningBet() == null) {
+			reply.error("There is no winning bet yet!");
+		}
+		else {
+			reply.bet(game.getWinningBet());
+		}
+	}
+
+	/**
+	 * This function shows the trump suit.
+	 */
+	private void getTrump(int unused, int unusedToo, int unusedThree, CommandReply reply) {
+		if (game.getTrump() == null) {
+			reply.error("Trump has not been selected yet!");
+		}
+		else {
+			reply.trump(game.getTrump());
+		}
 	}
 
 	/**
@@ -243,6 +322,33 @@ public class PlayerController {
 		return myNumber;
 	}
 	
+	/**
+	 * @param moveListener The listener to tell about every move
+	 * this player makes.
+	 */
+	public void setMoveListener(MoveListener moveListener) {
+		this.moveListener = moveListener;
+	}
+
+	/**
+	 * @param metrics The metrics to record every command this player
+	 * sends in, or null to record nothing, as when moves are replayed.
+	 */
+	public void setMetrics(CommandMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * This function takes over a seat that the game already
+	 * counts as taken, such as when a player reconnects to
+	 * a game that was rebuilt from its moves.
+	 * @param seat The seat to take.
+	 */
+	public void takeSeat(PlayerNumber seat) {
+		myNumber = seat;
+		myHand = game.getPlayerHand(seat);
+	}
+
 	/**
 	 * This function is called to get the hand and sort
 	 * it at the start of a round.  This is called by
@@ -4,14 +4,13 @@
  */
 package setback.application.server;
 
+import setback.application.timer.HashedWheelTimer;
 import setback.application.socket.SocketIOPair;
-import setback.game.SetbackGameController;
-import setback.game.SetbackGameFactory;
-import setback.game.version.SetbackMultiplayerGame;
 
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.Random;
 
 /**
  * This class functions as the server that the players' clients
@@ -23,14 +22,15 @@ import java.net.Socket;
 public class SetbackServer {
 	
 	private static final int DEFAULT_PORT = 2323;
-	private static final int MAX_CONNECTIONS = 4;
+	private static final String TABLE_ID = "default";
+	private static final long DEBUG_SEED = 0;
 	
 	/**
 	 * This is the executable function that creates the server.
 	 * By default, the server runs on port 2323, but this can
 	 * be changed if a different port is passed in as the only
 	 * argument.
-	 * This function also instantiates the SetbackGameController
+	 * This function also instantiates the SetbackTable
 	 * which is passed to each new thread.
 	 * @param args Default variable for java.  If a number is
 	 * passed in as the only argument, it will be used as the
@@ -38,13 +38,14 @@ public class SetbackServer {
 	 * @throws IOException If the server cannot accept connections.
 	 */
 	public static void main(String[] args) throws IOException {
-		final SetbackMultiplayerGame game;
+		final SetbackTable table;
 		final int portNumber;
 		final ServerSocket serverSocket;
 		int currentConnections;
 		
 		final String debug = System.getenv("DEBUG");
-		game = makeGame(debug);
+		table = makeTable(debug);
+		table.getTurnClock().start(HashedWheelTimer.getSharedTimer(), TurnClock.DEFAULT_TURN_MILLIS);
 		portNumber = getPortNumber(args);
 		serverSocket = getServerSocket(portNumber);
 		
@@ -53,35 +54,34 @@ public class SetbackServer {
 			System.exit(-1);
 		}
 		
-		for (currentConnections = 0; currentConnections < MAX_CONNECTIONS; currentConnections++) {
+		// The first four connections are usually the players, but
+		// anyone who connects after them can still spectate, and
+		// players who lose their connection can resume their seats.
+		for (currentConnections = 0; ; currentConnections++) {
 			Socket socket = serverSocket.accept();
-			new SetbackServerThread(new SocketIOPair(socket), game).start();
+			table.connect(new SocketIOPair(socket));
 			System.out.println("currentConnections = " + currentConnections);
 		}
 	}
 	
 	/**
-	 * This function handles creating the game to be played.
-	 * If the DEBUG system variable is set to be true, it will
-	 * provide the SetbackGameFactory with a non-random seed
-	 * for the game.  Otherwise, it will use a random seed for the game.
+	 * This function handles creating the table that the game is
+	 * played at.  If the DEBUG system variable is set to be true,
+	 * the game is always dealt the same way.
 	 * @param debug The debug string.  True if in debug, null or false if retail.
-	 * @return The SetbackGameController to be played.
+	 * @return The table to play at.
 	 */
-	public static SetbackMultiplayerGame makeGame(String debug) {
-		final SetbackMultiplayerGame game;
-		final SetbackGameFactory factory = SetbackGameFactory.getInstance();
-		
+	public static SetbackTable makeTable(String debug) {
+		final long seed;
 		if (debug != null && debug.equals("true")) {
 			System.out.println("DEBUG");
-			game = factory.makeSetbackMultiplayerGame();
+			seed = DEBUG_SEED;
 		}
 		else {
 			System.out.println("RETAIL");
-			game = factory.makeSetbackMultiplayerGame();
+			seed = new Random().nextLong();
 		}
-	
-		return game;
+		return new SetbackTable(TABLE_ID, seed);
 	}
 	
 	/**
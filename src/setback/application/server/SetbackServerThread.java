@@ -5,18 +5,42 @@
 package setback.application.server;
 
 import setback.application.SetbackObserver;
-import setback.application.command.CommandMessageJson;
+import setback.application.command.BinaryCommandCodec;
+import setback.application.command.BinaryCommandReply;
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
 import setback.application.command.CommandParser;
+import setback.application.command.CommandReply;
+import setback.application.command.TextCommandReply;
+import setback.application.event.AsyncObserver;
+import setback.application.event.EventRingBuffer;
+import setback.application.event.EventSubscriber;
+import setback.application.event.GameEvent;
+import setback.application.event.OverflowPolicy;
+import setback.application.event.SlowConsumerMetrics;
+import setback.application.event.Spectator;
+import setback.application.event.SpectatorChannel;
+import setback.application.jfr.SocketWriteEvent;
+import setback.application.metrics.CommandMetrics;
+import setback.application.replay.GameReplay;
+import setback.application.replay.ReplayArchive;
 import setback.application.socket.IOPair;
+import setback.common.PlayerNumber;
 import setback.common.SetbackException;
 import setback.game.version.SetbackMultiplayerGame;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StreamCorruptedException;
+import java.util.concurrent.Executor;
 
-import static setback.application.command.CommandMessageConstants.*;
+import static setback.application.command.BinaryProtocol.*;
 
 /**
  * This is the thread that the server spawns.  It is associated
@@ -26,13 +50,75 @@ import static setback.application.command.CommandMessageConstants.*;
  */
 public class SetbackServerThread extends Thread implements SetbackObserver {
 
+	/**
+	 * The most events that may be waiting for a client before
+	 * the overflow policy is applied.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+
   private final IOPair pair;
+	private final SetbackMultiplayerGame game;
 	protected PlayerController controller;
 	private final CommandParser parser;
 
 	protected PrintWriter out;
 	protected BufferedReader in;
 
+	/**
+	 * Once the client switches to the binary protocol, every
+	 * frame is written to this stream instead of out.
+	 */
+	private volatile OutputStream binaryOut;
+
+	/**
+	 * Events are written to the client on another thread, so that
+	 * a slow client cannot hold up the other players.
+	 */
+	private final AsyncObserver outbound;
+
+	/**
+	 * The channel that spectators watch the game through,
+	 * or null if the game cannot be watched.
+	 */
+	private SpectatorChannel channel;
+	private SetbackTable table;
+	private volatile ClientSpectator spectator;
+	private boolean spectatorJoining;
+
+	/**
+	 * The archive that finished games are replayed from, or null if
+	 * they cannot be, and the game this client is looking back over.
+	 */
+	private volatile ReplayArchive archive;
+	private GameReplay replay;
+	private int replayNumber;
+
+	/**
+	 * The first line sent to the client, which is the reply
+	 * to its seat if it was seated by the matchmaker.
+	 */
+	private String greeting;
+
+	/**
+	 * The token of this player's session, or 0 if it has no seat.
+	 */
+	private long sessionToken;
+
+	/**
+	 * The sequence in the table's event log of the next event
+	 * this player will be sent.  Guarded by the game.
+	 */
+	private long nextSequence;
+
+	/**
+	 * True while a command is being carried out.  The executor does
+	 * not flush the events it delivers in the meantime, since they
+	 * go out with the reply.
+	 */
+	private volatile boolean replying;
+
 	/**
 	 * Constructor that is called by the server.  It provides
 	 * the socket that connects to the client, and the shared
@@ -42,11 +128,32 @@ public class SetbackServerThread extends Thread implements SetbackObserver {
 	 * being shared by the four players.
 	 */
 	public SetbackServerThread(IOPair pair, SetbackMultiplayerGame game) {
+		this(pair, game, AsyncObserver.getSharedExecutor(), DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_TO_RESYNC);
+	}
+
+	/**
+	 * Constructor that also decides how events are delivered to the client.
+	 * @param pair The input/output pair connected to the client.
+	 * @param game The SetbackGameController that is
+	 * being shared by the four players.
+	 * @param executor The executor that writes events to the client.
+	 * @param capacity The most events that may be waiting for the client.
+	 * @param policy What to do when the client falls further behind.
+	 */
+	public SetbackServerThread(IOPair pair, SetbackMultiplayerGame game,
+			Executor executor, int capacity, OverflowPolicy policy) {
 		super("SetbackServerThread");
 		this.pair = pair;
-		game.addObserver(this);
+		this.game = game;
+		outbound = new AsyncObserver(new ClientSubscriber(), executor, capacity, policy,
+				SlowConsumerMetrics.getInstance());
 		controller = new PlayerController(game);
+		controller.setMetrics(CommandMetrics.getInstance());
 		parser = new CommandParser();
+		// The controller must see every round begin, but events can only
+		// be written once run has something to write them to
+		outbound.hold();
+		game.addObserver(this);
 	}
 
 	/**
@@ -56,87 +163,486 @@ public class SetbackServerThread extends Thread implements SetbackObserver {
 	 */
 	public void run() {
 		try {
-			out = new PrintWriter(pair.out(), true);
+			// Nothing is flushed until a reply or a batch of events is
+			// complete, so that they go out in as few writes as possible
+			out = new PrintWriter(pair.out());
 			in = new BufferedReader(
 					new InputStreamReader(pair.in()));
 
+			final CommandFrame frame = new CommandFrame();
+			final TextCommandReply reply = new TextCommandReply();
 			String inputLine, outputLine;
 
-			outputLine = null;
-			out.println(outputLine);
+			outputLine = greeting;
+			writeReply(outputLine);
+			// Events that arrived before the thread started follow the greeting
+			outbound.release();
 
 			while ((inputLine = in.readLine()) != null) {
+				replying = true;
 				try {
-          // TODO: Shouldn't need to use the Parser to make a CommandMessageJson
-					CommandMessageJson commandMessageJson =
-              parser.parseString(inputLine);
-					outputLine = controller.processInput(commandMessageJson);
+					process(parser.parseFrame(inputLine, frame), reply);
+					outputLine = reply.getText();
 				} catch (SetbackException se) {
 					outputLine = se.getMessage();
 				}
 				if (outputLine != null) {
-					out.println(outputLine);
+					outbound.drain();
+					writeReply(outputLine);
+					finishReply();
+					joinChannel();
 					if (outputLine.equals("EXIT")) {
 						break;
 					}
+					if (outputLine.equals(Command.BINARY_PROTOCOL.toString())) {
+						// The client waits for this reply before sending frames,
+						// so nothing has been buffered by the reader yet.
+						runBinary(pair.in(), pair.out());
+						break;
+					}
+				}
+				else {
+					finishReply();
 				}
 			}
-
-			pair.close();
-			
 		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			game.removeObserver(this);
+			outbound.close();
+			if (spectator != null) {
+				channel.removeSpectator(spectator);
+			}
+			try {
+				pair.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			if (table != null) {
+				table.disconnected(this);
+			}
 		}
 	}
 
-	/*
-	 * (non-Javadoc)
-	 * @see setback.networking.SetbackObserver#update(java.lang.String)
+	/**
+	 * This function facilitates communication once the client
+	 * has switched to the binary protocol.  The same frame and
+	 * codec are reused for every command.  A command that cannot
+	 * be carried out is answered with an error, but a frame of
+	 * the wrong length ends the connection, because the frames
+	 * after it can no longer be found.
+	 * @param input The input stream from the client.
+	 * @param output The output stream to the client.
+	 * @throws IOException If the connection fails.
 	 */
-	public void update(String message) {
-		if (message != null) {
-			// Game inputs
-			if (message.equals(ROUND_BEGIN)) {
-				controller.startRound();
+	private void runBinary(InputStream input, OutputStream output) throws IOException {
+		final InputStream binaryIn = new BufferedInputStream(input);
+		final BinaryCommandCodec codec = new BinaryCommandCodec();
+		final BinaryCommandReply reply = new BinaryCommandReply(codec);
+		final CommandFrame frame = new CommandFrame();
+		binaryOut = new BufferedOutputStream(output);
+
+		while (true) {
+			try {
+				if (!codec.readCommand(binaryIn, frame)) {
+					break;
+				}
+				replying = true;
+				process(frame, reply);
+			} catch (StreamCorruptedException framing) {
+				break;
+			} catch (SetbackException se) {
+				frame.set(Command.NO_COMMAND, 0, 0, 0);
+				codec.encodeText(REPLY_ERROR, se.getMessage());
 			}
-			else if (message.equals(BETTING_RESOLVED)) {
-				// The PlayerController does not care, but we need to tell the client
-				out.print(message + " ");
+			outbound.drain();
+			final SocketWriteEvent write = new SocketWriteEvent();
+			write.begin();
+			synchronized (binaryOut) {
+				codec.writeTo(binaryOut);
+				binaryOut.flush();
 			}
-			else if (message.contains(TRICK_STARTED)) {
-				// The PlayerController does not care, but we need to tell the client
-				out.print(message + " ");
+			write.record(getTableId(), SocketWriteEvent.REPLY, true, codec.getFrameSize());
+			finishReply();
+			joinChannel();
+			if (frame.getCommand() == Command.EXIT) {
+				break;
 			}
-			else if (message.contains(ROUND_ENDED)) {
-				// The PlayerController does not care, but we need to tell the client
-				out.print(message + " ");
-			}
-			// Player inputs
-			else if (message.startsWith("PLAYER_")) {
-				// Placing a bet
-				if (message.contains(" BET ")) {
-					// The PlayerController does not care, but we need to tell the client
-					out.print(message + " ");
+		}
+	}
+
+	/**
+	 * This function handles a command from the client.  Spectating
+	 * and replaying are handled here, since they have nothing to do
+	 * with the game, and everything else is passed to the PlayerController.
+	 * @param frame The command.
+	 * @param reply Where to put the reply.
+	 */
+	private void process(CommandFrame frame, CommandReply reply) {
+		final Command command = frame.getCommand();
+		if (table != null) {
+			table.touch();
+		}
+		if (command == Command.REPLAY) {
+			replay(frame.getArgumentOne(), frame.getArgumentTwo(), reply);
+		}
+		else if (command == Command.SPECTATE) {
+			if (channel == null) {
+				reply.error("Spectating is not available!");
+			}
+			else if (controller.getMyNumber() != null || spectator != null) {
+				reply.error("Already watching or playing!");
+			}
+			else {
+				spectator = new ClientSpectator();
+				spectatorJoining = true;
+				reply.accepted(null, command, 0, 0, 0);
+			}
+		}
+		else if (spectator != null && command != Command.EXIT) {
+			reply.error("Spectators cannot play!");
+		}
+		else if (command == Command.GET_SESSION) {
+			if (sessionToken == 0) {
+				reply.error("You do not have a seat!");
+			}
+			else {
+				synchronized (game) {
+					reply.session(sessionToken, nextSequence);
+				}
+			}
+		}
+		else if (command == Command.RESUME) {
+			resume(CommandParser.getToken(frame), frame.getArgumentThree(), reply);
+		}
+		else {
+			// The turn clock makes moves on its own thread
+			synchronized (game) {
+				final boolean seated = controller.getMyNumber() != null;
+				if (table != null && table.isClosed()) {
+					// Its moves have already been handed on
+					reply.error("The table has moved!");
+				}
+				else if (isRequestPlayer(command) && table != null && !seated
+						&& table.claimVacantSeat(PLAYERS[command.ordinal() - Command.REQUEST_PLAYER_ONE.ordinal()])) {
+					// Taking back a seat in a game that was rebuilt from its moves
+					controller.takeSeat(PLAYERS[command.ordinal() - Command.REQUEST_PLAYER_ONE.ordinal()]);
+					reply.accepted(controller.getMyNumber(), command, 0, 0, 0);
 				}
-				// Selecting trump
-				else if (message.contains(" SELECTED ")) {
-					// The PlayerController does not care, but we need to tell the client
-					out.print(message + " ");
+				else {
+					controller.processFrame(frame, reply);
 				}
-				// Discarding cards
-				else if (message.contains(" DISCARDED")) {
-					// The PlayerController does not care, but we need to tell the client
-					out.print(message + " ");
+				if (!seated) {
+					openSession();
+				}
+			}
+			if (table != null) {
+				// Waiting for the moves to be copied leaves the game to the others
+				table.awaitSettled();
+			}
+		}
+	}
+
+	/**
+	 * Shows the client an archived game as it was after some of its
+	 * moves.  The game is kept open, so that moving back and forth
+	 * through it only makes the moves from the closest checkpoint.
+	 * @param number The place of the game in the archive.
+	 * @param position The number of moves to make.
+	 * @param reply Where to put the reply.
+	 */
+	private void replay(int number, int position, CommandReply reply) {
+		final ReplayArchive replays = archive;
+		if (replays == null) {
+			reply.error("Replays are not available!");
+			return;
+		}
+		try {
+			if (replay == null || replayNumber != number) {
+				replay = replays.open(number);
+				replayNumber = number;
+			}
+			replay.seek(position);
+			reply.replay(position, replay.getMoveCount(), position > 0 ? replay.getMove(position - 1) : 0,
+					replay.getTeamOneScore(), replay.getTeamTwoScore());
+		} catch (SetbackException se) {
+			reply.error(se.getMessage());
+		} catch (IOException e) {
+			reply.error("The archive could not be read!");
+		}
+	}
+
+	/**
+	 * Takes over a seat whose connection was lost.  The reply is the
+	 * seat, and it is followed by every event from the given sequence on.
+	 * If the table no longer has all of those events, the client is
+	 * told to resync instead.
+	 * @param token The token of the session.
+	 * @param sequence The sequence of the first event the client missed.
+	 * @param reply Where to put the reply.
+	 */
+	private void resume(long token, long sequence, CommandReply reply) {
+		if (table == null) {
+			reply.error("Sessions are not available!");
+			return;
+		}
+		if (controller.getMyNumber() != null || spectator != null) {
+			reply.error("Already watching or playing!");
+			return;
+		}
+		synchronized (game) {
+			final PlayerNumber seat = table.resumeSession(token, this);
+			if (seat == null) {
+				reply.error("Unknown session!");
+				return;
+			}
+			controller.takeSeat(seat);
+			sessionToken = token;
+			reply.player(seat);
+			final EventRingBuffer events = table.getEvents();
+			final long published = events.getPublished();
+			if (sequence < events.getOldest() || sequence > published) {
+				outbound.update(GameEvent.RESYNC_EVENT);
+			}
+			else {
+				for (long next = sequence; next < published; next++) {
+					outbound.update(events.get(next));
+				}
+			}
+			nextSequence = published;
+		}
+	}
+
+	/**
+	 * Helper function that gives this player a session once it has a
+	 * seat.  Must be called while holding the lock on the game.
+	 */
+	private void openSession() {
+		if (table != null && controller.getMyNumber() != null) {
+			sessionToken = table.openSession(controller.getMyNumber(), this);
+			nextSequence = table.getEvents().getPublished();
+		}
+	}
+
+	/**
+	 * Closes the connection, such as when the player has resumed
+	 * their session on another one.
+	 */
+	public void disconnect() {
+		try {
+			pair.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Seats the client before the thread is started, as if it had
+	 * requested the seat itself.  The reply is sent as the greeting.
+	 * @param seat The seat to take.
+	 * @return False if the seat was already taken.
+	 */
+	public boolean seat(PlayerNumber seat) {
+		final CommandFrame frame = new CommandFrame();
+		final TextCommandReply reply = new TextCommandReply();
+		frame.set(Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + seat.ordinal()], 0, 0, 0);
+		synchronized (game) {
+			controller.processFrame(frame, reply);
+			openSession();
+		}
+		greeting = reply.getText();
+		return controller.getMyNumber() == seat;
+	}
+
+	/**
+	 * Starts sending the game to a new spectator.  This waits until
+	 * the reply has been written, so that the snapshot comes after it.
+	 */
+	private void joinChannel() {
+		if (spectatorJoining) {
+			spectatorJoining = false;
+			channel.addSpectator(spectator);
+		}
+	}
+
+	/**
+	 * Helper function that checks for the REQUEST_PLAYER commands.
+	 * @param command The command.
+	 * @return True if the command requests a player number.
+	 */
+	private static boolean isRequestPlayer(Command command) {
+		return command.ordinal() >= Command.REQUEST_PLAYER_ONE.ordinal()
+				&& command.ordinal() <= Command.REQUEST_PLAYER_FOUR.ordinal();
+	}
+
+	/**
+	 * Connects this thread to the table it was created for, so
+	 * that its moves are logged and spectators can watch.
+	 * @param table The table.
+	 */
+	public void setTable(SetbackTable table) {
+		this.table = table;
+		channel = table.getChannel();
+		controller.setMoveListener(table);
+	}
+
+	/**
+	 * @param archive The archive that finished games are replayed from.
+	 */
+	public void setReplayArchive(ReplayArchive archive) {
+		this.archive = archive;
+	}
+
+	/**
+	 * @param channel The channel that spectators watch the game through.
+	 */
+	public void setSpectatorChannel(SpectatorChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Sends an event from the game to the client, using
+	 * whichever protocol the client is speaking.  The bytes
+	 * of the event are shared by every observer, so this is
+	 * only a write.
+	 * @param event The event to send.
+	 */
+	private void sendEvent(GameEvent event) {
+		final OutputStream output = binaryOut;
+		final SocketWriteEvent write = new SocketWriteEvent();
+		write.begin();
+		if (output == null) {
+			out.print(event.getTextLine());
+			write.record(getTableId(), SocketWriteEvent.EVENT, false, event.getTextLine().length());
+		}
+		else {
+			synchronized (output) {
+				try {
+					output.write(event.getFrame());
+				} catch (IOException e) {
+					e.printStackTrace();
 				}
-				// Playing cards
-				else if (message.contains(" PLAYED ")) {
-					// The PlayerController does not care, but we need to tell the client
-					out.print(message + " ");
+			}
+			write.record(getTableId(), SocketWriteEvent.EVENT, true, event.getFrame().length);
+		}
+	}
+
+	/**
+	 * Writes a reply to a client that speaks the text protocol,
+	 * along with any events written before it.
+	 * @param line The reply.
+	 */
+	private void writeReply(String line) {
+		final SocketWriteEvent write = new SocketWriteEvent();
+		write.begin();
+		out.println(line);
+		out.flush();
+		write.record(getTableId(), SocketWriteEvent.REPLY, false, String.valueOf(line).length() + 1);
+	}
+
+	/**
+	 * Lets the executor flush events again once a reply has been sent,
+	 * and flushes any that it delivered while the reply was being made.
+	 */
+	private void finishReply() {
+		replying = false;
+		flushEvents();
+	}
+
+	/**
+	 * Flushes the events that have been written to the client.
+	 */
+	private void flushEvents() {
+		final OutputStream output = binaryOut;
+		final SocketWriteEvent write = new SocketWriteEvent();
+		write.begin();
+		if (output == null) {
+			out.flush();
+		}
+		else {
+			synchronized (output) {
+				try {
+					output.flush();
+				} catch (IOException e) {
+					e.printStackTrace();
 				}
-				else if (message.contains(" WON TRICK")) {
-					out.print(message + " ");
+			}
+		}
+		write.record(getTableId(), SocketWriteEvent.FLUSH, output != null, 0);
+	}
+
+	/**
+	 * @return The id of the table this thread is connected to,
+	 * or null if it is not at a table yet.
+	 */
+	private String getTableId() {
+		final SetbackTable connected = table;
+		return connected == null ? null : connected.getId();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.SetbackObserver#update(setback.application.event.GameEvent)
+	 */
+	public void update(GameEvent event) {
+		if (spectator != null) {
+			// Spectators are sent the game by the SpectatorChannel
+			return;
+		}
+		switch (event.getType()) {
+			case ROUND_BEGIN:
+				// The client is told about its new hand when it asks for it
+				controller.startRound();
+				break;
+			case PLAYER_SELECTED:
+				// The client is told when it selects its own number
+				break;
+			default:
+				// The PlayerController does not care, but we need to tell the client
+				outbound.update(event);
+				if (table != null) {
+					nextSequence = table.getEvents().getPublished();
 				}
+				break;
+		}
+	}
+
+	/**
+	 * @return The queue of events waiting for the client.
+	 */
+	public AsyncObserver getOutbound() {
+		return outbound;
+	}
+
+	/**
+	 * This class writes the queued events to the client.
+	 */
+	private class ClientSubscriber implements EventSubscriber {
+
+		public void update(GameEvent event) {
+			sendEvent(event);
+		}
+
+		public void resync() {
+			// The client asks for its hand and the game state again
+			sendEvent(GameEvent.RESYNC_EVENT);
+		}
+
+		public void disconnect() {
+			SetbackServerThread.this.disconnect();
+		}
+
+		public void flush() {
+			// A client that is being replied to gets its events with the reply
+			if (!replying) {
+				flushEvents();
 			}
 		}
 	}
+
+	/**
+	 * This class writes the public events of the game to a spectator.
+	 */
+	private class ClientSpectator extends ClientSubscriber implements Spectator {
+	}
 }
@@ -0,0 +1,608 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import setback.application.event.EventRingBuffer;
+import setback.application.event.GameEvent;
+import setback.application.event.GameEventType;
+import setback.application.event.PlayerEvent;
+import setback.application.event.SpectatorChannel;
+import setback.application.journal.TableJournal;
+import setback.application.move.MoveListener;
+import setback.application.move.MoveLog;
+import setback.application.move.MoveReplayer;
+import setback.application.move.Moves;
+import setback.application.profile.PlayerStat;
+import setback.application.profile.ProfileService;
+import setback.application.rating.RatingService;
+import setback.application.replay.ReplayArchive;
+import setback.application.socket.IOPair;
+import setback.application.socket.MemoryIOPair;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.SetbackGameFactory;
+import setback.game.common.RoundResultStatus;
+import setback.game.common.RoundState;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is a single table that players can sit down at.
+ * It holds the game being played along with the channel that
+ * spectators watch it through, and every move that has been made,
+ * which together with the seed is enough to rebuild the game.
+ * <p>
+ * Every player who takes a seat is given a session token.  If their
+ * connection drops, they can resume the seat on a new connection with
+ * the token, and are sent the events they missed from the table's
+ * bounded event log.  The tokens are journaled and copied along with
+ * the moves, so a rebuilt table gives every seat its token back.
+ * <p>
+ * The table counts the clients connected to it and remembers when a
+ * client last did anything, so that a TableRegistry can put tables
+ * that have gone quiet to sleep on disk.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SetbackTable implements MoveListener {
+
+	/**
+	 * The number of events that are kept for players who resume.
+	 */
+	public static final int DEFAULT_EVENT_LOG = 1024;
+
+	private static final SecureRandom TOKENS = new SecureRandom();
+	private static final int SEATS = PlayerNumber.values().length;
+
+	private final String id;
+	private final long seed;
+	private final SetbackMultiplayerGame game;
+	private final SpectatorChannel channel;
+	private final MoveLog moves;
+	private final TurnClock turnClock;
+	private final EventRingBuffer events;
+	private volatile MoveListener moveListener;
+	private volatile TableJournal journal;
+	private volatile RatingService ratings;
+	private volatile ProfileService profiles;
+	private volatile ReplayArchive replayArchive;
+	private final AtomicInteger connections = new AtomicInteger();
+	private final Set<SetbackServerThread> threads = new CopyOnWriteArraySet<SetbackServerThread>();
+	private volatile long lastActive = System.nanoTime();
+	private volatile boolean closed;
+
+	// Guarded by this
+	private final long[] sessionTokens = new long[PlayerNumber.values().length];
+	private final SetbackServerThread[] sessionThreads = new SetbackServerThread[PlayerNumber.values().length];
+	private final String[] players = new String[PlayerNumber.values().length];
+
+	/**
+	 * The seats that the game counts as taken, but that nobody is
+	 * connected to, because the game was rebuilt from its moves.
+	 */
+	private final boolean[] vacantSeats = new boolean[PlayerNumber.values().length];
+
+	/**
+	 * Constructor for the SetbackTable.
+	 * @param id The id of the table, which is unique across the cluster.
+	 * @param seed The seed for the game, which decides every deal.
+	 */
+	public SetbackTable(String id, long seed) {
+		this.id = id;
+		this.seed = seed;
+		game = SetbackGameFactory.getInstance().makeSetbackMultiplayerGame(seed);
+		game.setTableId(id);
+		channel = new SpectatorChannel(game);
+		game.addObserver(channel);
+		moves = new MoveLog();
+		turnClock = new TurnClock(game, this);
+		game.addObserver(turnClock);
+		events = new EventRingBuffer(DEFAULT_EVENT_LOG);
+		game.addObserver(event -> {
+			if (event.getType() == GameEventType.TRICK_WON) {
+				count(((PlayerEvent) event).getPlayer(), PlayerStat.TRICKS_WON);
+			}
+			if (isSentToPlayers(event)) {
+				events.publish(event);
+			}
+			final TableJournal tableJournal = journal;
+			if (tableJournal != null) {
+				if (event.getType() == GameEventType.ROUND_BEGIN) {
+					tableJournal.roundBegan(moves.size(), game.getRoundState());
+				}
+				else {
+					tableJournal.update(event);
+				}
+			}
+		});
+	}
+
+	/**
+	 * @param event An event from the game.
+	 * @return True if the event is sent to the players, and so is logged.
+	 */
+	public static boolean isSentToPlayers(GameEvent event) {
+		switch (event.getType()) {
+			case PLAYER_SELECTED:
+			case ROUND_BEGIN:
+				return false;
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Gives a session token to the player in a seat.  A seat only ever
+	 * has one token, so this gives back the same one if it is called again.
+	 * @param seat The seat.
+	 * @param thread The thread talking to the player.
+	 * @return The token.
+	 */
+	public long openSession(PlayerNumber seat, SetbackServerThread thread) {
+		long token;
+		synchronized (this) {
+			sessionThreads[seat.ordinal()] = thread;
+			if (sessionTokens[seat.ordinal()] != 0) {
+				return sessionTokens[seat.ordinal()];
+			}
+			do {
+				token = TOKENS.nextLong();
+			} while (token == 0);
+			sessionTokens[seat.ordinal()] = token;
+		}
+		sessionOpened(seat, token);
+		return token;
+	}
+
+	/**
+	 * Moves a session to a new connection.  The old connection,
+	 * if it is somehow still open, is closed.
+	 * @param token The token of the session.
+	 * @param thread The thread talking to the new connection.
+	 * @return The seat of the session, or null if the token is unknown.
+	 */
+	public synchronized PlayerNumber resumeSession(long token, SetbackServerThread thread) {
+		for (int seat = 0; seat < sessionTokens.length; seat++) {
+			if (token != 0 && sessionTokens[seat] == token) {
+				final SetbackServerThread old = sessionThreads[seat];
+				sessionThreads[seat] = thread;
+				// The seat is taken back, even if the table was rebuilt
+				vacantSeats[seat] = false;
+				if (old != null && old != thread) {
+					// The old connection must not be sent the seat's events
+					game.removeObserver(old);
+					old.disconnect();
+				}
+				return PlayerNumber.values()[seat];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return A copy of the session token of every seat, with 0 for
+	 * the seats that have not been taken.
+	 */
+	public synchronized long[] getSessionTokens() {
+		return Arrays.copyOf(sessionTokens, sessionTokens.length);
+	}
+
+	/**
+	 * Gives the seats back the tokens they had before the table was
+	 * rebuilt, so that the players can resume their sessions.  A seat
+	 * with a token can then only be taken back by resuming it.
+	 * @param tokens The session token of every seat, with 0 for the
+	 * seats that have none.
+	 */
+	public synchronized void restoreSessions(long[] tokens) {
+		System.arraycopy(tokens, 0, sessionTokens, 0, sessionTokens.length);
+	}
+
+	/**
+	 * Rebuilds a table by making its moves again.  Every seat that was
+	 * taken is left vacant, so the players can take them back, by
+	 * resuming them once restoreSessions has given back their tokens.
+	 * @param id The id of the table.
+	 * @param seed The seed the table was created with.
+	 * @param moves The moves made at the table.
+	 * @param count The number of moves to make.
+	 * @return The table.
+	 * @throws SetbackException If the moves do not fit the seed.
+	 */
+	public static SetbackTable restore(String id, long seed, int[] moves, int count)
+			throws SetbackException {
+		final SetbackTable table = new SetbackTable(id, seed);
+		final MoveReplayer replayer = new MoveReplayer(table.game);
+		for (int index = 0; index < count; index++) {
+			replayer.replay(moves[index]);
+			table.moves.append(moves[index]);
+			if (Moves.isSeatRequest(moves[index])) {
+				table.vacantSeats[Moves.getPlayer(moves[index]).ordinal()] = true;
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Rebuilds a table from the state of its game at the start of a round,
+	 * which only takes making the moves of that round again, along with
+	 * the moves that took the seats.  The moves of the earlier rounds are
+	 * logged without being made.
+	 * @param id The id of the table.
+	 * @param seed The seed the table was created with.
+	 * @param moves Every move made at the table.
+	 * @param count The number of moves.
+	 * @param roundStart The number of moves made before the round began.
+	 * @param state The state of the game when the round began.
+	 * @return The table.
+	 * @throws SetbackException If the moves do not fit the seed and state.
+	 */
+	public static SetbackTable restore(String id, long seed, int[] moves, int count,
+			int roundStart, RoundState state) throws SetbackException {
+		if (roundStart < SEATS || roundStart > count) {
+			throw new SetbackException("The round began before the seats were taken!");
+		}
+		final SetbackTable table = restore(id, seed, moves, SEATS);
+		if (roundStart > SEATS) {
+			table.game.restoreRound(state);
+			table.turnClock.resync();
+		}
+		for (int index = SEATS; index < roundStart; index++) {
+			table.moves.append(moves[index]);
+		}
+		final MoveReplayer replayer = new MoveReplayer(table.game);
+		replayer.takeSeats(null);
+		for (int index = roundStart; index < count; index++) {
+			replayer.replay(moves[index]);
+			table.moves.append(moves[index]);
+		}
+		return table;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#moveMade(int)
+	 */
+	public void moveMade(int move) {
+		moves.append(move);
+		switch (Moves.getCommand(move)) {
+			case PLACE_BET:
+				count(Moves.getPlayer(move), PlayerStat.BETS_PLACED);
+				break;
+			case PLAY_CARD:
+				count(Moves.getPlayer(move), PlayerStat.CARDS_PLAYED);
+				break;
+			default:
+				break;
+		}
+		final TableJournal tableJournal = journal;
+		if (tableJournal != null) {
+			tableJournal.moveMade(move);
+		}
+		final MoveListener listener = moveListener;
+		if (listener != null) {
+			listener.moveMade(move);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#awaitSettled()
+	 */
+	public void awaitSettled() {
+		final MoveListener listener = moveListener;
+		if (listener != null) {
+			listener.awaitSettled();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#sessionOpened(setback.common.PlayerNumber, long)
+	 */
+	public void sessionOpened(PlayerNumber seat, long token) {
+		final TableJournal tableJournal = journal;
+		if (tableJournal != null) {
+			tableJournal.sessionOpened(seat, token);
+		}
+		final MoveListener listener = moveListener;
+		if (listener != null) {
+			listener.sessionOpened(seat, token);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.move.MoveListener#gameEnded(setback.game.common.RoundResultStatus)
+	 */
+	public void gameEnded(RoundResultStatus status) {
+		final boolean teamOneWon = status == RoundResultStatus.TEAM_ONE_WINS;
+		final RatingService ratingService = ratings;
+		if (ratingService != null) {
+			final String[] rated;
+			synchronized (this) {
+				rated = players.clone();
+			}
+			if (!Arrays.asList(rated).contains(null)) {
+				ratingService.gameEnded(rated, teamOneWon);
+			}
+		}
+		for (PlayerNumber seat : PlayerNumber.values()) {
+			count(seat, PlayerStat.GAMES_PLAYED);
+			// Seats one and three are team one
+			if ((seat.ordinal() % 2 == 0) == teamOneWon) {
+				count(seat, PlayerStat.GAMES_WON);
+			}
+		}
+		closeJournal();
+		final MoveListener listener = moveListener;
+		if (listener != null) {
+			listener.gameEnded(status);
+		}
+	}
+
+	/**
+	 * Helper function that counts something the player in a seat did,
+	 * if the seat has a player.  This only queues the change, so the
+	 * game never waits on the profiles.
+	 */
+	private void count(PlayerNumber seat, PlayerStat stat) {
+		final ProfileService profileService = profiles;
+		if (profileService != null) {
+			final String player = getPlayer(seat);
+			if (player != null) {
+				profileService.add(player, stat, 1);
+			}
+		}
+	}
+
+	/**
+	 * Takes a seat that was left vacant when the table was restored.
+	 * A seat whose session token is known is kept for its player, who
+	 * takes it back by resuming the session.
+	 * @param seat The seat.
+	 * @return True if the seat was vacant, and is now taken.
+	 */
+	public synchronized boolean claimVacantSeat(PlayerNumber seat) {
+		if (sessionTokens[seat.ordinal()] != 0) {
+			return false;
+		}
+		final boolean vacant = vacantSeats[seat.ordinal()];
+		vacantSeats[seat.ordinal()] = false;
+		return vacant;
+	}
+
+	/**
+	 * Starts talking to a client who has connected to this table.
+	 * @param pair The input/output pair connected to the client.
+	 * @return The thread that is talking to the client.
+	 */
+	public SetbackServerThread connect(IOPair pair) {
+		final SetbackServerThread thread = new SetbackServerThread(pair, game);
+		thread.setTable(this);
+		thread.setReplayArchive(replayArchive);
+		connections.incrementAndGet();
+		threads.add(thread);
+		touch();
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Starts talking to a client who was given a seat by the matchmaker.
+	 * The client is seated before anything is read from it, and is told
+	 * its seat in place of the usual empty greeting.
+	 * @param pair The input/output pair connected to the client.
+	 * @param seat The seat the client was given.
+	 * @return The thread that is talking to the client.
+	 */
+	public SetbackServerThread connect(IOPair pair, PlayerNumber seat) {
+		final SetbackServerThread thread = new SetbackServerThread(pair, game);
+		thread.setTable(this);
+		thread.setReplayArchive(replayArchive);
+		connections.incrementAndGet();
+		threads.add(thread);
+		touch();
+		thread.seat(seat);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Connects a client in the same JVM, with nothing but memory in between.
+	 * @return The client's end of the connection.
+	 */
+	public MemoryIOPair connectLocal() {
+		final MemoryIOPair client = new MemoryIOPair();
+		connect(client.getPeer());
+		return client;
+	}
+
+	/**
+	 * Called by a thread when its client has gone.
+	 * @param thread The thread.
+	 */
+	void disconnected(SetbackServerThread thread) {
+		threads.remove(thread);
+		connections.decrementAndGet();
+		touch();
+	}
+
+	/**
+	 * Closes the table, such as when it has been handed to another node.
+	 * No more moves are made at it, and every client is disconnected, so
+	 * that they connect again and find the table where it is now.  Must
+	 * be called while holding the lock on the game.
+	 */
+	public void close() {
+		closed = true;
+		for (SetbackServerThread thread : threads) {
+			thread.disconnect();
+		}
+	}
+
+	/**
+	 * @return True if the table has been closed.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Notes that a client has just done something at this table.
+	 */
+	void touch() {
+		lastActive = System.nanoTime();
+	}
+
+	/**
+	 * @param now The current System.nanoTime().
+	 * @param quietNanos How long the table must have been quiet.
+	 * @return True if nobody is connected, and nobody has done anything
+	 * for at least the given time.  Moves made by the turn clock do not count.
+	 */
+	boolean isIdle(long now, long quietNanos) {
+		return connections.get() == 0 && now - lastActive >= quietNanos;
+	}
+
+	/**
+	 * @return The number of clients connected to this table.
+	 */
+	public int getConnections() {
+		return connections.get();
+	}
+
+	/**
+	 * @return the id.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the seed.
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return the game.
+	 */
+	public SetbackMultiplayerGame getGame() {
+		return game;
+	}
+
+	/**
+	 * @return Every move made at this table.
+	 */
+	public MoveLog getMoves() {
+		return moves;
+	}
+
+	/**
+	 * @param moveListener Another listener to tell about every move,
+	 * after it has been added to the log.
+	 */
+	public void setMoveListener(MoveListener moveListener) {
+		this.moveListener = moveListener;
+	}
+
+	/**
+	 * @return The other listener told about every move, or null.
+	 */
+	public MoveListener getMoveListener() {
+		return moveListener;
+	}
+
+	/**
+	 * @param journal The journal to append every move made from now on to,
+	 * along with the results of tricks and rounds.
+	 */
+	public void setJournal(TableJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Closes the table in its journal and stops journaling it, because its
+	 * game has ended or it is leaving this node, so that it is not rebuilt
+	 * after a crash.  Must be called while holding the lock on the game.
+	 */
+	public void closeJournal() {
+		final TableJournal tableJournal = journal;
+		journal = null;
+		if (tableJournal != null) {
+			tableJournal.tableClosed();
+		}
+	}
+
+	/**
+	 * @param ratings The service to report the game to when it ends,
+	 * if every seat has a player.
+	 */
+	public void setRatings(RatingService ratings) {
+		this.ratings = ratings;
+	}
+
+	/**
+	 * @param profiles The service to count what the players in the seats
+	 * do from now on in.
+	 */
+	public void setProfiles(ProfileService profiles) {
+		this.profiles = profiles;
+	}
+
+	/**
+	 * @param replayArchive The archive that clients who connect from now
+	 * on can replay finished games from.
+	 */
+	public void setReplayArchive(ReplayArchive replayArchive) {
+		this.replayArchive = replayArchive;
+	}
+
+	/**
+	 * Says who is sitting in a seat, for the ratings and profiles.
+	 * @param seat The seat.
+	 * @param player The player, or null if the seat is given up.
+	 */
+	public synchronized void setPlayer(PlayerNumber seat, String player) {
+		players[seat.ordinal()] = player;
+	}
+
+	/**
+	 * @param seat The seat.
+	 * @return The player sitting in the seat, or null if it is not known.
+	 */
+	public synchronized String getPlayer(PlayerNumber seat) {
+		return players[seat.ordinal()];
+	}
+
+	/**
+	 * @return The clock that makes moves for players who run out of time.
+	 * It does nothing until it is started.
+	 */
+	public TurnClock getTurnClock() {
+		return turnClock;
+	}
+
+	/**
+	 * @return The events sent to the players, by sequence.
+	 */
+	public EventRingBuffer getEvents() {
+		return events;
+	}
+
+	/**
+	 * @return the channel.
+	 */
+	public SpectatorChannel getChannel() {
+		return channel;
+	}
+}
@@ -4,22 +4,19 @@
  */
 package setback.application.server;
 
-import io.netty.util.internal.ConcurrentSet;
-import io.vertx.core.Vertx;
-import io.vertx.core.VertxOptions;
-import io.vertx.core.eventbus.EventBus;
-import io.vertx.core.net.NetServer;
-import io.vertx.core.net.NetServerOptions;
-import io.vertx.core.spi.cluster.ClusterManager;
-import setback.game.SetbackGameController;
-import setback.game.SetbackGameFactory;
-import io.vertx.spi.cluster.hazelcast.HazelcastClusterManager;
 import com.hazelcast.config.Config;
+import setback.application.cluster.SetbackClusterNode;
+import setback.application.metrics.CommandMetrics;
+import setback.application.metrics.MetricsEndpoint;
+
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
 
 /**
  * This class functions as the server that the players' clients
  * will connect to when they want to play a game of Setback.
- * When a client connects to this server, a verticle is deployed.
+ * Every server joins the same cluster, and tables are spread across
+ * the cluster, so a client may connect to any of them.
  * @author Mike Burns
  */
 public class SetbackVertxServer {
@@ -27,48 +24,56 @@ public class SetbackVertxServer {
   // TODO: HOST and PORT
   public static final String HOST = "localhost";
   public static final int PORT = 8080;
-  private static final int MAX_PLAYERS = 4;
-  public static final String CONNECTION_CHANNEL = "CONNECTION_CHANNEL";
+
+  /**
+   * The port the metrics are scraped from, on HOST.
+   */
+  public static final int METRICS_PORT = 9090;
 
   /**
    * This is the executable function that creates the server.
-   * By default, the server runs on port 2323, but this can
+   * By default, the server runs on port 8080, but this can
    * be changed if a different port is passed in as the only
    * argument.
-   * This function also instantiates the SetbackGameController
-   * which is passed to each verticle.
+   * The server finds the rest of the cluster using the
+   * default Hazelcast configuration, which uses multicast.
+   * The metrics of the commands players send are registered with
+   * JMX, and served over HTTP on METRICS_PORT.
    * @param args Default variable for java.  If a number is
    * passed in as the only argument, it will be used as the
    * port number for the socket connection.
    */
   public static void main(String[] args) {
-    final SetbackGameController game;
-    final VertxOptions options;
-    final Vertx vertx;
-    final EventBus eventBus;
-    // TODO: Connections should be in the server.
-    final ConcurrentSet<String> connections = new ConcurrentSet<>();
-
-    // TODO: Debug vs Retail
-    game = SetbackGameFactory.getInstance().makeDeltaSetbackGame();
+    final int port = args != null && args.length == 1 ? Integer.parseInt(args[0]) : PORT;
+    try {
+      CommandMetrics.getInstance().register(ManagementFactory.getPlatformMBeanServer());
+    } catch (JMException e) {
+      System.out.println("Command metrics could not be registered with JMX.");
+      System.out.println(e);
+    }
 
-    vertx = Vertx.vertx();
-    final NetServerOptions serverOptions = new NetServerOptions()
-        .setHost(HOST)
-        .setPort(PORT);
-    NetServer netServer = vertx.createNetServer(serverOptions)
-        .connectHandler(connectHandler -> {
-          System.out.println("Connect handler called.");
-        });
-    netServer.listen(handler -> {
-      if (handler.succeeded()) {
-        System.out.println("Server deployed successfully!");
-      } else {
-        System.out.println("Server failed to deploy.");
-        System.out.println(handler.cause());
+    SetbackClusterNode.start(new Config(), HOST, started -> {
+      if (started.failed()) {
+        System.out.println("Server failed to join the cluster.");
+        System.out.println(started.cause());
         System.exit(-1);
       }
+      final SetbackClusterNode node = started.result();
+      node.listen(HOST, port, handler -> {
+        if (handler.succeeded()) {
+          System.out.println("Server deployed successfully as node " + node.getNodeId() + "!");
+          new MetricsEndpoint(CommandMetrics.getInstance()).listen(node.getVertx(), HOST, METRICS_PORT, metrics -> {
+            if (metrics.failed()) {
+              System.out.println("Metrics could not be served.");
+              System.out.println(metrics.cause());
+            }
+          });
+        } else {
+          System.out.println("Server failed to deploy.");
+          System.out.println(handler.cause());
+          System.exit(-1);
+        }
+      });
     });
-
   }
 }
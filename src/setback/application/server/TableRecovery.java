@@ -0,0 +1,247 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import setback.application.event.GameEvent;
+import setback.application.journal.GameJournal;
+import setback.application.journal.JournalHandler;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.RoundState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class rebuilds the tables in a GameJournal after a crash.
+ * <p>
+ * Reading the journal is cheap, but making every move of a long game
+ * again is not, so each table is rebuilt from the last snapshot of its
+ * game, which was journaled when its current round began.  Only the
+ * moves that took the seats and the moves of the current round are
+ * made again.  The moves of the earlier rounds are only logged, so the
+ * table can still be put to sleep or copied to a backup as before.
+ * Every seat is given back its session token, so only the player who
+ * had the seat can resume it.
+ * <p>
+ * Tables that were closed in the journal, because their games ended or
+ * they were put to sleep or handed to another node, are not rebuilt,
+ * unless they were journaled again after.  The segments that only hold
+ * closed tables are deleted, since nothing will be rebuilt from them.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableRecovery implements JournalHandler {
+
+	private static final int SEATS = PlayerNumber.values().length;
+
+	private final Map<String, Journaled> journaled = new LinkedHashMap<String, Journaled>();
+	private final List<SetbackTable> tables = new ArrayList<SetbackTable>();
+	private final List<String> failed = new ArrayList<String>();
+	private final Map<File, List<Journaled>> segments = new LinkedHashMap<File, List<Journaled>>();
+	private File segment;
+	private long replayed;
+	private int removed;
+
+	/**
+	 * Reads a journal, rebuilds every table in it that is still open,
+	 * and deletes the segments that only hold closed tables.
+	 * @param directory The directory of the journal.  It need not exist.
+	 * @return The recovery, with the tables it rebuilt.
+	 * @throws IOException If the journal cannot be read, or a segment
+	 * cannot be deleted.
+	 */
+	public static TableRecovery recover(File directory) throws IOException {
+		final TableRecovery recovery = new TableRecovery();
+		if (directory.isDirectory()) {
+			GameJournal.read(directory, recovery);
+		}
+		recovery.rebuild();
+		recovery.removeClosedSegments();
+		return recovery;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#tableOpened(java.lang.String, long)
+	 */
+	public void tableOpened(String tableId, long seed) {
+		Journaled table = journaled.get(tableId);
+		if (table == null) {
+			table = new Journaled(seed);
+			journaled.put(tableId, table);
+		}
+		// Journaled again after it was closed, such as when it was woken
+		table.closed = false;
+		segments.get(segment).add(table);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#tableClosed(java.lang.String)
+	 */
+	public void tableClosed(String tableId) {
+		journaled.get(tableId).closed = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#segmentStarted(java.io.File)
+	 */
+	public void segmentStarted(File segment) {
+		this.segment = segment;
+		segments.put(segment, new ArrayList<Journaled>());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#moveMade(java.lang.String, int, int)
+	 */
+	public void moveMade(String tableId, int index, int move) {
+		final Journaled table = journaled.get(tableId);
+		if (index > table.count) {
+			// A move is missing, so nothing after it can be trusted
+			table.broken = true;
+		}
+		else {
+			if (index == table.moves.length) {
+				table.moves = Arrays.copyOf(table.moves, table.moves.length * 2);
+			}
+			table.moves[index] = move;
+			table.count = Math.max(table.count, index + 1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#eventOccurred(java.lang.String, setback.application.event.GameEvent)
+	 */
+	public void eventOccurred(String tableId, GameEvent event) {
+		// The results follow from the moves
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#roundBegan(java.lang.String, int, setback.game.common.RoundState)
+	 */
+	public void roundBegan(String tableId, int moveCount, RoundState state) {
+		final Journaled table = journaled.get(tableId);
+		if (moveCount >= table.roundStart) {
+			table.roundStart = moveCount;
+			table.roundState = state;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.journal.JournalHandler#sessionOpened(java.lang.String, setback.common.PlayerNumber, long)
+	 */
+	public void sessionOpened(String tableId, PlayerNumber seat, long token) {
+		journaled.get(tableId).tokens[seat.ordinal()] = token;
+	}
+
+	/**
+	 * Helper function that rebuilds every table that was read.
+	 */
+	private void rebuild() {
+		for (Map.Entry<String, Journaled> entry : journaled.entrySet()) {
+			final Journaled table = entry.getValue();
+			if (table.closed) {
+				continue;
+			}
+			final SetbackTable rebuilt;
+			try {
+				if (table.broken) {
+					throw new SetbackException("Moves are missing from the journal!");
+				}
+				if (table.roundState != null && table.roundStart <= table.count) {
+					rebuilt = SetbackTable.restore(entry.getKey(), table.seed, table.moves, table.count,
+							table.roundStart, table.roundState);
+					replayed += SEATS + table.count - table.roundStart;
+				}
+				else {
+					rebuilt = SetbackTable.restore(entry.getKey(), table.seed, table.moves, table.count);
+					replayed += table.count;
+				}
+			} catch (SetbackException e) {
+				failed.add(entry.getKey());
+				continue;
+			}
+			rebuilt.restoreSessions(table.tokens);
+			tables.add(rebuilt);
+		}
+	}
+
+	/**
+	 * Helper function that deletes the segments whose tables were all closed.
+	 * @throws IOException If a segment cannot be deleted.
+	 */
+	private void removeClosedSegments() throws IOException {
+		for (Map.Entry<File, List<Journaled>> entry : segments.entrySet()) {
+			boolean open = false;
+			for (Journaled table : entry.getValue()) {
+				open |= !table.closed;
+			}
+			if (!open) {
+				Files.delete(entry.getKey().toPath());
+				removed++;
+			}
+		}
+	}
+
+	/**
+	 * @return The tables that were rebuilt, in the order they were first journaled.
+	 */
+	public List<SetbackTable> getTables() {
+		return Collections.unmodifiableList(tables);
+	}
+
+	/**
+	 * @return The ids of the tables that could not be rebuilt.
+	 */
+	public List<String> getFailed() {
+		return Collections.unmodifiableList(failed);
+	}
+
+	/**
+	 * @return The number of moves that were made again.
+	 */
+	public long getReplayed() {
+		return replayed;
+	}
+
+	/**
+	 * @return The number of segments that were deleted because every
+	 * table in them was closed.
+	 */
+	public int getRemoved() {
+		return removed;
+	}
+
+	/**
+	 * This class is what the journal holds for one table.
+	 */
+	private static class Journaled {
+		private final long seed;
+		private int[] moves = new int[64];
+		private int count;
+		private boolean broken;
+		private int roundStart;
+		private RoundState roundState;
+		private final long[] tokens = new long[SEATS];
+		private boolean closed;
+
+		Journaled(long seed) {
+			this.seed = seed;
+		}
+	}
+}
@@ -0,0 +1,291 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import setback.application.timer.HashedWheelTimer;
+import setback.application.timer.Timeout;
+import setback.common.SetbackException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class keeps track of the tables that are hosted by one server.
+ * A table is created the first time someone connects to it.
+ * <p>
+ * Once hibernation is started, tables that nobody is connected to and
+ * that have been quiet for a while are written to a TableStore and
+ * dropped from memory.  The tables are kept in the order they were last
+ * used, and if there are more than the resident limit, the least
+ * recently used tables that nobody is connected to are put to sleep
+ * straight away.  A sleeping table is woken by the next client that
+ * asks for it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableRegistry {
+
+	/**
+	 * How long a table must be quiet before it is put to sleep.
+	 */
+	public static final long DEFAULT_QUIET_MILLIS = 5 * 60 * 1000;
+
+	/**
+	 * How many tables are kept in memory when there is no other limit.
+	 */
+	public static final int DEFAULT_MAX_RESIDENT = 10000;
+
+	/**
+	 * How often the tables are checked for being quiet.
+	 */
+	public static final long SWEEP_MILLIS = 1000;
+
+	// Guarded by this, in the order the tables were last used
+	private final LinkedHashMap<String, SetbackTable> tables =
+			new LinkedHashMap<String, SetbackTable>(16, 0.75f, true);
+	private TableStore store;
+	private int maxResident = Integer.MAX_VALUE;
+	private long quietNanos;
+	private HashedWheelTimer timer;
+	private Timeout sweep;
+	private long hibernated;
+	private long woken;
+
+	/**
+	 * Finds a table, creating it with a random seed if it does not exist
+	 * yet, or waking it if it is asleep.
+	 * @param id The id of the table.
+	 * @return The table.
+	 * @throws SetbackException If the table was asleep and cannot be woken.
+	 */
+	public synchronized SetbackTable getOrCreate(String id) throws SetbackException {
+		SetbackTable table = tables.get(id);
+		if (table == null) {
+			table = wake(id);
+			if (table == null) {
+				table = new SetbackTable(id, ThreadLocalRandom.current().nextLong());
+			}
+			add(table);
+		}
+		return table;
+	}
+
+	/**
+	 * Finds a table that is in memory.  This counts as a use of the table,
+	 * so it will not be put to sleep before the client has connected.
+	 * @param id The id of the table.
+	 * @return The table, or null if it is not in memory here.
+	 */
+	public synchronized SetbackTable get(String id) {
+		final SetbackTable table = tables.get(id);
+		if (table != null) {
+			table.touch();
+		}
+		return table;
+	}
+
+	/**
+	 * Adds a table that was created somewhere else.
+	 * @param table The table.
+	 * @return The table that is now registered under its id,
+	 * which is the existing one if there already was one.
+	 */
+	public synchronized SetbackTable add(SetbackTable table) {
+		final SetbackTable existing = tables.get(table.getId());
+		if (existing != null) {
+			return existing;
+		}
+		tables.put(table.getId(), table);
+		if (tables.size() > maxResident) {
+			evict();
+		}
+		return table;
+	}
+
+	/**
+	 * Rebuilds a table that was put to sleep.  The table is not added,
+	 * so that whoever woke it can start its clock first.
+	 * @param id The id of the table.
+	 * @return The table, or null if it is not asleep here.
+	 * @throws SetbackException If the table cannot be read back.
+	 */
+	public synchronized SetbackTable wake(String id) throws SetbackException {
+		if (store == null) {
+			return null;
+		}
+		try {
+			final SetbackTable table = store.load(id);
+			if (table != null) {
+				woken++;
+			}
+			return table;
+		} catch (IOException e) {
+			throw new SetbackException("Could not wake table " + id + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stops hosting a table.
+	 * @param id The id of the table.
+	 * @return The table, or null if it was not hosted here.
+	 */
+	public synchronized SetbackTable remove(String id) {
+		return tables.remove(id);
+	}
+
+	/**
+	 * @return The tables in memory here.
+	 */
+	public synchronized Collection<SetbackTable> getTables() {
+		return Collections.unmodifiableCollection(new ArrayList<SetbackTable>(tables.values()));
+	}
+
+	/**
+	 * @return The number of tables in memory here.
+	 */
+	public synchronized int size() {
+		return tables.size();
+	}
+
+	/**
+	 * Starts putting tables to sleep.
+	 * @param store Where the sleeping tables are kept.
+	 * @param maxResident The most tables to keep in memory, unless
+	 * they all have clients connected.
+	 * @param quietMillis How long a table must be quiet before it is put to sleep.
+	 * @param timer The timer to check for quiet tables on.
+	 */
+	public synchronized void startHibernating(TableStore store, int maxResident,
+			long quietMillis, HashedWheelTimer timer) {
+		this.store = store;
+		this.maxResident = maxResident;
+		quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+		this.timer = timer;
+		scheduleSweep();
+	}
+
+	/**
+	 * Stops putting tables to sleep.  Tables that are asleep can still be woken.
+	 */
+	public synchronized void stopHibernating() {
+		timer = null;
+		maxResident = Integer.MAX_VALUE;
+		if (sweep != null) {
+			sweep.cancel();
+			sweep = null;
+		}
+	}
+
+	/**
+	 * Puts every table that has been quiet for long enough to sleep.
+	 * @return The number of tables that were put to sleep.
+	 */
+	public int hibernateIdle() {
+		final long now = System.nanoTime();
+		final List<SetbackTable> idle = new ArrayList<SetbackTable>();
+		synchronized (this) {
+			if (store == null) {
+				return 0;
+			}
+			for (SetbackTable table : tables.values()) {
+				if (table.isIdle(now, quietNanos)) {
+					idle.add(table);
+				}
+			}
+		}
+		int count = 0;
+		for (SetbackTable table : idle) {
+			if (hibernate(table, now, quietNanos)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Helper function that puts the least recently used tables to sleep
+	 * until there are few enough in memory.  Tables with clients connected
+	 * stay.  Must be called while holding the lock on this registry.
+	 */
+	private void evict() {
+		if (store == null) {
+			return;
+		}
+		final long now = System.nanoTime();
+		final Iterator<SetbackTable> eldest = new ArrayList<SetbackTable>(tables.values()).iterator();
+		while (tables.size() > maxResident && eldest.hasNext()) {
+			hibernate(eldest.next(), now, 0);
+		}
+	}
+
+	/**
+	 * Helper function that writes a table to the store and drops it.
+	 * The game is locked so that the turn clock cannot move while it is
+	 * written, and the table is only dropped if it is still idle.
+	 * @param table The table.
+	 * @param now The current System.nanoTime().
+	 * @param quiet How long the table must have been quiet.
+	 * @return True if the table was put to sleep.
+	 */
+	private synchronized boolean hibernate(SetbackTable table, long now, long quiet) {
+		if (tables.get(table.getId()) != table) {
+			return false;
+		}
+		synchronized (table.getGame()) {
+			if (!table.isIdle(now, quiet)) {
+				return false;
+			}
+			table.getTurnClock().stop();
+			try {
+				store.save(table);
+			} catch (IOException e) {
+				// Keep the table in memory rather than lose it
+				e.printStackTrace();
+				return false;
+			}
+			// The store has it now, so the journal need not
+			table.closeJournal();
+		}
+		tables.remove(table.getId());
+		hibernated++;
+		return true;
+	}
+
+	/**
+	 * Helper function that checks for quiet tables again after a while.
+	 * Must be called while holding the lock on this registry.
+	 */
+	private void scheduleSweep() {
+		if (timer != null) {
+			sweep = timer.newTimeout(() -> {
+				hibernateIdle();
+				synchronized (this) {
+					scheduleSweep();
+				}
+			}, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * @return The number of tables that have been put to sleep.
+	 */
+	public synchronized long getHibernated() {
+		return hibernated;
+	}
+
+	/**
+	 * @return The number of tables that have been woken.
+	 */
+	public synchronized long getWoken() {
+		return woken;
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * This class keeps tables that have gone to sleep on disk, one file each.
+ * <p>
+ * A table is written as its seed, the session token of every seat and
+ * its moves, which is all it takes to rebuild it.  A whole game is a few
+ * kilobytes, where the live table holds a game, its hands, controllers,
+ * observers and connections.  The file is written beside its final name
+ * and then moved into place, so a table is never half saved.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableStore {
+
+	/**
+	 * The first four bytes of every file, which are "SBT" and a version.
+	 */
+	private static final int MAGIC = 0x53425401;
+	private static final String SUFFIX = ".table";
+	private static final int SEATS = PlayerNumber.values().length;
+
+	private final File directory;
+
+	/**
+	 * Constructor for the TableStore.
+	 * @param directory The directory to keep the tables in.  It is created if needed.
+	 * @throws IOException If the directory cannot be created.
+	 */
+	public TableStore(File directory) throws IOException {
+		this.directory = directory;
+		Files.createDirectories(directory.toPath());
+	}
+
+	/**
+	 * Writes a table to disk.  The table must not change while it is saved.
+	 * @param table The table.
+	 * @throws IOException If the table cannot be written.
+	 */
+	public void save(SetbackTable table) throws IOException {
+		final File file = fileFor(table.getId());
+		final File temporary = new File(directory, file.getName() + ".tmp");
+		final int[] moves = table.getMoves().toArray();
+		final long[] tokens = table.getSessionTokens();
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temporary)))) {
+			out.writeInt(MAGIC);
+			out.writeLong(table.getSeed());
+			for (long token : tokens) {
+				out.writeLong(token);
+			}
+			out.writeInt(moves.length);
+			for (int move : moves) {
+				out.writeInt(move);
+			}
+		}
+		Files.move(temporary.toPath(), file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Rebuilds a table from disk, and removes it from the disk.
+	 * Its seats are left vacant until the players come back.
+	 * @param id The id of the table.
+	 * @return The table, or null if it is not stored here.
+	 * @throws IOException If the table cannot be read.
+	 * @throws SetbackException If the moves do not fit the seed.
+	 */
+	public SetbackTable load(String id) throws IOException, SetbackException {
+		final File file = fileFor(id);
+		if (!file.exists()) {
+			return null;
+		}
+		final long seed;
+		final long[] tokens = new long[SEATS];
+		final int[] moves;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a saved table: " + file);
+			}
+			seed = in.readLong();
+			for (int seat = 0; seat < SEATS; seat++) {
+				tokens[seat] = in.readLong();
+			}
+			moves = new int[in.readInt()];
+			for (int index = 0; index < moves.length; index++) {
+				moves[index] = in.readInt();
+			}
+		}
+		final SetbackTable table = SetbackTable.restore(id, seed, moves, moves.length);
+		table.restoreSessions(tokens);
+		Files.delete(file.toPath());
+		return table;
+	}
+
+	/**
+	 * @param id The id of a table.
+	 * @return True if the table is stored here.
+	 */
+	public boolean contains(String id) {
+		return fileFor(id).exists();
+	}
+
+	/**
+	 * @return The number of tables stored here.
+	 */
+	public int size() {
+		final String[] names = directory.list((unused, name) -> name.endsWith(SUFFIX));
+		return names == null ? 0 : names.length;
+	}
+
+	/**
+	 * Helper function that names the file of a table.  Ids may hold
+	 * any characters, so the name is the id in hex.
+	 * @param id The id of the table.
+	 * @return The file.
+	 */
+	private File fileFor(String id) {
+		final StringBuilder name = new StringBuilder();
+		for (byte value : id.getBytes(StandardCharsets.UTF_8)) {
+			name.append(Character.forDigit((value >> 4) & 0xF, 16))
+					.append(Character.forDigit(value & 0xF, 16));
+		}
+		return new File(directory, name.append(SUFFIX).toString());
+	}
+}
@@ -0,0 +1,448 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import setback.application.SetbackObserver;
+import setback.application.command.Command;
+import setback.application.event.GameEvent;
+import setback.application.event.PlayerEvent;
+import setback.application.move.MoveListener;
+import setback.application.move.MoveReplayer;
+import setback.application.move.Moves;
+import setback.application.timer.HashedWheelTimer;
+import setback.application.timer.Timeout;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is the move clock for one table.  It follows the game
+ * through its events to know who has to act, and gives them a deadline
+ * on a shared HashedWheelTimer.  When a deadline passes, the clock makes
+ * a safe move for the player: it passes, or makes the smallest bet it
+ * is allowed to, selects the suit it holds most of, discards its lowest
+ * cards outside of trump, or plays its first legal card.
+ * <p>
+ * The clock only ever has one timeout waiting, and does nothing at all
+ * between deadlines, so thousands of tables share the timer's thread.
+ * When a deadline passes, the timer only hands it to an executor, and
+ * the move is made there, so a table that is slow to take the lock or
+ * to write its move down cannot hold up the deadlines of the others.
+ * A deadline the game refuses every move for is counted, and set again.
+ * Every move is made while holding the lock on the game, which the
+ * SetbackServerThreads also hold while they make moves.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TurnClock implements SetbackObserver {
+
+	/**
+	 * How long a player has to act before a move is made for them.
+	 */
+	public static final long DEFAULT_TURN_MILLIS = 30000;
+
+	private static final PlayerNumber[] PLAYERS = PlayerNumber.values();
+	private static final Bet[] BETS = Bet.values();
+	private static final CardSuit[] SUITS = CardSuit.values();
+
+	/**
+	 * The most expired deadlines that may wait for the shared mover.
+	 */
+	private static final int MOVER_QUEUE = 4096;
+
+	/**
+	 * How long to wait before handing an expired deadline to a mover
+	 * that was too busy to take it.
+	 */
+	private static final long RETRY_MILLIS = 100;
+
+	private static volatile ExecutorService sharedMover;
+
+	/**
+	 * What the game is waiting for.
+	 */
+	private enum Phase {
+		NOTHING, BET, TRUMP, DISCARD, PLAY
+	}
+
+	private final SetbackMultiplayerGame game;
+	private final MoveListener listener;
+	private final MoveReplayer autoPlayer;
+	private volatile HashedWheelTimer timer;
+	private volatile Executor mover;
+	private volatile long turnMillis;
+	private volatile long autoMoves;
+	private volatile long failedAutoMoves;
+
+	// Guarded by game
+	private Phase phase = Phase.NOTHING;
+	private PlayerNumber turn;
+	private final boolean[] discarded = new boolean[PLAYERS.length];
+	private Timeout deadline;
+	private long generation;
+
+	/**
+	 * Constructor for the TurnClock.  The clock follows the game
+	 * straight away, but does not set any deadlines until it is started.
+	 * @param game The game to keep time for.
+	 * @param listener The listener to tell about the moves the clock makes.
+	 */
+	public TurnClock(SetbackMultiplayerGame game, MoveListener listener) {
+		this.game = game;
+		this.listener = listener;
+		autoPlayer = new MoveReplayer(game);
+		autoPlayer.takeSeats(listener);
+	}
+
+	/**
+	 * @return The executor that makes the moves of every clock that was
+	 * not given one.  It has a daemon thread per processor, and at least
+	 * two, so one stuck table never holds up the rest, and a bounded queue.
+	 */
+	public static ExecutorService getSharedMover() {
+		if (sharedMover == null) {
+			synchronized (TurnClock.class) {
+				if (sharedMover == null) {
+					final int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+					sharedMover = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+							new ArrayBlockingQueue<Runnable>(MOVER_QUEUE), new ThreadFactory() {
+								private int count;
+
+								public synchronized Thread newThread(Runnable runnable) {
+									final Thread thread = new Thread(runnable, "SetbackTurnClock-" + count++);
+									thread.setDaemon(true);
+									return thread;
+								}
+							});
+				}
+			}
+		}
+		return sharedMover;
+	}
+
+	/**
+	 * Starts setting deadlines, beginning with whoever has to act now,
+	 * and makes the moves on the shared mover.
+	 * @param timer The timer to wait on.
+	 * @param turnMillis How long each player has to act.
+	 */
+	public void start(HashedWheelTimer timer, long turnMillis) {
+		start(timer, turnMillis, getSharedMover());
+	}
+
+	/**
+	 * Starts setting deadlines, beginning with whoever has to act now.
+	 * @param timer The timer to wait on.
+	 * @param turnMillis How long each player has to act.
+	 * @param mover The executor to make the moves on, once the
+	 * timer says a deadline has passed.
+	 */
+	public void start(HashedWheelTimer timer, long turnMillis, Executor mover) {
+		synchronized (game) {
+			this.timer = timer;
+			this.mover = mover;
+			this.turnMillis = turnMillis;
+			restart();
+		}
+	}
+
+	/**
+	 * Starts following the game again from the beginning of its round.
+	 * A round that is restored from its state begins without a ROUND_BEGIN
+	 * event, so the table calls this as soon as the round is restored, and
+	 * the clock follows the moves that are made again from there.
+	 */
+	public void resync() {
+		synchronized (game) {
+			phase = Phase.BET;
+			turn = next(game.getDealer());
+			restart();
+		}
+	}
+
+	/**
+	 * Stops setting deadlines, and cancels the one that is waiting.
+	 */
+	public void stop() {
+		synchronized (game) {
+			timer = null;
+			restart();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.application.SetbackObserver#update(setback.application.event.GameEvent)
+	 */
+	public void update(GameEvent event) {
+		switch (event.getType()) {
+			case ROUND_BEGIN:
+				phase = Phase.BET;
+				turn = next(game.getDealer());
+				break;
+			case BET_PLACED:
+				final PlayerNumber bettor = ((PlayerEvent) event).getPlayer();
+				if (bettor == game.getDealer()) {
+					// Betting is resolved next
+					phase = Phase.NOTHING;
+				}
+				else {
+					turn = next(bettor);
+				}
+				break;
+			case BETTING_RESOLVED:
+				phase = Phase.TRUMP;
+				turn = game.getWinningBet().getBettor();
+				break;
+			case TRUMP_SELECTED:
+				phase = Phase.DISCARD;
+				turn = null;
+				for (int seat = 0; seat < discarded.length; seat++) {
+					discarded[seat] = false;
+				}
+				break;
+			case CARDS_DISCARDED:
+				discarded[((PlayerEvent) event).getPlayer().ordinal()] = true;
+				break;
+			case TRICK_STARTED:
+				phase = Phase.PLAY;
+				turn = game.getCurrentPlayer();
+				break;
+			case CARD_PLAYED:
+				turn = next(((PlayerEvent) event).getPlayer());
+				break;
+			case TRICK_WON:
+			case ROUND_ENDED:
+				// The next trick or round is started straight away, if there is one
+				phase = Phase.NOTHING;
+				break;
+			default:
+				return;
+		}
+		restart();
+	}
+
+	/**
+	 * Helper function that replaces the deadline after the game has moved on.
+	 * Must be called while holding the lock on the game.
+	 */
+	private void restart() {
+		if (deadline != null) {
+			deadline.cancel();
+			deadline = null;
+		}
+		final long expected = ++generation;
+		final HashedWheelTimer current = timer;
+		if (current != null && phase != Phase.NOTHING) {
+			final Executor executor = mover;
+			deadline = current.newTimeout(() -> hand(current, executor, expected),
+					turnMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Called on the timer's thread when a deadline passes, to hand it
+	 * to the mover.  If the mover's queue is full, the deadline is
+	 * handed over again a little later, rather than being lost.
+	 * @param current The timer the deadline was set on.
+	 * @param executor The mover.
+	 * @param expected The generation the deadline was set for.
+	 */
+	private void hand(HashedWheelTimer current, Executor executor, long expected) {
+		try {
+			executor.execute(() -> expire(expected));
+		} catch (RejectedExecutionException e) {
+			if (timer == current) {
+				current.newTimeout(() -> hand(current, executor, expected),
+						RETRY_MILLIS, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	/**
+	 * Called on the mover when a deadline passes.  If the game moved on
+	 * while the timeout was waiting to run, there is nothing to do.
+	 * @param expected The generation the deadline was set for.
+	 */
+	private void expire(long expected) {
+		synchronized (game) {
+			if (expected != generation) {
+				return;
+			}
+			deadline = null;
+			try {
+				switch (phase) {
+					case BET:
+						autoBet(turn);
+						break;
+					case TRUMP:
+						autoSelectTrump(turn);
+						break;
+					case DISCARD:
+						for (int seat = 0; seat < discarded.length; seat++) {
+							if (!discarded[seat]) {
+								autoDiscard(PLAYERS[seat]);
+							}
+						}
+						break;
+					case PLAY:
+						autoPlay(turn);
+						break;
+					default:
+						break;
+				}
+			} catch (SetbackException e) {
+				// The game refused every move, so try again at the next
+				// deadline, in case whatever refused them has moved on
+				failedAutoMoves++;
+				restart();
+			}
+		}
+		if (listener != null) {
+			listener.awaitSettled();
+		}
+	}
+
+	/**
+	 * Helper function that passes, or makes the smallest bet allowed.
+	 * @param player The player to bet for.
+	 * @throws SetbackException If no bet is allowed.
+	 */
+	private void autoBet(PlayerNumber player) throws SetbackException {
+		try {
+			makeMove(player, Command.PLACE_BET, Bet.PASS.ordinal(), 0, 0);
+		} catch (SetbackException e) {
+			// The dealer cannot pass if everyone else did
+			for (Bet bet : BETS) {
+				if (bet != Bet.PASS && bet != Bet.TAKE) {
+					try {
+						makeMove(player, Command.PLACE_BET, bet.ordinal(), 0, 0);
+						return;
+					} catch (SetbackException ignored) {
+						// Try the next bet up
+					}
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Helper function that makes the suit the player holds most of trump.
+	 * @param player The player who won the bet.
+	 * @throws SetbackException If trump cannot be selected.
+	 */
+	private void autoSelectTrump(PlayerNumber player) throws SetbackException {
+		final int[] counts = new int[SUITS.length];
+		for (Card card : game.getPlayerHand(player).getCards()) {
+			counts[card.getSuit().ordinal()]++;
+		}
+		int best = 0;
+		for (int suit = 1; suit < counts.length; suit++) {
+			if (counts[suit] > counts[best]) {
+				best = suit;
+			}
+		}
+		makeMove(player, Command.SELECT_TRUMP, best, 0, 0);
+	}
+
+	/**
+	 * Helper function that discards the three lowest cards that are not
+	 * trump, using trump only if the hand has too little of anything else.
+	 * @param player The player to discard for.
+	 * @throws SetbackException If the cards cannot be discarded.
+	 */
+	private void autoDiscard(PlayerNumber player) throws SetbackException {
+		final CardSuit trump = game.getTrump();
+		final List<Card> cards = new ArrayList<Card>(game.getPlayerHand(player).getCards());
+		cards.sort((one, two) -> {
+			final boolean oneTrump = one.getSuit() == trump;
+			final boolean twoTrump = two.getSuit() == trump;
+			if (oneTrump != twoTrump) {
+				return oneTrump ? 1 : -1;
+			}
+			return one.getType().getStandardValue() - two.getType().getStandardValue();
+		});
+		makeMove(player, Command.DISCARD_CARDS, cards.get(0).getOrdinal(),
+				cards.get(1).getOrdinal(), cards.get(2).getOrdinal());
+	}
+
+	/**
+	 * Helper function that plays the first card the game allows.
+	 * @param player The player to play for.
+	 * @throws SetbackException If no card can be played.
+	 */
+	private void autoPlay(PlayerNumber player) throws SetbackException {
+		final List<Card> cards = new ArrayList<Card>(game.getPlayerHand(player).getCards());
+		SetbackException failure = new SetbackException("There are no cards to play!");
+		for (Card card : cards) {
+			try {
+				makeMove(player, Command.PLAY_CARD, card.getOrdinal(), 0, 0);
+				return;
+			} catch (SetbackException e) {
+				failure = e;
+			}
+		}
+		throw failure;
+	}
+
+	/**
+	 * Helper function that makes a move for a player, exactly as
+	 * if they had sent the command themselves.
+	 */
+	private void makeMove(PlayerNumber player, Command command,
+			int argumentOne, int argumentTwo, int argumentThree) throws SetbackException {
+		autoPlayer.replay(Moves.pack(player, command, argumentOne, argumentTwo, argumentThree));
+		autoMoves++;
+	}
+
+	/**
+	 * Helper function that finds the player to the left.
+	 * @param player The player.
+	 * @return The player who acts after them.
+	 */
+	private static PlayerNumber next(PlayerNumber player) {
+		return PLAYERS[(player.ordinal() + 1) % PLAYERS.length];
+	}
+
+	/**
+	 * @return The number of moves the clock has made for players
+	 * who ran out of time.
+	 */
+	public long getAutoMoves() {
+		return autoMoves;
+	}
+
+	/**
+	 * @return The number of deadlines that passed without the clock
+	 * finding a move the game would accept.
+	 */
+	public long getFailedAutoMoves() {
+		return failedAutoMoves;
+	}
+
+	/**
+	 * @return The player the clock is waiting for, or null if it is
+	 * waiting for everyone to discard, or for nobody.
+	 */
+	public PlayerNumber getTurn() {
+		synchronized (game) {
+			return phase == Phase.NOTHING || phase == Phase.DISCARD ? null : turn;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.socket;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * This implementation of the IOPair interface connects two ends in
+ * the same JVM through a pair of MemoryPipes, with no network at all.
+ * One end is handed to a SetbackServerThread and the other to a client,
+ * so a game can be played offline, or measured without the cost of
+ * sockets.
+ * <p>
+ * Closing an end works like closing a socket: the other end reads the
+ * end of the stream, and neither end can write any more.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MemoryIOPair implements IOPair {
+
+	/**
+	 * How many bytes each direction holds before the writer waits.
+	 */
+	public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+	private final MemoryPipe incoming;
+	private final MemoryPipe outgoing;
+	private final MemoryIOPair peer;
+
+	/**
+	 * Constructor for one end of a new connection.  The other end is its peer.
+	 */
+	public MemoryIOPair() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor for one end of a new connection.  The other end is its peer.
+	 * @param capacity How many bytes each direction holds before the writer waits.
+	 */
+	public MemoryIOPair(int capacity) {
+		incoming = new MemoryPipe(capacity);
+		outgoing = new MemoryPipe(capacity);
+		peer = new MemoryIOPair(outgoing, incoming, this);
+	}
+
+	/**
+	 * Constructor for the peer of an end.
+	 */
+	private MemoryIOPair(MemoryPipe incoming, MemoryPipe outgoing, MemoryIOPair peer) {
+		this.incoming = incoming;
+		this.outgoing = outgoing;
+		this.peer = peer;
+	}
+
+	/**
+	 * @return The other end of the connection.
+	 */
+	public MemoryIOPair getPeer() {
+		return peer;
+	}
+
+	/**
+	 * @param readTimeoutMillis How long a read from this end waits before
+	 * failing with a SocketTimeoutException.  0 waits forever.
+	 */
+	public void setReadTimeout(int readTimeoutMillis) {
+		incoming.setReadTimeout(readTimeoutMillis);
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.application.socket.IOPair#out()
+	 */
+	@Override
+	public OutputStream out() {
+		return outgoing.out();
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.application.socket.IOPair#in()
+	 */
+	@Override
+	public InputStream in() {
+		return incoming.in();
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.application.socket.IOPair#close()
+	 */
+	@Override
+	public void close() {
+		outgoing.closeWriter();
+		incoming.closeReader();
+	}
+}
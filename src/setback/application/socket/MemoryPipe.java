@@ -0,0 +1,198 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.socket;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+
+/**
+ * This class carries bytes one way between two threads of the same JVM,
+ * through a fixed ring of bytes.  A write copies into the ring and a read
+ * copies out of it, and nothing else happens in between: there is no
+ * socket, no kernel buffer and no polling.
+ * <p>
+ * Unlike a PipedInputStream, the pipe does not care which threads use it,
+ * so it can be written by a thread that then ends, or by several threads
+ * in turn.  When the ring is full, writers wait for the reader.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class MemoryPipe {
+
+	private final byte[] ring;
+	private final InputStream in = new PipeInputStream();
+	private final OutputStream out = new PipeOutputStream();
+
+	// Guarded by this
+	private long written;
+	private long read;
+	private boolean writerClosed;
+	private boolean readerClosed;
+	private int readTimeoutMillis;
+
+	/**
+	 * Constructor for a MemoryPipe.
+	 * @param capacity The most bytes that can be waiting to be read.
+	 */
+	MemoryPipe(int capacity) {
+		ring = new byte[capacity];
+	}
+
+	/**
+	 * @return The end that reads from the pipe.
+	 */
+	InputStream in() {
+		return in;
+	}
+
+	/**
+	 * @return The end that writes to the pipe.
+	 */
+	OutputStream out() {
+		return out;
+	}
+
+	/**
+	 * @param readTimeoutMillis How long a read waits for bytes before
+	 * failing, like a socket's timeout.  0 waits forever.
+	 */
+	synchronized void setReadTimeout(int readTimeoutMillis) {
+		this.readTimeoutMillis = readTimeoutMillis;
+	}
+
+	/**
+	 * Ends the pipe for the reader once the bytes written so far are read.
+	 */
+	synchronized void closeWriter() {
+		writerClosed = true;
+		notifyAll();
+	}
+
+	/**
+	 * Stops the reader, and fails any more writes.
+	 */
+	synchronized void closeReader() {
+		readerClosed = true;
+		notifyAll();
+	}
+
+	/**
+	 * Helper function that copies bytes into the ring, waiting for room.
+	 */
+	private synchronized void write(byte[] buffer, int offset, int length) throws IOException {
+		while (length > 0) {
+			while (!readerClosed && !writerClosed && written - read == ring.length) {
+				waitInterruptibly(0);
+			}
+			if (readerClosed || writerClosed) {
+				throw new IOException("Pipe closed");
+			}
+			final int start = (int) (written % ring.length);
+			final int count = Math.min(length,
+					Math.min(ring.length - (int) (written - read), ring.length - start));
+			System.arraycopy(buffer, offset, ring, start, count);
+			written += count;
+			offset += count;
+			length -= count;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Helper function that copies bytes out of the ring, waiting for some.
+	 * @return The number of bytes read, or -1 if the pipe has ended.
+	 */
+	private synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+		final long deadline = readTimeoutMillis == 0 ? 0 : System.currentTimeMillis() + readTimeoutMillis;
+		while (!readerClosed && !writerClosed && written == read) {
+			long remaining = 0;
+			if (deadline != 0) {
+				remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new SocketTimeoutException("Read timed out");
+				}
+			}
+			waitInterruptibly(remaining);
+		}
+		if (readerClosed) {
+			throw new IOException("Pipe closed");
+		}
+		if (written == read) {
+			return -1;
+		}
+		final int start = (int) (read % ring.length);
+		final int count = Math.min(length, Math.min((int) (written - read), ring.length - start));
+		System.arraycopy(ring, start, buffer, offset, count);
+		read += count;
+		notifyAll();
+		return count;
+	}
+
+	private synchronized int available() {
+		return (int) (written - read);
+	}
+
+	private void waitInterruptibly(long millis) throws IOException {
+		try {
+			wait(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting on the pipe!", e);
+		}
+	}
+
+	/**
+	 * The reading end of the pipe.
+	 */
+	private class PipeInputStream extends InputStream {
+
+		@Override
+		public int read() throws IOException {
+			final byte[] single = new byte[1];
+			return MemoryPipe.this.read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			return MemoryPipe.this.read(buffer, offset, length);
+		}
+
+		@Override
+		public int available() {
+			return MemoryPipe.this.available();
+		}
+
+		@Override
+		public void close() {
+			closeReader();
+		}
+	}
+
+	/**
+	 * The writing end of the pipe.
+	 */
+	private class PipeOutputStream extends OutputStream {
+
+		@Override
+		public void write(int value) throws IOException {
+			MemoryPipe.this.write(new byte[]{(byte) value}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] buffer, int offset, int length) throws IOException {
+			MemoryPipe.this.write(buffer, offset, length);
+		}
+
+		@Override
+		public void close() {
+			closeWriter();
+		}
+	}
+}
@@ -0,0 +1,297 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class runs tasks after a delay, using a single thread that
+ * turns a wheel of buckets.  Each bucket holds a linked list of the
+ * timeouts that fall due on that tick, or on the same tick of a later
+ * turn of the wheel, so adding and cancelling a timeout take constant
+ * time no matter how many are waiting.  Timeouts are only as precise
+ * as one tick, which is plenty for turn clocks.
+ * <p>
+ * Timeouts are added and cancelled through queues, and only the thread
+ * that turns the wheel ever touches the buckets.  Tasks are run on that
+ * thread too, so they should be quick.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class HashedWheelTimer {
+
+	/**
+	 * The length of a tick of the shared timer, in milliseconds.
+	 */
+	public static final long DEFAULT_TICK_MILLIS = 100;
+
+	/**
+	 * The number of buckets in the shared timer, which covers
+	 * a little under a minute with every turn of the wheel.
+	 */
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+
+	/**
+	 * The most new timeouts that are put in the wheel on one tick,
+	 * so that a flood of them cannot hold up the tick.
+	 */
+	private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+	private static volatile HashedWheelTimer sharedTimer;
+
+	private final long tickNanos;
+	private final Bucket[] wheel;
+	private final int mask;
+	private final long startTime;
+	private final Queue<Timeout> pending = new ConcurrentLinkedQueue<Timeout>();
+	private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<Timeout>();
+	private final AtomicLong waiting = new AtomicLong();
+	private final Thread worker;
+	private volatile boolean running = true;
+
+	// Only touched by the worker
+	private long tick;
+
+	/**
+	 * Constructor for the HashedWheelTimer.  The wheel starts
+	 * turning straight away, on a daemon thread.
+	 * @param tickDuration The length of a tick.
+	 * @param unit The unit of the tick duration.
+	 * @param wheelSize The number of buckets, which is rounded
+	 * up to a power of two.
+	 */
+	public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("The tick must be longer than zero!");
+		}
+		if (wheelSize < 1 || wheelSize > 1 << 30) {
+			throw new IllegalArgumentException("The wheel must have between 1 and 2^30 buckets!");
+		}
+		tickNanos = unit.toNanos(tickDuration);
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+		wheel = new Bucket[size];
+		for (int index = 0; index < size; index++) {
+			wheel[index] = new Bucket();
+		}
+		mask = size - 1;
+		startTime = System.nanoTime();
+		worker = new Thread(this::turn, "SetbackTimer");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * @return The timer shared by every turn clock that was not given one.
+	 */
+	public static HashedWheelTimer getSharedTimer() {
+		if (sharedTimer == null) {
+			synchronized (HashedWheelTimer.class) {
+				if (sharedTimer == null) {
+					sharedTimer = new HashedWheelTimer(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS,
+							DEFAULT_WHEEL_SIZE);
+				}
+			}
+		}
+		return sharedTimer;
+	}
+
+	/**
+	 * Schedules a task to run once after a delay.
+	 * @param task The task to run.
+	 * @param delay How long to wait.
+	 * @param unit The unit of the delay.
+	 * @return The timeout, which can be used to cancel the task.
+	 */
+	public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+		if (!running) {
+			throw new IllegalStateException("The timer has been stopped!");
+		}
+		final Timeout timeout = new Timeout(this, task,
+				System.nanoTime() + unit.toNanos(delay) - startTime);
+		waiting.incrementAndGet();
+		pending.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * @return The number of tasks that have neither finished running
+	 * nor been cancelled.
+	 */
+	public long getWaitingCount() {
+		return waiting.get();
+	}
+
+	/**
+	 * Stops the wheel.  Tasks that are still waiting never run.
+	 */
+	public void stop() {
+		running = false;
+		worker.interrupt();
+		if (Thread.currentThread() != worker) {
+			try {
+				worker.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Called by a timeout when it is cancelled.
+	 * @param timeout The timeout.
+	 */
+	void cancelled(Timeout timeout) {
+		waiting.decrementAndGet();
+		cancelled.add(timeout);
+	}
+
+	/**
+	 * Called by a timeout once its task has run.
+	 */
+	void expired() {
+		waiting.decrementAndGet();
+	}
+
+	/**
+	 * The body of the worker thread, which handles one bucket every tick.
+	 */
+	private void turn() {
+		while (running) {
+			if (!waitForNextTick()) {
+				break;
+			}
+			removeCancelled();
+			addPending();
+			wheel[(int) (tick & mask)].expire();
+			tick++;
+		}
+	}
+
+	/**
+	 * Helper function that sleeps until the current tick is over.
+	 * @return False if the timer was stopped.
+	 */
+	private boolean waitForNextTick() {
+		final long deadline = tickNanos * (tick + 1);
+		while (true) {
+			final long now = System.nanoTime() - startTime;
+			final long sleepMillis = (deadline - now + 999999) / 1000000;
+			if (sleepMillis <= 0) {
+				return true;
+			}
+			try {
+				Thread.sleep(sleepMillis);
+			} catch (InterruptedException e) {
+				if (!running) {
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Helper function that takes the cancelled timeouts out of their buckets.
+	 */
+	private void removeCancelled() {
+		Timeout timeout;
+		while ((timeout = cancelled.poll()) != null) {
+			if (timeout.bucket != null) {
+				timeout.bucket.remove(timeout);
+			}
+		}
+	}
+
+	/**
+	 * Helper function that puts the new timeouts into the buckets
+	 * they fall due in.  A timeout whose time has already passed
+	 * goes in the current bucket, so that it runs on this tick.
+	 */
+	private void addPending() {
+		for (int count = 0; count < MAX_TRANSFERS_PER_TICK; count++) {
+			final Timeout timeout = pending.poll();
+			if (timeout == null) {
+				return;
+			}
+			if (timeout.isCancelled()) {
+				continue;
+			}
+			final long dueTick = timeout.deadline / tickNanos;
+			timeout.remainingRounds = (dueTick - tick) / wheel.length;
+			wheel[(int) (Math.max(dueTick, tick) & mask)].add(timeout);
+		}
+	}
+
+	/**
+	 * This class is one bucket of the wheel, which is a doubly
+	 * linked list so that any timeout can be removed in constant time.
+	 */
+	static final class Bucket {
+		private Timeout head;
+		private Timeout tail;
+
+		void add(Timeout timeout) {
+			timeout.bucket = this;
+			if (head == null) {
+				head = timeout;
+				tail = timeout;
+			}
+			else {
+				tail.next = timeout;
+				timeout.previous = tail;
+				tail = timeout;
+			}
+		}
+
+		/**
+		 * Runs every timeout in the bucket that is due on this
+		 * turn of the wheel, and counts down the rest.
+		 */
+		void expire() {
+			Timeout timeout = head;
+			while (timeout != null) {
+				final Timeout next = timeout.next;
+				if (timeout.remainingRounds <= 0) {
+					remove(timeout);
+					timeout.expire();
+				}
+				else if (timeout.isCancelled()) {
+					remove(timeout);
+				}
+				else {
+					timeout.remainingRounds--;
+				}
+				timeout = next;
+			}
+		}
+
+		void remove(Timeout timeout) {
+			if (timeout.bucket != this) {
+				return;
+			}
+			final Timeout next = timeout.next;
+			if (timeout.previous != null) {
+				timeout.previous.next = next;
+			}
+			if (next != null) {
+				next.previous = timeout.previous;
+			}
+			if (timeout == head) {
+				head = next;
+			}
+			if (timeout == tail) {
+				tail = timeout.previous;
+			}
+			timeout.previous = null;
+			timeout.next = null;
+			timeout.bucket = null;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.timer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is a task waiting in a HashedWheelTimer.  It is also
+ * the link in the list of timeouts that share a bucket of the wheel,
+ * so that it can be taken out of the wheel without searching for it.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public final class Timeout {
+
+	private static final int WAITING = 0;
+	private static final int CANCELLED = 1;
+	private static final int EXPIRED = 2;
+
+	private final HashedWheelTimer timer;
+	private final Runnable task;
+	private final AtomicInteger state = new AtomicInteger(WAITING);
+
+	/**
+	 * When the task should run, in nanoseconds since the timer started.
+	 */
+	final long deadline;
+
+	// Only touched by the thread that turns the wheel
+	long remainingRounds;
+	Timeout next;
+	Timeout previous;
+	HashedWheelTimer.Bucket bucket;
+
+	Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+		this.timer = timer;
+		this.task = task;
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Stops the task from running, if it has not run already.
+	 * The timeout leaves the wheel on the next tick.
+	 * @return True if the task will not run because of this call.
+	 */
+	public boolean cancel() {
+		if (!state.compareAndSet(WAITING, CANCELLED)) {
+			return false;
+		}
+		timer.cancelled(this);
+		return true;
+	}
+
+	/**
+	 * @return True if the timeout was cancelled before it expired.
+	 */
+	public boolean isCancelled() {
+		return state.get() == CANCELLED;
+	}
+
+	/**
+	 * @return True if the task has been run.
+	 */
+	public boolean isExpired() {
+		return state.get() == EXPIRED;
+	}
+
+	/**
+	 * Runs the task, unless the timeout was cancelled first.
+	 */
+	void expire() {
+		if (!state.compareAndSet(WAITING, EXPIRED)) {
+			return;
+		}
+		try {
+			task.run();
+		} catch (RuntimeException e) {
+			// One broken task must not stop the wheel
+			e.printStackTrace();
+		} finally {
+			timer.expired();
+		}
+	}
+}
@@ -28,4 +28,18 @@ public interface CardDealerController {
 	 * @param playerFourHand Player Four's Hand.
 	 */
 	void dealHands(Hand playerOneHand, Hand playerTwoHand, Hand playerThreeHand, Hand playerFourHand);
+
+	/**
+	 * This function returns everything the dealer needs to deal
+	 * the next hands again, so that a game can be restored.
+	 * @return The state of the dealer.
+	 */
+	long getState();
+
+	/**
+	 * This function puts the dealer back in a state it was in,
+	 * so that the next hands it deals are the ones it dealt then.
+	 * @param state The state, from getState.
+	 */
+	void setState(long state);
 }
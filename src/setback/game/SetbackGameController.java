@@ -16,6 +16,7 @@ import setback.game.common.CardPlayerDescriptor;
 import setback.game.common.CardSuit;
 import setback.game.common.Hand;
 import setback.game.common.RoundResult;
+import setback.game.common.RoundState;
 import setback.game.common.TrickResult;
 
 /**
@@ -225,4 +226,20 @@ public interface SetbackGameController {
 	 * @return The persistent score for team two.
 	 */
 	int getTeamTwoScore() throws SetbackException;
+	
+	/**
+	 * This method returns the state of the game at the start of the
+	 * current round, before its hands were dealt.
+	 * @return The state, or null if no round has started.
+	 */
+	RoundState getRoundState();
+	
+	/**
+	 * This method brings a game whose first round has just been dealt
+	 * to the start of a later round, and deals that round's hands.
+	 * No bets may have been placed yet.
+	 * @param state The state of the game at the start of the later round.
+	 * @throws SetbackException if the game is not at the start of a round.
+	 */
+	void restoreRound(RoundState state) throws SetbackException;
 }
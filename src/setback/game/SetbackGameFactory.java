@@ -94,4 +94,14 @@ public class SetbackGameFactory {
   public SetbackMultiplayerGame makeSetbackMultiplayerGame(long seed) {
     return (SetbackMultiplayerGame) makeDeltaSetbackGame(seed);
   }
+
+  /**
+   * Create the most up to date Multiplayer Setback game, which
+   * deals with the given dealer.
+   * @param dealerController The dealer of every hand.
+   * @return The created Setback game.
+   */
+  public SetbackMultiplayerGame makeSetbackMultiplayerGame(CardDealerController dealerController) {
+    return new DeltaSetbackGameImpl(dealerController);
+  }
 }
@@ -5,6 +5,7 @@
 package setback.game;
 
 import setback.application.SetbackObserver;
+import setback.application.event.GameEvent;
 import setback.common.PlayerNumber;
 import setback.game.common.Hand;
 
@@ -21,11 +22,23 @@ public interface SetbackGameObservable {
    */
   void addObserver(SetbackObserver observer);
 
+  /**
+   * Removes an observer, such as when its connection has closed.
+   * It is safe to call while the observers are being notified.
+   * @param observer The observer to remove.
+   */
+  void removeObserver(SetbackObserver observer);
+
+  /**
+   * @return The number of observers.
+   */
+  int getObserverCount();
+
   /**
    * Notify all of the observers that a change has been made.
-   * @param message The message to tell the Observers.
+   * @param event The event to tell the Observers.
    */
-  void notifyObservers(String message);
+  void notifyObservers(GameEvent event);
 
   /**
    * This function gets the hand of the specified player.
@@ -33,4 +46,11 @@ public interface SetbackGameObservable {
    * @return The specified player's hand.
    */
   Hand getPlayerHand(PlayerNumber player);
+
+  /**
+   * Sets the id of the table the game is played at, which the flight
+   * recorder events of the game are tagged with.
+   * @param tableId The id of the table.
+   */
+  void setTableId(String tableId);
 }
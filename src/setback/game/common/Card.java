@@ -11,6 +11,23 @@ package setback.game.common;
  */
 public class Card {
 
+	/**
+	 * The number of distinct cards in the deck, and therefore
+	 * the number of valid card ordinals.
+	 */
+	public static final int DECK_SIZE = CardSuit.values().length * CardType.values().length;
+
+	private static final Card[] DECK = new Card[DECK_SIZE];
+
+	static {
+		for (CardSuit suit : CardSuit.values()) {
+			for (CardType type : CardType.values()) {
+				final Card card = new Card(type, suit);
+				DECK[card.getOrdinal()] = card;
+			}
+		}
+	}
+
 	private final CardType type;
 	private final CardSuit suit;
 
@@ -53,6 +70,34 @@ public class Card {
 				CardSuit.valueOf(array[2].toUpperCase()));
 	}
 	
+	/**
+	 * Calculate the ordinal of the card, a number from zero to
+	 * fifty-one that uniquely identifies it.  This is the form
+	 * used when a card is sent over the binary protocol.
+	 * @return The ordinal of the card.
+	 */
+	public int getOrdinal() {
+		return suit.ordinal() * CardType.values().length + type.ordinal();
+	}
+
+	/**
+	 * This function returns the card with the given ordinal.
+	 * The cards are shared, so no new Card is created.
+	 * @param ordinal The ordinal generated by getOrdinal.
+	 * @return The card with the given ordinal, or null if
+	 * the ordinal is out of range.
+	 */
+	public static Card fromOrdinal(int ordinal) {
+		final Card card;
+		if (ordinal < 0 || ordinal >= DECK_SIZE) {
+			card = null;
+		}
+		else {
+			card = DECK[ordinal];
+		}
+		return card;
+	}
+
 	/* (non-Javadoc)
 	 * @see java.lang.Object#hashCode()
 	 */
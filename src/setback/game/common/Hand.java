@@ -13,6 +13,9 @@ import setback.common.PlayerNumber;
 
 /**
  * This class represents a player's hand for a round.
+ * The text of the hand is kept until the hand changes, since
+ * players ask to see it far more often than it changes.  The
+ * cards should be changed through the hand so that it knows.
  * @author Michael Burns
  * @version Oct 17, 2013
  */
@@ -20,6 +23,8 @@ public class Hand {
 
 	private final PlayerNumber owner;
 	private List<Card> cards;
+	private int version;
+	private String text;
 
 	/**
 	 * Constructor that sets the properties of a hand.
@@ -50,6 +55,36 @@ public class Hand {
 	 */
 	public void setCards(List<Card> cards) {
 		this.cards = cards;
+		changed();
+	}
+
+	/**
+	 * Removes a card from the hand, such as when it is played or discarded.
+	 * @param card The card to remove.
+	 * @return True if the card was in the hand.
+	 */
+	public boolean removeCard(Card card) {
+		final boolean removed = cards.remove(card);
+		if (removed) {
+			changed();
+		}
+		return removed;
+	}
+
+	/**
+	 * @return A number that changes every time the cards do, so that
+	 * anything made from the hand can tell when it is out of date.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Helper function that throws away the text of the hand.
+	 */
+	private void changed() {
+		version++;
+		text = null;
 	}
 
 	/**
@@ -79,6 +114,7 @@ public class Hand {
 				return one.getSortValue() - two.getSortValue();
 			}
 		});
+		changed();
 	}
 
 	/* (non-Javadoc)
@@ -86,10 +122,14 @@ public class Hand {
 	 */
 	@Override
 	public String toString() {
-		String handString = owner + "'S HAND:\n";
-		for (Card card : cards) {
-			handString += card.toString() + "\n";
+		if (text == null) {
+			final StringBuilder handString = new StringBuilder();
+			handString.append(owner).append("'S HAND:\n");
+			for (Card card : cards) {
+				handString.append(card).append('\n');
+			}
+			text = handString.toString();
 		}
-		return handString;
+		return text;
 	}
 }
@@ -0,0 +1,101 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.game.common;
+
+import setback.common.PlayerNumber;
+
+/**
+ * This class is everything about a game at the start of a round that
+ * the moves of the earlier rounds decided: the dealer, the scores, and
+ * the state of the card dealer before it dealt.  With it, a game can be
+ * brought to the start of the round without replaying those moves.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class RoundState {
+
+	private final PlayerNumber dealer;
+	private final int teamOneScore;
+	private final int teamTwoScore;
+	private final long dealState;
+
+	/**
+	 * Constructor for a RoundState.
+	 * @param dealer The dealer of the round.
+	 * @param teamOneScore The score of team one before the round.
+	 * @param teamTwoScore The score of team two before the round.
+	 * @param dealState The state of the card dealer before it dealt the round.
+	 */
+	public RoundState(PlayerNumber dealer, int teamOneScore, int teamTwoScore, long dealState) {
+		this.dealer = dealer;
+		this.teamOneScore = teamOneScore;
+		this.teamTwoScore = teamTwoScore;
+		this.dealState = dealState;
+	}
+
+	/**
+	 * @return the dealer.
+	 */
+	public PlayerNumber getDealer() {
+		return dealer;
+	}
+
+	/**
+	 * @return the teamOneScore.
+	 */
+	public int getTeamOneScore() {
+		return teamOneScore;
+	}
+
+	/**
+	 * @return the teamTwoScore.
+	 */
+	public int getTeamTwoScore() {
+		return teamTwoScore;
+	}
+
+	/**
+	 * @return the dealState.
+	 */
+	public long getDealState() {
+		return dealState;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof RoundState)) {
+			return false;
+		}
+		final RoundState other = (RoundState) obj;
+		return dealer == other.dealer && teamOneScore == other.teamOneScore
+				&& teamTwoScore == other.teamTwoScore && dealState == other.dealState;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return ((dealer.hashCode() * 31 + teamOneScore) * 31 + teamTwoScore) * 31 + Long.hashCode(dealState);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RoundState [dealer=" + dealer + ", teamOneScore=" + teamOneScore
+				+ ", teamTwoScore=" + teamTwoScore + "]";
+	}
+}
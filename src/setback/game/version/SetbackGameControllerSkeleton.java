@@ -67,6 +67,11 @@ public abstract class SetbackGameControllerSkeleton implements SetbackGameContro
 	protected List<CardPlayerDescriptor> trickCards;
 	protected List<TrickResult> trickResults;
 
+	/**
+	 * The state of the game at the start of the current round.
+	 */
+	protected RoundState roundState;
+
 	/* (non-Javadoc)
 	 * @see setback.game.SetbackGameController#startGame()
 	 */
@@ -110,12 +115,14 @@ public abstract class SetbackGameControllerSkeleton implements SetbackGameContro
 			throw new SetbackException("The round has already been started!");
 		}
 		roundStarted = true;
+		roundState = new RoundState(dealer, teamOneScore, teamTwoScore, dealerController.getState());
 		dealerController.dealHands(playerOneHand, playerTwoHand, playerThreeHand, playerFourHand);
 		bettingResolved = false;
 		allBetsPlaced = false;
 		nextBettor = updatePlayer(dealer);
 		currentPlayer = nextBettor; // This line is really just here to help the GUI
 		winningBet = null;
+		trump = null;
 		firstTrick = true;
 	}
 
@@ -250,11 +257,9 @@ public abstract class SetbackGameControllerSkeleton implements SetbackGameContro
 			throw new SetbackException("You do not have the " + cardThree.toString() + " so you cannot discard it!");
 		}
 		// Actually discard the cards
-		final List<Card> cardList = hand.getCards();
-		cardList.remove(cardOne);
-		cardList.remove(cardTwo);
-		cardList.remove(cardThree);
-		hand.setCards(cardList);
+		hand.removeCard(cardOne);
+		hand.removeCard(cardTwo);
+		hand.removeCard(cardThree);
 		// Update the individual flags
 		switch (player) {
 		case PLAYER_ONE:
@@ -334,7 +339,7 @@ public abstract class SetbackGameControllerSkeleton implements SetbackGameContro
 		final Hand currentHand = getPlayerHand(currentPlayer);
 		validateCard(card, currentHand);
 		// Remove the played card from the hand.
-		currentHand.getCards().remove(card);
+		currentHand.removeCard(card);
 		// Update the currentPlayer for the next card. 
 		currentPlayer = updatePlayer(currentPlayer);
 
@@ -643,6 +648,32 @@ public abstract class SetbackGameControllerSkeleton implements SetbackGameContro
 		return teamTwoScore;
 	}
 
+	/* (non-Javadoc)
+	 * @see setback.game.SetbackGameController#getRoundState()
+	 */
+	@Override
+	public RoundState getRoundState() {
+		return roundState;
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.game.SetbackGameController#restoreRound(setback.game.common.RoundState)
+	 */
+	@Override
+	public void restoreRound(RoundState state) throws SetbackException {
+		if (!roundStarted || bettingResolved || nextBettor != updatePlayer(dealer)) {
+			throw new SetbackException("The round is already under way!");
+		}
+		dealer = state.getDealer();
+		teamOneScore = state.getTeamOneScore();
+		teamTwoScore = state.getTeamTwoScore();
+		dealerController.setState(state.getDealState());
+		dealerController.dealHands(playerOneHand, playerTwoHand, playerThreeHand, playerFourHand);
+		nextBettor = updatePlayer(dealer);
+		currentPlayer = nextBettor;
+		roundState = state;
+	}
+
 	/**
 	 * Updates the currentPlayer variable to point to the next person
 	 * that should be playing a card.
@@ -5,14 +5,14 @@
 package setback.game.version;
 
 import setback.application.SetbackObserver;
+import setback.application.event.*;
+import setback.application.jfr.*;
 import setback.common.PlayerNumber;
 import setback.common.SetbackException;
 import setback.game.common.*;
 
 import java.util.List;
 
-import static setback.application.command.CommandMessageConstants.*;
-
 /**
  * This is the abstract class that adds observability features to
  * Setback.  This allows the Skeleton to only focus on gameplay functionality,
@@ -25,10 +25,26 @@ public abstract class SetbackGameObservableImpl
 		implements SetbackMultiplayerGame {
 
 	/**
-	 * This is the list of observers to notify.
+	 * This is the list of observers to notify.  Connections come
+	 * and go while events are being sent, so the list must be safe
+	 * to change while it is being read.
 	 */
 	protected List<SetbackObserver> observers;
 
+	/**
+	 * This is the id of the table the game is played at, which
+	 * the flight recorder events are tagged with.
+	 */
+	protected String tableId;
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.game.SetbackGameObservable#setTableId(java.lang.String)
+	 */
+	public void setTableId(String tableId) {
+		this.tableId = tableId;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see setback.game.SetbackGameController#addObserver(setback.networking.SetbackObserver)
@@ -39,12 +55,33 @@ public abstract class SetbackGameObservableImpl
 
 	/*
 	 * (non-Javadoc)
-	 * @see setback.game.SetbackGameController#notifyObservers()
+	 * @see setback.game.SetbackGameObservable#removeObserver(setback.application.SetbackObserver)
+	 */
+	public void removeObserver(SetbackObserver observer) {
+		observers.remove(observer);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.game.SetbackGameObservable#getObserverCount()
+	 */
+	public int getObserverCount() {
+		return observers.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.game.SetbackGameController#notifyObservers(setback.application.event.GameEvent)
 	 */
-	public void notifyObservers(String message) {
+	public void notifyObservers(GameEvent event) {
+		final ObserverFanOutEvent fanOut = new ObserverFanOutEvent();
+		fanOut.begin();
+		int count = 0;
 		for (SetbackObserver observer : observers) {
-			observer.update(message);
+			observer.update(event);
+			count++;
 		}
+		fanOut.record(tableId, event.getType(), count);
 	}
 	
 	/*
@@ -53,31 +90,17 @@ public abstract class SetbackGameObservableImpl
 	 */
 	public boolean requestPlayerNumber(PlayerNumber requestedNumber) {
 		final boolean result = super.requestPlayerNumber(requestedNumber);
-		String message;
 		if (result) {
-			switch(requestedNumber) {
-			case PLAYER_ONE:
-				message = "PlayerOneSelected";
-				break;
-			case PLAYER_TWO:
-				message = "PlayerTwoSelected";
-				break;
-			case PLAYER_THREE:
-				message = "PlayerThreeSelected";
-				break;
-			case PLAYER_FOUR:
-			default:
-				message = "PlayerFourSelected";
-				break;
-			}
-			notifyObservers(message);
+			notifyObservers(PlayerSelectedEvent.of(requestedNumber));
 		}
 		return result;
 	}
 	
 	/**
 	 * All functions below here merely call the superclass version,
-	 * and then notify the observers what has happened.
+	 * and then notify the observers what has happened.  The phases
+	 * of a round are also timed for the flight recorder, without
+	 * the time spent notifying the observers.
 	 */
 	
 	/*
@@ -86,8 +109,11 @@ public abstract class SetbackGameObservableImpl
 	 */
 	@Override
 	public void startRound() throws SetbackException {
+		final DealEvent deal = new DealEvent();
+		deal.begin();
 		super.startRound();
-		notifyObservers(ROUND_BEGIN);
+		deal.record(tableId, dealer);
+		notifyObservers(GameEvent.ROUND_BEGIN_EVENT);
 	}
 	
 	/*
@@ -98,7 +124,7 @@ public abstract class SetbackGameObservableImpl
 	public void placeBet(PlayerNumber bettor, Bet bet)
 			throws SetbackException {
 		super.placeBet(bettor, bet);
-		notifyObservers(bettor.toString() + " BET " + bet.toString().toUpperCase());
+		notifyObservers(BetPlacedEvent.of(bettor, bet));
 	}
 	
 	/*
@@ -107,8 +133,11 @@ public abstract class SetbackGameObservableImpl
 	 */
 	@Override
 	public void resolveBets() throws SetbackException {
+		final BetResolutionEvent resolution = new BetResolutionEvent();
+		resolution.begin();
 		super.resolveBets();
-		notifyObservers(BETTING_RESOLVED);
+		resolution.record(tableId, winningBet);
+		notifyObservers(GameEvent.BETTING_RESOLVED_EVENT);
 	}
 	
 	/*
@@ -117,8 +146,11 @@ public abstract class SetbackGameObservableImpl
 	 */
 	@Override
 	public void selectTrump(PlayerNumber leader, CardSuit trump) throws SetbackException {
+		final TrumpSelectionEvent selection = new TrumpSelectionEvent();
+		selection.begin();
 		super.selectTrump(leader, trump);
-		notifyObservers(leader.toString() + " SELECTED " + trump.toString());
+		selection.record(tableId, leader, trump);
+		notifyObservers(TrumpSelectedEvent.of(leader, trump));
 	}
 	
 	/*
@@ -127,7 +159,7 @@ public abstract class SetbackGameObservableImpl
 	 */
 	public void discardCards(PlayerNumber player, Card cardOne, Card cardTwo, Card cardThree) throws SetbackException {
 		super.discardCards(player, cardOne, cardTwo, cardThree);
-		notifyObservers(player.toString() + " DISCARDED");
+		notifyObservers(CardsDiscardedEvent.of(player));
 	}
 	
 	/* 
@@ -137,7 +169,7 @@ public abstract class SetbackGameObservableImpl
 	@Override
 	public void startTrick() throws SetbackException {
 		super.startTrick();
-		notifyObservers(TRICK_STARTED);
+		notifyObservers(GameEvent.TRICK_STARTED_EVENT);
 	}
 	
 	/* 
@@ -148,7 +180,7 @@ public abstract class SetbackGameObservableImpl
 	public CardPlayerDescriptor playCard(Card card, PlayerNumber player)
 			throws SetbackException {
 		final CardPlayerDescriptor result = super.playCard(card, player);
-		notifyObservers(player.toString() + " PLAYED " + card.toString());
+		notifyObservers(CardPlayedEvent.of(player, card));
 		return result;
 	}
 	
@@ -163,8 +195,11 @@ public abstract class SetbackGameObservableImpl
 	public TrickResult playTrick(CardPlayerDescriptor firstCard,
 			CardPlayerDescriptor secondCard, CardPlayerDescriptor thirdCard,
 			CardPlayerDescriptor fourthCard) throws SetbackException {
+		final TrickResolutionEvent resolution = new TrickResolutionEvent();
+		resolution.begin();
 		final TrickResult result = super.playTrick(firstCard, secondCard, thirdCard, fourthCard);
-		notifyObservers(currentPlayer.toString() + " WON TRICK");
+		resolution.record(tableId, result);
+		notifyObservers(TrickWonEvent.of(currentPlayer));
 		return result;
 	}
 	
@@ -175,8 +210,11 @@ public abstract class SetbackGameObservableImpl
 	@Override
 	public RoundResult playRound(List<TrickResult> tricks)
 			throws SetbackException {
+		final RoundScoringEvent scoring = new RoundScoringEvent();
+		scoring.begin();
 		final RoundResult result = super.playRound(tricks);
-		notifyObservers(ROUND_ENDED);
+		scoring.record(tableId, result);
+		notifyObservers(GameEvent.ROUND_ENDED_EVENT);
 		return result;
 	}
 
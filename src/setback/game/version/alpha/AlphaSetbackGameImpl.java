@@ -4,7 +4,7 @@
  */
 package setback.game.version.alpha;
 
-import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import setback.application.SetbackObserver;
 import setback.game.SetbackGameController;
@@ -32,6 +32,6 @@ public class AlphaSetbackGameImpl extends SetbackGameObservableImpl implements S
 		dealerController = new AlphaCardDealerController();
 		betController = new DummyBetController();
 		discardingIgnored = true;
-		observers = new ArrayList<SetbackObserver>();
+		observers = new CopyOnWriteArrayList<SetbackObserver>();
 	}
 }
@@ -62,4 +62,23 @@ public class BetaCardDealerController implements CardDealerController {
 		playerFourHand.setCards(playerFourCards);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see setback.game.CardDealerController#getState()
+	 */
+	@Override
+	public long getState() {
+		// Every deal is the same
+		return 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see setback.game.CardDealerController#setState(long)
+	 */
+	@Override
+	public void setState(long state) {
+		// Every deal is the same
+	}
+
 }
@@ -4,7 +4,7 @@
  */
 package setback.game.version.beta;
 
-import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import setback.application.SetbackObserver;
 import setback.game.SetbackGameController;
@@ -34,6 +34,6 @@ public class BetaSetbackGameImpl extends SetbackGameObservableImpl implements
 		dealerController = new BetaCardDealerController();
 		betController = new DummyBetController();
 		discardingIgnored = true;
-		observers = new ArrayList<SetbackObserver>();
+		observers = new CopyOnWriteArrayList<SetbackObserver>();
 	}
 }
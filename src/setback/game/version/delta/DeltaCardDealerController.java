@@ -6,7 +6,6 @@ package setback.game.version.delta;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import setback.game.CardDealerController;
 import setback.game.common.Card;
@@ -23,7 +22,7 @@ import setback.game.common.Hand;
  */
 public class DeltaCardDealerController implements CardDealerController {
 
-	Random random;
+	RestorableRandom random;
 
 	/**
 	 * Constructor that takes in a seed for the random
@@ -33,7 +32,7 @@ public class DeltaCardDealerController implements CardDealerController {
 	 * number generator.
 	 */
 	public DeltaCardDealerController(long seed) {
-		random = new Random(seed);
+		random = new RestorableRandom(seed);
 	}
 
 	/* (non-Javadoc)
@@ -76,6 +75,22 @@ public class DeltaCardDealerController implements CardDealerController {
 		playerFourHand.setCards(playerFourCards);
 	}
 	
+	/* (non-Javadoc)
+	 * @see setback.game.CardDealerController#getState()
+	 */
+	@Override
+	public long getState() {
+		return random.getState();
+	}
+
+	/* (non-Javadoc)
+	 * @see setback.game.CardDealerController#setState(long)
+	 */
+	@Override
+	public void setState(long state) {
+		random.setState(state);
+	}
+
 	/**
 	 * Helper function that returns the ordered list of cards.
 	 * This list will be used to randomly deal the hands, but
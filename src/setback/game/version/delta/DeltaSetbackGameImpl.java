@@ -4,9 +4,10 @@
  */
 package setback.game.version.delta;
 
-import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import setback.application.SetbackObserver;
+import setback.game.CardDealerController;
 import setback.game.SetbackGameController;
 import setback.game.version.SetbackGameObservableImpl;
 import setback.game.version.gamma.GammaBetController;
@@ -28,19 +29,29 @@ public class DeltaSetbackGameImpl extends SetbackGameObservableImpl {
 	 * in the card dealer.
 	 */
 	public DeltaSetbackGameImpl(long seed) {
+		this(new DeltaCardDealerController(seed));
+	}
+
+	/**
+	 * Constructor for a DeltaSetbackGameImpl that deals with
+	 * the given dealer instead of a random one, such as one
+	 * that deals the hands of a recorded game.
+	 * @param dealerController The dealer of every hand.
+	 */
+	public DeltaSetbackGameImpl(CardDealerController dealerController) {
 		gameStarted = false;
 		roundStarted = false;
 		bettingResolved = false;
 		trumpSelected = false;
 		discardingResolved = false;
 		trickStarted = false;
-		dealerController = new DeltaCardDealerController(seed);
+		this.dealerController = dealerController;
 		betController = new GammaBetController();
 		discardingIgnored = false;
 		playerOneSelected = false;
 		playerTwoSelected = false;
 		playerThreeSelected = false;
 		playerFourSelected = false;
-		observers = new ArrayList<SetbackObserver>();
+		observers = new CopyOnWriteArrayList<SetbackObserver>();
 	}
 }
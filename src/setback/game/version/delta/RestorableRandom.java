@@ -0,0 +1,73 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.game.version.delta;
+
+import java.util.Random;
+
+/**
+ * This class is a Random whose state can be read and set, so that a
+ * dealer can be put back to where it was.  It runs the same generator
+ * as java.util.Random, so a game deals exactly the hands it always has
+ * for a given seed.  It is only used under the lock on its game, so it
+ * does not need to be thread safe.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+class RestorableRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+
+	/**
+	 * Set by setSeed, which Random's constructor calls, so it must not
+	 * have an initializer that would undo that.
+	 */
+	private long state;
+
+	/**
+	 * Constructor for a RestorableRandom.
+	 * @param seed The seed, as for java.util.Random.
+	 */
+	RestorableRandom(long seed) {
+		super(seed);
+		setSeed(seed);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Random#setSeed(long)
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.util.Random#next(int)
+	 */
+	@Override
+	protected int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (48 - bits));
+	}
+
+	/**
+	 * @return The state of the generator.
+	 */
+	long getState() {
+		return state;
+	}
+
+	/**
+	 * @param state A state from getState.
+	 */
+	void setState(long state) {
+		this.state = state & MASK;
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.move.MoveReplayerTest;
+import setback.application.record.GameRecord;
+import setback.application.server.SetbackTable;
+import setback.common.SetbackException;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for keeping archived games as analytics.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class AnalyticsStoreTest {
+
+	private static final int GAMES = 6;
+	private static final int ROUNDS = 3;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void roundsAndTricksAreKeptTest() throws IOException, SetbackException {
+		final File directory = folder.newFolder("store");
+		int teamScores = 0;
+		try (AnalyticsStore store = new AnalyticsStore(directory)) {
+			for (int game = 0; game < GAMES; game++) {
+				final GameRecord record = record(game);
+				teamScores += record.getTeamOneScore() + record.getTeamTwoScore();
+				store.add(record);
+			}
+		}
+
+		final AnalyticsStore store = new AnalyticsStore(directory);
+		assertEquals(GAMES, store.getGames());
+		assertEquals(GAMES * ROUNDS, store.rounds().getRows());
+		assertEquals(GAMES * ROUNDS * GameRecord.TRICKS, store.tricks().getRows());
+
+		// Every point scored is in one of the two columns
+		final Query<RoundColumn> rounds = store.rounds().query();
+		assertEquals(teamScores, rounds.sum(RoundColumn.BIDDER_POINTS) + rounds.sum(RoundColumn.OTHER_POINTS));
+
+		// A bet is made exactly when the bidders score at least what they bet
+		final long made = store.rounds().query().where(RoundColumn.MADE, 1).count();
+		assertEquals(made, store.rounds().query().where(RoundColumn.BIDDER_POINTS, 2, Integer.MAX_VALUE).count());
+		assertEquals(GAMES * ROUNDS - made,
+				store.rounds().query().where(RoundColumn.BIDDER_POINTS, Integer.MIN_VALUE, -2).count());
+
+		// The winner of a trick leads the next one
+		for (int game = 0; game < GAMES; game++) {
+			for (int trick = 1; trick < GameRecord.TRICKS; trick++) {
+				final Query<TrickColumn> query = store.tricks().query().where(TrickColumn.GAME, game)
+						.where(TrickColumn.ROUND, 0);
+				assertEquals(query.where(TrickColumn.TRICK, trick - 1).countBy(TrickColumn.WINNER),
+						store.tricks().query().where(TrickColumn.GAME, game).where(TrickColumn.ROUND, 0)
+								.where(TrickColumn.TRICK, trick).countBy(TrickColumn.LEADER));
+			}
+		}
+	}
+
+	@Test
+	public void gamesAreNumberedAfterThoseAlreadyKeptTest() throws IOException, SetbackException {
+		final File directory = folder.newFolder("numbered");
+		try (AnalyticsStore store = new AnalyticsStore(directory)) {
+			store.add(record(0));
+		}
+		try (AnalyticsStore store = new AnalyticsStore(directory)) {
+			assertEquals(1, store.getGames());
+			store.add(record(1));
+			store.flush();
+			assertEquals(ROUNDS, store.rounds().query().where(RoundColumn.GAME, 1).count());
+		}
+	}
+
+	private static GameRecord record(int game) throws SetbackException {
+		final int moves = GameRecord.SEATS + ROUNDS * GameRecord.ROUND_MOVES;
+		final SetbackTable table = new SetbackTable("analytics" + game, 100 + game);
+		assertEquals(moves, MoveReplayerTest.playMoves(table, moves));
+		return GameRecord.seeded(table.getSeed(), table.getMoves().toArray(), moves,
+				table.getGame().getTeamOneScore(), table.getGame().getTeamTwoScore());
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.analytics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the column tables that analytics are kept in.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ColumnTableTest {
+
+	private static final int ROWS = 3 * 64 * 1024 + 123;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private enum Sample { ROW, SMALL, SIGNED, WIDE, CONSTANT }
+
+	@Test
+	public void queriesMatchAScanOfEveryRowTest() throws IOException {
+		final File directory = folder.newFolder("sample");
+		final int[][] rows = fill(directory, ROWS);
+		final ColumnTable<Sample> table = new ColumnTable<Sample>(directory, Sample.class);
+		assertEquals(ROWS, table.getRows());
+
+		long count = 0;
+		long sum = 0;
+		final long[] bySmall = new long[8];
+		for (int[] row : rows) {
+			if (row[Sample.SIGNED.ordinal()] >= -10 && row[Sample.SIGNED.ordinal()] <= 20) {
+				count++;
+				sum += row[Sample.WIDE.ordinal()];
+				bySmall[row[Sample.SMALL.ordinal()]]++;
+			}
+		}
+		final Query<Sample> query = table.query().where(Sample.SIGNED, -10, 20);
+		assertEquals(count, query.count());
+		assertEquals(sum, query.sum(Sample.WIDE));
+		final Map<Integer, Long> groups = query.countBy(Sample.SMALL);
+		for (int small = 0; small < bySmall.length; small++) {
+			assertEquals(bySmall[small], groups.containsKey(small) ? (long) groups.get(small) : 0L);
+		}
+	}
+
+	@Test
+	public void blocksOutsideAFilterAreSkippedTest() throws IOException {
+		final File directory = folder.newFolder("skipped");
+		fill(directory, ROWS);
+		final ColumnTable<Sample> table = new ColumnTable<Sample>(directory, Sample.class);
+		// ROW rises, so only the last block holds these rows
+		assertEquals(100, table.query().where(Sample.ROW, ROWS - 100, Integer.MAX_VALUE).count());
+		assertEquals(0, table.query().where(Sample.CONSTANT, 8).count());
+		assertEquals(7L * ROWS, table.query().sum(Sample.CONSTANT));
+		assertEquals((long) ROWS * (ROWS - 1) / 2, table.query().sum(Sample.ROW));
+	}
+
+	@Test
+	public void onlyFinishedPartitionsAreSeenTest() throws IOException {
+		final File directory = folder.newFolder("partial");
+		final ColumnTable<Sample> table = new ColumnTable<Sample>(directory, Sample.class);
+		final ColumnTable<Sample>.Appender appender = table.appender();
+		appender.append(1, 2, 3, 4, 7);
+		assertEquals(0, table.query().count());
+		appender.flush();
+		assertEquals(1, table.query().count());
+		appender.append(5, 6, 7, 8, 7);
+
+		// The second partition was never finished
+		final ColumnTable<Sample> reopened = new ColumnTable<Sample>(directory, Sample.class);
+		assertEquals(1, reopened.getPartitions());
+		assertEquals(1, reopened.query().sum(Sample.ROW));
+		assertEquals(1, directory.list().length);
+	}
+
+	private static int[][] fill(File directory, int count) throws IOException {
+		final Random random = new Random(42);
+		final int[][] rows = new int[count][];
+		final ColumnTable<Sample> table = new ColumnTable<Sample>(directory, Sample.class);
+		try (ColumnTable<Sample>.Appender appender = table.appender()) {
+			for (int row = 0; row < count; row++) {
+				rows[row] = new int[]{row, random.nextInt(8), random.nextInt(100) - 50, random.nextInt(), 7};
+				appender.append(rows[row]);
+			}
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.NetworkConfig;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.net.NetServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Helpers for running a cluster of nodes in one process, found
+ * by each other over TCP on the loopback interface.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ClusterTestSupport {
+
+	/**
+	 * Starts the nodes one at a time, and waits until every node sees them all.
+	 * @param count The number of nodes.
+	 * @param nodes Filled in with the nodes.
+	 * @param ports Filled in with the port each node accepts clients on.
+	 * @return The group the nodes found each other in.
+	 * @throws Exception If the cluster does not form.
+	 */
+	public static String startCluster(int count, List<SetbackClusterNode> nodes, List<Integer> ports)
+			throws Exception {
+		final String group = "setback-test-" + UUID.randomUUID();
+		for (int index = 0; index < count; index++) {
+			addNode(group, nodes, ports);
+		}
+		awaitMembers(nodes, count);
+		return group;
+	}
+
+	/**
+	 * Starts another node in a group, without waiting for the others to see it.
+	 * @param group The group the nodes find each other in.
+	 * @param nodes Added to with the node.
+	 * @param ports Added to with the port the node accepts clients on.
+	 * @return The node.
+	 * @throws Exception If the node does not start.
+	 */
+	public static SetbackClusterNode addNode(String group, List<SetbackClusterNode> nodes, List<Integer> ports)
+			throws Exception {
+		final CompletableFuture<SetbackClusterNode> started = new CompletableFuture<SetbackClusterNode>();
+		SetbackClusterNode.start(makeConfig(group), "127.0.0.1", complete(started));
+		final SetbackClusterNode node = started.get(60, TimeUnit.SECONDS);
+		final CompletableFuture<NetServer> listening = new CompletableFuture<NetServer>();
+		node.listen("127.0.0.1", 0, complete(listening));
+		ports.add(listening.get(10, TimeUnit.SECONDS).actualPort());
+		nodes.add(node);
+		return node;
+	}
+
+	/**
+	 * Waits until every node sees the given number of members.
+	 * @param nodes The nodes.
+	 * @param count The number of members.
+	 * @throws InterruptedException If interrupted while waiting.
+	 */
+	public static void awaitMembers(List<SetbackClusterNode> nodes, int count) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 30000;
+		for (SetbackClusterNode node : nodes) {
+			while (node.getRing().getNodes().size() != count && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			assertEquals(count, node.getRing().getNodes().size());
+		}
+	}
+
+	/**
+	 * Closes every node.
+	 * @param nodes The nodes.
+	 * @throws Exception If a node does not close.
+	 */
+	public static void stopCluster(List<SetbackClusterNode> nodes) throws Exception {
+		for (SetbackClusterNode node : nodes) {
+			final CompletableFuture<Void> closed = new CompletableFuture<Void>();
+			node.close(complete(closed));
+			closed.get(30, TimeUnit.SECONDS);
+		}
+	}
+
+	private static Config makeConfig(String group) {
+		final Config config = new Config();
+		config.setProperty("hazelcast.logging.type", "none");
+		config.setProperty("hazelcast.phone.home.enabled", "false");
+		config.setProperty("hazelcast.health.monitoring.level", "OFF");
+		config.getGroupConfig().setName(group);
+		final NetworkConfig network = config.getNetworkConfig();
+		network.setPort(15701).setPortAutoIncrement(true).setPortCount(10);
+		network.getInterfaces().setEnabled(true).addInterface("127.0.0.1");
+		final JoinConfig join = network.getJoin();
+		join.getMulticastConfig().setEnabled(false);
+		join.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+		return config;
+	}
+
+	/**
+	 * @param future The future to complete.
+	 * @return A handler that completes the future with its result.
+	 */
+	public static <T> Handler<AsyncResult<T>> complete(CompletableFuture<T> future) {
+		return result -> {
+			if (result.succeeded()) {
+				future.complete(result.result());
+			}
+			else {
+				future.completeExceptionally(result.cause());
+			}
+		};
+	}
+
+	/**
+	 * A client that speaks the text protocol to one of the nodes.
+	 */
+	public static class Client {
+		private final Socket socket;
+		private final PrintWriter out;
+		private final BufferedReader in;
+
+		public Client(int port, String tableId) throws IOException {
+			this(port);
+			out.println("TABLE " + tableId);
+			// The server greets every client with an empty reply
+			assertEquals("null", in.readLine());
+		}
+
+		private Client(int port) throws IOException {
+			socket = new Socket("127.0.0.1", port);
+			socket.setSoTimeout(10000);
+			out = new PrintWriter(socket.getOutputStream(), true);
+			in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+		}
+
+		/**
+		 * Connects a client that waits to be matched, without
+		 * waiting for the greeting.
+		 * @param port The port of the node.
+		 * @param firstLine The MATCH line.
+		 * @return The client.
+		 * @throws IOException If the connection fails.
+		 */
+		public static Client matchmake(int port, String firstLine) throws IOException {
+			final Client client = new Client(port);
+			client.out.println(firstLine);
+			return client;
+		}
+
+		/**
+		 * @return The next line from the server.
+		 * @throws IOException If the connection fails.
+		 */
+		public String readLine() throws IOException {
+			return in.readLine();
+		}
+
+		/**
+		 * Sends a command.  Events that were sent since the last reply
+		 * come before the reply, on the same line.
+		 * @param line The command.
+		 * @return The line that was sent back.
+		 * @throws IOException If the connection fails.
+		 */
+		public String send(String line) throws IOException {
+			out.println(line);
+			return in.readLine();
+		}
+
+		public void close() throws IOException {
+			send("EXIT");
+			socket.close();
+		}
+
+		/**
+		 * Drops the connection without saying goodbye.
+		 * @throws IOException If the socket cannot be closed.
+		 */
+		public void drop() throws IOException {
+			socket.close();
+		}
+	}
+}
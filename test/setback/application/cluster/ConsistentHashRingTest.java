@@ -0,0 +1,79 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the consistent hash ring.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ConsistentHashRingTest {
+
+	private static final int TABLES = 10000;
+
+	@Test
+	public void emptyRingHasNoOwner() {
+		assertNull(new ConsistentHashRing().nodeFor("table"));
+	}
+
+	@Test
+	public void ownerIsStable() {
+		final ConsistentHashRing first = new ConsistentHashRing();
+		final ConsistentHashRing second = new ConsistentHashRing();
+		first.setNodes(Arrays.asList("a", "b", "c"));
+		second.setNodes(Arrays.asList("c", "a", "b"));
+		for (int table = 0; table < 100; table++) {
+			assertEquals(first.nodeFor("table-" + table), second.nodeFor("table-" + table));
+		}
+	}
+
+	@Test
+	public void tablesAreSpreadEvenly() {
+		final ConsistentHashRing ring = new ConsistentHashRing();
+		ring.setNodes(Arrays.asList("a", "b", "c", "d"));
+		final Map<String, Integer> counts = new HashMap<String, Integer>();
+		for (int table = 0; table < TABLES; table++) {
+			final String node = ring.nodeFor("table-" + table);
+			counts.put(node, counts.containsKey(node) ? counts.get(node) + 1 : 1);
+		}
+		assertEquals(4, counts.size());
+		for (int count : counts.values()) {
+			assertTrue("Uneven spread: " + counts, count > TABLES / 4 * 0.75 && count < TABLES / 4 * 1.25);
+		}
+	}
+
+	@Test
+	public void addingANodeOnlyMovesTablesToIt() {
+		final ConsistentHashRing ring = new ConsistentHashRing();
+		ring.setNodes(Arrays.asList("a", "b", "c"));
+		final String[] before = new String[TABLES];
+		for (int table = 0; table < TABLES; table++) {
+			before[table] = ring.nodeFor("table-" + table);
+		}
+		ring.addNode("d");
+		int moved = 0;
+		for (int table = 0; table < TABLES; table++) {
+			final String after = ring.nodeFor("table-" + table);
+			if (!after.equals(before[table])) {
+				assertEquals("d", after);
+				moved++;
+			}
+		}
+		assertTrue(moved > TABLES / 4 * 0.75 && moved < TABLES / 4 * 1.25);
+
+		ring.removeNode("d");
+		for (int table = 0; table < TABLES; table++) {
+			assertEquals(before[table], ring.nodeFor("table-" + table));
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import setback.application.server.SetbackTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for a cluster of nodes running in this process.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SetbackClusterNodeTest {
+
+	private static final int NODES = 3;
+	private static final List<SetbackClusterNode> nodes = new ArrayList<SetbackClusterNode>();
+	private static final List<Integer> ports = new ArrayList<Integer>();
+
+	@BeforeClass
+	public static void startCluster() throws Exception {
+		ClusterTestSupport.startCluster(NODES, nodes, ports);
+	}
+
+	@AfterClass
+	public static void stopCluster() throws Exception {
+		ClusterTestSupport.stopCluster(nodes);
+	}
+
+	@Test
+	public void everyNodeAgreesOnTheOwner() {
+		for (int table = 0; table < 50; table++) {
+			final String owner = nodes.get(0).ownerOf("table-" + table);
+			for (SetbackClusterNode node : nodes) {
+				assertEquals(owner, node.ownerOf("table-" + table));
+			}
+		}
+	}
+
+	@Test
+	public void tablesAreSpreadAcrossNodes() {
+		final Set<String> owners = new HashSet<String>();
+		for (int table = 0; table < 100; table++) {
+			owners.add(nodes.get(0).ownerOf("table-" + table));
+		}
+		assertEquals(NODES, owners.size());
+	}
+
+	@Test
+	public void clientsOnDifferentNodesShareTheTable() throws IOException {
+		final String tableId = "shared-" + UUID.randomUUID();
+		final ClusterTestSupport.Client first = new ClusterTestSupport.Client(ports.get(0), tableId);
+		final ClusterTestSupport.Client second = new ClusterTestSupport.Client(ports.get(1), tableId);
+		final ClusterTestSupport.Client third = new ClusterTestSupport.Client(ports.get(2), tableId);
+		try {
+			assertEquals("Player one selected", first.send("REQUEST_PLAYER_ONE"));
+			assertEquals("Player one rejected", second.send("REQUEST_PLAYER_ONE"));
+			assertEquals("Player three selected", third.send("REQUEST_PLAYER_THREE"));
+		} finally {
+			first.close();
+			second.close();
+			third.close();
+		}
+
+		int hosting = 0;
+		for (SetbackClusterNode node : nodes) {
+			final SetbackTable table = node.getTables().get(tableId);
+			if (table != null) {
+				hosting++;
+				assertEquals(node.getNodeId(), node.ownerOf(tableId));
+			}
+		}
+		assertEquals(1, hosting);
+	}
+
+	@Test
+	public void matchedClientsAreSeatedAtANewTable() throws IOException {
+		final String region = "region-" + UUID.randomUUID();
+		final List<ClusterTestSupport.Client> clients = new ArrayList<ClusterTestSupport.Client>();
+		try {
+			for (int player = 0; player < 4; player++) {
+				clients.add(ClusterTestSupport.Client.matchmake(ports.get(0), "MATCH 1500 " + region));
+			}
+			final Set<String> greetings = new HashSet<String>();
+			for (ClusterTestSupport.Client client : clients) {
+				greetings.add(client.readLine());
+			}
+			assertEquals(new HashSet<String>(Arrays.asList("Player one selected", "Player two selected",
+					"Player three selected", "Player four selected")), greetings);
+			// The fourth seat started the game
+			assertTrue(clients.get(0).send("GET_CURRENT_PLAYER").startsWith("PLAYER_"));
+		} finally {
+			for (ClusterTestSupport.Client client : clients) {
+				client.close();
+			}
+		}
+		assertTrue(nodes.get(0).getMatchmaker().getMetrics().getTablesFormed() >= 1);
+	}
+
+	@Test
+	public void quietClientIsGreetedAtTheDefaultTable() throws IOException {
+		try (Socket socket = new Socket("127.0.0.1", ports.get(1))) {
+			socket.setSoTimeout(10000);
+			// Like the SetbackClient, wait for the greeting before sending anything
+			final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+			assertEquals("null", in.readLine());
+			final PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+			out.println("EXIT");
+			in.readLine();
+		}
+		final String owner = nodes.get(0).ownerOf(SetbackClusterNode.DEFAULT_TABLE);
+		for (SetbackClusterNode node : nodes) {
+			assertEquals(node.getNodeId().equals(owner),
+					node.getTables().get(SetbackClusterNode.DEFAULT_TABLE) != null);
+		}
+	}
+
+	@Test
+	public void longFirstLineClosesTheConnection() throws IOException {
+		try (Socket socket = new Socket("127.0.0.1", ports.get(0))) {
+			socket.setSoTimeout(10000);
+			final OutputStream out = socket.getOutputStream();
+			final byte[] line = new byte[300];
+			Arrays.fill(line, (byte) 'x');
+			out.write(line);
+			out.flush();
+			final BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+			assertEquals("First line too long!", in.readLine());
+			assertNull(in.readLine());
+		}
+	}
+
+}
@@ -0,0 +1,98 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import setback.application.server.SetbackTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that a table keeps its game when a joining node takes it over.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableHandoffTest {
+
+	private static final int NODES = 2;
+
+	/**
+	 * Enough tables that some are all but certain to move to the new node.
+	 */
+	private static final int TABLES = 30;
+
+	private static final List<SetbackClusterNode> nodes = new ArrayList<SetbackClusterNode>();
+	private static final List<Integer> ports = new ArrayList<Integer>();
+	private static String group;
+
+	@BeforeClass
+	public static void startCluster() throws Exception {
+		group = ClusterTestSupport.startCluster(NODES, nodes, ports);
+	}
+
+	@AfterClass
+	public static void stopCluster() throws Exception {
+		ClusterTestSupport.stopCluster(nodes);
+	}
+
+	@Test
+	public void joiningNodeTakesOverItsTablesWithTheSameGame() throws Exception {
+		final List<String> tableIds = new ArrayList<String>();
+		final List<ClusterTestSupport.Client> clients = new ArrayList<ClusterTestSupport.Client>();
+		final List<String> tokens = new ArrayList<String>();
+		for (int table = 0; table < TABLES; table++) {
+			final String tableId = "handoff-" + UUID.randomUUID();
+			final ClusterTestSupport.Client client = new ClusterTestSupport.Client(ports.get(0), tableId);
+			assertEquals("Player one selected", client.send("REQUEST_PLAYER_ONE"));
+			tokens.add(client.send("GET_SESSION").split(" ")[1]);
+			tableIds.add(tableId);
+			clients.add(client);
+		}
+
+		final SetbackClusterNode joined = ClusterTestSupport.addNode(group, nodes, ports);
+		ClusterTestSupport.awaitMembers(nodes, NODES + 1);
+		int moved = 0;
+		for (int index = 0; index < TABLES; index++) {
+			final String tableId = tableIds.get(index);
+			if (!joined.getNodeId().equals(joined.ownerOf(tableId))) {
+				clients.get(index).close();
+				continue;
+			}
+			moved++;
+			SetbackClusterNode previous = null;
+			for (SetbackClusterNode node : nodes) {
+				if (node.getTables().get(tableId) != null) {
+					previous = node;
+				}
+			}
+			assertNotNull(previous);
+			assertNotSame(joined, previous);
+
+			// Asking the new owner for the table moves it there
+			final ClusterTestSupport.Client client = new ClusterTestSupport.Client(ports.get(NODES), tableId);
+			final SetbackTable table = joined.getTables().get(tableId);
+			assertNotNull(table);
+			assertEquals(1, table.getMoves().size());
+			assertNull(previous.getTables().get(tableId));
+			// The old connection is closed, and only its player can take the seat back
+			assertNull(clients.get(index).readLine());
+			assertEquals("Player one rejected", client.send("REQUEST_PLAYER_ONE"));
+			assertTrue(client.send("RESUME " + tokens.get(index) + " 0").endsWith("PLAYER_ONE"));
+			// Every node sends its clients to the table's new home
+			final ClusterTestSupport.Client other = new ClusterTestSupport.Client(ports.get(0), tableId);
+			assertEquals("Player one rejected", other.send("REQUEST_PLAYER_ONE"));
+			assertEquals("Player two selected", other.send("REQUEST_PLAYER_TWO"));
+			client.close();
+			other.close();
+		}
+		assertTrue(moved > 0);
+	}
+}
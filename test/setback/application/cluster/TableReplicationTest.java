@@ -0,0 +1,117 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that a table survives the node that owns it leaving the cluster.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableReplicationTest {
+
+	private static final int NODES = 3;
+	private static final List<SetbackClusterNode> nodes = new ArrayList<SetbackClusterNode>();
+	private static final List<Integer> ports = new ArrayList<Integer>();
+
+	@BeforeClass
+	public static void startCluster() throws Exception {
+		ClusterTestSupport.startCluster(NODES, nodes, ports);
+	}
+
+	@AfterClass
+	public static void stopCluster() throws Exception {
+		ClusterTestSupport.stopCluster(nodes);
+	}
+
+	@Test
+	public void backupTakesOverWithTheSameGame() throws Exception {
+		final String tableId = "replicated-" + UUID.randomUUID();
+		final int owner = indexOf(nodes.get(0).ownerOf(tableId));
+		final int backup = indexOf(nodes.get(0).getRing().backupFor(tableId));
+		assertFalse(owner == backup);
+
+		final String[] seats = {"ONE", "TWO", "THREE", "FOUR"};
+		final List<ClusterTestSupport.Client> clients = new ArrayList<ClusterTestSupport.Client>();
+		final List<String> tokens = new ArrayList<String>();
+		for (String seat : seats) {
+			final ClusterTestSupport.Client client = new ClusterTestSupport.Client(ports.get(owner), tableId);
+			assertTrue(client.send("REQUEST_PLAYER_" + seat).endsWith("selected"));
+			tokens.add(client.send("GET_SESSION").split(" ")[1]);
+			clients.add(client);
+		}
+		// Events from the start of the round may come before the reply
+		final String current = clients.get(0).send("GET_CURRENT_PLAYER");
+		final String bettor = current.substring(current.lastIndexOf(' ') + 1);
+		final int bettorSeat = seatOf(bettor);
+		assertTrue(clients.get(bettorSeat).send("PLACE_BET PASS").endsWith(bettor + " BET PASS"));
+		// Betting goes around the table to the left
+		final int nextSeat = (bettorSeat + 1) % seats.length;
+		final String nextBettor = "PLAYER_" + seats[nextSeat];
+
+		// Four seats and a bet
+		final StandbyStore standbys = nodes.get(backup).getStandbys();
+		final long deadline = System.currentTimeMillis() + 10000;
+		while ((standbys.get(tableId) == null || standbys.get(tableId).getMoves().size() < 5)
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(5, standbys.get(tableId).getMoves().size());
+
+		for (ClusterTestSupport.Client client : clients) {
+			client.drop();
+		}
+		final SetbackClusterNode failed = nodes.remove(owner);
+		ports.remove(owner);
+		final CompletableFuture<Void> closed = new CompletableFuture<Void>();
+		failed.close(ClusterTestSupport.complete(closed));
+		closed.get(30, TimeUnit.SECONDS);
+		ClusterTestSupport.awaitMembers(nodes, NODES - 1);
+
+		// The backup now owns the table, and rebuilds it from its copy
+		final SetbackClusterNode promoted = nodes.get(backup > owner ? backup - 1 : backup);
+		assertEquals(promoted.getNodeId(), promoted.ownerOf(tableId));
+		final int promotedPort = ports.get(backup > owner ? backup - 1 : backup);
+		final ClusterTestSupport.Client returning = new ClusterTestSupport.Client(promotedPort, tableId);
+		// Only the player who had the seat can take it back
+		assertEquals("Player " + seats[nextSeat].toLowerCase() + " rejected",
+				returning.send("REQUEST_PLAYER_" + seats[nextSeat]));
+		assertTrue(returning.send("RESUME " + tokens.get(nextSeat) + " 0").endsWith(nextBettor));
+		assertEquals(bettor, returning.send("GET_CURRENT_PLAYER"));
+		assertTrue(returning.send("PLACE_BET PASS").endsWith(nextBettor + " BET PASS"));
+		assertEquals(6, promoted.getTables().get(tableId).getMoves().size());
+		returning.close();
+	}
+
+	private static int indexOf(String nodeId) {
+		for (int index = 0; index < nodes.size(); index++) {
+			if (nodes.get(index).getNodeId().equals(nodeId)) {
+				return index;
+			}
+		}
+		throw new IllegalArgumentException(nodeId);
+	}
+
+	private static int seatOf(String player) {
+		final String[] players = {"PLAYER_ONE", "PLAYER_TWO", "PLAYER_THREE", "PLAYER_FOUR"};
+		for (int seat = 0; seat < players.length; seat++) {
+			if (player.endsWith(players[seat])) {
+				return seat;
+			}
+		}
+		throw new IllegalArgumentException(player);
+	}
+}
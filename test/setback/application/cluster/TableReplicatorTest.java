@@ -0,0 +1,161 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.cluster;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.command.Command;
+import setback.application.move.MoveReplayerTest;
+import setback.application.move.Moves;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for copying a table's moves to its backup.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableReplicatorTest {
+
+	private static final long SEED = 1234;
+
+	// Seats, bets, trump and discards
+	private static final int FIRST_CARD = 13;
+
+	private Vertx vertx;
+	private ConsistentHashRing ring;
+	private final List<Message<JsonObject>> held = new ArrayList<Message<JsonObject>>();
+	private boolean answering;
+
+	@Before
+	public void setup() {
+		vertx = Vertx.vertx();
+		ring = new ConsistentHashRing();
+		ring.setNodes(Arrays.asList("owner", "backup"));
+	}
+
+	@After
+	public void teardown() {
+		vertx.close();
+	}
+
+	@Test
+	public void lastCardOfARestoredTrickWaitsForTheBackup() throws Exception {
+		final SetbackTable original = new SetbackTable("replicated", SEED);
+		assertEquals(FIRST_CARD + 2, MoveReplayerTest.playMoves(original, FIRST_CARD + 2));
+		final int[] moves = original.getMoves().toArray();
+		final SetbackTable table = SetbackTable.restore("replicated", SEED, moves, moves.length);
+		final PlayerNumber player = table.getGame().getCurrentPlayer();
+		standInForTheBackup(table);
+
+		final TableReplicator replicator = new TableReplicator(vertx, ring, table,
+				ReplicationMode.SYNC_PER_TRICK, TableReplicator.DEFAULT_MAX_LAG);
+		table.setMoveListener(replicator);
+		replicator.start();
+		table.moveMade(Moves.pack(player, Command.PLAY_CARD, 0, 0, 0));
+		assertTrue(settles(table, 1000));
+		// The fourth card of the trick, although only the second this replicator saw
+		table.moveMade(Moves.pack(player, Command.PLAY_CARD, 0, 0, 0));
+		assertFalse(settles(table, 200));
+		answer();
+		assertTrue(settles(table, 5000));
+		assertEquals(FIRST_CARD + 4, replicator.getAcknowledged());
+	}
+
+	@Test
+	public void movesDoNotWaitWhileTheGameIsLocked() throws Exception {
+		final SetbackTable table = new SetbackTable("replicated", SEED);
+		standInForTheBackup(table);
+		// Every move is too far ahead of the backup
+		final TableReplicator replicator = new TableReplicator(vertx, ring, table,
+				ReplicationMode.ASYNC, 0);
+		table.setMoveListener(replicator);
+		final long start = System.currentTimeMillis();
+		synchronized (table.getGame()) {
+			MoveReplayerTest.playMoves(table, 5);
+		}
+		assertTrue(System.currentTimeMillis() - start < 1000);
+		assertFalse(settles(table, 200));
+		answer();
+		assertTrue(settles(table, 5000));
+	}
+
+	@Test
+	public void stoppingLetsGoOfTheWaitingThreads() throws Exception {
+		final SetbackTable table = new SetbackTable("replicated", SEED);
+		standInForTheBackup(table);
+		final TableReplicator replicator = new TableReplicator(vertx, ring, table,
+				ReplicationMode.ASYNC, 0);
+		table.setMoveListener(replicator);
+		MoveReplayerTest.playMoves(table, 1);
+		assertFalse(settles(table, 200));
+		replicator.stop();
+		assertTrue(settles(table, 1000));
+	}
+
+	/**
+	 * Helper function that registers for the backup's messages, and holds
+	 * on to them without answering until told to.
+	 * @param table The table being copied.
+	 */
+	private void standInForTheBackup(SetbackTable table) {
+		final String backup = ring.backupFor(table.getId());
+		assertNotNull(backup);
+		vertx.eventBus().consumer(StandbyStore.address(backup), (Message<JsonObject> message) -> {
+			synchronized (held) {
+				if (answering) {
+					reply(message);
+				}
+				else {
+					held.add(message);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Helper function that answers the held messages, and every one after them.
+	 */
+	private void answer() {
+		vertx.runOnContext(ignored -> {
+			synchronized (held) {
+				answering = true;
+				for (Message<JsonObject> message : held) {
+					reply(message);
+				}
+				held.clear();
+			}
+		});
+	}
+
+	private static void reply(Message<JsonObject> message) {
+		final JsonObject body = message.body();
+		message.reply(new JsonObject().put("acknowledged",
+				body.getInteger("from") + body.getJsonArray("moves").size()));
+	}
+
+	/**
+	 * Helper function that waits for the table's moves to settle on another thread.
+	 * @param table The table.
+	 * @param millis How long to give it.
+	 * @return True if the moves settled in time.
+	 */
+	private static boolean settles(SetbackTable table, long millis) throws InterruptedException {
+		final Thread thread = new Thread(table::awaitSettled);
+		thread.start();
+		thread.join(millis);
+		return !thread.isAlive();
+	}
+}
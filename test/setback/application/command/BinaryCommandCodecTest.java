@@ -0,0 +1,244 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import org.junit.Before;
+import org.junit.Test;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.BetResult;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.CardType;
+import setback.game.common.Hand;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static setback.application.command.BinaryProtocol.*;
+
+/**
+ * Tests for the binary protocol codec.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class BinaryCommandCodecTest {
+
+	private BinaryCommandCodec codec;
+	private CommandFrame frame;
+
+	@Before
+	public void setup() {
+		codec = new BinaryCommandCodec();
+		frame = new CommandFrame();
+	}
+
+	@Test
+	public void cardOrdinalRoundTripTest() {
+		for (CardSuit suit : CardSuit.values()) {
+			for (CardType type : CardType.values()) {
+				final Card card = new Card(type, suit);
+				assertEquals(card, Card.fromOrdinal(card.getOrdinal()));
+			}
+		}
+		assertNull(Card.fromOrdinal(-1));
+		assertNull(Card.fromOrdinal(Card.DECK_SIZE));
+	}
+
+	@Test
+	public void playCardIsThreeBytesTest() throws IOException, SetbackException {
+		final Card card = new Card(CardType.JACK, CardSuit.HEARTS);
+		final int size = codec.encodeCommand(Command.PLAY_CARD, card.getOrdinal(), 0, 0);
+		assertEquals(3, size);
+		assertTrue(readBack(frame));
+		assertEquals(Command.PLAY_CARD, frame.getCommand());
+		assertEquals(card, frame.getCardOne());
+	}
+
+	@Test
+	public void discardCardsRoundTripTest() throws IOException, SetbackException {
+		final Card one = new Card(CardType.TWO, CardSuit.SPADES);
+		final Card two = new Card(CardType.ACE, CardSuit.CLUBS);
+		final Card three = new Card(CardType.KING, CardSuit.DIAMONDS);
+		codec.encodeCommand(Command.DISCARD_CARDS,
+				one.getOrdinal(), two.getOrdinal(), three.getOrdinal());
+		assertTrue(readBack(frame));
+		assertEquals(Command.DISCARD_CARDS, frame.getCommand());
+		assertEquals(one, frame.getCardOne());
+		assertEquals(two, frame.getCardTwo());
+		assertEquals(three, frame.getCardThree());
+	}
+
+	@Test
+	public void placeBetRoundTripTest() throws IOException, SetbackException {
+		codec.encodeCommand(Command.PLACE_BET, Bet.FOUR.ordinal(), 0, 0);
+		assertTrue(readBack(frame));
+		assertEquals(Bet.FOUR, frame.getBet());
+	}
+
+	@Test
+	public void resumeRoundTripTest() throws IOException, SetbackException {
+		final long token = 0xFEDCBA9876543210L;
+		final int size = codec.encodeCommand(Command.RESUME, (int) (token >>> 32), (int) token, 1000);
+		assertEquals(14, size);
+		assertTrue(readBack(frame));
+		assertEquals(Command.RESUME, frame.getCommand());
+		assertEquals(token, CommandParser.getToken(frame));
+		assertEquals(1000, frame.getArgumentThree());
+	}
+
+	@Test
+	public void sessionReplyTest() throws IOException, SetbackException {
+		codec.encodeSession(-5, 77);
+		assertEquals(REPLY_SESSION, readBackReply());
+		final ByteBuffer payload = codec.getPayload();
+		assertEquals(-5, payload.getLong());
+		assertEquals(77, payload.getLong());
+	}
+
+	@Test
+	public void replayRoundTripTest() throws IOException, SetbackException {
+		codec.encodeCommand(Command.REPLAY, 12, 140, 0);
+		assertTrue(readBack(frame));
+		assertEquals(Command.REPLAY, frame.getCommand());
+		assertEquals(12, frame.getArgumentOne());
+		assertEquals(140, frame.getArgumentTwo());
+
+		codec.encodeReplay(140, 184, 0x1234, -3, 21);
+		assertEquals(REPLY_REPLAY, readBackReply());
+		final ByteBuffer payload = codec.getPayload();
+		assertEquals(140, BinaryCommandCodec.readVarInt(payload));
+		assertEquals(184, BinaryCommandCodec.readVarInt(payload));
+		assertEquals(0x1234, payload.getInt());
+		assertEquals(-3, BinaryCommandCodec.decodeZigZag(BinaryCommandCodec.readVarInt(payload)));
+		assertEquals(21, BinaryCommandCodec.decodeZigZag(BinaryCommandCodec.readVarInt(payload)));
+	}
+
+	@Test(expected = SetbackException.class)
+	public void unknownOpcodeTest() throws SetbackException {
+		BinaryCommandCodec.decodeCommand(0x7F, ByteBuffer.allocate(0), frame);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void invalidCardTest() throws SetbackException {
+		final ByteBuffer payload = ByteBuffer.wrap(new byte[]{(byte) Card.DECK_SIZE});
+		BinaryCommandCodec.decodeCommand(Command.PLAY_CARD.getOpcode(), payload, frame);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void tooManyArgumentsTest() throws SetbackException {
+		final ByteBuffer payload = ByteBuffer.wrap(new byte[]{1});
+		BinaryCommandCodec.decodeCommand(Command.SHOW_HAND.getOpcode(), payload, frame);
+	}
+
+	@Test(expected = StreamCorruptedException.class)
+	public void frameTooLongTest() throws IOException {
+		codec.readFrame(new ByteArrayInputStream(new byte[]{(byte) 0xFF, 0x7F, 1}));
+	}
+
+	@Test(expected = StreamCorruptedException.class)
+	public void emptyFrameTest() throws IOException {
+		codec.readFrame(new ByteArrayInputStream(new byte[]{0, 1}));
+	}
+
+	@Test
+	public void endOfStreamTest() throws IOException, SetbackException {
+		assertFalse(codec.readCommand(new ByteArrayInputStream(new byte[0]), frame));
+	}
+
+	@Test
+	public void handReplyTest() throws IOException, SetbackException {
+		final Hand hand = new Hand(PlayerNumber.PLAYER_THREE);
+		final List<Card> cards = new ArrayList<Card>(Arrays.asList(
+				new Card(CardType.TEN, CardSuit.SPADES), new Card(CardType.ACE, CardSuit.HEARTS)));
+		hand.setCards(cards);
+		codec.encodeHand(hand);
+		assertEquals(REPLY_HAND, readBackReply());
+		final ByteBuffer payload = codec.getPayload();
+		assertEquals(PlayerNumber.PLAYER_THREE, BinaryCommandCodec.readPlayer(payload));
+		final List<Card> result = new ArrayList<Card>();
+		BinaryCommandCodec.readCards(payload, result);
+		assertEquals(cards, result);
+	}
+
+	@Test
+	public void handFrameIsKeptUntilTheHandChangesTest() throws IOException, SetbackException {
+		final Hand hand = new Hand(PlayerNumber.PLAYER_ONE);
+		hand.setCards(new ArrayList<Card>(Arrays.asList(new Card(CardType.TWO, CardSuit.CLUBS),
+				new Card(CardType.ACE, CardSuit.HEARTS))));
+		final BinaryCommandReply reply = new BinaryCommandReply(codec);
+		reply.hand(hand);
+		final byte[] first = codec.toByteArray();
+		codec.encodeScore(3);
+		reply.hand(hand);
+		assertArrayEquals(first, codec.toByteArray());
+
+		hand.removeCard(new Card(CardType.TWO, CardSuit.CLUBS));
+		reply.hand(hand);
+		assertEquals(REPLY_HAND, readBackReply());
+		final ByteBuffer payload = codec.getPayload();
+		assertEquals(PlayerNumber.PLAYER_ONE, BinaryCommandCodec.readPlayer(payload));
+		final List<Card> result = new ArrayList<Card>();
+		BinaryCommandCodec.readCards(payload, result);
+		assertEquals(Arrays.asList(new Card(CardType.ACE, CardSuit.HEARTS)), result);
+	}
+
+	@Test
+	public void negativeScoreReplyTest() throws IOException, SetbackException {
+		codec.encodeScore(-11);
+		assertEquals(REPLY_SCORE, readBackReply());
+		final int score = BinaryCommandCodec.readVarInt(codec.getPayload());
+		assertEquals(-11, BinaryCommandCodec.decodeZigZag(score));
+	}
+
+	@Test
+	public void betReplyTest() throws IOException, SetbackException {
+		codec.encodeBet(new BetResult(PlayerNumber.PLAYER_TWO, Bet.THREE));
+		assertEquals(REPLY_BET, readBackReply());
+		final ByteBuffer payload = codec.getPayload();
+		assertEquals(PlayerNumber.PLAYER_TWO, BinaryCommandCodec.readPlayer(payload));
+		assertEquals(Bet.THREE.ordinal(), payload.get());
+	}
+
+	@Test
+	public void longTextReplyTest() throws IOException, SetbackException {
+		final StringBuilder builder = new StringBuilder();
+		for (int index = 0; index < 200; index++) {
+			builder.append("You must start the game!");
+		}
+		final int size = codec.encodeText(REPLY_ERROR, builder.toString());
+		assertTrue(size <= MAX_LENGTH_PREFIX + MAX_FRAME_LENGTH);
+		assertEquals(REPLY_ERROR, readBackReply());
+		assertTrue(BinaryCommandCodec.readText(codec.getPayload()).startsWith("You must start the game!"));
+	}
+
+	/**
+	 * Helper function that writes the last encoded frame and
+	 * reads it back as a command with a second codec.
+	 */
+	private boolean readBack(CommandFrame result) throws IOException, SetbackException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.writeTo(out);
+		return new BinaryCommandCodec().readCommand(new ByteArrayInputStream(out.toByteArray()), result);
+	}
+
+	/**
+	 * Helper function that writes the last encoded frame and
+	 * reads it back into the same codec.
+	 */
+	private int readBackReply() throws IOException, SetbackException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.writeTo(out);
+		return codec.readFrame(new ByteArrayInputStream(out.toByteArray()));
+	}
+}
@@ -0,0 +1,102 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.command;
+
+import org.junit.Before;
+import org.junit.Test;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.CardType;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for decoding text commands straight into CommandFrames.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class CommandParserTest {
+
+	private CommandParser parser;
+	private CommandFrame frame;
+
+	@Before
+	public void setup() {
+		parser = new CommandParser();
+		frame = new CommandFrame();
+	}
+
+	@Test
+	public void nullInputTest() throws SetbackException {
+		assertEquals(Command.NO_COMMAND, parser.parseFrame(null, frame).getCommand());
+	}
+
+	@Test
+	public void placeBetTest() throws SetbackException {
+		parser.parseFrame("PLACE_BET PASS", frame);
+		assertEquals(Command.PLACE_BET, frame.getCommand());
+		assertEquals(Bet.PASS, frame.getBet());
+	}
+
+	@Test
+	public void discardCardsTest() throws SetbackException {
+		parser.parseFrame("DISCARD_CARDS Six-of-Clubs Seven-of-Clubs Four-of-Hearts", frame);
+		assertEquals(Command.DISCARD_CARDS, frame.getCommand());
+		assertEquals(new Card(CardType.SIX, CardSuit.CLUBS), frame.getCardOne());
+		assertEquals(new Card(CardType.SEVEN, CardSuit.CLUBS), frame.getCardTwo());
+		assertEquals(new Card(CardType.FOUR, CardSuit.HEARTS), frame.getCardThree());
+	}
+
+	@Test
+	public void jsonToFrameTest() throws SetbackException {
+		final CommandMessageJson json = CommandMessageJson.constructCommandMessage(
+				Command.SELECT_TRUMP, "HEARTS");
+		CommandParser.toFrame(json, frame);
+		assertEquals(Command.SELECT_TRUMP, frame.getCommand());
+		assertEquals(CardSuit.HEARTS, frame.getSuit());
+	}
+
+	@Test
+	public void resumeTest() throws SetbackException {
+		parser.parseFrame("RESUME 80000000000000ff 42", frame);
+		assertEquals(Command.RESUME, frame.getCommand());
+		assertEquals(0x80000000000000FFL, CommandParser.getToken(frame));
+		assertEquals(42, frame.getArgumentThree());
+	}
+
+	@Test
+	public void formatTokenTest() throws SetbackException {
+		assertEquals("00000000000000ff", CommandParser.formatToken(0xFF));
+		parser.parseFrame("RESUME " + CommandParser.formatToken(-2) + " 0", frame);
+		assertEquals(-2, CommandParser.getToken(frame));
+	}
+
+	@Test(expected = SetbackException.class)
+	public void invalidTokenTest() throws SetbackException {
+		parser.parseFrame("RESUME token 0", frame);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void unknownCommandTest() throws SetbackException {
+		parser.parseFrame("SHUFFLE", frame);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void tooManyArgumentsTest() throws SetbackException {
+		parser.parseFrame("SHOW_HAND PLEASE", frame);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void tooFewArgumentsTest() throws SetbackException {
+		parser.parseFrame("DISCARD_CARDS Six-of-Clubs", frame);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void invalidArgumentTest() throws SetbackException {
+		parser.parseFrame("PLAY_CARD Joker", frame);
+	}
+}
@@ -0,0 +1,276 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import org.junit.Before;
+import org.junit.Test;
+import setback.common.PlayerNumber;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the asynchronous observer queues.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class AsyncObserverTest {
+
+	private ManualExecutor executor;
+	private RecordingSubscriber subscriber;
+	private SlowConsumerMetrics metrics;
+
+	@Before
+	public void setup() {
+		executor = new ManualExecutor();
+		subscriber = new RecordingSubscriber();
+		metrics = new SlowConsumerMetrics();
+	}
+
+	@Test
+	public void eventsAreDeliveredInOrderOnTheExecutor() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 4, OverflowPolicy.DISCONNECT, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(TrickWonEvent.of(PlayerNumber.PLAYER_ONE));
+		assertTrue(subscriber.events.isEmpty());
+		assertEquals(1, executor.tasks.size());
+		executor.runAll();
+		assertEquals(2, subscriber.events.size());
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, subscriber.events.get(0));
+		assertSame(TrickWonEvent.of(PlayerNumber.PLAYER_ONE), subscriber.events.get(1));
+		assertEquals(2, metrics.getDelivered());
+		assertEquals(0, observer.getQueueDepth());
+	}
+
+	@Test
+	public void drainDeliversOnTheCallingThread() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 4, OverflowPolicy.DISCONNECT, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(TrickWonEvent.of(PlayerNumber.PLAYER_ONE));
+		observer.drain();
+		assertEquals(2, subscriber.events.size());
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, subscriber.events.get(0));
+		// The executor finds nothing left, and is scheduled again by the next event
+		executor.runAll();
+		assertEquals(2, subscriber.events.size());
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		assertEquals(1, executor.tasks.size());
+		executor.runAll();
+		assertEquals(3, subscriber.events.size());
+	}
+
+	@Test
+	public void eachBatchIsFlushedOnce() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 4, OverflowPolicy.DISCONNECT, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(GameEvent.TRICK_STARTED_EVENT);
+		executor.runAll();
+		assertEquals(1, subscriber.flushes);
+		// Whoever drains the queue sends the events along with its own writes
+		observer.update(GameEvent.ROUND_ENDED_EVENT);
+		observer.drain();
+		executor.runAll();
+		assertEquals(1, subscriber.flushes);
+	}
+
+	@Test
+	public void eventsDuringAFlushWaitForTheRunToFinish() {
+		final AsyncObserver[] observer = new AsyncObserver[1];
+		final RecordingSubscriber flushing = new RecordingSubscriber() {
+			@Override
+			public void flush() {
+				super.flush();
+				if (flushes == 1) {
+					observer[0].update(GameEvent.TRICK_STARTED_EVENT);
+					// A second run now could flush the socket at the same time
+					assertTrue(executor.tasks.isEmpty());
+				}
+			}
+		};
+		observer[0] = new AsyncObserver(flushing, executor, 4, OverflowPolicy.DISCONNECT, metrics);
+		observer[0].update(GameEvent.ROUND_BEGIN_EVENT);
+		executor.runAll();
+		assertEquals(2, flushing.events.size());
+		assertEquals(2, flushing.flushes);
+		assertEquals(0, observer[0].getQueueDepth());
+	}
+
+	@Test
+	public void heldEventsWaitForTheRelease() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 4, OverflowPolicy.DISCONNECT, metrics);
+		observer.hold();
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(GameEvent.TRICK_STARTED_EVENT);
+		assertTrue(executor.tasks.isEmpty());
+		observer.release();
+		executor.runAll();
+		assertEquals(2, subscriber.events.size());
+		assertEquals(1, subscriber.flushes);
+		// Delivery carries on as usual from then on
+		observer.update(GameEvent.ROUND_ENDED_EVENT);
+		assertEquals(1, executor.tasks.size());
+	}
+
+	@Test
+	public void coalesceLetsASnapshotStandInForTheQueue() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 2, OverflowPolicy.COALESCE, metrics);
+		final SnapshotEvent snapshot = new SnapshotEvent(3, 2);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(GameEvent.BETTING_RESOLVED_EVENT);
+		observer.update(snapshot);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		executor.runAll();
+		assertEquals(2, subscriber.events.size());
+		assertSame(snapshot, subscriber.events.get(0));
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, subscriber.events.get(1));
+		assertEquals(0, subscriber.resyncs);
+		assertEquals(2, metrics.getCoalesced());
+		assertEquals(1, observer.getOverflows());
+	}
+
+	@Test
+	public void coalesceResyncsRatherThanLoseAnEvent() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 2, OverflowPolicy.COALESCE, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(GameEvent.BETTING_RESOLVED_EVENT);
+		observer.update(GameEvent.TRICK_STARTED_EVENT);
+		executor.runAll();
+		assertTrue(subscriber.events.isEmpty());
+		assertEquals(1, subscriber.resyncs);
+		assertEquals(0, metrics.getCoalesced());
+		assertEquals(3, metrics.getDropped());
+	}
+
+	@Test
+	public void dropToResyncSkipsToTheResync() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 2, OverflowPolicy.DROP_TO_RESYNC, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(GameEvent.BETTING_RESOLVED_EVENT);
+		observer.update(GameEvent.TRICK_STARTED_EVENT);
+		observer.update(GameEvent.ROUND_ENDED_EVENT);
+		executor.runAll();
+		assertTrue(subscriber.events.isEmpty());
+		assertEquals(1, subscriber.resyncs);
+		assertEquals(3, metrics.getDropped());
+		assertEquals(1, metrics.getResyncs());
+
+		// Once resynced, events flow again
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		executor.runAll();
+		assertEquals(1, subscriber.events.size());
+	}
+
+	@Test
+	public void disconnectStopsDelivery() {
+		final AsyncObserver observer = new AsyncObserver(subscriber, executor, 1, OverflowPolicy.DISCONNECT, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		observer.update(GameEvent.BETTING_RESOLVED_EVENT);
+		observer.update(GameEvent.TRICK_STARTED_EVENT);
+		executor.runAll();
+		assertTrue(subscriber.events.isEmpty());
+		assertTrue(subscriber.disconnected);
+		assertEquals(1, metrics.getDisconnects());
+	}
+
+	@Test
+	public void closesOnceTheExecutorIsShutDown() {
+		final ExecutorService pool = Executors.newSingleThreadExecutor();
+		pool.shutdown();
+		final AsyncObserver observer = new AsyncObserver(subscriber, pool, 4, OverflowPolicy.DISCONNECT, metrics);
+		observer.update(GameEvent.ROUND_BEGIN_EVENT);
+		assertEquals(0, observer.getQueueDepth());
+		// Nothing is queued for an executor that will never run it
+		observer.update(GameEvent.BETTING_RESOLVED_EVENT);
+		assertEquals(0, observer.getQueueDepth());
+		observer.hold();
+		observer.release();
+		assertTrue(subscriber.events.isEmpty());
+	}
+
+	@Test
+	public void slowSubscriberDoesNotDelayTheOthers() throws InterruptedException {
+		final ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			final CountDownLatch release = new CountDownLatch(1);
+			final CountDownLatch fastDone = new CountDownLatch(1);
+			final RecordingSubscriber slow = new RecordingSubscriber() {
+				@Override
+				public void update(GameEvent event) {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					super.update(event);
+				}
+			};
+			final RecordingSubscriber fast = new RecordingSubscriber() {
+				@Override
+				public void update(GameEvent event) {
+					super.update(event);
+					fastDone.countDown();
+				}
+			};
+			final AsyncObserver slowObserver = new AsyncObserver(slow, pool, 8, OverflowPolicy.DISCONNECT, metrics);
+			final AsyncObserver fastObserver = new AsyncObserver(fast, pool, 8, OverflowPolicy.DISCONNECT, metrics);
+
+			// The publishing thread returns even though the slow subscriber is stuck
+			slowObserver.update(GameEvent.ROUND_BEGIN_EVENT);
+			fastObserver.update(GameEvent.ROUND_BEGIN_EVENT);
+			assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+			assertTrue(slow.events.isEmpty());
+			release.countDown();
+		} finally {
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+		}
+	}
+
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		void runAll() {
+			while (!tasks.isEmpty()) {
+				tasks.remove().run();
+			}
+		}
+	}
+
+	private static class RecordingSubscriber implements EventSubscriber {
+		final List<GameEvent> events = new ArrayList<GameEvent>();
+		int resyncs;
+		int flushes;
+		boolean disconnected;
+
+		public void update(GameEvent event) {
+			events.add(event);
+		}
+
+		public void resync() {
+			resyncs++;
+		}
+
+		public void disconnect() {
+			disconnected = true;
+		}
+
+		public void flush() {
+			flushes++;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import org.junit.Test;
+import setback.common.PlayerNumber;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ring buffer of public events.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class EventRingBufferTest {
+
+	@Test
+	public void capacityIsRoundedUp() {
+		assertEquals(1, new EventRingBuffer(1).getCapacity());
+		assertEquals(8, new EventRingBuffer(5).getCapacity());
+		assertEquals(8, new EventRingBuffer(8).getCapacity());
+	}
+
+	@Test
+	public void eventsAreReadBySequence() {
+		final EventRingBuffer buffer = new EventRingBuffer(4);
+		assertNull(buffer.get(0));
+		assertEquals(0, buffer.publish(GameEvent.ROUND_BEGIN_EVENT));
+		assertEquals(1, buffer.publish(TrickWonEvent.of(PlayerNumber.PLAYER_TWO)));
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, buffer.get(0));
+		assertSame(TrickWonEvent.of(PlayerNumber.PLAYER_TWO), buffer.get(1));
+		assertNull(buffer.get(2));
+		assertEquals(2, buffer.getPublished());
+		assertEquals(0, buffer.getOldest());
+	}
+
+	@Test
+	public void overwrittenEventsAreGone() {
+		final EventRingBuffer buffer = new EventRingBuffer(2);
+		buffer.publish(GameEvent.ROUND_BEGIN_EVENT);
+		buffer.publish(GameEvent.BETTING_RESOLVED_EVENT);
+		buffer.publish(GameEvent.TRICK_STARTED_EVENT);
+		assertNull(buffer.get(0));
+		assertSame(GameEvent.BETTING_RESOLVED_EVENT, buffer.get(1));
+		assertSame(GameEvent.TRICK_STARTED_EVENT, buffer.get(2));
+		assertEquals(1, buffer.getOldest());
+	}
+}
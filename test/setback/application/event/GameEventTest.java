@@ -0,0 +1,145 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import org.junit.Test;
+import setback.application.SetbackObserver;
+import setback.application.command.BinaryCommandCodec;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.common.CardSuit;
+import setback.game.common.CardType;
+import setback.game.version.SetbackMultiplayerGame;
+import setback.game.version.delta.DeltaSetbackGameImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static setback.application.command.BinaryProtocol.*;
+
+/**
+ * Tests for the shared game events.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameEventTest {
+
+	private static final Card ACE_OF_SPADES = new Card(CardType.ACE, CardSuit.SPADES);
+
+	@Test
+	public void textMatchesTheOldMessages() {
+		assertEquals("ROUND BEGIN ", GameEvent.ROUND_BEGIN_EVENT.getTextLine());
+		assertEquals("PlayerTwoSelected", PlayerSelectedEvent.of(PlayerNumber.PLAYER_TWO).toString());
+		assertEquals("PLAYER_TWO BET PASS", BetPlacedEvent.of(PlayerNumber.PLAYER_TWO, Bet.PASS).toString());
+		assertEquals("PLAYER_ONE SELECTED Spades",
+				TrumpSelectedEvent.of(PlayerNumber.PLAYER_ONE, CardSuit.SPADES).toString());
+		assertEquals("PLAYER_THREE DISCARDED", CardsDiscardedEvent.of(PlayerNumber.PLAYER_THREE).toString());
+		assertEquals("PLAYER_ONE PLAYED Ace-of-Spades ",
+				CardPlayedEvent.of(PlayerNumber.PLAYER_ONE, ACE_OF_SPADES).getTextLine());
+		assertEquals("PLAYER_FOUR WON TRICK", TrickWonEvent.of(PlayerNumber.PLAYER_FOUR).toString());
+	}
+
+	@Test
+	public void eventsAreShared() {
+		assertSame(CardPlayedEvent.of(PlayerNumber.PLAYER_ONE, ACE_OF_SPADES),
+				CardPlayedEvent.of(PlayerNumber.PLAYER_ONE, new Card(CardType.ACE, CardSuit.SPADES)));
+		assertSame(BetPlacedEvent.of(PlayerNumber.PLAYER_ONE, Bet.TWO).getFrame(),
+				BetPlacedEvent.of(PlayerNumber.PLAYER_ONE, Bet.TWO).getFrame());
+	}
+
+	@Test
+	public void frameContainsTheDetails() {
+		final byte[] frame = CardPlayedEvent.of(PlayerNumber.PLAYER_THREE, ACE_OF_SPADES).getFrame();
+		assertEquals(4, frame.length);
+		assertEquals(3, frame[0]);
+		assertEquals(EVENT_CARD_PLAYED, frame[1] & 0xFF);
+		assertEquals(PlayerNumber.PLAYER_THREE.ordinal(), frame[2]);
+		assertEquals(ACE_OF_SPADES.getOrdinal(), frame[3]);
+	}
+
+	@Test
+	public void everyEventSurvivesTheCodec() throws IOException, SetbackException {
+		final List<GameEvent> events = new ArrayList<GameEvent>();
+		events.add(GameEvent.ROUND_BEGIN_EVENT);
+		events.add(GameEvent.BETTING_RESOLVED_EVENT);
+		events.add(GameEvent.TRICK_STARTED_EVENT);
+		events.add(GameEvent.ROUND_ENDED_EVENT);
+		events.add(GameEvent.RESYNC_EVENT);
+		for (PlayerNumber player : PlayerNumber.values()) {
+			events.add(PlayerSelectedEvent.of(player));
+			events.add(CardsDiscardedEvent.of(player));
+			events.add(TrickWonEvent.of(player));
+			for (Bet bet : Bet.values()) {
+				events.add(BetPlacedEvent.of(player, bet));
+			}
+			for (CardSuit suit : CardSuit.values()) {
+				events.add(TrumpSelectedEvent.of(player, suit));
+			}
+			for (int ordinal = 0; ordinal < Card.DECK_SIZE; ordinal++) {
+				events.add(CardPlayedEvent.of(player, Card.fromOrdinal(ordinal)));
+			}
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (GameEvent event : events) {
+			bytes.write(event.getFrame());
+		}
+		final BinaryCommandCodec codec = new BinaryCommandCodec();
+		final ByteArrayInputStream in = new ByteArrayInputStream(bytes.toByteArray());
+		for (GameEvent event : events) {
+			final int opcode = codec.readFrame(in);
+			assertEquals(event.getType().getOpcode(), opcode);
+			assertSame(event, GameEvent.fromFrame(opcode, codec.getPayload()));
+		}
+		assertEquals(-1, codec.readFrame(in));
+	}
+
+	@Test
+	public void snapshotSurvivesTheCodec() throws IOException, SetbackException {
+		final SnapshotEvent snapshot = new SnapshotEvent(-3, 11);
+		assertEquals("SNAPSHOT -3 11", snapshot.toString());
+		final BinaryCommandCodec codec = new BinaryCommandCodec();
+		final int opcode = codec.readFrame(new ByteArrayInputStream(snapshot.getFrame()));
+		assertEquals(EVENT_SNAPSHOT, opcode);
+		final SnapshotEvent copy = (SnapshotEvent) GameEvent.fromFrame(opcode, codec.getPayload());
+		assertEquals(-3, copy.getTeamOneScore());
+		assertEquals(11, copy.getTeamTwoScore());
+	}
+
+	@Test
+	public void gameSendsTheSameEventToEveryObserver() throws SetbackException {
+		final SetbackMultiplayerGame game = new DeltaSetbackGameImpl(0);
+		final List<GameEvent> first = new ArrayList<GameEvent>();
+		final List<GameEvent> second = new ArrayList<GameEvent>();
+		game.addObserver(new RecordingObserver(first));
+		game.addObserver(new RecordingObserver(second));
+		game.requestPlayerNumber(PlayerNumber.PLAYER_ONE);
+		game.startGame();
+		game.startRound();
+		game.placeBet(PlayerNumber.PLAYER_TWO, Bet.PASS);
+		assertEquals(3, first.size());
+		assertSame(PlayerSelectedEvent.of(PlayerNumber.PLAYER_ONE), first.get(0));
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, first.get(1));
+		assertSame(BetPlacedEvent.of(PlayerNumber.PLAYER_TWO, Bet.PASS), first.get(2));
+		assertEquals(first, second);
+	}
+
+	private static class RecordingObserver implements SetbackObserver {
+		private final List<GameEvent> events;
+
+		RecordingObserver(List<GameEvent> events) {
+			this.events = events;
+		}
+
+		public void update(GameEvent event) {
+			events.add(event);
+		}
+	}
+}
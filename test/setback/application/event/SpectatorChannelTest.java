@@ -0,0 +1,235 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.event;
+
+import org.junit.Before;
+import org.junit.Test;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.version.SetbackMultiplayerGame;
+import setback.game.version.delta.DeltaSetbackGameImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the spectator broadcast channel.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SpectatorChannelTest {
+
+	private ManualExecutor executor;
+	private SetbackMultiplayerGame game;
+	private SpectatorChannel channel;
+
+	@Before
+	public void setup() {
+		executor = new ManualExecutor();
+		game = new DeltaSetbackGameImpl(0);
+		channel = new SpectatorChannel(game, executor, 8, new SlowConsumerMetrics());
+		game.addObserver(channel);
+	}
+
+	@Test
+	public void spectatorGetsSnapshotThenEvents() throws SetbackException {
+		final RecordingSpectator spectator = new RecordingSpectator();
+		channel.addSpectator(spectator);
+		executor.runAll();
+		assertEquals(1, spectator.events.size());
+		assertSame(SnapshotEvent.NEW_GAME, spectator.events.get(0));
+
+		game.requestPlayerNumber(PlayerNumber.PLAYER_ONE);
+		executor.runAll();
+		assertSame(PlayerSelectedEvent.of(PlayerNumber.PLAYER_ONE), spectator.events.get(1));
+		assertTrue(spectator.flushes > 0);
+	}
+
+	@Test
+	public void lateSpectatorGetsSnapshotPlusTail() throws SetbackException {
+		game.startGame();
+		game.startRound();
+		game.placeBet(PlayerNumber.PLAYER_TWO, Bet.PASS);
+		executor.runAll();
+
+		final RecordingSpectator late = new RecordingSpectator();
+		channel.addSpectator(late);
+		executor.runAll();
+		assertEquals(3, late.events.size());
+		assertSame(SnapshotEvent.NEW_GAME, late.events.get(0));
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, late.events.get(1));
+		assertSame(BetPlacedEvent.of(PlayerNumber.PLAYER_TWO, Bet.PASS), late.events.get(2));
+	}
+
+	@Test
+	public void roundEndMovesTheCheckpoint() {
+		channel.update(GameEvent.ROUND_BEGIN_EVENT);
+		channel.update(GameEvent.ROUND_ENDED_EVENT);
+		channel.update(GameEvent.ROUND_BEGIN_EVENT);
+		final RecordingSpectator late = new RecordingSpectator();
+		channel.addSpectator(late);
+		executor.runAll();
+		assertEquals(2, late.events.size());
+		assertEquals(GameEventType.SNAPSHOT, late.events.get(0).getType());
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, late.events.get(1));
+	}
+
+	@Test
+	public void privateEventsAreNotBroadcast() {
+		final RecordingSpectator spectator = new RecordingSpectator();
+		channel.addSpectator(spectator);
+		channel.update(GameEvent.RESYNC_EVENT);
+		executor.runAll();
+		assertEquals(1, spectator.events.size());
+		assertEquals(0, channel.getEvents().getPublished());
+	}
+
+	@Test
+	public void everySpectatorSharesOneDelivery() {
+		final List<RecordingSpectator> spectators = new ArrayList<RecordingSpectator>();
+		for (int count = 0; count < 1000; count++) {
+			final RecordingSpectator spectator = new RecordingSpectator();
+			spectators.add(spectator);
+			channel.addSpectator(spectator);
+		}
+		channel.update(GameEvent.ROUND_BEGIN_EVENT);
+		channel.update(GameEvent.BETTING_RESOLVED_EVENT);
+		assertEquals(1, executor.tasks.size());
+		executor.runAll();
+		for (RecordingSpectator spectator : spectators) {
+			assertEquals(3, spectator.events.size());
+			assertSame(GameEvent.BETTING_RESOLVED_EVENT, spectator.events.get(2));
+		}
+		assertEquals(1000, channel.getSpectatorCount());
+	}
+
+	@Test
+	public void overrunSpectatorResyncs() {
+		final RecordingSpectator spectator = new RecordingSpectator();
+		channel.addSpectator(spectator);
+		executor.runAll();
+		for (int count = 0; count < 20; count++) {
+			channel.update(GameEvent.TRICK_STARTED_EVENT);
+		}
+		channel.update(GameEvent.ROUND_ENDED_EVENT);
+		channel.update(GameEvent.ROUND_BEGIN_EVENT);
+		executor.runAll();
+		assertEquals(1, spectator.resyncs);
+		assertSame(GameEvent.ROUND_BEGIN_EVENT, spectator.events.get(spectator.events.size() - 1));
+		assertEquals(GameEventType.SNAPSHOT, spectator.events.get(spectator.events.size() - 2).getType());
+	}
+
+	@Test
+	public void removedSpectatorHearsNothing() {
+		final RecordingSpectator spectator = new RecordingSpectator();
+		channel.addSpectator(spectator);
+		executor.runAll();
+		channel.removeSpectator(spectator);
+		channel.update(GameEvent.ROUND_BEGIN_EVENT);
+		executor.runAll();
+		assertEquals(1, spectator.events.size());
+	}
+
+	@Test
+	public void fullQueueWaitsInTheBuffer() {
+		channel = new SpectatorChannel(game, executor, 8, 2, new SlowConsumerMetrics());
+		final RecordingSpectator spectator = new RecordingSpectator();
+		channel.addSpectator(spectator);
+		executor.runAll();
+		channel.update(GameEvent.ROUND_BEGIN_EVENT);
+		channel.update(GameEvent.BETTING_RESOLVED_EVENT);
+		channel.update(GameEvent.TRICK_STARTED_EVENT);
+		channel.update(TrickWonEvent.of(PlayerNumber.PLAYER_ONE));
+		channel.update(GameEvent.TRICK_STARTED_EVENT);
+		executor.runAll();
+		assertEquals(0, spectator.resyncs);
+		assertEquals(6, spectator.events.size());
+		assertSame(SnapshotEvent.NEW_GAME, spectator.events.get(0));
+		assertSame(GameEvent.BETTING_RESOLVED_EVENT, spectator.events.get(2));
+		assertSame(TrickWonEvent.of(PlayerNumber.PLAYER_ONE), spectator.events.get(4));
+		// Each queue full of events is flushed on its own
+		assertEquals(4, spectator.flushes);
+	}
+
+	@Test
+	public void slowSpectatorDoesNotHoldUpTheOthers() throws InterruptedException {
+		final ExecutorService pool = Executors.newFixedThreadPool(2);
+		final CountDownLatch release = new CountDownLatch(1);
+		try {
+			channel = new SpectatorChannel(game, pool, 8, new SlowConsumerMetrics());
+			final CountDownLatch received = new CountDownLatch(1);
+			channel.addSpectator(new RecordingSpectator() {
+				@Override
+				public void flush() {
+					try {
+						// A socket that will not take any more
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			channel.addSpectator(new RecordingSpectator() {
+				@Override
+				public void update(GameEvent event) {
+					if (event == GameEvent.ROUND_BEGIN_EVENT) {
+						received.countDown();
+					}
+				}
+			});
+			channel.update(GameEvent.ROUND_BEGIN_EVENT);
+			assertTrue(received.await(5, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+		}
+	}
+
+	private static class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new LinkedList<Runnable>();
+
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+
+		void runAll() {
+			while (!tasks.isEmpty()) {
+				tasks.remove().run();
+			}
+		}
+	}
+
+	private static class RecordingSpectator implements Spectator {
+		final List<GameEvent> events = new ArrayList<GameEvent>();
+		int resyncs;
+		int flushes;
+
+		public void update(GameEvent event) {
+			events.add(event);
+		}
+
+		public void resync() {
+			resyncs++;
+		}
+
+		public void disconnect() {
+		}
+
+		public void flush() {
+			flushes++;
+		}
+	}
+}
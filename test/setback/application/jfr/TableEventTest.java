@@ -0,0 +1,97 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.event.GameEventType;
+import setback.common.SetbackException;
+import setback.game.version.gamma.MockGammaSetbackImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static setback.utilities.TestUtilityFunctions.teamOneWinsRoundOnBet;
+
+/**
+ * Tests for the flight recorder events of a game.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableEventTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void everyPhaseIsRecordedWithItsTableTest() throws SetbackException, IOException {
+		final MockGammaSetbackImpl game = new MockGammaSetbackImpl(0, 0);
+		game.setTableId("recorded");
+		game.addObserver(event -> { });
+
+		final File file = folder.newFile("game.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(DealEvent.class);
+			recording.enable(BetResolutionEvent.class);
+			recording.enable(TrumpSelectionEvent.class);
+			recording.enable(TrickResolutionEvent.class);
+			recording.enable(RoundScoringEvent.class);
+			recording.enable(ObserverFanOutEvent.class);
+			recording.start();
+			teamOneWinsRoundOnBet(game);
+			recording.stop();
+			recording.dump(file.toPath());
+		}
+
+		final Map<String, RecordedEvent> byName = new HashMap<String, RecordedEvent>();
+		final List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+		for (RecordedEvent event : events) {
+			assertEquals("recorded", event.getString("table"));
+			byName.put(event.getEventType().getName(), event);
+		}
+		assertEquals("PLAYER_ONE", byName.get("setback.Deal").getString("dealer"));
+		assertEquals("PLAYER_ONE", byName.get("setback.BetResolution").getString("bettor"));
+		assertEquals("Spades", byName.get("setback.TrumpSelection").getString("trump"));
+		assertEquals("PLAYER_ONE", byName.get("setback.TrickResolution").getString("winner"));
+		assertEquals(4, byName.get("setback.RoundScoring").getInt("teamOnePoints"));
+		assertEquals(GameEventType.ROUND_ENDED.toString(),
+				byName.get("setback.ObserverFanOut").getString("eventType"));
+		assertEquals(1, byName.get("setback.ObserverFanOut").getInt("observers"));
+	}
+
+	@Test
+	public void nothingIsRecordedWhenDisabledTest() throws SetbackException, IOException {
+		final MockGammaSetbackImpl game = new MockGammaSetbackImpl(0, 0);
+		game.setTableId("quiet");
+
+		final File file = folder.newFile("quiet.jfr");
+		try (Recording recording = new Recording()) {
+			// Events are enabled unless a recording says otherwise
+			recording.enable(DealEvent.class);
+			recording.disable(BetResolutionEvent.class);
+			recording.disable(TrumpSelectionEvent.class);
+			recording.disable(TrickResolutionEvent.class);
+			recording.disable(RoundScoringEvent.class);
+			recording.disable(ObserverFanOutEvent.class);
+			recording.start();
+			teamOneWinsRoundOnBet(game);
+			recording.stop();
+			recording.dump(file.toPath());
+		}
+
+		final List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+		assertEquals(1, events.size());
+		assertEquals("setback.Deal", events.get(0).getEventType().getName());
+		assertEquals("quiet", events.get(0).getString("table"));
+	}
+}
@@ -0,0 +1,212 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.journal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.command.Command;
+import setback.application.event.GameEvent;
+import setback.application.event.GameEventType;
+import setback.application.move.MoveReplayerTest;
+import setback.application.move.Moves;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+import setback.game.common.RoundState;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the journal of moves.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameJournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File directory;
+	private GameJournal journal;
+
+	@Before
+	public void setup() throws IOException {
+		directory = new File(folder.getRoot(), "journal");
+		journal = new GameJournal(directory, 4096, 1);
+	}
+
+	@After
+	public void cleanUp() throws IOException {
+		journal.close();
+	}
+
+	@Test
+	public void movesAndResultsAreReadBackTest() throws IOException {
+		final SetbackTable table = new SetbackTable("journaled", 77);
+		table.setJournal(journal.open(table.getId(), table.getSeed()));
+		assertEquals(60, MoveReplayerTest.playMoves(table, 60));
+		journal.close();
+
+		final Recorder recorder = read();
+		assertEquals(Long.valueOf(77), recorder.seeds.get("journaled"));
+		final int[] expected = table.getMoves().toArray();
+		assertEquals(expected.length, recorder.moves.size());
+		for (int index = 0; index < expected.length; index++) {
+			assertEquals(expected[index], (int) recorder.moves.get(index));
+		}
+		// The first round ends after 49 moves, and the second is under way
+		int tricks = 0;
+		int rounds = 0;
+		for (GameEvent event : recorder.events) {
+			if (event.getType() == GameEventType.TRICK_WON) {
+				tricks++;
+			}
+			else {
+				assertSame(GameEventType.ROUND_ENDED, event.getType());
+				rounds++;
+			}
+		}
+		assertEquals(1, rounds);
+		assertTrue(tricks >= 9);
+		// A snapshot when each round began
+		assertEquals(2, recorder.rounds.size());
+		assertEquals(4, (int) recorder.rounds.get(0));
+		assertEquals(4 + 4 + 1 + 4 + 36, (int) recorder.rounds.get(1));
+	}
+
+	@Test
+	public void segmentsRollAndNameTheirTablesTest() throws IOException {
+		final TableJournal one = journal.open("one", 1);
+		final TableJournal two = journal.open("two", 2);
+		for (int index = 0; index < 1000; index++) {
+			(index % 2 == 0 ? one : two).moveMade(move(index));
+		}
+		journal.close();
+
+		assertTrue(GameJournal.listSegments(directory).length > 1);
+		final Recorder recorder = read();
+		assertTrue(recorder.opened > 2);
+		assertEquals(1000, recorder.moves.size());
+		for (int index = 0; index < 1000; index++) {
+			assertEquals(index % 2 == 0 ? "one" : "two", recorder.tables.get(index));
+			assertEquals(index / 2, (int) recorder.indexes.get(index));
+			assertEquals(move(index), (int) recorder.moves.get(index));
+		}
+		assertEquals(0, one.getFailures());
+	}
+
+	@Test
+	public void reopeningAppendsAfterTheOldSegmentsTest() throws IOException {
+		journal.open("first", 1).moveMade(move(1));
+		journal.close();
+		journal = new GameJournal(directory, 4096, 1);
+		journal.open("second", 2).moveMade(move(2));
+		journal.close();
+
+		assertEquals(2, GameJournal.listSegments(directory).length);
+		final Recorder recorder = read();
+		assertEquals("first", recorder.tables.get(0));
+		assertEquals("second", recorder.tables.get(1));
+	}
+
+	@Test
+	public void segmentsOfClosedTablesAreRemovedTest() throws Exception {
+		final TableJournal done = journal.open("done", 5);
+		for (int index = 0; index < 500; index++) {
+			done.moveMade(move(index));
+		}
+		done.tableClosed();
+		final TableJournal live = journal.open("live", 6);
+		for (int index = 0; index < 500; index++) {
+			live.moveMade(move(index));
+		}
+		journal.sync();
+
+		// The first segment only held the closed table
+		assertEquals(1, journal.getRemoved());
+		assertFalse(GameJournal.fileOf(directory, 0).exists());
+		assertTrue(GameJournal.fileOf(directory, 1).exists());
+		// Nothing is appended for a closed table
+		done.moveMade(move(0));
+		assertEquals(1, done.getFailures());
+		journal.close();
+		final Recorder recorder = read();
+		assertTrue(recorder.closed.contains("done"));
+		assertFalse(recorder.closed.contains("live"));
+	}
+
+	@Test
+	public void syncCommitsEveryRecordTest() throws Exception {
+		final TableJournal table = journal.open("synced", 3);
+		for (int index = 0; index < 100; index++) {
+			table.moveMade(move(index));
+		}
+		journal.sync();
+		assertEquals(journal.getAppended(), journal.getCommitted());
+		assertTrue(journal.getSyncs() >= 1);
+		assertEquals(101, journal.getRecords());
+	}
+
+	@Test
+	public void closedJournalCountsFailuresTest() throws IOException {
+		final TableJournal table = journal.open("late", 4);
+		journal.close();
+		table.moveMade(move(0));
+		assertEquals(1, table.getFailures());
+	}
+
+	private static int move(int index) {
+		return Moves.pack(PlayerNumber.values()[index % 4], Command.PLAY_CARD, index % 52, 0, 0);
+	}
+
+	private Recorder read() throws IOException {
+		final Recorder recorder = new Recorder();
+		GameJournal.read(directory, recorder);
+		return recorder;
+	}
+
+	private static class Recorder implements JournalHandler {
+		final Map<String, Long> seeds = new HashMap<String, Long>();
+		final List<String> tables = new ArrayList<String>();
+		final List<Integer> indexes = new ArrayList<Integer>();
+		final List<Integer> moves = new ArrayList<Integer>();
+		final List<GameEvent> events = new ArrayList<GameEvent>();
+		final List<Integer> rounds = new ArrayList<Integer>();
+		final List<String> closed = new ArrayList<String>();
+		int opened;
+
+		public void tableOpened(String tableId, long seed) {
+			seeds.put(tableId, seed);
+			opened++;
+		}
+
+		public void moveMade(String tableId, int index, int move) {
+			tables.add(tableId);
+			indexes.add(index);
+			moves.add(move);
+		}
+
+		public void eventOccurred(String tableId, GameEvent event) {
+			events.add(event);
+		}
+
+		public void roundBegan(String tableId, int moveCount, RoundState state) {
+			rounds.add(moveCount);
+		}
+
+		public void tableClosed(String tableId) {
+			closed.add(tableId);
+		}
+	}
+}
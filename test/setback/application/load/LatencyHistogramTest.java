@@ -0,0 +1,60 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.load;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the log-linear latency histogram.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void bucketsCoverEveryValueTest() {
+		for (long value = 0; value < 100000; value++) {
+			final int index = LatencyHistogram.indexOf(value);
+			assertTrue(LatencyHistogram.highestValueAt(index) >= value);
+			if (index > 0) {
+				assertTrue(LatencyHistogram.highestValueAt(index - 1) < value);
+			}
+		}
+	}
+
+	@Test
+	public void valuesAreWithinOnePercentTest() {
+		for (long value = 1; value < LatencyHistogram.MAX_VALUE; value = value * 3 + 7) {
+			final long highest = LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(value));
+			assertTrue(highest - value <= value / 100);
+		}
+	}
+
+	@Test
+	public void percentilesTest() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500500.0, histogram.getMean(), 0.1);
+		assertEquals(1000000, histogram.getMax());
+		assertEquals(500000, histogram.getValueAtPercentile(50), 5000);
+		assertEquals(990000, histogram.getValueAtPercentile(99), 9900);
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+	}
+
+	@Test
+	public void emptyAndOutOfRangeTest() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(99));
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.load;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.cluster.ClusterTestSupport;
+import setback.application.cluster.SetbackClusterNode;
+import setback.application.command.Command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for playing synthetic tables against a real node.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LoadGeneratorTest {
+
+	/**
+	 * Four seats, four bets, trump, four discards and 36 cards.
+	 */
+	private static final int MOVES_PER_ROUND = 4 + 4 + 1 + 4 + 36;
+
+	private final List<SetbackClusterNode> nodes = new ArrayList<SetbackClusterNode>();
+	private final List<Integer> ports = new ArrayList<Integer>();
+
+	@Before
+	public void setup() throws Exception {
+		ClusterTestSupport.startCluster(1, nodes, ports);
+	}
+
+	@After
+	public void cleanUp() throws Exception {
+		ClusterTestSupport.stopCluster(nodes);
+	}
+
+	@Test
+	public void tablesPlayTheirRoundsTest() throws InterruptedException {
+		final LoadMetrics metrics = LoadGenerator.run(LoadGenerator.LOOPBACK, ports.get(0), 4, 1, 100);
+		assertEquals(0, metrics.getErrors());
+		assertEquals(4, metrics.getTablesFinished());
+		assertEquals(0, metrics.getTablesFailed());
+		assertEquals(4 * MOVES_PER_ROUND, metrics.getMoves());
+		assertEquals(4 * 36, metrics.getLatency(Command.GET_CURRENT_PLAYER).getCount());
+		assertTrue(metrics.getMovesPerSecond() > 0);
+		assertTrue(metrics.report().contains("PLAY_CARD"));
+	}
+
+	@Test
+	public void tablesPlayInMemoryTest() throws InterruptedException {
+		final LoadMetrics metrics = LoadGenerator.runInMemory(2, 2, 0);
+		assertEquals(0, metrics.getErrors());
+		assertEquals(2, metrics.getTablesFinished());
+		assertEquals(2 * (MOVES_PER_ROUND + MOVES_PER_ROUND - 4), metrics.getMoves());
+	}
+}
@@ -0,0 +1,162 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.matchmaking;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.timer.HashedWheelTimer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for forming tables out of the matchmaking queue.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MatchmakerTest {
+
+	private HashedWheelTimer timer;
+	private MatchmakingMetrics metrics;
+	private ConcurrentLinkedQueue<List<MatchRequest<Integer>>> tables;
+	private Matchmaker<Integer> matchmaker;
+
+	@Before
+	public void setup() {
+		timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 64);
+		metrics = new MatchmakingMetrics();
+		tables = new ConcurrentLinkedQueue<List<MatchRequest<Integer>>>();
+		matchmaker = new Matchmaker<Integer>(tables::add, timer, 200, 600, metrics);
+	}
+
+	@After
+	public void teardown() {
+		matchmaker.stop();
+		timer.stop();
+	}
+
+	@Test
+	public void fourSimilarPlayersAreMatchedStraightAway() {
+		for (int player = 0; player < 3; player++) {
+			matchmaker.enqueue(player, 1510 + player, "east");
+		}
+		assertTrue(tables.isEmpty());
+		matchmaker.enqueue(3, 1550, "east");
+		assertEquals(1, tables.size());
+		final List<MatchRequest<Integer>> table = tables.poll();
+		assertEquals(4, table.size());
+		for (int seat = 0; seat < 4; seat++) {
+			// Seats are given in the order the players joined
+			assertEquals(Integer.valueOf(seat), table.get(seat).getPlayer());
+		}
+		assertEquals(0, metrics.getQueueDepth());
+		assertEquals(4, metrics.getMatched());
+		assertEquals(1, metrics.getTablesFormed());
+	}
+
+	@Test
+	public void distantSkillsAreMatchedAfterWidening() throws InterruptedException {
+		for (int player = 0; player < 4; player++) {
+			matchmaker.enqueue(player, 1000 + 300 * player, "east");
+		}
+		assertTrue(tables.isEmpty());
+		assertEquals(4, metrics.getQueueDepth());
+		waitForTables(1);
+		assertEquals(1, tables.size());
+		assertTrue(metrics.getLongestTimeToMatchNanos() >= TimeUnit.MILLISECONDS.toNanos(200));
+	}
+
+	@Test
+	public void wideningGroupsTheClosestSkills() throws InterruptedException {
+		final int[] skills = {1000, 2000, 1350, 2350, 1700, 2700, 1050, 3000};
+		for (int player = 0; player < skills.length; player++) {
+			matchmaker.enqueue(skills[player], skills[player], "east");
+		}
+		waitForTables(2);
+		final Set<Integer> low = new HashSet<Integer>();
+		for (MatchRequest<Integer> request : tables.poll()) {
+			low.add(request.getSkill());
+		}
+		final Set<Integer> lowest = new HashSet<Integer>();
+		for (int skill : new int[] {1000, 1050, 1350, 1700}) {
+			lowest.add(skill);
+		}
+		assertEquals(lowest, low);
+	}
+
+	@Test
+	public void regionsOnlyMixAfterTheMaximumWait() throws InterruptedException {
+		matchmaker.enqueue(0, 1500, "east");
+		matchmaker.enqueue(1, 1500, "east");
+		matchmaker.enqueue(2, 1500, "west");
+		final long start = System.nanoTime();
+		matchmaker.enqueue(3, 1500, "west");
+		waitForTables(1);
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(600));
+	}
+
+	@Test
+	public void cancelledPlayersAreNotMatched() throws InterruptedException {
+		final MatchRequest<Integer> leaving = matchmaker.enqueue(0, 1500, "east");
+		matchmaker.enqueue(1, 1500, "east");
+		matchmaker.enqueue(2, 1500, "east");
+		assertTrue(leaving.cancel());
+		assertFalse(leaving.cancel());
+		matchmaker.enqueue(3, 1500, "east");
+		assertTrue(tables.isEmpty());
+		matchmaker.enqueue(4, 1500, "east");
+		final List<MatchRequest<Integer>> table = tables.poll();
+		for (MatchRequest<Integer> request : table) {
+			assertFalse(request.getPlayer() == 0);
+			assertFalse(request.cancel());
+		}
+		assertEquals(1, metrics.getCancelled());
+		assertEquals(0, metrics.getQueueDepth());
+	}
+
+	@Test
+	public void burstOfJoinsIsMatchedExactlyOnce() throws InterruptedException {
+		final int threads = 8;
+		final int joinsPerThread = 2000;
+		final CountDownLatch done = new CountDownLatch(threads);
+		for (int thread = 0; thread < threads; thread++) {
+			final int first = thread * joinsPerThread;
+			new Thread(() -> {
+				for (int player = first; player < first + joinsPerThread; player++) {
+					matchmaker.enqueue(player, 1000 + (player * 7919) % 1000, player % 2 == 0 ? "east" : "west");
+				}
+				done.countDown();
+			}).start();
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		waitForTables(threads * joinsPerThread / 4);
+		final Set<Integer> seated = new HashSet<Integer>();
+		final List<List<MatchRequest<Integer>>> formed = new ArrayList<List<MatchRequest<Integer>>>(tables);
+		for (List<MatchRequest<Integer>> table : formed) {
+			assertEquals(4, table.size());
+			for (MatchRequest<Integer> request : table) {
+				assertTrue(seated.add(request.getPlayer()));
+			}
+		}
+		assertEquals(threads * joinsPerThread, seated.size());
+		assertEquals(0, metrics.getQueueDepth());
+	}
+
+	private void waitForTables(int count) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (tables.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(count, tables.size());
+	}
+}
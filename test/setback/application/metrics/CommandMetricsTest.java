@@ -0,0 +1,157 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.metrics;
+
+import io.vertx.core.Vertx;
+import org.junit.Test;
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
+import setback.application.command.TextCommandReply;
+import setback.application.server.PlayerController;
+import setback.common.PlayerNumber;
+import setback.game.SetbackGameFactory;
+import setback.game.version.SetbackMultiplayerGame;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.openmbean.TabularData;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for recording the commands players send, and reading them
+ * through JMX and HTTP.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class CommandMetricsTest {
+
+	private static final String NOT_YOUR_TURN = "It is not your turn!";
+
+	/**
+	 * Seats four players, one of whom bets before it is their turn.
+	 */
+	private static CommandMetrics playSome() {
+		final CommandMetrics metrics = new CommandMetrics();
+		final SetbackMultiplayerGame game = SetbackGameFactory.getInstance().makeSetbackMultiplayerGame(45);
+		final CommandFrame frame = new CommandFrame();
+		final TextCommandReply reply = new TextCommandReply();
+		final PlayerController[] controllers = new PlayerController[PlayerNumber.values().length];
+		for (int seat = 0; seat < controllers.length; seat++) {
+			controllers[seat] = new PlayerController(game);
+			controllers[seat].setMetrics(metrics);
+			controllers[seat].processFrame(frame.set(Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + seat], 0, 0, 0), reply);
+		}
+		for (PlayerController controller : controllers) {
+			controller.processFrame(frame.set(Command.PLACE_BET, 0, 0, 0), reply);
+		}
+		// Replayed moves are not counted
+		new PlayerController(game).processFrame(frame.set(Command.GET_TRUMP, 0, 0, 0), reply);
+		return metrics;
+	}
+
+	@Test
+	public void commandsAreCountedAndTimedTest() {
+		final CommandMetrics metrics = playSome();
+		final CommandStatsMXBean seats = metrics.getStats(Command.REQUEST_PLAYER_THREE);
+		assertEquals(1, seats.getCount());
+		assertEquals(0, seats.getRejected());
+		assertEquals(0, seats.getInFlight());
+
+		final CommandStatsMXBean bets = metrics.getStats(Command.PLACE_BET);
+		assertEquals(4, bets.getCount());
+		assertTrue(bets.getRejected() > 0);
+		long refused = 0;
+		for (Long count : bets.getRejections().values()) {
+			refused += count;
+		}
+		assertEquals(bets.getRejected(), refused);
+		assertEquals(4, metrics.getLatency(Command.PLACE_BET).getCount());
+		assertTrue(bets.getMaxNanos() > 0);
+		assertTrue(bets.getMedianNanos() <= bets.getMaxNanos());
+		assertEquals(0, metrics.getStats(Command.GET_TRUMP).getCount());
+	}
+
+	@Test
+	public void reasonsAreBoundedTest() {
+		final CommandMetrics metrics = new CommandMetrics();
+		for (int reason = 0; reason < CommandMetrics.MAX_REASONS + 10; reason++) {
+			metrics.finish(Command.PLAY_CARD, metrics.start(Command.PLAY_CARD), "Reason " + reason);
+		}
+		metrics.finish(Command.PLAY_CARD, metrics.start(Command.PLAY_CARD), "Reason 0");
+		final CommandStatsMXBean cards = metrics.getStats(Command.PLAY_CARD);
+		assertEquals(CommandMetrics.MAX_REASONS + 1, cards.getRejections().size());
+		assertEquals(Long.valueOf(2), cards.getRejections().get("Reason 0"));
+		assertEquals(Long.valueOf(10), cards.getRejections().get(CommandMetrics.OTHER_REASON));
+	}
+
+	@Test
+	public void metricsAreShownThroughJmxTest() throws Exception {
+		final CommandMetrics metrics = playSome();
+		final MBeanServer server = MBeanServerFactory.newMBeanServer();
+		metrics.register(server);
+		metrics.register(server);
+		assertEquals(4L, server.getAttribute(CommandMetrics.getObjectName(Command.PLACE_BET), "Count"));
+		assertEquals("PLACE_BET", server.getAttribute(CommandMetrics.getObjectName(Command.PLACE_BET), "Command"));
+		final TabularData rejections = (TabularData) server.getAttribute(
+				CommandMetrics.getObjectName(Command.PLACE_BET), "Rejections");
+		assertEquals(metrics.getStats(Command.PLACE_BET).getRejections().size(), rejections.size());
+	}
+
+	@Test
+	public void metricsAreScrapedOverHttpTest() throws Exception {
+		final CommandMetrics metrics = playSome();
+		metrics.finish(Command.PLAY_CARD, metrics.start(Command.PLAY_CARD), NOT_YOUR_TURN + "\n\"quoted\"");
+		final MetricsEndpoint endpoint = new MetricsEndpoint(metrics);
+		final String scraped = endpoint.scrape();
+		assertTrue(scraped.contains("setback_commands_total{command=\"PLACE_BET\"} 4\n"));
+		assertTrue(scraped.contains("setback_commands_in_flight{command=\"PLACE_BET\"} 0\n"));
+		assertTrue(scraped.contains("setback_command_latency_seconds_count{command=\"PLACE_BET\"} 4\n"));
+		assertTrue(scraped.contains("setback_command_latency_seconds{command=\"PLACE_BET\",quantile=\"0.99\"} "));
+		assertTrue(scraped.contains(",reason=\"" + NOT_YOUR_TURN + "\\n\\\"quoted\\\"\"} 1\n"));
+		assertFalse(scraped.contains("command=\"GET_TRUMP\""));
+
+		final int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		final Vertx vertx = Vertx.vertx();
+		try {
+			final CompletableFuture<Boolean> listening = new CompletableFuture<Boolean>();
+			endpoint.listen(vertx, "localhost", port, started -> listening.complete(started.succeeded()));
+			assertTrue(listening.get(10, TimeUnit.SECONDS));
+
+			final HttpURLConnection connection =
+					(HttpURLConnection) new URL("http://localhost:" + port + MetricsEndpoint.PATH).openConnection();
+			assertEquals(200, connection.getResponseCode());
+			assertEquals(MetricsEndpoint.CONTENT_TYPE, connection.getContentType());
+			final StringBuilder body = new StringBuilder();
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					body.append(line).append('\n');
+				}
+			}
+			assertTrue(body.toString().contains("setback_commands_total{command=\"PLACE_BET\"} 4\n"));
+
+			final HttpURLConnection missing =
+					(HttpURLConnection) new URL("http://localhost:" + port + "/other").openConnection();
+			assertEquals(404, missing.getResponseCode());
+		}
+		finally {
+			endpoint.close();
+			vertx.close();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for counting latencies in stripes.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class StripedHistogramTest {
+
+	@Test
+	public void percentilesAreWithinTheBucketsTest() {
+		final StripedHistogram histogram = new StripedHistogram();
+		for (long value = 1; value <= 10000; value++) {
+			histogram.record(value * 1000);
+		}
+		histogram.record(-5);
+		histogram.record(Long.MAX_VALUE);
+		final StripedHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(10002, snapshot.getCount());
+		assertEquals(StripedHistogram.MAX_VALUE, snapshot.getMax());
+		assertEquals(0, snapshot.getValueAtPercentile(0));
+		final long median = snapshot.getValueAtPercentile(50);
+		assertTrue(median >= 5000 * 1000 && median <= 5000 * 1000 * 33 / 32);
+		final long ninetyNinth = snapshot.getValueAtPercentile(99);
+		assertTrue(ninetyNinth >= 9900 * 1000 && ninetyNinth <= 9900 * 1000 * 33 / 32);
+		assertEquals(0, new StripedHistogram().snapshot().getValueAtPercentile(50));
+	}
+
+	@Test
+	public void threadsRecordingAtOnceLoseNothingTest() throws InterruptedException {
+		final StripedHistogram histogram = new StripedHistogram();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int thread = 0; thread < 8; thread++) {
+			final long value = thread + 1;
+			threads.add(new Thread(() -> {
+				for (int count = 0; count < 100000; count++) {
+					histogram.record(value);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		final StripedHistogram.Snapshot snapshot = histogram.snapshot();
+		assertEquals(800000, snapshot.getCount());
+		assertEquals(100000L * (1 + 2 + 3 + 4 + 5 + 6 + 7 + 8), snapshot.getTotal());
+		assertEquals(8, snapshot.getMax());
+		assertEquals(4, snapshot.getValueAtPercentile(50));
+	}
+}
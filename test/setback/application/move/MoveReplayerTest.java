@@ -0,0 +1,142 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.move;
+
+import org.junit.Test;
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
+import setback.application.command.TextCommandReply;
+import setback.application.server.PlayerController;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+import setback.game.common.Card;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for rebuilding a table from its moves.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MoveReplayerTest {
+
+	private static final long SEED = 1234;
+
+	@Test
+	public void restoredTableMatchesTheOriginal() throws SetbackException {
+		final SetbackTable original = new SetbackTable("original", SEED);
+		final int made = playMoves(original, 40);
+		assertEquals(40, made);
+
+		final int[] moves = original.getMoves().toArray();
+		final SetbackTable restored = SetbackTable.restore("restored", SEED, moves, moves.length);
+		assertSameState(original.getGame(), restored.getGame());
+		assertEquals(made, restored.getMoves().size());
+	}
+
+	@Test
+	public void restoredSeatsAreVacant() throws SetbackException {
+		final SetbackTable original = new SetbackTable("original", SEED);
+		playMoves(original, 6);
+		final int[] moves = original.getMoves().toArray();
+		final SetbackTable restored = SetbackTable.restore("restored", SEED, moves, moves.length);
+		assertTrue(restored.claimVacantSeat(PlayerNumber.PLAYER_TWO));
+		assertFalse(restored.claimVacantSeat(PlayerNumber.PLAYER_TWO));
+		assertFalse(original.claimVacantSeat(PlayerNumber.PLAYER_TWO));
+	}
+
+	@Test(expected = SetbackException.class)
+	public void movesFromAnotherSeedAreRefused() throws SetbackException {
+		final SetbackTable original = new SetbackTable("original", SEED);
+		playMoves(original, 12);
+		final int[] moves = original.getMoves().toArray();
+		SetbackTable.restore("restored", SEED + 1, moves, moves.length);
+	}
+
+	/**
+	 * Plays the first legal move of whichever player can move.
+	 * @param table The table.
+	 * @param count The number of moves to make.
+	 * @return The number of moves made.
+	 */
+	public static int playMoves(SetbackTable table, int count) {
+		final SetbackMultiplayerGame game = table.getGame();
+		final List<PlayerController> controllers = new ArrayList<PlayerController>();
+		final TextCommandReply reply = new TextCommandReply();
+		final CommandFrame frame = new CommandFrame();
+		for (PlayerNumber player : PlayerNumber.values()) {
+			final PlayerController controller = new PlayerController(game);
+			controller.setMoveListener(table);
+			controller.processFrame(frame.set(Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + player.ordinal()], 0, 0, 0), reply);
+			controllers.add(controller);
+		}
+		int made = table.getMoves().size();
+		while (made < count) {
+			final int before = made;
+			for (PlayerController controller : controllers) {
+				if (tryMove(game, controller, frame, reply, table)) {
+					made = table.getMoves().size();
+					break;
+				}
+			}
+			if (made == before) {
+				break;
+			}
+		}
+		return made;
+	}
+
+	private static boolean tryMove(SetbackMultiplayerGame game, PlayerController controller,
+			CommandFrame frame, TextCommandReply reply, SetbackTable table) {
+		final int before = table.getMoves().size();
+		final List<Card> cards = new ArrayList<Card>(game.getPlayerHand(controller.getMyNumber()).getCards());
+		for (Bet bet : Bet.values()) {
+			controller.processFrame(frame.set(Command.PLACE_BET, bet.ordinal(), 0, 0), reply);
+			if (table.getMoves().size() > before) {
+				return true;
+			}
+		}
+		for (int suit = 0; suit < 4; suit++) {
+			controller.processFrame(frame.set(Command.SELECT_TRUMP, suit, 0, 0), reply);
+			if (table.getMoves().size() > before) {
+				return true;
+			}
+		}
+		if (cards.size() >= 3) {
+			controller.processFrame(frame.set(Command.DISCARD_CARDS, cards.get(0).getOrdinal(),
+					cards.get(1).getOrdinal(), cards.get(2).getOrdinal()), reply);
+			if (table.getMoves().size() > before) {
+				return true;
+			}
+		}
+		for (Card card : cards) {
+			controller.processFrame(frame.set(Command.PLAY_CARD, card.getOrdinal(), 0, 0), reply);
+			if (table.getMoves().size() > before) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public static void assertSameState(SetbackMultiplayerGame expected, SetbackMultiplayerGame actual)
+			throws SetbackException {
+		for (PlayerNumber player : PlayerNumber.values()) {
+			assertEquals(expected.getPlayerHand(player).getCards(), actual.getPlayerHand(player).getCards());
+		}
+		assertEquals(expected.getCurrentPlayer(), actual.getCurrentPlayer());
+		assertEquals(expected.getDealer(), actual.getDealer());
+		assertEquals(expected.getTrump(), actual.getTrump());
+		assertEquals(String.valueOf(expected.getWinningBet()), String.valueOf(actual.getWinningBet()));
+		assertEquals(expected.getTrickCards(), actual.getTrickCards());
+		assertEquals(expected.getTeamOneScore(), actual.getTeamOneScore());
+		assertEquals(expected.getTeamTwoScore(), actual.getTeamTwoScore());
+	}
+}
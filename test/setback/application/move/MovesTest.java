@@ -0,0 +1,43 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.move;
+
+import org.junit.Test;
+import setback.application.command.Command;
+import setback.common.PlayerNumber;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for packing moves into ints.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MovesTest {
+
+	@Test
+	public void everyFieldSurvivesPacking() {
+		final int move = Moves.pack(PlayerNumber.PLAYER_FOUR, Command.DISCARD_CARDS, 51, 0, 37);
+		assertEquals(PlayerNumber.PLAYER_FOUR, Moves.getPlayer(move));
+		assertEquals(Command.DISCARD_CARDS, Moves.getCommand(move));
+		assertEquals(51, Moves.getArgumentOne(move));
+		assertEquals(0, Moves.getArgumentTwo(move));
+		assertEquals(37, Moves.getArgumentThree(move));
+		assertTrue(move > 0);
+	}
+
+	@Test
+	public void seatRequestsAreRecognized() {
+		assertTrue(Moves.isSeatRequest(Moves.pack(PlayerNumber.PLAYER_ONE, Command.REQUEST_PLAYER_ONE, 0, 0, 0)));
+		assertTrue(Moves.isSeatRequest(Moves.pack(PlayerNumber.PLAYER_FOUR, Command.REQUEST_PLAYER_FOUR, 0, 0, 0)));
+		assertFalse(Moves.isSeatRequest(Moves.pack(PlayerNumber.PLAYER_ONE, Command.PLAY_CARD, 3, 0, 0)));
+	}
+
+	@Test
+	public void readableForm() {
+		assertEquals("PLAYER_TWO PLACE_BET 2 0 0",
+				Moves.toString(Moves.pack(PlayerNumber.PLAYER_TWO, Command.PLACE_BET, 2, 0, 0)));
+	}
+}
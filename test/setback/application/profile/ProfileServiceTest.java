@@ -0,0 +1,163 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.move.MoveReplayerTest;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+import setback.game.common.RoundResultStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for caching profiles and writing their changes behind.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ProfileServiceTest {
+
+	private static final long NEVER = 60 * 60 * 1000;
+	private static final String[] PLAYERS = {"ann", "ben", "cat", "dan"};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void changesAreMergedAndWrittenOnceTest() throws IOException {
+		final File directory = folder.newFolder("profiles");
+		final ProfileStore store = new ProfileStore(directory);
+		final ProfileService service = new ProfileService(store, 16, NEVER);
+		for (int move = 0; move < 1000; move++) {
+			service.add("ann", PlayerStat.CARDS_PLAYED, 1);
+		}
+		service.setRating("ann", 1400);
+		service.setRating("ann", 1532);
+		service.setPreference("ann", "deck", "red");
+		service.setPreference("ann", "sound", "off");
+		service.setPreference("ann", "sound", null);
+		assertEquals(1, service.getPending());
+		assertEquals(0, store.size());
+
+		final PlayerProfile ann = service.getProfile("ann");
+		assertEquals(1000, ann.get(PlayerStat.CARDS_PLAYED));
+		assertEquals(1532, ann.getRating(), 0);
+		assertEquals("red", ann.getPreference("deck"));
+		assertNull(ann.getPreference("sound"));
+		assertNull(service.getProfile("ben"));
+
+		service.flush();
+		assertEquals(0, service.getPending());
+		assertEquals(1, store.size());
+		final long written = store.getLogSize();
+		service.add("ann", PlayerStat.GAMES_PLAYED, 1);
+		service.close();
+
+		try (ProfileStore reopened = new ProfileStore(directory)) {
+			assertTrue(reopened.getLogSize() > written);
+			assertEquals(1000, reopened.read("ann").get(PlayerStat.CARDS_PLAYED));
+			assertEquals(1, reopened.read("ann").get(PlayerStat.GAMES_PLAYED));
+			assertEquals(ann.getPreferences(), reopened.read("ann").getPreferences());
+		}
+	}
+
+	@Test
+	public void cacheDropsLeastRecentlyUsedTest() throws IOException {
+		try (ProfileService service = new ProfileService(new ProfileStore(folder.newFolder("profiles")), 2, NEVER)) {
+			for (String player : PLAYERS) {
+				service.add(player, PlayerStat.GAMES_PLAYED, 1);
+			}
+			service.flush();
+			assertEquals(2, service.getCacheSize());
+			final long misses = service.getMisses();
+			for (String player : PLAYERS) {
+				assertEquals(1, service.getProfile(player).get(PlayerStat.GAMES_PLAYED));
+			}
+			assertTrue(service.getMisses() > misses);
+			assertEquals(2, service.getCacheSize());
+			// The last two read are cached
+			final long hits = service.getHits();
+			service.getProfile("dan");
+			assertEquals(hits + 1, service.getHits());
+		}
+	}
+
+	@Test
+	public void changesAreWrittenBehindTest() throws IOException, InterruptedException {
+		final File directory = folder.newFolder("profiles");
+		final ProfileStore store = new ProfileStore(directory);
+		try (ProfileService service = new ProfileService(store, 16, 10)) {
+			service.add("ann", PlayerStat.GAMES_WON, 3);
+			final long deadline = System.currentTimeMillis() + 10000;
+			while (service.getPending() > 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			service.flush();
+			assertEquals(3, store.read("ann").get(PlayerStat.GAMES_WON));
+		}
+	}
+
+	@Test
+	public void failedWritesAreCountedAndTriedAgainTest() throws IOException, InterruptedException {
+		final File directory = folder.newFolder("profiles");
+		final boolean[] failing = { true };
+		final ProfileStore store = new ProfileStore(directory) {
+			@Override
+			public synchronized void write(Collection<PlayerProfile> profiles) throws IOException {
+				if (failing[0]) {
+					throw new IOException("The disk is full!");
+				}
+				super.write(profiles);
+			}
+		};
+		try (ProfileService service = new ProfileService(store, 16, 10)) {
+			service.add("ann", PlayerStat.GAMES_WON, 3);
+			final long deadline = System.currentTimeMillis() + 10000;
+			while (service.getFailedFlushes() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertTrue(service.getFailedFlushes() >= 2);
+			assertEquals(0, store.size());
+			assertEquals(3, service.getProfile("ann").get(PlayerStat.GAMES_WON));
+			synchronized (store) {
+				failing[0] = false;
+			}
+			service.flush();
+			assertEquals(3, store.read("ann").get(PlayerStat.GAMES_WON));
+		}
+	}
+
+	@Test
+	public void tablesCountMovesWithoutWritingTest() throws IOException {
+		final ProfileStore store = new ProfileStore(folder.newFolder("profiles"));
+		try (ProfileService service = new ProfileService(store, 16, NEVER)) {
+			final SetbackTable table = new SetbackTable("counted", 47);
+			table.setProfiles(service);
+			for (int seat = 0; seat < PLAYERS.length; seat++) {
+				table.setPlayer(PlayerNumber.values()[seat], PLAYERS[seat]);
+			}
+			assertEquals(4 + 45, MoveReplayerTest.playMoves(table, 4 + 45));
+			table.gameEnded(RoundResultStatus.TEAM_ONE_WINS);
+			assertEquals(0, store.size());
+
+			long tricks = 0;
+			for (int seat = 0; seat < PLAYERS.length; seat++) {
+				final PlayerProfile profile = service.getProfile(PLAYERS[seat]);
+				assertEquals(1, profile.get(PlayerStat.BETS_PLACED));
+				assertEquals(9, profile.get(PlayerStat.CARDS_PLAYED));
+				assertEquals(1, profile.get(PlayerStat.GAMES_PLAYED));
+				assertEquals(seat % 2 == 0 ? 1 : 0, profile.get(PlayerStat.GAMES_WON));
+				tricks += profile.get(PlayerStat.TRICKS_WON);
+			}
+			assertEquals(9, tricks);
+		}
+	}
+}
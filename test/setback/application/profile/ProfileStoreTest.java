@@ -0,0 +1,81 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.profile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for keeping profiles on disk.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ProfileStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void latestProfilesSurviveReopeningTest() throws IOException {
+		final File directory = folder.newFolder("profiles");
+		final PlayerProfile ann = new PlayerProfile("ann", new long[] {3, 2}, 1516,
+				Collections.singletonMap("deck", "red"));
+		try (ProfileStore store = new ProfileStore(directory)) {
+			store.write(Arrays.asList(new PlayerProfile("ann"), new PlayerProfile("ben")));
+			store.write(Collections.singletonList(ann));
+			assertEquals(ann, store.read("ann"));
+			assertNull(store.read("cat"));
+		}
+		// A profile that was only partly written is cut off
+		final long size = new File(directory, "profiles.log").length();
+		try (RandomAccessFile log = new RandomAccessFile(new File(directory, "profiles.log"), "rw")) {
+			log.seek(size);
+			log.writeInt(1000);
+			log.writeShort(3);
+		}
+
+		try (ProfileStore store = new ProfileStore(directory)) {
+			assertEquals(2, store.size());
+			assertEquals(size, store.getLogSize());
+			assertEquals(ann, store.read("ann"));
+			assertEquals(new PlayerProfile("ben"), store.read("ben"));
+			assertTrue(Double.isNaN(store.read("ben").getRating()));
+			assertEquals(2, store.read("ann").get(PlayerStat.GAMES_WON));
+		}
+	}
+
+	@Test
+	public void replacedProfilesAreCompactedTest() throws IOException {
+		final File directory = folder.newFolder("profiles");
+		final List<PlayerProfile> profiles = new ArrayList<PlayerProfile>();
+		try (ProfileStore store = new ProfileStore(directory)) {
+			for (int write = 0; write < 20000; write++) {
+				profiles.clear();
+				for (int player = 0; player < 4; player++) {
+					profiles.add(new PlayerProfile("player" + player, new long[] {write, player}, write, Collections.<String, String>emptyMap()));
+				}
+				store.write(profiles);
+			}
+			assertTrue(store.getLogSize() < 3 << 20);
+		}
+		try (ProfileStore store = new ProfileStore(directory)) {
+			assertEquals(4, store.size());
+			for (PlayerProfile profile : profiles) {
+				assertEquals(profile, store.read(profile.getPlayer()));
+			}
+		}
+	}
+}
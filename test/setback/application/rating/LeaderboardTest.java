@@ -0,0 +1,64 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.rating;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the order-statistic leaderboard.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class LeaderboardTest {
+
+	@Test
+	public void ranksFollowTheRatingsTest() {
+		final Leaderboard leaderboard = new Leaderboard();
+		final Random random = new Random(45);
+		final List<Rating> ratings = new ArrayList<Rating>();
+		for (int player = 0; player < 2000; player++) {
+			// Few distinct ratings, so ties are broken by name
+			final Rating rating = new Rating("p" + player, 1400 + random.nextInt(200), 0, 0);
+			ratings.add(rating);
+			leaderboard.add(rating);
+		}
+		Collections.sort(ratings);
+		assertEquals(ratings.size(), leaderboard.size());
+		for (int rank = 0; rank < ratings.size(); rank++) {
+			assertSame(ratings.get(rank), leaderboard.get(rank));
+			assertEquals(rank, leaderboard.rankOf(ratings.get(rank)));
+		}
+		assertEquals(ratings.subList(0, 10), leaderboard.page(0, 10));
+		assertEquals(ratings.subList(1995, 2000), leaderboard.page(1995, 10));
+		assertTrue(leaderboard.page(2000, 10).isEmpty());
+		assertNull(leaderboard.get(2000));
+	}
+
+	@Test
+	public void replacingARatingMovesThePlayerTest() {
+		final Leaderboard leaderboard = new Leaderboard();
+		final Rating alice = new Rating("alice", 1500, 0, 0);
+		final Rating bob = new Rating("bob", 1510, 0, 0);
+		leaderboard.add(alice);
+		leaderboard.add(bob);
+		assertEquals(1, leaderboard.rankOf(alice));
+
+		final Rating better = new Rating("alice", 1520, 1, 1);
+		leaderboard.replace(alice, better);
+		assertEquals(2, leaderboard.size());
+		assertEquals(0, leaderboard.rankOf(better));
+		assertEquals(-1, leaderboard.rankOf(alice));
+		assertFalse(leaderboard.remove(alice));
+		assertTrue(leaderboard.remove(better));
+		assertEquals(1, leaderboard.size());
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.rating;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+import setback.game.common.RoundResultStatus;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for rating players as their games end.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class RatingServiceTest {
+
+	private static final String[] PLAYERS = {"ann", "ben", "cat", "dan"};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void winnersGainWhatLosersLoseTest() throws IOException {
+		try (RatingService service = new RatingService(folder.newFolder("ratings"))) {
+			service.gameEnded(PLAYERS, true);
+			service.flush();
+			final double gain = RatingService.K_FACTOR / 2;
+			assertEquals(RatingService.INITIAL_RATING + gain, service.getRating("ann").getRating(), 1e-9);
+			assertEquals(RatingService.INITIAL_RATING + gain, service.getRating("cat").getRating(), 1e-9);
+			assertEquals(RatingService.INITIAL_RATING - gain, service.getRating("ben").getRating(), 1e-9);
+			assertEquals(1, service.getRating("ann").getWins());
+			assertEquals(0, service.getRating("dan").getWins());
+			assertEquals(1, service.getRating("dan").getGames());
+
+			// The favourites gain less for winning again
+			service.gameEnded(PLAYERS, true);
+			service.flush();
+			final double second = service.getRating("ann").getRating() - RatingService.INITIAL_RATING - gain;
+			assertTrue(second > 0 && second < gain);
+			assertEquals(0, service.getRank("ann"));
+			assertEquals(1, service.getRank("cat"));
+			assertEquals(4, service.getTop(0, 10).size());
+			assertEquals(-1, service.getRank("eve"));
+		}
+	}
+
+	@Test
+	public void ratingsAreWrittenBehindTest() throws IOException, InterruptedException {
+		final File directory = folder.newFolder("ratings");
+		final RatingService service = new RatingService(new RatingStore(directory), 10);
+		for (int game = 0; game < 100; game++) {
+			service.gameEnded(PLAYERS, game % 3 != 0);
+		}
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (new RatingStore(directory).getRatings().size() < PLAYERS.length
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		service.close();
+
+		try (RatingService reopened = new RatingService(directory)) {
+			for (String player : PLAYERS) {
+				assertEquals(service.getRating(player).getRating(), reopened.getRating(player).getRating(), 0);
+				assertEquals(100, reopened.getRating(player).getGames());
+				assertEquals(service.getRank(player), reopened.getRank(player));
+			}
+		}
+	}
+
+	@Test
+	public void tablesReportGamesWithEveryPlayerKnownTest() throws IOException {
+		try (RatingService service = new RatingService(folder.newFolder("ratings"))) {
+			final SetbackTable table = new SetbackTable("rated", 45);
+			table.setRatings(service);
+			for (int seat = 0; seat < PLAYERS.length - 1; seat++) {
+				table.setPlayer(PlayerNumber.values()[seat], PLAYERS[seat]);
+			}
+			table.gameEnded(RoundResultStatus.TEAM_TWO_WINS);
+			service.flush();
+			assertNull(service.getRating("ann"));
+
+			table.setPlayer(PlayerNumber.PLAYER_FOUR, "dan");
+			table.gameEnded(RoundResultStatus.TEAM_TWO_WINS);
+			service.flush();
+			assertEquals(1, service.getRating("dan").getWins());
+			assertEquals(0, service.getRating("ann").getWins());
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.record;
+
+import org.junit.Test;
+import setback.application.move.MoveReplayer;
+import setback.application.move.MoveReplayerTest;
+import setback.application.server.SetbackTable;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for recording games and packing the records.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameRecordTest {
+
+	private static final long SEED = 4321;
+	private static final int TWO_ROUNDS = GameRecord.SEATS + 2 * GameRecord.ROUND_MOVES;
+
+	@Test
+	public void seededRecordSurvivesPackingTest() throws SetbackException {
+		final GameRecord record = record("packed", SEED, TWO_ROUNDS);
+		final GameRecordCodec codec = new GameRecordCodec();
+		final int length = codec.encode(record);
+		// A byte of flags, the seed, the rounds, the scores, the seats and two rounds of 332 bits
+		assertEquals((8 + 64 + 16 + 32 + 8 + 2 * 332 + 7) / 8, length);
+		assertEquals(record, codec.decode(Arrays.copyOf(codec.getBytes(), length), 0, length));
+	}
+
+	@Test
+	public void recordReplaysToTheSameGameTest() throws SetbackException {
+		final SetbackTable table = new SetbackTable("replayed", SEED);
+		MoveReplayerTest.playMoves(table, TWO_ROUNDS);
+		final GameRecord record = GameRecord.seeded(SEED, table.getMoves().toArray(), TWO_ROUNDS,
+				table.getGame().getTeamOneScore(), table.getGame().getTeamTwoScore());
+		MoveReplayerTest.assertSameState(table.getGame(), record.replay());
+	}
+
+	@Test
+	public void dealtRecordReplaysWithoutTheSeedTest() throws SetbackException {
+		final SetbackTable table = new SetbackTable("dealt", SEED);
+		MoveReplayerTest.playMoves(table, TWO_ROUNDS);
+		final GameRecord seeded = GameRecord.seeded(SEED, table.getMoves().toArray(), TWO_ROUNDS, 0, 0);
+		final GameRecord dealt = seeded.withDeals();
+		assertFalse(dealt.isSeeded());
+		assertEquals(GameRecord.HAND_SIZE, dealt.getHand(1, PlayerNumber.PLAYER_THREE).size());
+
+		final GameRecordCodec codec = new GameRecordCodec();
+		final int length = codec.encode(dealt);
+		final GameRecord decoded = codec.decode(codec.getBytes(), 0, length);
+		assertEquals(dealt, decoded);
+		// The next round is not recorded, so it has no hands to deal
+		final SetbackMultiplayerGame replayed = decoded.replay();
+		assertEquals(table.getGame().getDealer(), replayed.getDealer());
+		assertEquals(table.getGame().getTeamOneScore(), replayed.getTeamOneScore());
+		assertEquals(table.getGame().getTeamTwoScore(), replayed.getTeamTwoScore());
+		assertTrue(replayed.getPlayerHand(PlayerNumber.PLAYER_ONE).getCards().isEmpty());
+	}
+
+	@Test
+	public void checkpointsSurvivePackingAndTextTest() throws SetbackException {
+		final GameRecord plain = record("checkpoints", SEED, TWO_ROUNDS);
+		final GameRecord record = plain.withCheckpoints(1);
+		assertNull(record.getCheckpoint(0));
+		final SetbackMultiplayerGame game = plain.newGame();
+		new MoveReplayer(game).replay(plain.getMoves(), GameRecord.SEATS + GameRecord.ROUND_MOVES);
+		assertEquals(game.getRoundState(), record.getCheckpoint(1));
+		final GameRecordCodec codec = new GameRecordCodec();
+		final int length = codec.encode(record);
+		// The interval, and a checkpoint of the scores and the seed's state for the second round
+		assertEquals((8 + 64 + 16 + 32 + 8 + 8 + 2 * 332 + 32 + 64 + 7) / 8, length);
+		assertEquals(record, codec.decode(Arrays.copyOf(codec.getBytes(), length), 0, length));
+		assertFalse(record.equals(plain));
+		assertEquals(record, GameRecordText.parse(GameRecordText.format(record)));
+
+		final GameRecord dealt = record.withDeals();
+		assertEquals(1, dealt.getCheckpoint(1).getDealState());
+		final int dealtLength = codec.encode(dealt);
+		assertEquals(dealt, codec.decode(codec.getBytes(), 0, dealtLength));
+		assertEquals(dealt, GameRecordText.parse(GameRecordText.format(dealt)));
+	}
+
+	@Test
+	public void textSurvivesParsingTest() throws SetbackException {
+		final GameRecord seeded = record("text", SEED, TWO_ROUNDS);
+		final String text = GameRecordText.format(seeded);
+		assertTrue(text.startsWith("SEED " + SEED + "\nSEATS "));
+		assertTrue(text.contains("\nROUND 2\n"));
+		assertEquals(seeded, GameRecordText.parse(text));
+
+		final GameRecord dealt = seeded.withDeals();
+		assertEquals(dealt, GameRecordText.parse("# From a bug report\n\n" + GameRecordText.format(dealt)));
+	}
+
+	@Test(expected = SetbackException.class)
+	public void partOfARoundCannotBeRecordedTest() throws SetbackException {
+		final SetbackTable table = new SetbackTable("partial", SEED);
+		MoveReplayerTest.playMoves(table, TWO_ROUNDS - 1);
+		GameRecord.seeded(SEED, table.getMoves().toArray(), table.getMoves().size(), 0, 0);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void movesOutOfTurnCannotBeRecordedTest() throws SetbackException {
+		final int[] moves = record("turns", SEED, TWO_ROUNDS).getMoves();
+		// The first two cards of the last trick, played by each other
+		final int swapped = moves[TWO_ROUNDS - 4];
+		moves[TWO_ROUNDS - 4] = moves[TWO_ROUNDS - 3];
+		moves[TWO_ROUNDS - 3] = swapped;
+		GameRecord.seeded(SEED, moves, moves.length, 0, 0);
+	}
+
+	@Test(expected = SetbackException.class)
+	public void truncatedRecordIsRefusedTest() throws SetbackException {
+		final GameRecordCodec codec = new GameRecordCodec();
+		final int length = codec.encode(record("truncated", SEED, TWO_ROUNDS));
+		codec.decode(codec.getBytes(), 0, length - 1);
+	}
+
+	@Test
+	public void recordsStreamInAndOutTest() throws IOException, SetbackException {
+		final GameRecord[] records = new GameRecord[5];
+		for (int index = 0; index < records.length; index++) {
+			records[index] = record("stream" + index, SEED + index, GameRecord.SEATS + index * GameRecord.ROUND_MOVES);
+		}
+		records[2] = records[2].withDeals();
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+			for (GameRecord record : records) {
+				writer.write(record);
+			}
+			assertEquals(records.length, writer.getRecords());
+		}
+		try (GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			for (GameRecord record : records) {
+				assertEquals(record, reader.read());
+			}
+			assertNull(reader.read());
+			assertEquals(records.length, reader.getRecords());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void streamWithoutMagicIsRefusedTest() throws IOException {
+		new GameRecordReader(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}));
+	}
+
+	private static GameRecord record(String id, long seed, int moves) throws SetbackException {
+		final SetbackTable table = new SetbackTable(id, seed);
+		assertEquals(moves, MoveReplayerTest.playMoves(table, moves));
+		return GameRecord.seeded(seed, table.getMoves().toArray(), moves,
+				table.getGame().getTeamOneScore(), table.getGame().getTeamTwoScore());
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.replay;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.move.MoveReplayer;
+import setback.application.move.MoveReplayerTest;
+import setback.application.record.GameRecord;
+import setback.application.record.GameRecordWriter;
+import setback.application.server.SetbackTable;
+import setback.application.socket.MemoryIOPair;
+import setback.common.SetbackException;
+import setback.game.version.SetbackMultiplayerGame;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for replaying archived games.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class GameReplayTest {
+
+	private static final int ROUNDS = 4;
+	private static final int MOVES = GameRecord.SEATS + ROUNDS * GameRecord.ROUND_MOVES;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void seekingAnywhereMatchesPlayingTest() throws SetbackException {
+		final GameRecord record = record(46);
+		final GameRecord[] records = {record, record.withCheckpoints(1), record.withCheckpoints(3),
+				record.withDeals(), record.withCheckpoints(2).withDeals()};
+		final int[] moves = record.getMoves();
+		final int[] targets = {MOVES, 4, 100, 49, 50, MOVES - 1, 140, 94, 95, 96, 5, MOVES};
+		for (GameRecord replayed : records) {
+			final GameReplay replay = new GameReplay(replayed);
+			replay.seek(2);
+			assertEquals(0, replay.getTeamOneScore());
+			for (int target : targets) {
+				final SetbackMultiplayerGame expected = replayed.newGame();
+				new MoveReplayer(expected).replay(moves, target);
+				MoveReplayerTest.assertSameState(expected, replay.seek(target));
+				assertEquals(target, replay.getPosition());
+			}
+		}
+	}
+
+	@Test
+	public void seekingBackOnlyReplaysFromTheCheckpointTest() throws SetbackException {
+		final GameReplay replay = new GameReplay(record(47).withCheckpoints(1));
+		// The last round starts from its checkpoint
+		replay.seek(MOVES);
+		final long played = replay.getMovesReplayed();
+		assertEquals(GameRecord.SEATS + GameRecord.ROUND_MOVES, played);
+		replay.seek(GameRecord.SEATS + 2 * GameRecord.ROUND_MOVES + 10);
+		assertEquals(played + GameRecord.SEATS + 10, replay.getMovesReplayed());
+
+		// Without checkpoints, the rounds passed on the way are remembered
+		final GameReplay lazy = new GameReplay(record(47));
+		lazy.seek(MOVES);
+		lazy.seek(GameRecord.SEATS + 3 * GameRecord.ROUND_MOVES + 1);
+		assertEquals(MOVES + GameRecord.SEATS + 1, lazy.getMovesReplayed());
+		lazy.step();
+		assertEquals(MOVES + GameRecord.SEATS + 2, lazy.getMovesReplayed());
+	}
+
+	@Test(expected = SetbackException.class)
+	public void seekingPastTheEndFailsTest() throws SetbackException {
+		new GameReplay(record(48)).seek(MOVES + 1);
+	}
+
+	@Test
+	public void archivedGamesAreReplayedByPlaceTest() throws IOException, SetbackException {
+		final File file = folder.newFile("games.sbgr");
+		final GameRecord[] records = {record(1), record(2).withCheckpoints(2), record(3)};
+		try (GameRecordWriter writer = new GameRecordWriter(new FileOutputStream(file))) {
+			for (GameRecord record : records) {
+				writer.write(record);
+			}
+		}
+		try (ReplayArchive archive = new ReplayArchive(file)) {
+			assertEquals(records[2], archive.read(2));
+			assertEquals(records[1], archive.open(1).getRecord());
+			assertEquals(records[0], archive.read(0));
+			assertEquals(3, archive.getGamesFound());
+			try {
+				archive.read(3);
+				fail("There are only three games");
+			} catch (SetbackException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void clientsScrubThroughArchivedGamesTest() throws IOException, SetbackException {
+		final File file = folder.newFile("games.sbgr");
+		final GameRecord record = record(4).withCheckpoints(1);
+		try (GameRecordWriter writer = new GameRecordWriter(new FileOutputStream(file))) {
+			writer.write(record);
+		}
+		final SetbackMultiplayerGame end = record.replay();
+		try (ReplayArchive archive = new ReplayArchive(file)) {
+			final SetbackTable table = new SetbackTable("replays", 49);
+			table.setReplayArchive(archive);
+			final MemoryIOPair client = table.connectLocal();
+			final PrintWriter out = new PrintWriter(client.out(), true);
+			final BufferedReader in = new BufferedReader(new InputStreamReader(client.in()));
+			in.readLine();
+
+			out.println("REPLAY 0 " + MOVES);
+			final String[] words = in.readLine().split(" ");
+			assertEquals("REPLAY", words[0]);
+			assertEquals(MOVES, Integer.parseInt(words[1]));
+			assertEquals(MOVES, Integer.parseInt(words[2]));
+			assertEquals(end.getTeamOneScore(), Integer.parseInt(words[3]));
+			assertEquals(end.getTeamTwoScore(), Integer.parseInt(words[4]));
+			assertEquals("PLAY_CARD", words[6]);
+			out.println("REPLAY 0 0");
+			assertEquals("REPLAY 0 " + MOVES + " 0 0", in.readLine());
+			out.println("REPLAY 1 0");
+			assertEquals("games.sbgr has no game 1!", in.readLine());
+			out.println("EXIT");
+		}
+	}
+
+	private static GameRecord record(int seed) throws SetbackException {
+		final SetbackTable table = new SetbackTable("replay" + seed, seed);
+		assertEquals(MOVES, MoveReplayerTest.playMoves(table, MOVES));
+		return GameRecord.seeded(table.getSeed(), table.getMoves().toArray(), MOVES,
+				table.getGame().getTeamOneScore(), table.getGame().getTeamTwoScore());
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.command.BinaryCommandCodec;
+import setback.application.command.Command;
+import setback.application.socket.MemoryIOPair;
+import setback.game.common.Card;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static setback.application.command.BinaryProtocol.*;
+
+/**
+ * Tests for a client that switches to the binary protocol.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class BinaryConnectionTest {
+
+	private SetbackTable table;
+	private InputStream in;
+	private OutputStream out;
+	private BinaryCommandCodec codec;
+
+	@Before
+	public void setup() throws IOException {
+		table = new SetbackTable("binary", 0);
+		final MemoryIOPair client = table.connectLocal();
+		client.setReadTimeout(5000);
+		in = client.in();
+		out = client.out();
+		codec = new BinaryCommandCodec();
+		assertEquals("null", readLine());
+		out.write("BINARY_PROTOCOL\n".getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		assertEquals("BINARY_PROTOCOL", readLine());
+	}
+
+	@Test
+	public void commandsAreAnsweredInFramesTest() throws IOException {
+		assertEquals(REPLY_ACK, send(Command.REQUEST_PLAYER_TWO, 0));
+		assertEquals(REPLY_EXIT, send(Command.EXIT, 0));
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void badCommandsAreAnsweredWithAnErrorTest() throws IOException {
+		assertEquals(REPLY_ERROR, send(Command.PLAY_CARD, Card.DECK_SIZE));
+		// The connection is still in step with the frames
+		assertEquals(REPLY_ACK, send(Command.REQUEST_PLAYER_ONE, 0));
+	}
+
+	@Test
+	public void badFramesCloseTheConnectionTest() throws IOException {
+		assertEquals(REPLY_ACK, send(Command.REQUEST_PLAYER_THREE, 0));
+		// A length longer than any frame, followed by what would be a command
+		out.write(new byte[]{(byte) 0xFF, 0x7F});
+		codec.encodeCommand(Command.EXIT, 0, 0, 0);
+		codec.writeTo(out);
+		out.flush();
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * Sends a command and reads the reply.
+	 * @return The opcode of the reply, whose payload is left in the codec.
+	 */
+	private int send(Command command, int argument) throws IOException {
+		codec.encodeCommand(command, argument, 0, 0);
+		codec.writeTo(out);
+		out.flush();
+		return codec.readFrame(in);
+	}
+
+	/**
+	 * Reads a line of the text protocol, one byte at a time so that
+	 * nothing after it is taken from the stream.
+	 */
+	private String readLine() throws IOException {
+		final StringBuilder line = new StringBuilder();
+		int next;
+		while ((next = in.read()) != '\n') {
+			assertTrue(next >= 0);
+			line.append((char) next);
+		}
+		return line.toString();
+	}
+}
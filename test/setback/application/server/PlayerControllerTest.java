@@ -6,7 +6,11 @@ package setback.application.server;
 
 import org.junit.Before;
 import org.junit.Test;
+import setback.application.command.BinaryCommandCodec;
+import setback.application.command.BinaryCommandReply;
+import setback.application.command.BinaryProtocol;
 import setback.application.command.Command;
+import setback.application.command.CommandFrame;
 import setback.application.command.CommandMessageJson;
 import setback.common.PlayerNumber;
 import setback.game.SetbackGameController;
@@ -16,6 +20,9 @@ import setback.game.common.CardSuit;
 import setback.game.common.CardType;
 import setback.game.version.SetbackMultiplayerGame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -292,6 +299,39 @@ public class PlayerControllerTest {
 		assertTrue(game.getPlayerHand(PlayerNumber.PLAYER_ONE).getCards().contains(new Card(CardType.ACE, CardSuit.CLUBS)));
 	}
 
+	@Test
+	public void binaryPlayCardAcknowledged() throws Exception {
+		beginFirstTrick();
+		final BinaryCommandCodec codec = new BinaryCommandCodec();
+		final Card card = new Card(CardType.ACE, CardSuit.SPADES);
+		controllerOne.processFrame(new CommandFrame().set(Command.PLAY_CARD, card.getOrdinal(), 0, 0),
+				new BinaryCommandReply(codec));
+		assertEquals(BinaryProtocol.REPLY_ACK, readBackReply(codec));
+		assertEquals(Command.PLAY_CARD.getOpcode(), codec.getPayload().get());
+	}
+
+	@Test
+	public void binaryPlayCardOutOfTurn() throws Exception {
+		beginFirstTrick();
+		final BinaryCommandCodec codec = new BinaryCommandCodec();
+		final Card card = new Card(CardType.QUEEN, CardSuit.SPADES);
+		controllerTwo.processFrame(new CommandFrame().set(Command.PLAY_CARD, card.getOrdinal(), 0, 0),
+				new BinaryCommandReply(codec));
+		assertEquals(BinaryProtocol.REPLY_ERROR, readBackReply(codec));
+		assertEquals("It is not your turn! It is PLAYER_ONE's turn!",
+				BinaryCommandCodec.readText(codec.getPayload()));
+	}
+
+	@Test
+	public void playFakeCard() {
+		beginFirstTrick();
+		final String card[] = {"Joker-of-Spades"};
+		final String result = controllerOne.processInput(
+				CommandMessageJson.constructCommandMessage(Command.PLAY_CARD, card));
+		final String expected = "Invalid argument!";
+		assertEquals(expected, result);
+	}
+
 	@Test
 	public void teamOneScore() {
 		initializeFourControllers();
@@ -311,6 +351,18 @@ public class PlayerControllerTest {
 	}
 
 
+	/**
+	 * Helper function that reads the last reply encoded by a codec
+	 * back into the same codec.
+	 * @param codec The codec holding the reply.
+	 * @return The opcode of the reply.
+	 */
+	private int readBackReply(BinaryCommandCodec codec) throws Exception {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		codec.writeTo(out);
+		return codec.readFrame(new ByteArrayInputStream(out.toByteArray()));
+	}
+
 	/**
 	 * Helper function that initializes all four
 	 * PlayerControllers for the four players.
@@ -0,0 +1,128 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.socket.IOPair;
+import setback.application.socket.MemoryIOPair;
+
+import java.io.BufferedReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that a reply and the events before it reach the client in one write.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class ReplyFlushTest {
+
+	private static final String[] SEATS = {
+			"REQUEST_PLAYER_ONE", "REQUEST_PLAYER_TWO", "REQUEST_PLAYER_THREE", "REQUEST_PLAYER_FOUR"};
+
+	private final PrintWriter[] outs = new PrintWriter[SEATS.length];
+	private final BufferedReader[] ins = new BufferedReader[SEATS.length];
+	private final CountingPair[] pairs = new CountingPair[SEATS.length];
+
+	@Before
+	public void setup() throws IOException {
+		final SetbackTable table = new SetbackTable("flush", 0);
+		for (int seat = 0; seat < SEATS.length; seat++) {
+			final MemoryIOPair client = new MemoryIOPair();
+			client.setReadTimeout(5000);
+			pairs[seat] = new CountingPair(client.getPeer());
+			table.connect(pairs[seat]);
+			outs[seat] = new PrintWriter(client.out(), true);
+			ins[seat] = new BufferedReader(new InputStreamReader(client.in()));
+			assertEquals("null", ins[seat].readLine());
+			assertEquals(1, pairs[seat].writes);
+		}
+	}
+
+	@Test
+	public void everyReplyIsOneWriteTest() throws IOException {
+		for (int seat = 0; seat < SEATS.length; seat++) {
+			outs[seat].println(SEATS[seat]);
+			assertTrue(ins[seat].readLine().endsWith("selected"));
+			assertEquals(2, pairs[seat].writes);
+		}
+	}
+
+	@Test
+	public void eventsOfAMoveComeWithItsReplyTest() throws IOException {
+		everyReplyIsOneWriteTest();
+		outs[1].println("PLACE_BET PASS");
+		final String reply = ins[1].readLine();
+		assertEquals("PLAYER_TWO BET PASS PLAYER_TWO BET PASS", reply);
+		assertEquals(3, pairs[1].writes);
+	}
+
+	@Test
+	public void waitingPlayersAreSentTheMoveTest() throws IOException {
+		everyReplyIsOneWriteTest();
+		outs[1].println("PLACE_BET PASS");
+		assertEquals("PLAYER_TWO BET PASS PLAYER_TWO BET PASS", ins[1].readLine());
+		// The others are sent the bet without having to ask for anything
+		for (int seat = 0; seat < SEATS.length; seat++) {
+			if (seat != 1) {
+				assertEquals("PLAYER_TWO BET PASS", read(ins[seat], "PLAYER_TWO BET PASS".length()));
+			}
+		}
+	}
+
+	/**
+	 * Reads a number of characters, since events are not sent as whole lines.
+	 */
+	private static String read(BufferedReader in, int length) throws IOException {
+		final char[] text = new char[length];
+		int read = 0;
+		while (read < length) {
+			final int count = in.read(text, read, length - read);
+			assertTrue(count > 0);
+			read += count;
+		}
+		return new String(text);
+	}
+
+	/**
+	 * The server's end of a connection, counting the writes that
+	 * would each be a system call on a socket.
+	 */
+	private static class CountingPair implements IOPair {
+		private final IOPair pair;
+		private final OutputStream out;
+		volatile int writes;
+
+		CountingPair(IOPair pair) throws IOException {
+			this.pair = pair;
+			out = new FilterOutputStream(pair.out()) {
+				@Override
+				public void write(byte[] buffer, int offset, int length) throws IOException {
+					writes++;
+					this.out.write(buffer, offset, length);
+				}
+			};
+		}
+
+		public OutputStream out() {
+			return out;
+		}
+
+		public InputStream in() throws IOException {
+			return pair.in();
+		}
+
+		public void close() throws IOException {
+			pair.close();
+		}
+	}
+}
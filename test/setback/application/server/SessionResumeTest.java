@@ -0,0 +1,205 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.command.CommandParser;
+import setback.application.socket.MemoryIOPair;
+import setback.application.socket.SocketIOPair;
+import setback.common.PlayerNumber;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for players resuming their seats on a new connection.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class SessionResumeTest {
+
+	private SetbackTable table;
+	private ServerSocket serverSocket;
+
+	@Before
+	public void setup() throws IOException {
+		table = new SetbackTable("resume", 0);
+		serverSocket = new ServerSocket(0);
+		final Thread acceptor = new Thread(() -> {
+			try {
+				while (true) {
+					table.connect(new SocketIOPair(serverSocket.accept()));
+				}
+			} catch (IOException e) {
+				// The test is over
+			}
+		}, "SessionResumeTestAcceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	@After
+	public void cleanUp() throws IOException {
+		serverSocket.close();
+	}
+
+	@Test
+	public void eachSeatHasOneTokenTest() {
+		final long one = table.openSession(PlayerNumber.PLAYER_ONE, null);
+		assertEquals(one, table.openSession(PlayerNumber.PLAYER_ONE, null));
+		assertFalse(one == table.openSession(PlayerNumber.PLAYER_TWO, null));
+		assertEquals(PlayerNumber.PLAYER_ONE, table.resumeSession(one, null));
+		assertNull(table.resumeSession(0, null));
+		assertNull(table.resumeSession(one + 1, null));
+	}
+
+	@Test
+	public void missedEventsAreReplayedTest() throws IOException, InterruptedException {
+		final Client first = new Client();
+		assertTrue(first.send("REQUEST_PLAYER_ONE").endsWith("selected"));
+		final String session = first.send("GET_SESSION");
+		assertTrue(session.startsWith("SESSION "));
+		final String[] parts = session.split(" ");
+		final Client[] others = new Client[3];
+		for (int seat = 0; seat < others.length; seat++) {
+			others[seat] = new Client();
+			others[seat].send("REQUEST_PLAYER_" + (seat == 0 ? "TWO" : seat == 1 ? "THREE" : "FOUR"));
+		}
+		first.drop();
+
+		// Player two bets first while player one is away
+		others[0].send("PLACE_BET PASS");
+		// Four seats and a bet
+		assertEquals(5, table.getMoves().size());
+
+		final Client second = new Client();
+		final String reply = second.send("RESUME " + parts[1] + " " + parts[2]);
+		assertTrue(reply.endsWith("PLAYER_ONE"));
+		assertTrue(reply.contains("PLAYER_TWO BET PASS") || second.await("PLAYER_TWO BET PASS"));
+		final String resumed = second.send("GET_SESSION");
+		assertTrue(resumed.endsWith("SESSION " + parts[1] + " " + table.getEvents().getPublished()));
+	}
+
+	@Test
+	public void gapsTooLargeAreResyncedTest() throws IOException, InterruptedException {
+		final Client first = new Client();
+		first.send("REQUEST_PLAYER_THREE");
+		final String token = first.send("GET_SESSION").split(" ")[1];
+		first.drop();
+		final Client second = new Client();
+		final String reply = second.send("RESUME " + token + " 999999");
+		assertTrue(reply.endsWith("PLAYER_THREE"));
+		assertTrue(reply.contains("RESYNC") || second.await("RESYNC"));
+	}
+
+	@Test
+	public void unknownSessionTest() throws IOException {
+		final Client client = new Client();
+		assertEquals("Unknown session!", client.send("RESUME " + CommandParser.formatToken(1) + " 0"));
+		assertEquals("You do not have a seat!", client.send("GET_SESSION"));
+	}
+
+	@Test
+	public void observersLeaveWithTheirConnectionsTest() throws IOException, InterruptedException {
+		final int before = table.getGame().getObserverCount();
+		for (int client = 0; client < 20; client++) {
+			new Client().drop();
+		}
+		awaitObservers(before);
+
+		final Client first = new Client();
+		first.send("REQUEST_PLAYER_TWO");
+		final String token = first.send("GET_SESSION").split(" ")[1];
+		for (int resume = 0; resume < 5; resume++) {
+			// Each connection takes the seat from the one before it
+			assertTrue(new Client().send("RESUME " + token + " 0").endsWith("PLAYER_TWO"));
+		}
+		awaitObservers(before + 1);
+	}
+
+	@Test
+	public void clientsSeatedBeforeTheyStartSeeTheRoundBeginTest() throws IOException {
+		final SetbackTable seated = new SetbackTable("seated", 0);
+		final SetbackServerThread[] threads = new SetbackServerThread[PlayerNumber.values().length];
+		final BufferedReader[] ins = new BufferedReader[threads.length];
+		final PrintWriter[] outs = new PrintWriter[threads.length];
+		for (PlayerNumber seat : PlayerNumber.values()) {
+			final MemoryIOPair client = new MemoryIOPair();
+			client.setReadTimeout(5000);
+			threads[seat.ordinal()] = new SetbackServerThread(client.getPeer(), seated.getGame());
+			threads[seat.ordinal()].setTable(seated);
+			assertTrue(threads[seat.ordinal()].seat(seat));
+			ins[seat.ordinal()] = new BufferedReader(new InputStreamReader(client.in()));
+			outs[seat.ordinal()] = new PrintWriter(client.out(), true);
+		}
+		// The last seat began the round before any of the threads were running
+		for (int seat = 0; seat < threads.length; seat++) {
+			threads[seat].start();
+			assertTrue(ins[seat].readLine().endsWith("selected"));
+			outs[seat].println("GET_CURRENT_PLAYER");
+			assertTrue(ins[seat].readLine().startsWith("PLAYER_"));
+			outs[seat].println("EXIT");
+		}
+	}
+
+	/**
+	 * Waits for the connections that have closed to leave the game.
+	 */
+	private void awaitObservers(int expected) throws InterruptedException {
+		for (int attempt = 0; attempt < 250 && table.getGame().getObserverCount() != expected; attempt++) {
+			Thread.sleep(20);
+		}
+		assertEquals(expected, table.getGame().getObserverCount());
+	}
+
+	/**
+	 * A client that talks to the table in the text protocol.
+	 */
+	private class Client {
+		private final Socket socket;
+		private final PrintWriter out;
+		private final BufferedReader in;
+
+		Client() throws IOException {
+			socket = new Socket("127.0.0.1", serverSocket.getLocalPort());
+			socket.setSoTimeout(10000);
+			out = new PrintWriter(socket.getOutputStream(), true);
+			in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+			// The server greets every client with an empty reply
+			assertEquals("null", in.readLine());
+		}
+
+		String send(String line) throws IOException {
+			out.println(line);
+			return in.readLine();
+		}
+
+		/**
+		 * Asks for the session until the given text has been sent,
+		 * since events are written to the client on another thread.
+		 */
+		boolean await(String text) throws IOException, InterruptedException {
+			for (int attempt = 0; attempt < 50; attempt++) {
+				if (send("GET_SESSION").contains(text)) {
+					return true;
+				}
+				Thread.sleep(20);
+			}
+			return false;
+		}
+
+		void drop() throws IOException {
+			socket.close();
+		}
+	}
+}
@@ -29,22 +29,23 @@ public class SetbackServerTest {
 	@Test
 	public void createRetailGameNullDebugTest() {
 		final String debug = null;
-		final SetbackGameController game = SetbackServer.makeGame(debug);
+		final SetbackGameController game = SetbackServer.makeTable(debug).getGame();
 		assertEquals(DeltaSetbackGameImpl.class, game.getClass());
 	}
 	
 	@Test
 	public void createRetailGameFalseDebugTest() {
 		final String debug = "false";
-		final SetbackGameController game = SetbackServer.makeGame(debug);
+		final SetbackGameController game = SetbackServer.makeTable(debug).getGame();
 		assertEquals(DeltaSetbackGameImpl.class, game.getClass());
 	}
 	
 	@Test
 	public void createDebugGameTest() {
 		final String debug = "true";
-		final SetbackGameController game = SetbackServer.makeGame(debug);
-		assertEquals(DeltaSetbackGameImpl.class, game.getClass());
+		final SetbackTable table = SetbackServer.makeTable(debug);
+		assertEquals(DeltaSetbackGameImpl.class, table.getGame().getClass());
+		assertEquals(0, table.getSeed());
 	}
 	
 	@Test
@@ -0,0 +1,220 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.journal.GameJournal;
+import setback.application.journal.TableJournal;
+import setback.application.move.MoveReplayer;
+import setback.application.move.MoveReplayerTest;
+import setback.application.timer.HashedWheelTimer;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for rebuilding tables from the journal after a crash.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableRecoveryTest {
+
+	/**
+	 * Four seats, four bets, trump, four discards and 36 cards.
+	 */
+	private static final int FIRST_ROUND = 4 + 4 + 1 + 4 + 36;
+	private static final int ROUND = FIRST_ROUND - 4;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void onlyTheCurrentRoundIsReplayedTest() throws IOException, SetbackException {
+		final File directory = folder.newFolder("journal");
+		final SetbackTable original = journaledTable(directory, "later", 99, FIRST_ROUND + 2 * ROUND + 20);
+
+		final TableRecovery recovery = TableRecovery.recover(directory);
+		assertTrue(recovery.getFailed().isEmpty());
+		assertEquals(1, recovery.getTables().size());
+		final SetbackTable recovered = recovery.getTables().get(0);
+		assertEquals("later", recovered.getId());
+		assertEquals(99, recovered.getSeed());
+		MoveReplayerTest.assertSameState(original.getGame(), recovered.getGame());
+		assertTrue(Arrays.equals(original.getMoves().toArray(), recovered.getMoves().toArray()));
+		assertEquals(4 + 20, recovery.getReplayed());
+	}
+
+	@Test
+	public void recoveredTablePlaysOnLikeTheOriginalTest() throws IOException, SetbackException {
+		final File directory = folder.newFolder("journal");
+		journaledTable(directory, "on", 5, FIRST_ROUND + 10);
+		final SetbackTable recovered = TableRecovery.recover(directory).getTables().get(0);
+
+		// The same moves, played on without a crash
+		final int total = FIRST_ROUND + 2 * ROUND;
+		final SetbackTable uninterrupted = new SetbackTable("on", 5);
+		assertEquals(total, MoveReplayerTest.playMoves(uninterrupted, total));
+
+		// The next round is dealt from where the dealer was
+		final MoveReplayer replayer = new MoveReplayer(recovered.getGame());
+		replayer.takeSeats(recovered);
+		for (int index = FIRST_ROUND + 10; index < total; index++) {
+			replayer.replay(uninterrupted.getMoves().get(index));
+		}
+		MoveReplayerTest.assertSameState(uninterrupted.getGame(), recovered.getGame());
+		assertTrue(Arrays.equals(uninterrupted.getMoves().toArray(), recovered.getMoves().toArray()));
+	}
+
+	@Test
+	public void recoveredClockPlaysOnFromTheSnapshotTest() throws Exception {
+		final File directory = folder.newFolder("journal");
+		// Nothing has been done in the second round, so only the snapshot says who bets
+		final SetbackTable original = journaledTable(directory, "clock", 8, FIRST_ROUND);
+		final SetbackTable recovered = TableRecovery.recover(directory).getTables().get(0);
+		assertEquals(FIRST_ROUND, recovered.getMoves().size());
+		assertEquals(original.getTurnClock().getTurn(), recovered.getTurnClock().getTurn());
+
+		final HashedWheelTimer timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 64);
+		final TurnClock clock = recovered.getTurnClock();
+		try {
+			clock.start(timer, 10);
+			final long deadline = System.currentTimeMillis() + 10000;
+			while (clock.getAutoMoves() < 10 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+		} finally {
+			clock.stop();
+			timer.stop();
+		}
+		assertTrue(clock.getAutoMoves() >= 10);
+		synchronized (recovered.getGame()) {
+			assertEquals(FIRST_ROUND + clock.getAutoMoves(), recovered.getMoves().size());
+		}
+	}
+
+	@Test
+	public void tableWithoutASnapshotIsReplayedTest() throws IOException, SetbackException {
+		final File directory = folder.newFolder("journal");
+		final GameJournal journal = new GameJournal(directory, 4096, 1);
+		final TableJournal tableJournal = journal.open("seated", 3);
+		final SetbackTable original = new SetbackTable("seated", 3);
+		MoveReplayerTest.playMoves(original, 4);
+		for (int move : original.getMoves().toArray()) {
+			tableJournal.moveMade(move);
+		}
+		journal.close();
+
+		final TableRecovery recovery = TableRecovery.recover(directory);
+		assertEquals(4, recovery.getTables().get(0).getMoves().size());
+		assertEquals(4, recovery.getReplayed());
+	}
+
+	@Test
+	public void recoveredSeatsKeepTheirTokensTest() throws IOException {
+		final File directory = folder.newFolder("journal");
+		final GameJournal journal = new GameJournal(directory, 4096, 1);
+		final SetbackTable original = new SetbackTable("tokens", 8);
+		original.setJournal(journal.open("tokens", 8));
+		MoveReplayerTest.playMoves(original, 4);
+		final long token = original.openSession(PlayerNumber.PLAYER_TWO, null);
+		journal.close();
+
+		final SetbackTable recovered = TableRecovery.recover(directory).getTables().get(0);
+		assertEquals(token, recovered.getSessionTokens()[PlayerNumber.PLAYER_TWO.ordinal()]);
+		// Only the player with the token can take the seat back
+		assertFalse(recovered.claimVacantSeat(PlayerNumber.PLAYER_TWO));
+		assertTrue(recovered.claimVacantSeat(PlayerNumber.PLAYER_ONE));
+		assertEquals(PlayerNumber.PLAYER_TWO, recovered.resumeSession(token, null));
+	}
+
+	@Test
+	public void closedTablesAreNotRebuiltTest() throws IOException {
+		final File directory = folder.newFolder("journal");
+		final GameJournal journal = new GameJournal(directory, 1024, 1);
+		final SetbackTable asleep = new SetbackTable("asleep", 7);
+		asleep.setJournal(journal.open("asleep", 7));
+		assertEquals(FIRST_ROUND + ROUND, MoveReplayerTest.playMoves(asleep, FIRST_ROUND + ROUND));
+		asleep.closeJournal();
+		final SetbackTable playing = new SetbackTable("playing", 8);
+		playing.setJournal(journal.open("playing", 8));
+		MoveReplayerTest.playMoves(playing, 10);
+		journal.close();
+
+		final TableRecovery recovery = TableRecovery.recover(directory);
+		assertTrue(recovery.getFailed().isEmpty());
+		assertEquals(1, recovery.getTables().size());
+		assertEquals("playing", recovery.getTables().get(0).getId());
+		// The first segment only held the table that was put to sleep
+		assertFalse(new File(directory, String.format("%016x", 0) + ".journal").exists());
+		assertEquals(10, TableRecovery.recover(directory).getTables().get(0).getMoves().size());
+	}
+
+	@Test
+	public void tableJournaledAgainIsRebuiltTest() throws IOException {
+		final File directory = folder.newFolder("journal");
+		final GameJournal journal = new GameJournal(directory, 4096, 1);
+		final SetbackTable original = new SetbackTable("woken", 9);
+		assertEquals(8, MoveReplayerTest.playMoves(original, 8));
+		final int[] moves = original.getMoves().toArray();
+		final TableJournal first = journal.open("woken", 9);
+		for (int index = 0; index < 6; index++) {
+			first.moveMade(moves[index]);
+		}
+		first.tableClosed();
+		// Woken, and journaled again from its first move
+		final TableJournal again = journal.open("woken", 9);
+		for (int move : moves) {
+			again.moveMade(move);
+		}
+		journal.close();
+
+		final TableRecovery recovery = TableRecovery.recover(directory);
+		assertEquals(1, recovery.getTables().size());
+		assertTrue(Arrays.equals(original.getMoves().toArray(),
+				recovery.getTables().get(0).getMoves().toArray()));
+		assertEquals(0, recovery.getRemoved());
+	}
+
+	@Test
+	public void tableWithMissingMovesFailsTest() throws IOException {
+		final File directory = folder.newFolder("journal");
+		final GameJournal journal = new GameJournal(directory, 4096, 1);
+		final SetbackTable original = new SetbackTable("gap", 3);
+		MoveReplayerTest.playMoves(original, 6);
+		// Journaled from the third move on, as if the first two were lost
+		final TableJournal tableJournal = journal.open("gap", 3, 2);
+		for (int move : original.getMoves().copy(2, 6)) {
+			tableJournal.moveMade(move);
+		}
+		journal.close();
+
+		final TableRecovery recovery = TableRecovery.recover(directory);
+		assertTrue(recovery.getTables().isEmpty());
+		assertEquals("gap", recovery.getFailed().get(0));
+	}
+
+	@Test
+	public void missingJournalRecoversNothingTest() throws IOException {
+		assertTrue(TableRecovery.recover(new File(folder.getRoot(), "none")).getTables().isEmpty());
+	}
+
+	private static SetbackTable journaledTable(File directory, String id, long seed, int moves)
+			throws IOException {
+		final GameJournal journal = new GameJournal(directory, 4096, 1);
+		final SetbackTable table = new SetbackTable(id, seed);
+		table.setJournal(journal.open(id, seed));
+		assertEquals(moves, MoveReplayerTest.playMoves(table, moves));
+		journal.close();
+		return table;
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
+import setback.application.command.TextCommandReply;
+import setback.common.PlayerNumber;
+import setback.common.SetbackException;
+import setback.game.common.Bet;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for putting quiet tables to sleep on disk and waking them.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TableRegistryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TableRegistry registry;
+	private TableStore store;
+
+	@Before
+	public void setup() throws IOException {
+		registry = new TableRegistry();
+		store = new TableStore(folder.newFolder("tables"));
+	}
+
+	@Test
+	public void quietTablesSleepAndWakeTest() throws SetbackException {
+		registry.startHibernating(store, TableRegistry.DEFAULT_MAX_RESIDENT, 0, null);
+		final SetbackTable table = registry.getOrCreate("quiet table");
+		seatAndPass(table);
+		final long token = table.openSession(PlayerNumber.PLAYER_ONE, null);
+		final long published = table.getEvents().getPublished();
+
+		assertEquals(1, registry.hibernateIdle());
+		assertNull(registry.get("quiet table"));
+		assertTrue(store.contains("quiet table"));
+
+		final SetbackTable woken = registry.getOrCreate("quiet table");
+		assertFalse(woken == table);
+		assertEquals(1, registry.getWoken());
+		assertFalse(store.contains("quiet table"));
+		assertEquals(table.getSeed(), woken.getSeed());
+		assertEquals(table.getMoves().size(), woken.getMoves().size());
+		assertEquals(published, woken.getEvents().getPublished());
+		for (PlayerNumber player : PlayerNumber.values()) {
+			assertEquals(table.getGame().getPlayerHand(player).getCards(),
+					woken.getGame().getPlayerHand(player).getCards());
+		}
+		// The players come back with the sessions they had
+		assertEquals(PlayerNumber.PLAYER_ONE, woken.resumeSession(token, null));
+		assertFalse(woken.claimVacantSeat(PlayerNumber.PLAYER_ONE));
+		assertTrue(woken.claimVacantSeat(PlayerNumber.PLAYER_TWO));
+	}
+
+	@Test
+	public void busyTablesStayTest() throws SetbackException {
+		registry.startHibernating(store, TableRegistry.DEFAULT_MAX_RESIDENT, 60000, null);
+		registry.getOrCreate("busy table");
+		assertEquals(0, registry.hibernateIdle());
+		assertNotNull(registry.get("busy table"));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void leastRecentlyUsedTablesSleepFirstTest() throws SetbackException {
+		registry.startHibernating(store, 2, 60000, null);
+		registry.getOrCreate("one");
+		registry.getOrCreate("two");
+		registry.get("one");
+		registry.getOrCreate("three");
+		assertEquals(2, registry.size());
+		assertNotNull(registry.get("one"));
+		assertNull(registry.get("two"));
+		assertTrue(store.contains("two"));
+		assertEquals(1, registry.getHibernated());
+	}
+
+	@Test
+	public void nothingSleepsUntilStartedTest() throws SetbackException {
+		registry.getOrCreate("table");
+		assertEquals(0, registry.hibernateIdle());
+		assertNull(registry.wake("table"));
+	}
+
+	/**
+	 * Helper function that fills the table, and has the first bettor pass.
+	 */
+	private static void seatAndPass(SetbackTable table) {
+		final TextCommandReply reply = new TextCommandReply();
+		final CommandFrame frame = new CommandFrame();
+		final PlayerController[] controllers = new PlayerController[PlayerNumber.values().length];
+		for (PlayerNumber player : PlayerNumber.values()) {
+			controllers[player.ordinal()] = new PlayerController(table.getGame());
+			controllers[player.ordinal()].setMoveListener(table);
+			controllers[player.ordinal()].processFrame(frame.set(
+					Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + player.ordinal()], 0, 0, 0), reply);
+		}
+		final PlayerNumber bettor = PlayerNumber.values()[(table.getGame().getDealer().ordinal() + 1) % 4];
+		controllers[bettor.ordinal()].processFrame(frame.set(Command.PLACE_BET, Bet.PASS.ordinal(), 0, 0), reply);
+		assertEquals(5, table.getMoves().size());
+	}
+}
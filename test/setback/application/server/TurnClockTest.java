@@ -0,0 +1,199 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import setback.application.command.Command;
+import setback.application.command.CommandFrame;
+import setback.application.command.TextCommandReply;
+import setback.application.event.GameEventType;
+import setback.application.move.MoveReplayerTest;
+import setback.application.timer.HashedWheelTimer;
+import setback.common.PlayerNumber;
+import setback.game.common.Bet;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the server side move clock.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class TurnClockTest {
+
+	private HashedWheelTimer timer;
+	private SetbackTable table;
+	private PlayerController[] players;
+
+	@Before
+	public void setup() {
+		timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 64);
+		table = new SetbackTable("clock", 42);
+		players = seat(table);
+	}
+
+	/**
+	 * Helper function that seats a player in every seat of a table.
+	 * @param table The table to sit at.
+	 * @return The players, by seat.
+	 */
+	private static PlayerController[] seat(SetbackTable table) {
+		final PlayerController[] players = new PlayerController[PlayerNumber.values().length];
+		final CommandFrame frame = new CommandFrame();
+		final TextCommandReply reply = new TextCommandReply();
+		for (int seat = 0; seat < players.length; seat++) {
+			players[seat] = new PlayerController(table.getGame());
+			players[seat].setMoveListener(table);
+			frame.set(Command.values()[Command.REQUEST_PLAYER_ONE.ordinal() + seat], 0, 0, 0);
+			players[seat].processFrame(frame, reply);
+		}
+		return players;
+	}
+
+	@After
+	public void teardown() {
+		timer.stop();
+	}
+
+	@Test
+	public void idleTableIsPlayedByTheClock() throws Exception {
+		final AtomicInteger rounds = new AtomicInteger();
+		table.getGame().addObserver(event -> {
+			if (event.getType() == GameEventType.ROUND_ENDED) {
+				rounds.incrementAndGet();
+			}
+		});
+		final TurnClock clock = table.getTurnClock();
+		clock.start(timer, 10);
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (clock.getAutoMoves() < 50 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		clock.stop();
+		// A round is four bets, trump, four discards and thirty six cards
+		assertTrue(clock.getAutoMoves() >= 50);
+		assertTrue(rounds.get() >= 1);
+		synchronized (table.getGame()) {
+			assertEquals(4 + clock.getAutoMoves(), table.getMoves().size());
+		}
+	}
+
+	@Test
+	public void clockFollowsThePlayerWhoseTurnItIs() {
+		final TurnClock clock = table.getTurnClock();
+		clock.start(timer, 60000);
+		final PlayerNumber bettor = clock.getTurn();
+		assertNotNull(bettor);
+		assertEquals(1, timer.getWaitingCount());
+
+		final CommandFrame frame = new CommandFrame();
+		final TextCommandReply reply = new TextCommandReply();
+		frame.set(Command.PLACE_BET, Bet.PASS.ordinal(), 0, 0);
+		synchronized (table.getGame()) {
+			players[bettor.ordinal()].processFrame(frame, reply);
+		}
+		assertEquals(bettor + " BET PASS", reply.getText());
+		assertEquals(PlayerNumber.values()[(bettor.ordinal() + 1) % 4], clock.getTurn());
+		// The old deadline was replaced, not added to
+		assertEquals(1, timer.getWaitingCount());
+		assertEquals(0, clock.getAutoMoves());
+	}
+
+	@Test
+	public void stoppedClockMakesNoMoves() throws InterruptedException {
+		final TurnClock clock = table.getTurnClock();
+		clock.start(timer, 10);
+		clock.stop();
+		assertEquals(0, timer.getWaitingCount());
+		Thread.sleep(100);
+		assertEquals(0, clock.getAutoMoves());
+		assertEquals(4, table.getMoves().size());
+	}
+
+	@Test
+	public void stuckTableDoesNotHoldUpTheTimer() throws Exception {
+		final SetbackTable stuck = new SetbackTable("stuck", 7);
+		seat(stuck);
+		stuck.getTurnClock().start(timer, 10);
+		assertNotNull(stuck.getTurnClock().getTurn());
+		final CountDownLatch locked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Thread holder = new Thread(() -> {
+			// The stuck table's next deadline cannot take the lock
+			synchronized (stuck.getGame()) {
+				locked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		holder.start();
+		try {
+			assertTrue(locked.await(5, TimeUnit.SECONDS));
+			Thread.sleep(50);
+			final TurnClock clock = table.getTurnClock();
+			clock.start(timer, 10);
+			final long deadline = System.currentTimeMillis() + 5000;
+			while (clock.getAutoMoves() < 5 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			clock.stop();
+			assertTrue(clock.getAutoMoves() >= 5);
+		} finally {
+			release.countDown();
+			holder.join();
+			stuck.getTurnClock().stop();
+		}
+	}
+
+	@Test
+	public void busyMoverIsHandedTheDeadlineAgain() throws Exception {
+		final AtomicInteger refused = new AtomicInteger();
+		final Executor busy = command -> {
+			// Too busy for the first few deadlines
+			if (refused.incrementAndGet() <= 3) {
+				throw new RejectedExecutionException();
+			}
+			new Thread(command).start();
+		};
+		final TurnClock clock = table.getTurnClock();
+		clock.start(timer, 10, busy);
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (clock.getAutoMoves() < 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		clock.stop();
+		assertTrue(refused.get() > 3);
+		assertTrue(clock.getAutoMoves() >= 1);
+	}
+
+	@Test
+	public void refusedMovesAreCountedAndTriedAgain() throws Exception {
+		final SetbackTable playing = new SetbackTable("playing", 42);
+		// Seats, bets, trump and discards
+		assertEquals(13, MoveReplayerTest.playMoves(playing, 13));
+		final TurnClock clock = playing.getTurnClock();
+		// The clock thinks the round is still being bet on, but the game does not
+		clock.resync();
+		clock.start(timer, 10);
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (clock.getFailedAutoMoves() < 3 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		clock.stop();
+		assertTrue(clock.getFailedAutoMoves() >= 3);
+		assertEquals(0, clock.getAutoMoves());
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.socket;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.SocketTimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the in-memory connection.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class MemoryIOPairTest {
+
+	@Test
+	public void linesGoBothWaysTest() throws IOException {
+		final MemoryIOPair client = new MemoryIOPair();
+		final MemoryIOPair server = client.getPeer();
+		assertSame(client, server.getPeer());
+		new PrintWriter(client.out(), true).println("SHOW_HAND");
+		assertEquals("SHOW_HAND", new BufferedReader(new InputStreamReader(server.in())).readLine());
+		new PrintWriter(server.out(), true).println("PLAYER_ONE HAND:");
+		assertEquals("PLAYER_ONE HAND:", new BufferedReader(new InputStreamReader(client.in())).readLine());
+	}
+
+	@Test
+	public void closingEndsThePeersStreamTest() throws IOException {
+		final MemoryIOPair client = new MemoryIOPair();
+		final InputStream in = client.getPeer().in();
+		client.out().write(7);
+		client.close();
+		assertEquals(7, in.read());
+		assertEquals(-1, in.read());
+	}
+
+	@Test(expected = IOException.class)
+	public void peerCannotWriteAfterCloseTest() throws IOException {
+		final MemoryIOPair client = new MemoryIOPair();
+		client.close();
+		client.getPeer().out().write(7);
+	}
+
+	@Test(expected = SocketTimeoutException.class)
+	public void readTimesOutTest() throws IOException {
+		final MemoryIOPair client = new MemoryIOPair();
+		client.setReadTimeout(20);
+		client.in().read();
+	}
+
+	@Test
+	public void writerWaitsForTheReaderTest() throws Exception {
+		final MemoryIOPair client = new MemoryIOPair(16);
+		final byte[] sent = new byte[1000];
+		for (int i = 0; i < sent.length; i++) {
+			sent[i] = (byte) i;
+		}
+		final Thread writer = new Thread(() -> {
+			try {
+				final OutputStream out = client.out();
+				out.write(sent, 0, 500);
+				out.write(sent, 500, 500);
+				client.close();
+			} catch (IOException e) {
+				// The reader will come up short
+			}
+		});
+		writer.start();
+		final InputStream in = client.getPeer().in();
+		final byte[] received = new byte[sent.length];
+		int total = 0;
+		int count;
+		while ((count = in.read(received, total, Math.min(7, received.length - total))) > 0) {
+			total += count;
+		}
+		writer.join();
+		assertEquals(sent.length, total);
+		assertArrayEquals(sent, received);
+	}
+}
@@ -0,0 +1,112 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.application.timer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the hashed wheel timer.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class HashedWheelTimerTest {
+
+	private HashedWheelTimer timer;
+
+	@Before
+	public void setup() {
+		timer = new HashedWheelTimer(5, TimeUnit.MILLISECONDS, 8);
+	}
+
+	@After
+	public void teardown() {
+		timer.stop();
+	}
+
+	@Test
+	public void taskRunsAfterItsDelay() throws InterruptedException {
+		final CountDownLatch ran = new CountDownLatch(1);
+		final long start = System.nanoTime();
+		final Timeout timeout = timer.newTimeout(ran::countDown, 30, TimeUnit.MILLISECONDS);
+		assertTrue(ran.await(5, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+		assertTrue(timeout.isExpired());
+		// The task counts as waiting until it has finished
+		final long deadline = System.currentTimeMillis() + 5000;
+		while (timer.getWaitingCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(0, timer.getWaitingCount());
+	}
+
+	@Test
+	public void delayLongerThanTheWheelWaitsForMoreTurns() throws InterruptedException {
+		// Eight buckets of five milliseconds go around in forty
+		final CountDownLatch ran = new CountDownLatch(1);
+		final long start = System.nanoTime();
+		timer.newTimeout(ran::countDown, 100, TimeUnit.MILLISECONDS);
+		assertTrue(ran.await(5, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	@Test
+	public void cancelledTaskNeverRuns() throws InterruptedException {
+		final AtomicInteger runs = new AtomicInteger();
+		final Timeout timeout = timer.newTimeout(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+		assertTrue(timeout.cancel());
+		assertFalse(timeout.cancel());
+		assertTrue(timeout.isCancelled());
+		assertEquals(0, timer.getWaitingCount());
+		Thread.sleep(100);
+		assertEquals(0, runs.get());
+	}
+
+	@Test
+	public void manyTimeoutsAllRunOrAreCancelled() throws InterruptedException {
+		final int count = 20000;
+		final AtomicInteger runs = new AtomicInteger();
+		final Timeout[] timeouts = new Timeout[count];
+		for (int index = 0; index < count; index++) {
+			timeouts[index] = timer.newTimeout(runs::incrementAndGet, 20 + index % 90, TimeUnit.MILLISECONDS);
+		}
+		int cancelled = 0;
+		for (int index = 1; index < count; index += 2) {
+			if (timeouts[index].cancel()) {
+				cancelled++;
+			}
+		}
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (timer.getWaitingCount() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, timer.getWaitingCount());
+		assertEquals(count - cancelled, runs.get());
+		assertTrue(cancelled > 0);
+	}
+
+	@Test
+	public void brokenTaskDoesNotStopTheWheel() throws InterruptedException {
+		final CountDownLatch ran = new CountDownLatch(1);
+		timer.newTimeout(() -> {
+			throw new IllegalStateException("Broken on purpose");
+		}, 5, TimeUnit.MILLISECONDS);
+		timer.newTimeout(ran::countDown, 20, TimeUnit.MILLISECONDS);
+		assertTrue(ran.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void stoppedTimerTakesNoTimeouts() {
+		timer.stop();
+		timer.newTimeout(() -> { }, 5, TimeUnit.MILLISECONDS);
+	}
+}
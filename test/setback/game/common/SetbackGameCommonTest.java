@@ -397,6 +397,24 @@ public class SetbackGameCommonTest {
 		assertEquals(equalityString, hand.toString());
 	}
 	
+	@Test
+	public void handTextChangesWithTheHandTest() {
+		Hand hand = new Hand(PlayerNumber.PLAYER_TWO);
+		List<Card> cardList = new ArrayList<Card>();
+		cardList.add(aceOfClubs);
+		cardList.add(twoOfHearts);
+		hand.setCards(cardList);
+		
+		String before = hand.toString();
+		assertSame(before, hand.toString());
+		int version = hand.getVersion();
+		
+		assertTrue(hand.removeCard(aceOfClubs));
+		assertFalse(hand.removeCard(aceOfClubs));
+		assertFalse(version == hand.getVersion());
+		assertEquals("PLAYER_TWO'S HAND:\nTwo-of-Hearts\n", hand.toString());
+	}
+	
 	@Test
 	public void handSortingTest() {
 		Hand hand = new Hand(PlayerNumber.PLAYER_ONE);
@@ -0,0 +1,42 @@
+/**
+ * This file was developed for fun by Michael Burns for a private
+ * implementation of the card game Setback, also known as Pitch.
+ */
+package setback.game.version.delta;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the Random whose state can be restored.
+ * @author Michael Burns
+ * @version Oct 19, 2026
+ */
+public class RestorableRandomTest {
+
+	@Test
+	public void matchesJavaUtilRandomTest() {
+		final Random expected = new Random(42);
+		final RestorableRandom actual = new RestorableRandom(42);
+		for (int index = 0; index < 1000; index++) {
+			assertEquals(expected.nextInt(51 - index % 48), actual.nextInt(51 - index % 48));
+		}
+		assertEquals(expected.nextLong(), actual.nextLong());
+	}
+
+	@Test
+	public void restoredStateRepeatsTheSequenceTest() {
+		final RestorableRandom random = new RestorableRandom(7);
+		random.nextInt(10);
+		final long state = random.getState();
+		final int first = random.nextInt(1000);
+		final int second = random.nextInt(1000);
+		random.nextInt(1000);
+		random.setState(state);
+		assertEquals(first, random.nextInt(1000));
+		assertEquals(second, random.nextInt(1000));
+	}
+}